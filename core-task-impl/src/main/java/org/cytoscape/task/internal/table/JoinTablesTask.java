@@ -37,7 +37,6 @@ import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.model.CyNode;
-import org.cytoscape.model.CyRow;
 import org.cytoscape.model.CyTable;
 import org.cytoscape.model.subnetwork.CyRootNetwork;
 import org.cytoscape.model.subnetwork.CyRootNetworkManager;
@@ -312,32 +311,17 @@ public class JoinTablesTask extends AbstractTask {
 	private void copyRows(CyTable sourceTable, CyTable targetTable) {
 		CyColumn targetKeyColumn = getJoinTargetColumn(targetTable);
 
-		for (CyRow targetRow : targetTable.getAllRows()) {
-			Object key = targetRow.get(targetKeyColumn.getName(), targetKeyColumn.getType());
+		TableJoin join = new TableJoin(sourceTable, sourceTable.getPrimaryKey());
+		join.join(targetTable, targetKeyColumn, key -> key);
 
-			if (!sourceTable.rowExists(key))
-				continue;
-
-			CyRow sourceRow = sourceTable.getRow(key);
-
-			if (sourceRow == null)
+		for (CyColumn col : sourceTable.getColumns()) {
+			if (col == sourceTable.getPrimaryKey())
 				continue;
 
-			for (CyColumn col : sourceTable.getColumns()) {
-				if (col == sourceTable.getPrimaryKey())
-					continue;
-
-				if (!source2targetColumnMap.containsKey(col.getName()))
-					continue;  // skip this column
-
-				String targetColName = source2targetColumnMap.get(col.getName());
-
-				if (col.getType() == List.class)
-					targetRow.set(targetColName, sourceRow.getList(col.getName(), col.getListElementType()));
-				else
-					targetRow.set(targetColName, sourceRow.get(col.getName(), col.getType()));
+			if (!source2targetColumnMap.containsKey(col.getName()))
+				continue;  // skip this column
 
-			}
+			join.copyColumn(col, source2targetColumnMap.get(col.getName()));
 		}
 
 	}
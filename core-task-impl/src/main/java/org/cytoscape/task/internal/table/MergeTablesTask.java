@@ -21,7 +21,6 @@ import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.model.CyNode;
-import org.cytoscape.model.CyRow;
 import org.cytoscape.model.CyTable;
 import org.cytoscape.model.CyTableManager;
 import org.cytoscape.model.subnetwork.CyRootNetwork;
@@ -584,53 +583,31 @@ public class MergeTablesTask extends AbstractTask implements TunableValidator, O
 	}
 
 	private void copyRows(CyTable inputTable, List<CyColumn> sourceColumns, CyTable targetTable) {
-		CyRow sourceRow = null;
-		CyColumn targetKeyColumn = getJoinTargetColumn(targetTable);
-
-		for (CyRow targetRow : targetTable.getAllRows()) {
-			Object key = targetRow.get(targetKeyColumn.getName(), targetKeyColumn.getType());
-			
-			if (key == null)
-				continue;
+		final CyColumn targetKeyColumn = getJoinTargetColumn(targetTable);
+		final Class<?> keyType = getMergeKeyColumn().getType();
+		
+		final TableJoin join = new TableJoin(inputTable, getMergeKeyColumn());
+		join.join(targetTable, targetKeyColumn, key -> {
+			if (key.getClass() == keyType)
+				return key;
 			
-			if (key.getClass() != getMergeKeyColumn().getType() ) {
-				try {
-					key = DataUtils.convertString(key.toString(), getMergeKeyColumn().getType());
-				}
-				catch (Exception e) {
-					continue;
-				}
-			}
-
-			if (isMergeColumnKeyColumn()) {
-				if (!inputTable.rowExists(key))
-					continue;
-
-				sourceRow = inputTable.getRow(key);
-			} else {
-				if (inputTable.getMatchingRows(getMergeKeyColumn().getName(), key).isEmpty())
-					continue;
-
-				sourceRow = inputTable.getMatchingRows(getMergeKeyColumn().getName(), key).iterator().next();
+			try {
+				return DataUtils.convertString(key.toString(), keyType);
+			} catch (Exception e) {
+				return null;
 			}
+		});
 
-			if (sourceRow == null)
+		for (CyColumn col : sourceColumns) {
+			if (col == getMergeKeyColumn())
 				continue;
 
-			for (CyColumn col : sourceColumns) {
-				if (col == getMergeKeyColumn())
-					continue;
+			String targetColName = source2targetColumnMap.get(col.getName());
 
-				String targetColName = source2targetColumnMap.get(col.getName());
+			if (targetColName == null)
+				continue; // skip this column
 
-				if (targetColName == null)
-					continue; // skip this column
-
-				if (col.getType() == List.class)
-					targetRow.set(targetColName, sourceRow.getList(col.getName(), col.getListElementType()));
-				else
-					targetRow.set(targetColName, sourceRow.get(col.getName(), col.getType()));
-			}
+			join.copyColumn(col, targetColName);
 		}
 	}
 
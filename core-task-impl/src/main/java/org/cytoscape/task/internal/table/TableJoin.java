@@ -0,0 +1,173 @@
+package org.cytoscape.task.internal.table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.cytoscape.model.CyColumn;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+
+/*
+ * #%L
+ * Cytoscape Core Task Impl (core-task-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Joins the rows of a target table to the rows of a source table that have the same key,
+ * and copies the values of source columns to the joined target rows.
+ * <p>
+ * The source rows are indexed by key once, so a join takes time proportional to the number of rows of
+ * both tables instead of scanning the source table for each target row. The target keys are looked up
+ * in partitions, by the calling thread and a small pool of daemon threads shared by all joins. The values
+ * are copied one column at a time.
+ */
+final class TableJoin {
+
+	// Target rows looked up by each task
+	static final int PARTITION_SIZE = 4096;
+
+	// Threads that look up partitions along with the calling thread, shared by all joins
+	private static final int WORKER_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private static final ExecutorService joinExecutor = Executors.newFixedThreadPool(WORKER_COUNT, r -> {
+		Thread thread = Executors.defaultThreadFactory().newThread(r);
+		thread.setName("table-join-" + thread.getName());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final CyTable sourceTable;
+	private final Map<Object, CyRow> sourceIndex;
+
+	private final List<CyRow> targetRows = new ArrayList<>();
+	private final List<CyRow> sourceRows = new ArrayList<>();
+
+	/**
+	 * Indexes the rows of the source table by the given key column. When several rows have the same
+	 * key the first one is joined. The primary key is not indexed, the table already looks rows up by it.
+	 */
+	TableJoin(CyTable sourceTable, CyColumn sourceKeyColumn) {
+		this.sourceTable = sourceTable;
+
+		if (sourceKeyColumn == sourceTable.getPrimaryKey()) {
+			sourceIndex = null;
+		} else {
+			sourceIndex = new HashMap<>();
+
+			for (CyRow row : sourceTable.getAllRows()) {
+				Object key = row.get(sourceKeyColumn.getName(), sourceKeyColumn.getType());
+
+				if (key != null)
+					sourceIndex.putIfAbsent(key, row);
+			}
+		}
+	}
+
+	/**
+	 * Joins each row of the target table to the source row with the same key.
+	 * @param keyConverter converts the values of the target key column to source keys, returns null
+	 *                     for values that can't be converted. It is called by several threads at once.
+	 */
+	void join(CyTable targetTable, CyColumn targetKeyColumn, UnaryOperator<Object> keyConverter) {
+		List<CyRow> rows = targetTable.getAllRows();
+		Object[] keys = new Object[rows.size()];
+
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = rows.get(i).get(targetKeyColumn.getName(), targetKeyColumn.getType());
+
+		CyRow[] matches = new CyRow[keys.length];
+		int partitions = (keys.length + PARTITION_SIZE - 1) / PARTITION_SIZE;
+
+		AtomicInteger nextPartition = new AtomicInteger();
+		Runnable lookUpPartitions = () -> {
+			for (int partition = nextPartition.getAndIncrement(); partition < partitions;
+					partition = nextPartition.getAndIncrement()) {
+				int end = Math.min(keys.length, (partition + 1) * PARTITION_SIZE);
+
+				for (int i = partition * PARTITION_SIZE; i < end; i++) {
+					Object key = keys[i] == null ? null : keyConverter.apply(keys[i]);
+
+					if (key != null)
+						matches[i] = getSourceRow(key);
+				}
+			}
+		};
+
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.max(0, Math.min(WORKER_COUNT, partitions - 1))];
+
+		for (int i = 0; i < workers.length; i++)
+			workers[i] = CompletableFuture.runAsync(lookUpPartitions, joinExecutor);
+
+		try {
+			lookUpPartitions.run();
+		} finally {
+			CompletableFuture.allOf(workers).join();
+		}
+
+		targetRows.clear();
+		sourceRows.clear();
+
+		for (int i = 0; i < matches.length; i++) {
+			if (matches[i] != null) {
+				targetRows.add(rows.get(i));
+				sourceRows.add(matches[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of target rows joined by the last call to {@link #join}
+	 */
+	int getJoinedRowCount() {
+		return targetRows.size();
+	}
+
+	/**
+	 * Copies the values of a source column to the joined rows of the target table.
+	 */
+	void copyColumn(CyColumn sourceColumn, String targetColumnName) {
+		for (int i = 0; i < sourceRows.size(); i++) {
+			CyRow sourceRow = sourceRows.get(i);
+			Object value;
+
+			if (sourceColumn.getType() == List.class)
+				value = sourceRow.getList(sourceColumn.getName(), sourceColumn.getListElementType());
+			else
+				value = sourceRow.get(sourceColumn.getName(), sourceColumn.getType());
+
+			targetRows.get(i).set(targetColumnName, value);
+		}
+	}
+
+	private CyRow getSourceRow(Object key) {
+		if (sourceIndex != null)
+			return sourceIndex.get(key);
+
+		return sourceTable.rowExists(key) ? sourceTable.getRow(key) : null;
+	}
+}
@@ -0,0 +1,126 @@
+package org.cytoscape.task.internal.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.cytoscape.equations.internal.interpreter.InterpreterImpl;
+import org.cytoscape.event.DummyCyEventHelper;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.SavePolicy;
+import org.cytoscape.model.internal.CyTableImpl;
+import org.cytoscape.model.internal.column.ColumnDataFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * #%L
+ * Cytoscape Core Task Impl (core-task-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+public class TableJoinTest {
+
+	private CyTable sourceTable;
+	private CyTable targetTable;
+
+	@Before
+	public void setUp() {
+		sourceTable = createTable("source", "ID", Long.class);
+		sourceTable.createColumn("name", String.class, false);
+		sourceTable.createColumn("score", Double.class, false);
+		sourceTable.createListColumn("tags", String.class, false);
+
+		targetTable = createTable("target", "SUID", Long.class);
+		targetTable.createColumn("name", String.class, false);
+		targetTable.createColumn("score", Double.class, false);
+		targetTable.createListColumn("tags", String.class, false);
+	}
+
+	private CyTable createTable(String title, String primaryKey, Class<?> primaryKeyType) {
+		return new CyTableImpl(title, primaryKey, primaryKeyType, true, true, SavePolicy.DO_NOT_SAVE,
+				new DummyCyEventHelper(), ColumnDataFactory.createDefaultFactory(), new InterpreterImpl(), 2);
+	}
+
+	@Test
+	public void testJoinByColumn() {
+		int rowCount = 2 * TableJoin.PARTITION_SIZE + 10;
+
+		for (long i = 0; i < rowCount; i++) {
+			CyRow row = sourceTable.getRow(i);
+			row.set("name", "gene" + i);
+			row.set("score", i * 0.5);
+			row.set("tags", List.of("t" + i));
+
+			// Unmatched, and without a key
+			targetTable.getRow(i).set("name", i % 3 == 0 ? "other" + i : "gene" + i);
+		}
+		targetTable.getRow((long) rowCount);
+
+		// Duplicated key, the first source row is joined
+		sourceTable.getRow((long) rowCount).set("name", "gene1");
+
+		TableJoin join = new TableJoin(sourceTable, sourceTable.getColumn("name"));
+		join.join(targetTable, targetTable.getColumn("name"), key -> key);
+		assertEquals(rowCount - (rowCount + 2) / 3, join.getJoinedRowCount());
+
+		join.copyColumn(sourceTable.getColumn("score"), "score");
+		join.copyColumn(sourceTable.getColumn("tags"), "tags");
+
+		for (long i = 0; i < rowCount; i++) {
+			CyRow row = targetTable.getRow(i);
+
+			if (i % 3 == 0) {
+				assertFalse(row.isSet("score"));
+				assertNull(row.getList("tags", String.class));
+			} else {
+				assertEquals(i * 0.5, row.get("score", Double.class), 0.0);
+				assertEquals(List.of("t" + i), row.getList("tags", String.class));
+			}
+		}
+		assertFalse(targetTable.getRow((long) rowCount).isSet("score"));
+	}
+
+	@Test
+	public void testJoinByPrimaryKey() {
+		sourceTable.getRow(1L).set("score", 1.5);
+		sourceTable.getRow(2L).set("score", 2.5);
+		targetTable.getRow(10L).set("name", "2");
+		targetTable.getRow(11L).set("name", "two");
+
+		TableJoin join = new TableJoin(sourceTable, sourceTable.getPrimaryKey());
+		join.join(targetTable, targetTable.getColumn("name"), key -> {
+			try {
+				return Long.valueOf(key.toString());
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		});
+		join.copyColumn(sourceTable.getColumn("score"), "score");
+
+		assertEquals(1, join.getJoinedRowCount());
+		assertEquals(2.5, targetTable.getRow(10L).get("score", Double.class), 0.0);
+		assertFalse(targetTable.getRow(11L).isSet("score"));
+	}
+}
@@ -1,6 +1,7 @@
 package org.cytoscape.cg.internal.charts;
 
 import java.awt.Color;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -84,16 +85,86 @@ public abstract class AbstractChart<T extends CustomGraphicLayer> extends Abstra
 		var model = view.getModel();
 		var row = network.getRow(model);
 
-		return Collections.singletonList(getLayer(row));
+		return Collections.singletonList(getCacheableLayer(row));
 	}
 	
 	@Override
 	public List<T> getLayers(CyTableView tableView, CyColumnView columnView, CyRow row) {
-		return Collections.singletonList(getLayer(row));
+		return Collections.singletonList(getCacheableLayer(row));
 	}
 	
 	protected abstract T getLayer(CyRow row);
 	
+	private T getCacheableLayer(CyRow row) {
+		var layer = getLayer(row);
+		
+		if (layer instanceof AbstractChartLayer && row != null) {
+			// The layer is created from the chart properties and the values of the mapped columns only,
+			// so all the layers with the same properties and values can share the same rendered image.
+			var key = new ArrayList<Object>();
+			key.add(getClass());
+			key.add(getCacheKeyProperties());
+			
+			for (var colId : getMappedColumns())
+				key.add(getCacheKeyValue(row, colId.getColumnName()));
+			
+			((AbstractChartLayer<?>) layer).setImageCacheKey(key);
+		}
+		
+		return layer;
+	}
+	
+	/**
+	 * Returns the chart properties with array values replaced by lists, because arrays are compared by identity.
+	 */
+	private Map<String, Object> getCacheKeyProperties() {
+		var props = getProperties();
+		props.replaceAll((k, v) -> toCacheKeyValue(v));
+		
+		return props;
+	}
+	
+	private static Object toCacheKeyValue(Object value) {
+		if (value instanceof List) {
+			var list = new ArrayList<Object>();
+			
+			for (var v : (List<?>) value)
+				list.add(toCacheKeyValue(v));
+			
+			return list;
+		}
+		
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			var list = new ArrayList<Object>(length);
+			
+			for (int i = 0; i < length; i++)
+				list.add(toCacheKeyValue(Array.get(value, i)));
+			
+			return list;
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Returns the evaluated value of the column, equations are compared by identity so they can't be part of the key.
+	 */
+	private static Object getCacheKeyValue(CyRow row, String columnName) {
+		var column = row.getTable().getColumn(columnName);
+		
+		if (column == null)
+			return null;
+		
+		if (column.getType() == List.class) {
+			var list = row.getList(columnName, column.getListElementType());
+			// Copy lists, the key must not change while it's in the cache
+			return list == null ? null : new ArrayList<>(list);
+		}
+		
+		return row.get(columnName, column.getType());
+	}
+	
 	@Override
 	public Set<CyColumnIdentifier> getMappedColumns() {
 		var set = new HashSet<CyColumnIdentifier>();
@@ -3,6 +3,7 @@ package org.cytoscape.cg.internal.charts;
 import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.TexturePaint;
@@ -10,6 +11,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +41,10 @@ public abstract class AbstractChartLayer<T extends Dataset> implements Cy2DGraph
 	/** Divisor which should be applied to chart lines so they have the same thickness as Cytoscape lines */
 	public static final Color DEFAULT_ITEM_BG_COLOR = Color.LIGHT_GRAY;
 	
+	/** Charts bigger than this (in pixels) are always drawn as vector graphics */
+	private static final int MAX_CACHED_IMG_RESOLUTION = 256 * 256;
+	private static final ChartImageCache imageCache = new ChartImageCache(64L * 1024 * 1024);
+	
 	/** Category ID -> list of values */
 	protected final Map<String, List<Double>> data;
 	protected final List<String> itemLabels;
@@ -65,6 +71,9 @@ public abstract class AbstractChartLayer<T extends Dataset> implements Cy2DGraph
 	protected BufferedImage img;
 	protected TexturePaint paint;
 	
+	/** Identifies the chart properties and the node data this layer was created from, null if unknown */
+	private Object imageCacheKey;
+	
 	// ==[ CONSTRUCTORS ]===============================================================================================
 	
 	protected AbstractChartLayer(
@@ -147,9 +156,75 @@ public abstract class AbstractChartLayer<T extends Dataset> implements Cy2DGraph
 		return paint;
 	}
 	
+	/**
+	 * Layers that have a cache key are rendered into images that are reused by all the layers with the same key,
+	 * as long as they are drawn with the same size. The key must change when anything that affects the chart
+	 * changes, which means it should include the chart properties and the values of the mapped columns.
+	 */
+	public void setImageCacheKey(Object imageCacheKey) {
+		this.imageCacheKey = imageCacheKey;
+	}
+	
+	Object getImageCacheKey() {
+		return imageCacheKey;
+	}
+	
 	// ==[ PRIVATE METHODS ]============================================================================================
 	
 	protected void draw(Graphics2D g) {
+		// Check to see if we have a current alpha composite
+		var comp = g.getComposite();
+		Float alpha = comp instanceof AlphaComposite ? ((AlphaComposite) comp).getAlpha() : null;
+		
+		if (imageCacheKey == null || !drawCachedImage(g, alpha))
+			drawChart(g, alpha);
+	}
+	
+	/**
+	 * Draws the chart from an image, if it can be drawn as an image without losing quality.
+	 * @return false if the chart was not drawn
+	 */
+	private boolean drawCachedImage(Graphics2D g, Float alpha) {
+		// Vector graphics (PDF, SVG, printers, etc) must get the actual chart, only screens and images get an image
+		var deviceType = g.getDeviceConfiguration().getDevice().getType();
+		
+		if (deviceType != GraphicsDevice.TYPE_RASTER_SCREEN && deviceType != GraphicsDevice.TYPE_IMAGE_BUFFER)
+			return false;
+		
+		var xform = g.getTransform();
+		
+		if ((xform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0)
+			return false; // rotated or flipped
+		
+		int w = (int) Math.ceil(bounds.getWidth() * Math.abs(xform.getScaleX()));
+		int h = (int) Math.ceil(bounds.getHeight() * Math.abs(xform.getScaleY()));
+		
+		if (w <= 0 || h <= 0 || (long) w * h > MAX_CACHED_IMG_RESOLUTION)
+			return false;
+		
+		// The proportions of the chart elements depend on the bounds, not just on the size in pixels
+		var key = Arrays.asList(imageCacheKey, bounds.getWidth(), bounds.getHeight(), w, h, alpha);
+		var image = imageCache.get(key);
+		
+		if (image == null) {
+			image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+			var ig = image.createGraphics();
+			ig.setRenderingHints(g.getRenderingHints());
+			ig.scale(w / bounds.getWidth(), h / bounds.getHeight());
+			ig.translate(-bounds.getX(), -bounds.getY());
+			drawChart(ig, alpha);
+			ig.dispose();
+			imageCache.put(key, image);
+		}
+		
+		var imageXform = AffineTransform.getTranslateInstance(bounds.getX(), bounds.getY());
+		imageXform.scale(bounds.getWidth() / w, bounds.getHeight() / h);
+		g.drawImage(image, imageXform, null);
+		
+		return true;
+	}
+	
+	private void drawChart(Graphics2D g, Float alpha) {
 		var g2 = (Graphics2D) g.create();
 		
 		// Give JFreeChart a larger area to draw into, so the proportions of the chart elements looks better
@@ -164,11 +239,7 @@ public abstract class AbstractChartLayer<T extends Dataset> implements Cy2DGraph
 		double invScale = 1.0 / scale;
 		g2.scale(invScale, invScale);
 
-		// Check to see if we have a current alpha composite
-		var comp = g2.getComposite();
-		
-		if (comp instanceof AlphaComposite) {
-			float alpha = ((AlphaComposite) comp).getAlpha();
+		if (alpha != null) {
 			var fc = getChart();
 			var plot = fc.getPlot();
 			plot.setForegroundAlpha(alpha);
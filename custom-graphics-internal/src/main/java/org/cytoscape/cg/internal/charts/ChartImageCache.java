@@ -0,0 +1,50 @@
+package org.cytoscape.cg.internal.charts;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+
+/**
+ * Least recently used cache of rendered chart images, with a maximum total size in bytes.
+ * It's shared by all the chart layers and is thread safe, because nodes can be painted by several threads.
+ */
+class ChartImageCache {
+
+	private final long maxBytes;
+	private long bytes;
+
+	private final LinkedHashMap<Object, BufferedImage> images = new LinkedHashMap<>(256, 0.75f, true);
+
+	ChartImageCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	synchronized BufferedImage get(Object key) {
+		return images.get(key);
+	}
+
+	synchronized void put(Object key, BufferedImage image) {
+		long size = sizeOf(image);
+
+		if (size > maxBytes)
+			return;
+
+		var old = images.put(key, image);
+
+		if (old != null)
+			bytes -= sizeOf(old);
+
+		bytes += size;
+
+		// Evict the least recently used images
+		var iter = images.values().iterator();
+
+		while (bytes > maxBytes && iter.hasNext()) {
+			bytes -= sizeOf(iter.next());
+			iter.remove();
+		}
+	}
+
+	private static long sizeOf(BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * 4;
+	}
+}
@@ -116,7 +116,8 @@ public class SVGCustomGraphics extends AbstractURLImageCustomGraphics<SVGLayer>
 		return getLayers();
 	}
 	
-	public List<SVGLayer> getLayers() {
+	// Called by several rendering threads at once
+	public synchronized List<SVGLayer> getLayers() {
 		if (layers.isEmpty())
 			layers.add(svgLayer);
 
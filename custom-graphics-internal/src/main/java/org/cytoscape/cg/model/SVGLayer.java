@@ -111,7 +111,10 @@ public class SVGLayer implements Cy2DGraphicLayer {
 		g2.scale(scale, scale);
 		
 		try {
-			diagram.render(g2);
+			// The diagram is shared by all the layers of the same SVG, which can be drawn by several threads at once
+			synchronized (diagram) {
+				diagram.render(g2);
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -0,0 +1,121 @@
+package org.cytoscape.cg.internal.charts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cytoscape.cg.internal.charts.pie.PieChart;
+import org.cytoscape.model.CyColumn;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.view.model.table.CyTableView;
+import org.cytoscape.view.presentation.property.values.CyColumnIdentifier;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AbstractChartTest {
+
+	private static final String COLUMN = "values";
+
+	private CyServiceRegistrar serviceRegistrar;
+	private CyColumnIdentifier columnId;
+
+	@Before
+	public void setUp() {
+		serviceRegistrar = mock(CyServiceRegistrar.class);
+		columnId = mock(CyColumnIdentifier.class);
+		when(columnId.getColumnName()).thenReturn(COLUMN);
+	}
+
+	@Test
+	public void testCacheKeyChangesWithMappedValue() {
+		var chart = new PieChart(newProperties(), serviceRegistrar);
+
+		var key1 = getImageCacheKey(chart, mockRow(List.of(1.0, 2.0)));
+		var key2 = getImageCacheKey(chart, mockRow(List.of(1.0, 2.0)));
+		var key3 = getImageCacheKey(chart, mockRow(List.of(1.0, 3.0)));
+
+		assertNotNull(key1);
+		assertEquals(key1, key2);
+		assertNotEquals(key1, key3);
+	}
+
+	@Test
+	public void testCacheKeyComparesArrayPropertiesByValue() {
+		var props1 = newProperties();
+		props1.put(ArrayPropertyChart.FRACTIONS, new Float[] { 0.25f, 0.75f });
+		var props2 = newProperties();
+		props2.put(ArrayPropertyChart.FRACTIONS, new Float[] { 0.25f, 0.75f });
+		var props3 = newProperties();
+		props3.put(ArrayPropertyChart.FRACTIONS, new Float[] { 0.5f, 0.5f });
+
+		var row = mockRow(List.of(1.0, 2.0));
+		var key1 = getImageCacheKey(new ArrayPropertyChart(props1, serviceRegistrar), row);
+		var key2 = getImageCacheKey(new ArrayPropertyChart(props2, serviceRegistrar), row);
+		var key3 = getImageCacheKey(new ArrayPropertyChart(props3, serviceRegistrar), row);
+
+		assertEquals(key1, key2);
+		assertNotEquals(key1, key3);
+	}
+
+	private Map<String, Object> newProperties() {
+		var props = new HashMap<String, Object>();
+		props.put(AbstractChart.DATA_COLUMNS, List.of(columnId));
+
+		return props;
+	}
+
+	private static Object getImageCacheKey(AbstractChart<?> chart, CyRow row) {
+		var layer = chart.getLayers((CyTableView) null, null, row).get(0);
+
+		return ((AbstractChartLayer<?>) layer).getImageCacheKey();
+	}
+
+	private static CyRow mockRow(List<Double> values) {
+		var column = mock(CyColumn.class);
+		when(column.getName()).thenReturn(COLUMN);
+		doReturn(List.class).when(column).getType();
+		doReturn(Double.class).when(column).getListElementType();
+
+		var table = mock(CyTable.class);
+		when(table.getColumn(COLUMN)).thenReturn(column);
+
+		var row = mock(CyRow.class);
+		when(row.getTable()).thenReturn(table);
+		when(row.getList(COLUMN, Double.class)).thenReturn(values);
+
+		return row;
+	}
+
+	private static class ArrayPropertyChart extends PieChart {
+
+		static final String FRACTIONS = "test_fractions";
+
+		ArrayPropertyChart(Map<String, Object> properties, CyServiceRegistrar serviceRegistrar) {
+			super(properties, serviceRegistrar);
+		}
+
+		@Override
+		public Class<?> getSettingType(String key) {
+			if (key.equalsIgnoreCase(FRACTIONS)) return Array.class;
+
+			return super.getSettingType(key);
+		}
+
+		@Override
+		public Class<?> getSettingElementType(String key) {
+			if (key.equalsIgnoreCase(FRACTIONS)) return Float.class;
+
+			return super.getSettingElementType(key);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package org.cytoscape.cg.internal.charts;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+public class ChartImageCacheTest {
+
+	// 10x10 ARGB images take 400 bytes
+	private static final long IMAGE_BYTES = 400;
+
+	private static BufferedImage newImage() {
+		return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsedOverBudget() {
+		var cache = new ChartImageCache(3 * IMAGE_BYTES);
+		var a = newImage();
+		var b = newImage();
+		var c = newImage();
+		var d = newImage();
+
+		cache.put("a", a);
+		cache.put("b", b);
+		cache.put("c", c);
+		assertSame(a, cache.get("a")); // "b" is now the least recently used
+		cache.put("d", d);
+
+		assertNull(cache.get("b"));
+		assertSame(a, cache.get("a"));
+		assertSame(c, cache.get("c"));
+		assertSame(d, cache.get("d"));
+	}
+
+	@Test
+	public void testReplacedImageIsNotCountedTwice() {
+		var cache = new ChartImageCache(2 * IMAGE_BYTES);
+		var a = newImage();
+		var b = newImage();
+
+		cache.put("a", newImage());
+		cache.put("a", a);
+		cache.put("b", b);
+
+		assertSame(a, cache.get("a"));
+		assertSame(b, cache.get("b"));
+	}
+
+	@Test
+	public void testImageLargerThanBudgetIsNotCached() {
+		var cache = new ChartImageCache(IMAGE_BYTES);
+		var a = newImage();
+
+		cache.put("a", a);
+		cache.put("big", new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+
+		assertNull(cache.get("big"));
+		assertSame(a, cache.get("a"));
+	}
+}
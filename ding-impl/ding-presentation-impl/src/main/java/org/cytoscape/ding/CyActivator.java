@@ -31,6 +31,7 @@ import org.cytoscape.application.swing.CyNetworkViewContextMenuFactory;
 import org.cytoscape.application.swing.CyNodeViewContextMenuFactory;
 import org.cytoscape.ding.action.GraphicsDetailAction;
 import org.cytoscape.ding.debug.DingDebugMediator;
+import org.cytoscape.ding.debug.RenderProfilerTaskFactory;
 import org.cytoscape.ding.dependency.CustomGraphicsSizeDependencyFactory;
 import org.cytoscape.ding.dependency.EdgeColorDependencyFactory;
 import org.cytoscape.ding.dependency.NodeSizeDependencyFactory;
@@ -484,6 +485,33 @@ public class CyActivator extends AbstractCyActivator {
 			registerService(bc, factory, NetworkViewLocationTaskFactory.class, props);
 		}
 
+		// -------------------------- Render Profiler Commands ----------------------------- //
+		{
+			var factory = new RenderProfilerTaskFactory(serviceRegistrar, false);
+			var props = new Properties();
+			props.setProperty(COMMAND_NAMESPACE, "view");
+			props.setProperty(COMMAND, "set render profiler");
+			props.setProperty(COMMAND_DESCRIPTION, "Enable or disable the render profiler");
+			props.setProperty(COMMAND_LONG_DESCRIPTION, "Enables or disables recording the render timings of a network view, "
+					+ "and the overlay that shows the timings of the last frame. If no view is given the current view is used.");
+			registerService(bc, factory, TaskFactory.class, props);
+		}
+		{
+			var factory = new RenderProfilerTaskFactory(serviceRegistrar, true);
+			var props = new Properties();
+			props.setProperty(COMMAND_NAMESPACE, "view");
+			props.setProperty(COMMAND, "get render metrics");
+			props.setProperty(COMMAND_DESCRIPTION, "Get the render metrics of a network view");
+			props.setProperty(COMMAND_LONG_DESCRIPTION, "Returns the frame times by render phase, the number of elements rendered "
+					+ "and the label cache hit rate recorded while the render profiler was enabled. If no view is given the current view is used.");
+			props.setProperty(COMMAND_SUPPORTS_JSON, "true");
+			props.setProperty(COMMAND_EXAMPLE_JSON, "{\"enabled\":true,\"snapshots\":{\"count\":3,\"avgMs\":0.4,\"maxMs\":0.9},"
+					+ "\"labelCache\":{\"hitRate\":0.98,\"hits\":4900,\"misses\":100,\"evictions\":0},"
+					+ "\"frames\":[{\"type\":\"MAIN_FAST\",\"count\":20,\"cancelled\":1,\"avgMs\":15.5,\"maxMs\":31,"
+					+ "\"phases\":{\"name\":\"Frame\",\"avgMs\":15.5},\"avgCounts\":{\"edges\":5000,\"nodes\":1000}}]}");
+			registerService(bc, factory, TaskFactory.class, props);
+		}
+
     // -------------------------- Annotation Commands ----------------------------- //
     {
 			// Annotation list
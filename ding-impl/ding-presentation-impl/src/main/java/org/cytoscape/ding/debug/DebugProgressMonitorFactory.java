@@ -4,13 +4,17 @@ import org.cytoscape.ding.impl.work.ProgressMonitor;
 
 public class DebugProgressMonitorFactory {
 
-	private final DingDebugMediator mediator;
+	private final DebugProgressMonitorCallback callback;
 	
-	public DebugProgressMonitorFactory(DingDebugMediator mediator) {
-		this.mediator = mediator;
+	public DebugProgressMonitorFactory(DebugProgressMonitorCallback callback) {
+		this.callback = callback;
 	}
 	
 	public DebugRootProgressMonitor create(DebugFrameType type, ProgressMonitor delegate) {
-		return new DebugRootProgressMonitor(type, delegate, mediator);
+		return new DebugRootProgressMonitor(type, delegate, callback);
+	}
+	
+	public DebugProgressMonitorCallback getCallback() {
+		return callback;
 	}
 }
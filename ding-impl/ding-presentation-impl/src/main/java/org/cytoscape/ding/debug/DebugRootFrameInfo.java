@@ -3,6 +3,8 @@ package org.cytoscape.ding.debug;
 import static org.cytoscape.ding.debug.DebugUtil.map;
 
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cytoscape.ding.impl.canvas.CompositeImageCanvas.PaintParameters;
@@ -20,6 +22,7 @@ public class DebugRootFrameInfo extends DebugFrameInfo {
 	
 	private final RenderDetailFlags flags;
 	private final PaintParameters paintParams;
+	private final Map<String,Integer> counts;
 	
 	
 	private DebugRootFrameInfo(
@@ -30,6 +33,7 @@ public class DebugRootFrameInfo extends DebugFrameInfo {
 			boolean cancelled, 
 			RenderDetailFlags flags,
 			PaintParameters paintParams,
+			Map<String,Integer> counts,
 			List<DebugFrameInfo> subFrames
 	) {
 		super(task, end - start, subFrames);
@@ -37,6 +41,7 @@ public class DebugRootFrameInfo extends DebugFrameInfo {
 		this.cancelled = cancelled;
 		this.flags = flags;
 		this.paintParams = paintParams;
+		this.counts = new TreeMap<>(counts);
 		this.start = start;
 		this.end = end;
 		this.frameNumber = frameCounter.incrementAndGet();
@@ -63,6 +68,13 @@ public class DebugRootFrameInfo extends DebugFrameInfo {
 		return paintParams;
 	}
 	
+	/**
+	 * Returns the number of elements rendered in the frame, by type of element.
+	 */
+	public Map<String,Integer> getCounts() {
+		return counts;
+	}
+	
 	public boolean isCancelled() {
 		return cancelled;
 	}
@@ -80,7 +92,7 @@ public class DebugRootFrameInfo extends DebugFrameInfo {
 		PaintParameters paintParams = pm.getPaintParametsr();
 		String task = pm.getTaskName();
 		var subInfos = map(pm.getSubMonitors(), x -> fromSubPM(x));
-		return new DebugRootFrameInfo(task, start, end, type, cancelled, flags, paintParams, subInfos);
+		return new DebugRootFrameInfo(task, start, end, type, cancelled, flags, paintParams, pm.getCounts(), subInfos);
 	}
 	
 	
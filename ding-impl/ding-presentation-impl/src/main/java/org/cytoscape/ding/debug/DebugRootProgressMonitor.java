@@ -3,6 +3,8 @@ package org.cytoscape.ding.debug;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cytoscape.ding.impl.canvas.CompositeImageCanvas.PaintParameters;
 import org.cytoscape.ding.impl.work.ProgressMonitor;
@@ -15,6 +17,7 @@ public class DebugRootProgressMonitor implements DebugProgressMonitor {
 	private final DebugFrameType type;
 	
 	private List<DebugSubProgressMonitor> subMonitors = Collections.emptyList();
+	private final Map<String,Integer> counts = new ConcurrentHashMap<>();
 	
 	private long start, end;
 	private String taskName;
@@ -82,6 +85,15 @@ public class DebugRootProgressMonitor implements DebugProgressMonitor {
 		delegate.addProgress(progress);
 	}
 
+	@Override
+	public void addCount(String name, int count) {
+		counts.merge(name, count, Integer::sum);
+	}
+	
+	public Map<String,Integer> getCounts() {
+		return counts;
+	}
+
 	@Override
 	public List<DebugSubProgressMonitor> getSubMonitors() {
 		return subMonitors;
@@ -13,7 +13,7 @@ public class DebugSubProgressMonitor extends SubProgressMonitor implements Debug
 	
 	private String taskName;
 	private long start;
-	private long time = 0;
+	private long timeNanos = 0; // nanos because most tasks are timed once per element
 	
 	protected DebugSubProgressMonitor(ProgressMonitor parent, double percent) {
 		super(parent, percent);
@@ -28,7 +28,7 @@ public class DebugSubProgressMonitor extends SubProgressMonitor implements Debug
 	@Override
 	public void start(String taskName) {
 		this.taskName = taskName;
-		start = System.currentTimeMillis();
+		start = System.nanoTime();
 	}
 	
 	public String getTaskName() {
@@ -38,8 +38,8 @@ public class DebugSubProgressMonitor extends SubProgressMonitor implements Debug
 	@Override
 	public void done() {
 		super.done();
-		long end = System.currentTimeMillis();
-		time += end - start;
+		long end = System.nanoTime();
+		timeNanos += end - start;
 		start = 0;
 	}
 	
@@ -62,6 +62,6 @@ public class DebugSubProgressMonitor extends SubProgressMonitor implements Debug
 
 	@Override
 	public long getTime() {
-		return time;
+		return timeNanos / 1000000;
 	}
 }
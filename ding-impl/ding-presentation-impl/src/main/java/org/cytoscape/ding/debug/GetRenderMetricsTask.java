@@ -0,0 +1,58 @@
+package org.cytoscape.ding.debug;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.command.StringToModel;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.json.JSONResult;
+
+public class GetRenderMetricsTask extends AbstractTask implements ObservableTask {
+
+	@Tunable(description="Network View",
+	         longDescription=StringToModel.CY_NETWORK_VIEW_LONG_DESCRIPTION,
+	         exampleStringValue=StringToModel.CY_NETWORK_VIEW_EXAMPLE_STRING,
+	         context="nogui")
+	public CyNetworkView view = null;
+	
+	private final CyServiceRegistrar serviceRegistrar;
+	private RenderMetrics metrics;
+	
+	public GetRenderMetricsTask(CyServiceRegistrar serviceRegistrar) {
+		this.serviceRegistrar = serviceRegistrar;
+	}
+	
+	@Override
+	public void run(TaskMonitor tm) {
+		tm.setTitle("Get Render Metrics");
+		
+		var re = SetRenderProfilerTask.getRenderingEngine(serviceRegistrar, view);
+		if(re == null) {
+			tm.showMessage(TaskMonitor.Level.ERROR, "No network view");
+			return;
+		}
+		metrics = re.getRenderMetrics();
+	}
+	
+	@Override
+	public List<Class<?>> getResultClasses() {
+		return Arrays.asList(JSONResult.class, String.class);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R> R getResults(Class<? extends R> type) {
+		if(type.equals(String.class)) {
+			return (R) (metrics == null ? "No network view" : metrics.toText());
+		} else if(type.equals(JSONResult.class)) {
+			JSONResult res = () -> metrics == null ? "{}" : metrics.toJson();
+			return (R) res;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,239 @@
+package org.cytoscape.ding.debug;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.cytoscape.graph.render.stateful.LabelInfoCache;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Accumulates the render timings of one network view, by type of frame and by render phase,
+ * along with the number of elements rendered and the label cache hit rate.
+ * Used to tune the GraphLOD thresholds for a particular machine.
+ * <p>
+ * Frames are only recorded while the profiler is enabled, because timing each edge and label has a cost.
+ */
+public class RenderMetrics implements DebugProgressMonitorCallback {
+
+	private final LabelInfoCache labelCache;
+
+	private volatile boolean enabled;
+	private volatile boolean overlayVisible;
+
+	private final Map<DebugFrameType,FrameMetrics> frameMetrics = new EnumMap<>(DebugFrameType.class);
+	private DebugRootFrameInfo lastFrame;
+
+	private int snapshotCount;
+	private long snapshotNanos;
+	private long maxSnapshotNanos;
+
+
+	private static class FrameMetrics {
+		int frames;
+		int cancelled;
+		long time;
+		long maxTime;
+		DebugFrameInfo phases;
+		final Map<String,Long> counts = new TreeMap<>();
+	}
+
+
+	public RenderMetrics(LabelInfoCache labelCache) {
+		this.labelCache = labelCache;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isOverlayVisible() {
+		return enabled && overlayVisible;
+	}
+
+	public void setOverlayVisible(boolean overlayVisible) {
+		this.overlayVisible = overlayVisible;
+	}
+
+
+	@Override
+	public synchronized void addFrame(DebugRootFrameInfo frame) {
+		if(!enabled || frame.getType() == null)
+			return;
+
+		var metrics = frameMetrics.computeIfAbsent(frame.getType(), k -> new FrameMetrics());
+		if(frame.isCancelled()) {
+			metrics.cancelled++;
+			return;
+		}
+
+		metrics.frames++;
+		metrics.time += frame.getTime();
+		metrics.maxTime = Math.max(metrics.maxTime, frame.getTime());
+		metrics.phases = metrics.phases == null ? frame : DebugFrameInfo.merge(metrics.phases, frame);
+		frame.getCounts().forEach((name, count) -> metrics.counts.merge(name, (long) count, Long::sum));
+
+		if(frame.getType() == DebugFrameType.MAIN_FAST || frame.getType() == DebugFrameType.MAIN_SLOW) {
+			lastFrame = frame;
+		}
+	}
+
+	public synchronized void addSnapshotTime(long nanos) {
+		if(!enabled)
+			return;
+		snapshotCount++;
+		snapshotNanos += nanos;
+		maxSnapshotNanos = Math.max(maxSnapshotNanos, nanos);
+	}
+
+	public synchronized void reset() {
+		frameMetrics.clear();
+		lastFrame = null;
+		snapshotCount = 0;
+		snapshotNanos = 0;
+		maxSnapshotNanos = 0;
+	}
+
+
+	/**
+	 * Returns a short summary of the last main frame that was not cancelled.
+	 */
+	public synchronized List<String> getOverlayLines() {
+		List<String> lines = new ArrayList<>();
+		if(lastFrame == null) {
+			lines.add("No frames recorded");
+			return lines;
+		}
+
+		lines.add(String.format("%s #%d: %d ms", lastFrame.getType(), lastFrame.getFrameNumber(), lastFrame.getTime()));
+		for(var canvas : lastFrame.getSubFrames()) {
+			lines.add(String.format("  %s: %d ms", canvas.getTask(), canvas.getTime()));
+			for(var phase : canvas.getSubFrames()) {
+				lines.add(String.format("    %s: %d ms", phase.getTask(), phase.getTime()));
+			}
+		}
+		if(!lastFrame.getCounts().isEmpty()) {
+			lines.add("  " + lastFrame.getCounts().toString());
+		}
+		RenderDetailFlags flags = lastFrame.getRenderDetailFlags();
+		if(flags != null) {
+			lines.add(String.format("  %s detail, %d visible nodes",
+					flags.has(RenderDetailFlags.LOD_HIGH_DETAIL) ? "High" : "Low", flags.getVisibleNodeCount()));
+		}
+		if(snapshotCount > 0) {
+			lines.add(String.format("  Snapshot: %.2f ms avg", snapshotNanos / 1e6 / snapshotCount));
+		}
+		var stats = labelCache.getCacheStats();
+		if(stats.requestCount() > 0) {
+			lines.add(String.format("  Label cache: %.1f%% hits", stats.hitRate() * 100));
+		}
+		return lines;
+	}
+
+
+	public synchronized String toText() {
+		var sb = new StringBuilder();
+		sb.append("Render profiler ").append(enabled ? "enabled" : "disabled").append('\n');
+
+		if(snapshotCount > 0) {
+			sb.append(String.format("Snapshots: %d, avg %.2f ms, max %.2f ms\n",
+					snapshotCount, snapshotNanos / 1e6 / snapshotCount, maxSnapshotNanos / 1e6));
+		}
+
+		var stats = labelCache.getCacheStats();
+		sb.append(String.format("Label cache: %.1f%% hits (%d hits, %d misses, %d evictions)\n",
+				stats.hitRate() * 100, stats.hitCount(), stats.missCount(), stats.evictionCount()));
+
+		frameMetrics.forEach((type, metrics) -> {
+			sb.append(String.format("%s: %d frames, %d cancelled", type, metrics.frames, metrics.cancelled));
+			if(metrics.frames > 0) {
+				sb.append(String.format(", avg %.1f ms, max %d ms\n", (double) metrics.time / metrics.frames, metrics.maxTime));
+				appendPhases(sb, metrics.phases, metrics.frames, 1);
+				metrics.counts.forEach((name, count) ->
+					sb.append(String.format("  %s: avg %d per frame\n", name, count / metrics.frames))
+				);
+			} else {
+				sb.append('\n');
+			}
+		});
+		return sb.toString();
+	}
+
+	private static void appendPhases(StringBuilder sb, DebugFrameInfo phase, int frames, int depth) {
+		sb.append("  ".repeat(depth)).append(String.format("%s: avg %.1f ms\n", phase.getTask(), (double) phase.getTime() / frames));
+		for(var sub : phase.getSubFrames()) {
+			appendPhases(sb, sub, frames, depth + 1);
+		}
+	}
+
+
+	public synchronized String toJson() {
+		var sb = new StringBuilder("{");
+		sb.append("\"enabled\":").append(enabled);
+		sb.append(",\"snapshots\":{\"count\":").append(snapshotCount)
+		  .append(",\"avgMs\":").append(snapshotCount == 0 ? 0 : snapshotNanos / 1e6 / snapshotCount)
+		  .append(",\"maxMs\":").append(maxSnapshotNanos / 1e6).append('}');
+
+		CacheStats stats = labelCache.getCacheStats();
+		sb.append(",\"labelCache\":{\"hitRate\":").append(stats.hitRate())
+		  .append(",\"hits\":").append(stats.hitCount())
+		  .append(",\"misses\":").append(stats.missCount())
+		  .append(",\"evictions\":").append(stats.evictionCount()).append('}');
+
+		sb.append(",\"frames\":[");
+		boolean first = true;
+		for(var entry : frameMetrics.entrySet()) {
+			var metrics = entry.getValue();
+			if(!first)
+				sb.append(',');
+			first = false;
+			sb.append("{\"type\":\"").append(entry.getKey()).append('"')
+			  .append(",\"count\":").append(metrics.frames)
+			  .append(",\"cancelled\":").append(metrics.cancelled);
+			if(metrics.frames > 0) {
+				sb.append(",\"avgMs\":").append((double) metrics.time / metrics.frames)
+				  .append(",\"maxMs\":").append(metrics.maxTime)
+				  .append(",\"phases\":");
+				appendPhasesJson(sb, metrics.phases, metrics.frames);
+				sb.append(",\"avgCounts\":{");
+				boolean firstCount = true;
+				for(var count : metrics.counts.entrySet()) {
+					if(!firstCount)
+						sb.append(',');
+					firstCount = false;
+					sb.append('"').append(count.getKey()).append("\":").append(count.getValue() / metrics.frames);
+				}
+				sb.append('}');
+			}
+			sb.append('}');
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	private static void appendPhasesJson(StringBuilder sb, DebugFrameInfo phase, int frames) {
+		sb.append("{\"name\":\"").append(phase.getTask()).append('"')
+		  .append(",\"avgMs\":").append((double) phase.getTime() / frames);
+		if(!phase.getSubFrames().isEmpty()) {
+			sb.append(",\"phases\":[");
+			boolean first = true;
+			for(var sub : phase.getSubFrames()) {
+				if(!first)
+					sb.append(',');
+				first = false;
+				appendPhasesJson(sb, sub, frames);
+			}
+			sb.append(']');
+		}
+		sb.append('}');
+	}
+
+}
@@ -0,0 +1,31 @@
+package org.cytoscape.ding.debug;
+
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.work.TaskFactory;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * Creates the tasks of the "view set render profiler" and "view get render metrics" commands.
+ */
+public class RenderProfilerTaskFactory implements TaskFactory {
+
+	private final CyServiceRegistrar serviceRegistrar;
+	private final boolean getMetrics;
+	
+	public RenderProfilerTaskFactory(CyServiceRegistrar serviceRegistrar, boolean getMetrics) {
+		this.serviceRegistrar = serviceRegistrar;
+		this.getMetrics = getMetrics;
+	}
+	
+	@Override
+	public TaskIterator createTaskIterator() {
+		if(getMetrics)
+			return new TaskIterator(new GetRenderMetricsTask(serviceRegistrar));
+		return new TaskIterator(new SetRenderProfilerTask(serviceRegistrar));
+	}
+	
+	@Override
+	public boolean isReady() {
+		return true;
+	}
+}
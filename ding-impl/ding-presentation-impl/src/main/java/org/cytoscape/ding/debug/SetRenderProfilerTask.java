@@ -0,0 +1,67 @@
+package org.cytoscape.ding.debug;
+
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.command.StringToModel;
+import org.cytoscape.ding.impl.DRenderingEngine;
+import org.cytoscape.ding.impl.DingRenderer;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+
+public class SetRenderProfilerTask extends AbstractTask {
+
+	@Tunable(description="Network View",
+	         longDescription=StringToModel.CY_NETWORK_VIEW_LONG_DESCRIPTION,
+	         exampleStringValue=StringToModel.CY_NETWORK_VIEW_EXAMPLE_STRING,
+	         context="nogui")
+	public CyNetworkView view = null;
+	
+	@Tunable(description="Enable the render profiler",
+	         longDescription="If true, the time spent in each render phase is recorded for every frame. Timing each element has a small cost.",
+	         exampleStringValue="true",
+	         context="nogui")
+	public boolean enabled = true;
+	
+	@Tunable(description="Show the overlay",
+	         longDescription="If true, a summary of the last frame is painted on top of the network view.",
+	         exampleStringValue="false",
+	         context="nogui")
+	public boolean overlay = false;
+	
+	@Tunable(description="Reset the metrics",
+	         longDescription="If true, the metrics recorded so far are cleared.",
+	         exampleStringValue="false",
+	         context="nogui")
+	public boolean reset = false;
+	
+	private final CyServiceRegistrar serviceRegistrar;
+	
+	public SetRenderProfilerTask(CyServiceRegistrar serviceRegistrar) {
+		this.serviceRegistrar = serviceRegistrar;
+	}
+	
+	@Override
+	public void run(TaskMonitor tm) {
+		tm.setTitle("Set Render Profiler");
+		
+		var re = getRenderingEngine(serviceRegistrar, view);
+		if(re == null) {
+			tm.showMessage(TaskMonitor.Level.ERROR, "No network view");
+			return;
+		}
+		
+		if(reset)
+			re.getRenderMetrics().reset();
+		re.setRenderProfiler(enabled, overlay);
+	}
+	
+	static DRenderingEngine getRenderingEngine(CyServiceRegistrar serviceRegistrar, CyNetworkView view) {
+		if(view == null)
+			view = serviceRegistrar.getService(CyApplicationManager.class).getCurrentNetworkView();
+		if(view == null)
+			return null;
+		return serviceRegistrar.getService(DingRenderer.class).getRenderingEngine(view);
+	}
+}
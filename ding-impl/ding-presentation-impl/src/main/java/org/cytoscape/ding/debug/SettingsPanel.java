@@ -66,7 +66,8 @@ public class SettingsPanel extends BasicCollapsiblePanel  {
 			new BooleanPropEditor("render.edgeBufferPan", "edgeBufferPan"),
 			new BooleanPropEditor("render.labelCache", "labelCache"),
 			new BooleanPropEditor("render.selectedOnly", "selectedOnly"),
-			new BooleanPropEditor("render.hidpi", "hidpi")
+			new BooleanPropEditor("render.hidpi", "hidpi"),
+			new BooleanPropEditor("render.adaptiveLOD", "adaptiveLOD")
 		);
 		
 		cacheStatsButton = new JButton("show stats");
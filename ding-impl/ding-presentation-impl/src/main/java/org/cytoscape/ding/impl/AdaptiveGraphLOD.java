@@ -0,0 +1,187 @@
+package org.cytoscape.ding.impl;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+
+import org.cytoscape.graph.render.stateful.GraphLOD;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+
+/**
+ * Level of Details object that adjusts the thresholds of DingGraphLOD to the speed of the machine.
+ * <p>
+ * The time taken by each high detail frame is reported by CompositeImageCanvas, this is used to estimate
+ * how long it takes to render one element. The coarse detail threshold is then moved to the number of
+ * elements that can be rendered within the frame budget, and the other thresholds are scaled by the same factor.
+ * Scaling the thresholds is done by scaling the element counts that are passed to the source LOD.
+ * <p>
+ * Fast frames and full frames have separate budgets, the LOD returned by faster() tracks the fast frames.
+ * Low detail frames are not used for the estimate, their cost per element says nothing about high detail.
+ */
+public class AdaptiveGraphLOD implements GraphLOD {
+
+	public static final long FAST_FRAME_BUDGET_MS = 30;
+	public static final long FULL_FRAME_BUDGET_MS = 250;
+
+	// The thresholds are never moved further than this from the values in cytoscape3.props
+	static final double MIN_SCALE = 0.25;
+	static final double MAX_SCALE = 8.0;
+
+	// Frames with fewer elements are dominated by the fixed cost of compositing the layers
+	static final int MIN_SAMPLE_ELEMENTS = 100;
+
+	private static final double SMOOTHING = 0.25;
+
+	private final GraphLOD source;
+	private final BooleanSupplier enabled;
+	private final IntSupplier detailThreshold;
+	private final long budgetNanos;
+	private final AdaptiveGraphLOD faster;
+
+	private volatile double nanosPerElement = -1;
+
+
+	public AdaptiveGraphLOD(DingGraphLOD source) {
+		this(source, source::isAdaptiveEnabled, source::getCoarseDetailThreshold, FULL_FRAME_BUDGET_MS,
+			new AdaptiveGraphLOD(source.faster(), source::isAdaptiveEnabled, source::getCoarseDetailThreshold, FAST_FRAME_BUDGET_MS, null));
+	}
+
+	AdaptiveGraphLOD(GraphLOD source, BooleanSupplier enabled, IntSupplier detailThreshold, long budgetMs, AdaptiveGraphLOD faster) {
+		this.source = source;
+		this.enabled = enabled;
+		this.detailThreshold = detailThreshold;
+		this.budgetNanos = budgetMs * 1000000;
+		this.faster = faster == null ? this : faster;
+	}
+
+
+	/**
+	 * Called by CompositeImageCanvas after a frame that was rendered using this LOD has finished.
+	 * Frames that were cancelled or that only partially rendered the network should not be reported.
+	 */
+	public void frameRendered(RenderDetailFlags flags, long nanos) {
+		if(!enabled.getAsBoolean() || flags.not(LOD_HIGH_DETAIL))
+			return;
+
+		int elements = flags.getVisibleNodeCount() + flags.getEstimatedEdgeCount();
+		if(elements < MIN_SAMPLE_ELEMENTS)
+			return;
+
+		double sample = (double) nanos / elements;
+		synchronized(this) {
+			double current = nanosPerElement;
+			nanosPerElement = current < 0 ? sample : current + SMOOTHING * (sample - current);
+		}
+	}
+
+	/**
+	 * Returns the factor that the thresholds of the source LOD are currently multiplied by.
+	 */
+	public double getScale() {
+		double cost = nanosPerElement;
+		int threshold = detailThreshold.getAsInt();
+		if(cost <= 0 || threshold <= 0 || !enabled.getAsBoolean())
+			return 1.0;
+
+		double maxElements = budgetNanos / cost;
+		return Math.max(MIN_SCALE, Math.min(MAX_SCALE, maxElements / threshold));
+	}
+
+	public void reset() {
+		nanosPerElement = -1;
+		if(faster != this)
+			faster.reset();
+	}
+
+	private static int scale(int count, double scale) {
+		return (int) (count / scale);
+	}
+
+
+	@Override
+	public GraphLOD faster() {
+		return faster;
+	}
+
+	@Override
+	public RenderEdges renderEdges(int visibleNodeCount, int totalNodeCount, int totalEdgeCount) {
+		double s = getScale();
+		return source.renderEdges(scale(visibleNodeCount, s), scale(totalNodeCount, s), scale(totalEdgeCount, s));
+	}
+
+	@Override
+	public boolean detail(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.detail(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean nodeBorders(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.nodeBorders(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean nodeLabels(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.nodeLabels(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean customGraphics(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.customGraphics(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean edgeArrows(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.edgeArrows(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean dashedEdges(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.dashedEdges(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean edgeAnchors(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.edgeAnchors(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean edgeLabels(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.edgeLabels(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean textAsShape(int renderNodeCount, int renderEdgeCount) {
+		double s = getScale();
+		return source.textAsShape(scale(renderNodeCount, s), scale(renderEdgeCount, s));
+	}
+
+	@Override
+	public boolean isEdgeBufferPanEnabled() {
+		return source.isEdgeBufferPanEnabled();
+	}
+
+	@Override
+	public boolean isLabelCacheEnabled() {
+		return source.isLabelCacheEnabled();
+	}
+
+	@Override
+	public boolean isHidpiEnabled() {
+		return source.isHidpiEnabled();
+	}
+
+	@Override
+	public double getNestedNetworkImageScaleFactor() {
+		return source.getNestedNetworkImageScaleFactor();
+	}
+
+}
@@ -36,6 +36,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cytoscape.ding.DVisualLexicon;
 import org.cytoscape.ding.impl.strokes.DAnimatedStroke;
@@ -67,6 +68,7 @@ public final class DEdgeDetails implements EdgeDetails {
 
 	private final DRenderingEngine re;
 	private Map<View<CyEdge>,DAnimatedStroke> animatedStrokes = null;
+	private volatile Set<View<CyEdge>> animatedEdges = Set.of();
 	
 	public DEdgeDetails(DRenderingEngine re) {
 		this.re = re;
@@ -175,6 +177,7 @@ public final class DEdgeDetails implements EdgeDetails {
 	
 	@Override
 	public void updateAnimatedEdges(Collection<View<CyEdge>> edges) {
+		animatedEdges = Set.copyOf(edges);
 		if(edges.isEmpty()) {
 			animatedStrokes = null;
 			return;
@@ -200,6 +203,11 @@ public final class DEdgeDetails implements EdgeDetails {
 			&& animatedStroke.getWidth() == ((DAnimatedStroke)stroke).getWidth();
 	}
 	
+	@Override
+	public Set<View<CyEdge>> getAnimatedEdges() {
+		return animatedEdges;
+	}
+	
 	@Override
 	public void advanceAnimatedEdges() {
 		animatedStrokes.replaceAll((edge,stroke) -> stroke.newInstanceForNextOffset());
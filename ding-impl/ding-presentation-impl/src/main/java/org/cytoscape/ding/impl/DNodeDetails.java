@@ -52,8 +52,8 @@ public class DNodeDetails implements NodeDetails {
 	private static BufferedImage DEFAULT_NESTED_NETWORK_IMAGE;
 	private static BufferedImage RECURSIVE_NESTED_NETWORK_IMAGE;
 	
-	// Used to detect recursive rendering of nested networks.
-	private static int nestedNetworkPaintingDepth = 0;
+	// Used to detect recursive rendering of nested networks, per thread because nodes may be painted in parallel.
+	private static final ThreadLocal<Integer> nestedNetworkPaintingDepth = ThreadLocal.withInitial(() -> 0);
 	
 	static {
 		// Initialize image icons for nested networks
@@ -366,7 +366,8 @@ public class DNodeDetails implements NodeDetails {
 		if(registrar == null)
 			return null;
 		
-		++nestedNetworkPaintingDepth;
+		int depth = nestedNetworkPaintingDepth.get() + 1;
+		nestedNetworkPaintingDepth.set(depth);
 		try {
 			boolean nestedNetworkVisible = getNestedNetworkImgVisible(nodeView);
 			if(!Boolean.TRUE.equals(nestedNetworkVisible)) {
@@ -376,7 +377,7 @@ public class DNodeDetails implements NodeDetails {
 			SnapshotNodeInfo nodeInfo = netView.getNodeInfo(nodeView);
 			CyNode modelNode = netView.getMutableNetworkView().getModel().getNode(nodeInfo.getModelSUID());
 			
-			if (modelNode == null || nestedNetworkPaintingDepth > 1 ||  modelNode.getNetworkPointer() == null)
+			if (modelNode == null || depth > 1 ||  modelNode.getNetworkPointer() == null)
 				return null;
 
 			final double IMAGE_WIDTH  = getWidth(nodeView)  * NESTED_IMAGE_SCALE_FACTOR;
@@ -412,7 +413,7 @@ public class DNodeDetails implements NodeDetails {
 				return new TexturePaint(DEFAULT_NESTED_NETWORK_IMAGE, rect);
 			}
 		} finally {
-			--nestedNetworkPaintingDepth;
+			nestedNetworkPaintingDepth.set(depth - 1);
 		}
 	}
 
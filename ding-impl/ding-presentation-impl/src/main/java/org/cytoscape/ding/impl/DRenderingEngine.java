@@ -36,7 +36,8 @@ import org.cytoscape.cg.event.CustomGraphicsLibraryUpdatedListener;
 import org.cytoscape.ding.DVisualLexicon;
 import org.cytoscape.ding.PrintLOD;
 import org.cytoscape.ding.debug.DebugProgressMonitorFactory;
-import org.cytoscape.ding.debug.DingDebugMediator;
+import org.cytoscape.ding.debug.DebugRootFrameInfo;
+import org.cytoscape.ding.debug.RenderMetrics;
 import org.cytoscape.ding.icon.VisualPropertyIconFactory;
 import org.cytoscape.ding.impl.canvas.CompositeGraphicsCanvas;
 import org.cytoscape.ding.impl.canvas.MainRenderComponent;
@@ -50,6 +51,7 @@ import org.cytoscape.event.DebounceTimer;
 import org.cytoscape.graph.render.stateful.EdgeDetails;
 import org.cytoscape.graph.render.stateful.GraphLOD;
 import org.cytoscape.graph.render.stateful.GraphLOD.RenderEdges;
+import org.cytoscape.graph.render.stateful.EdgeGeometryCache;
 import org.cytoscape.graph.render.stateful.LabelInfoCache;
 import org.cytoscape.graph.render.stateful.LabelInfoProvider;
 import org.cytoscape.graph.render.stateful.NodeDetails;
@@ -139,6 +141,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 	private final EdgeDetails edgeDetails;
 	
 	private final DingGraphLOD dingGraphLOD;
+	private final AdaptiveGraphLOD adaptiveGraphLOD;
 
 	private MainRenderComponent renderComponent;
 	private NetworkPicker picker;
@@ -161,10 +164,13 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 	private final DebounceTimer eventFireTimer;
 	
 	private final LabelInfoCache labelInfoCache;
+	private final EdgeGeometryCache edgeGeometryCache = new EdgeGeometryCache();
 	
 	private final BendStore bendStore;
 	private InputHandlerGlassPane inputHandler = null;
 	private DebugProgressMonitorFactory debugProgressMonitorFactory;
+	private final DebugProgressMonitorFactory profilerProgressMonitorFactory;
+	private final RenderMetrics renderMetrics;
 	
 	// This is Ding's own rendering thread. All rendering is single-threaded, but off the EDT
 	private final ExecutorService singleThreadExecutor;
@@ -183,6 +189,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		this.viewModel = view;
 		this.lexicon = dingLexicon;
 		this.dingGraphLOD = dingGraphLOD;
+		this.adaptiveGraphLOD = new AdaptiveGraphLOD(dingGraphLOD);
 		
 		this.singleThreadExecutor = Executors.newSingleThreadExecutor(r -> {
 			Thread thread = Executors.defaultThreadFactory().newThread(r);
@@ -195,6 +202,11 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		nodeDetails = new DNodeDetails(registrar);
 		edgeDetails = new DEdgeDetails(this);
 		
+		// Recording stats is cheap, and the hit rate is needed to tune the label cache
+		labelInfoCache = new LabelInfoCache(1000, true); // MKTODO should maxSize be hardcoded?
+		renderMetrics = new RenderMetrics(labelInfoCache);
+		profilerProgressMonitorFactory = new DebugProgressMonitorFactory(this::addProfiledFrame);
+		
 		// Finally, intialize our annotations
 		cyAnnotator = new CyAnnotator(this, annMgr, registrar);
 		registrar.registerService(cyAnnotator, SessionAboutToBeSavedListener.class);
@@ -202,7 +214,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		
 		labelSelectionManager = new LabelSelectionManager(this);
 		
-		renderComponent = new MainRenderComponent(this, dingGraphLOD);
+		renderComponent = new MainRenderComponent(this, adaptiveGraphLOD);
 		picker = new NetworkPicker(this, null);
 		
 		// Updating the snapshot for nested networks
@@ -210,8 +222,6 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 
 		viewModelSnapshot = viewModel.createSnapshot();
 		
-		labelInfoCache = new LabelInfoCache(1000, DingDebugMediator.showDebugPanel(registrar)); // MKTODO should maxSize be hardcoded?
-		
 		eventFireTimer = new DebounceTimer(240);
 		
 		// Check if the view model has changed approximately 30 times per second.
@@ -242,9 +252,32 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 	}
 	
 	public DebugProgressMonitorFactory getDebugProgressMonitorFactory() {
+		// The profiler records frames even when the debug panel is not installed
+		if(renderMetrics.isEnabled())
+			return profilerProgressMonitorFactory;
 		return debugProgressMonitorFactory;
 	}
 	
+	private void addProfiledFrame(DebugRootFrameInfo frame) {
+		renderMetrics.addFrame(frame);
+		var debugFactory = debugProgressMonitorFactory;
+		if(debugFactory != null)
+			debugFactory.getCallback().addFrame(frame);
+	}
+	
+	public RenderMetrics getRenderMetrics() {
+		return renderMetrics;
+	}
+	
+	/**
+	 * Turns the frame profiler and its overlay on or off, then renders a full frame so there is something to show.
+	 */
+	public void setRenderProfiler(boolean enabled, boolean overlayVisible) {
+		renderMetrics.setEnabled(enabled);
+		renderMetrics.setOverlayVisible(overlayVisible);
+		updateView(UpdateType.ALL_FULL);
+	}
+	
 	public Image getImage() {
 		return renderComponent.getImage();
 	}
@@ -257,6 +290,10 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		return labelInfoCache;
 	}
 	
+	public EdgeGeometryCache getEdgeGeometryCache() {
+		return edgeGeometryCache;
+	}
+	
 	public Rectangle getComponentBounds() {
 		return renderComponent.getBounds();
 	}
@@ -277,7 +314,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 	}
 	
 	public GraphLOD getGraphLOD() {
-		return dingGraphLOD;
+		return adaptiveGraphLOD;
 	}
 	
 	/**
@@ -350,10 +387,12 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 	}
 	
 	private boolean updateModel() {
+		long start = System.nanoTime();
 		var snapshot = viewModel.createSnapshot();
 		if(snapshot == null)
 			return false; // Should happen very infrequently, try again on the next frame.
 		
+		renderMetrics.addSnapshotTime(System.nanoTime() - start);
 		viewModelSnapshot = snapshot;
 		
 		// Check for important changes between snapshots
@@ -362,7 +401,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		
 		// update LOD
 		boolean hd = viewModelSnapshot.getVisualProperty(DVisualLexicon.NETWORK_FORCE_HIGH_DETAIL);
-		renderComponent.setLOD(hd ? DingGraphLODAll.instance() : dingGraphLOD);
+		renderComponent.setLOD(hd ? DingGraphLODAll.instance() : adaptiveGraphLOD);
 		
 		// update view (for example if "fit selected" was run)
 		double x = viewModelSnapshot.getVisualProperty(BasicVisualLexicon.NETWORK_CENTER_X_LOCATION);
@@ -748,6 +787,7 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		boolean hideLabels    = Boolean.parseBoolean(props.get("exportHideLabels"));
 		boolean highDetail    = Boolean.parseBoolean(props.getOrDefault("highDetail", "true"));
 		boolean pdf           = Boolean.parseBoolean(props.get("pdf"));
+		boolean tile          = Boolean.parseBoolean(props.get("exportTile"));
 		
 		GraphLOD baseLOD = highDetail ? DingGraphLODAll.instance() : new DingGraphLOD(serviceRegistrar);
 		PrintLOD printLOD = new PrintLOD(baseLOD, exportAsShape, !hideLabels);
@@ -758,7 +798,10 @@ public class DRenderingEngine implements RenderingEngine<CyNetwork>, Printable,
 		var transform = new NetworkTransform(renderComponent.getTransform());
 		transform.setDPIScaleFactor(1.0);
 		
-		CompositeGraphicsCanvas.paint((Graphics2D)g, bg, printLOD, transform, this, pdf);
+		// When exporting a large image one tile at a time the graphics is clipped to the tile.
+		Rectangle clip = tile ? g.getClipBounds() : null;
+		
+		CompositeGraphicsCanvas.paint((Graphics2D)g, bg, printLOD, transform, this, pdf, clip);
 	}
 	
 	// File > Export Network to Image... (JPEG, PNG, PDF, POSTSCRIPT, SVG)
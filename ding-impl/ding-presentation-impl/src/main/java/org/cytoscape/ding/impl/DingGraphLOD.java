@@ -61,6 +61,7 @@ public class DingGraphLOD implements GraphLOD, PropertyUpdatedListener {
 	protected boolean edgeBufferPan;
 	protected boolean labelCache;
 	protected boolean hidpi;
+	protected boolean adaptive;
 
 	private final Properties props;
 	private final CyProperty<Properties> cyProp;
@@ -85,6 +86,7 @@ public class DingGraphLOD implements GraphLOD, PropertyUpdatedListener {
 		edgeBufferPan = parseBoolean(props.getProperty("render.edgeBufferPan"));
 		labelCache    = parseBoolean(props.getProperty("render.labelCache"));
 		hidpi         = parseBoolean(props.getProperty("render.hidpi"));
+		adaptive      = parseBoolean(props.getProperty("render.adaptiveLOD"));
 	}
 
 	private static int parseInt(String intString, int defaultValue) {
@@ -512,6 +514,17 @@ public class DingGraphLOD implements GraphLOD, PropertyUpdatedListener {
 		return hidpi;
 	}
 	
+	/**
+	 * Returns true if the thresholds may be adjusted to the measured frame time, see {@link AdaptiveGraphLOD}.
+	 */
+	public boolean isAdaptiveEnabled() {
+		return adaptive;
+	}
+	
+	public int getCoarseDetailThreshold() {
+		return coarseDetailThreshold;
+	}
+	
 	@Override
 	public double getNestedNetworkImageScaleFactor() {
 		final String scaleFactor = props.getProperty("nestedNetwork.imageScaleFactor", "1.0");
@@ -0,0 +1,432 @@
+package org.cytoscape.ding.impl;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ANCHORS;
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ARROWS;
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.graph.render.stateful.EdgeDetails;
+import org.cytoscape.graph.render.stateful.GraphRenderer;
+import org.cytoscape.graph.render.stateful.NodeDetails;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.EdgeStackingVisualProperty;
+import org.cytoscape.view.presentation.property.values.ArrowShape;
+
+/**
+ * An immutable packed R-tree of the line segments of the edges, used to pick edges.
+ * <p>
+ * The geometry of each edge (end points, arrows, anchors, haystack) is computed once when the index
+ * is created, curved edges are flattened into line segments. Picking then only has to test the
+ * segments near the query rectangle, instead of computing the path of every visible edge again.
+ * <p>
+ * The index covers the edges that touch the nodes in the visible area, and is only valid for
+ * the snapshot, visible area and level of detail it was created with.
+ */
+final class EdgeSegmentIndex {
+
+	// Max number of children of each tree node
+	private static final int M = 16;
+
+	private static final int XMIN = 0, YMIN = 1, XMAX = 2, YMAX = 3;
+
+	// What the index was created from
+	private CyNetworkViewSnapshot snapshot;
+	private Rectangle2D.Float area;
+	private int lodBits;
+
+	// By edge, in the order they are rendered
+	private final int edgeCount;
+	private final long[] suids;
+	private final float[] halfWidths;
+	private final float maxHalfWidth;
+
+	// By segment, in STR order, 4 floats per segment (x1, y1, x2, y2)
+	private final int segmentCount;
+	private final float[] segments;
+	private final int[] segmentEdges;
+
+	// Boxes of the tree nodes, levels[0] are the parents of the segments, the last level has just the root.
+	private final float[][] levels;
+
+
+	private EdgeSegmentIndex(Builder builder) {
+		this.edgeCount = builder.edgeCount;
+		this.suids = Arrays.copyOf(builder.suids, edgeCount);
+		this.halfWidths = Arrays.copyOf(builder.halfWidths, edgeCount);
+		float maxHalfWidth = 0.0f;
+		for(float w : halfWidths)
+			maxHalfWidth = Math.max(maxHalfWidth, w);
+		this.maxHalfWidth = maxHalfWidth;
+		this.segmentCount = builder.segmentCount;
+
+		// STR: sort by center x, cut into vertical slices, sort each slice by center y
+		final int n = segmentCount;
+		float[] in = builder.segments;
+		int leafCount = (n + M - 1) / M;
+		int sliceSize = Math.max(1, (int) Math.ceil(Math.sqrt(leafCount))) * M;
+
+		long[] keys = new long[n];
+		for(int i = 0; i < n; i++) {
+			keys[i] = sortKey(in[i*4] + in[i*4+2], i);
+		}
+		Arrays.sort(keys);
+
+		int[] order = new int[n];
+		long[] sliceKeys = new long[Math.min(n, sliceSize)];
+		for(int start = 0; start < n; start += sliceSize) {
+			int end = Math.min(n, start + sliceSize);
+			for(int k = start; k < end; k++) {
+				int i = (int) keys[k];
+				sliceKeys[k - start] = sortKey(in[i*4+1] + in[i*4+3], i);
+			}
+			Arrays.sort(sliceKeys, 0, end - start);
+			for(int k = start; k < end; k++) {
+				order[k] = (int) sliceKeys[k - start];
+			}
+		}
+
+		segments = new float[n * 4];
+		segmentEdges = new int[n];
+		for(int s = 0; s < n; s++) {
+			int i = order[s];
+			System.arraycopy(in, i * 4, segments, s * 4, 4);
+			segmentEdges[s] = builder.segmentEdges[i];
+		}
+
+		List<float[]> levelList = new ArrayList<>();
+		int count = n;
+		float[] children = null;
+		do {
+			int parentCount = Math.max(1, (count + M - 1) / M);
+			float[] parents = new float[parentCount * 4];
+			for(int p = 0; p < parentCount; p++) {
+				if(children == null)
+					unionSegments(parents, p, count);
+				else
+					union(parents, p, children, count);
+			}
+			levelList.add(parents);
+			children = parents;
+			count = parentCount;
+		} while(count > 1);
+
+		levels = levelList.toArray(new float[0][]);
+	}
+
+
+	/**
+	 * Computes the geometry of the edges that touch the nodes in the visible area, the same way
+	 * they were rendered with the given flags.
+	 */
+	static EdgeSegmentIndex create(CyNetworkViewSnapshot snapshot, Rectangle2D.Float area, double scaleFactor,
+			RenderDetailFlags flags, NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+		var edgeHits = snapshot.getSpacialIndex2D().queryOverlapEdges(area.x, area.y, area.x + area.width, area.y + area.height, null);
+
+		final float[] srcExtents = new float[4];
+		final float[] trgExtents = new float[4];
+		var builder = new Builder(edgeHits.size());
+
+		if (flags.not(LOD_HIGH_DETAIL)) {
+			while(edgeHits.hasNext()) {
+				var edge = edgeHits.nextEdgeWithNodeExtents(srcExtents, trgExtents, null);
+
+				float sourceNodeX = (srcExtents[0] + srcExtents[2]) / 2;
+				float sourceNodeY = (srcExtents[1] + srcExtents[3]) / 2;
+				float targetNodeX = (trgExtents[0] + trgExtents[2]) / 2;
+				float targetNodeY = (trgExtents[1] + trgExtents[3]) / 2;
+
+				builder.addEdge(edge.getSUID(), 0.0f);
+				builder.addSegment(sourceNodeX, sourceNodeY, targetNodeX, targetNodeY);
+			}
+
+		} else {
+			// Curves are flattened to within half a pixel
+			final double flatness = 0.5 / scaleFactor;
+			final byte[] haystackDataBuff = new byte[16];
+			final float[] floatBuff1 = new float[4];
+			final float[] floatBuff2 = new float[4];
+			final GeneralPath path = new GeneralPath();
+
+			while(edgeHits.hasNext()) {
+				var edge = edgeHits.nextEdgeWithNodeExtents(srcExtents, trgExtents, null);
+
+				var edgeInfo = snapshot.getEdgeInfo(edge);
+				long edgeSuid = edgeInfo.getSUID();
+				var stacking = edgeDetails.getStacking(edge);
+
+				var sourceNode = edgeInfo.getSourceNodeView();
+				var targetNode = edgeInfo.getTargetNodeView();
+
+				byte srcShape = nodeDetails.getShape(sourceNode);
+				byte trgShape = nodeDetails.getShape(targetNode);
+
+				final ArrowShape srcArrow;
+				final ArrowShape trgArrow;
+				final float srcArrowSize;
+				final float trgArrowSize;
+
+				if (flags.not(LOD_EDGE_ARROWS) || stacking == EdgeStackingVisualProperty.HAYSTACK) {
+					srcArrow = trgArrow = ArrowShapeVisualProperty.NONE;
+					srcArrowSize = trgArrowSize = 0.0f;
+				} else {
+					srcArrow = edgeDetails.getSourceArrowShape(edge);
+					trgArrow = edgeDetails.getTargetArrowShape(edge);
+					srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getSourceArrowSize(edge));
+					trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getTargetArrowSize(edge));
+				}
+
+				var anchors = flags.not(LOD_EDGE_ANCHORS) ? null : edgeDetails.getAnchors(snapshot, edge);
+
+				if(stacking == EdgeStackingVisualProperty.HAYSTACK) {
+					float radiusModifier = edgeDetails.getStackingDensity(edge);
+					GraphRenderer.computeEdgeEndpointsHaystack(srcExtents, trgExtents, sourceNode.getSUID(), targetNode.getSUID(), edgeSuid,
+							radiusModifier, stacking, floatBuff1, floatBuff2, haystackDataBuff);
+				} else {
+					GraphRenderer.computeEdgeEndpoints(srcExtents, srcShape, srcArrow,
+							srcArrowSize, anchors, trgExtents, trgShape,
+							trgArrow, trgArrowSize, floatBuff1, floatBuff2);
+				}
+
+				path.reset();
+				GraphGraphics.getEdgePath(srcArrow, srcArrowSize, trgArrow, trgArrowSize,
+						floatBuff1[0], floatBuff1[1], anchors,
+						floatBuff2[0], floatBuff2[1], path);
+
+				builder.addEdge(edgeSuid, (float) (edgeDetails.getWidth(edge) / 2.0d));
+				builder.addPath(path.getPathIterator(null, flatness));
+			}
+		}
+
+		var index = builder.build();
+		index.snapshot = snapshot;
+		index.area = new Rectangle2D.Float(area.x, area.y, area.width, area.height);
+		index.lodBits = getLodBits(flags);
+		return index;
+	}
+
+	/**
+	 * Returns true if the index can still be used to pick edges.
+	 */
+	boolean isValid(CyNetworkViewSnapshot snapshot, Rectangle2D.Float area, RenderDetailFlags flags) {
+		return this.snapshot == snapshot && this.area.equals(area) && this.lodBits == getLodBits(flags);
+	}
+
+	private static int getLodBits(RenderDetailFlags flags) {
+		return (flags.has(LOD_HIGH_DETAIL) ? 1 : 0) | (flags.has(LOD_EDGE_ARROWS) ? 2 : 0) | (flags.has(LOD_EDGE_ANCHORS) ? 4 : 0);
+	}
+
+
+	/**
+	 * Returns the SUIDs of the edges that intersect the rectangle, in the order they are rendered.
+	 * The rectangle is widened by half the width of each edge.
+	 */
+	List<Long> query(float xMin, float yMin, float xMax, float yMax) {
+		if(segmentCount == 0)
+			return new ArrayList<>(0);
+
+		int[] hits = new int[16];
+		int hitCount = 0;
+
+		int[] stackLevel = new int[levels.length * M + 1];
+		int[] stackIndex = new int[levels.length * M + 1];
+		int top = 0;
+		stackLevel[0] = levels.length - 1;
+		stackIndex[0] = 0;
+
+		// The boxes of the tree don't include the width of the edges, so widen the query instead
+		float qxMin = xMin - maxHalfWidth, qyMin = yMin - maxHalfWidth;
+		float qxMax = xMax + maxHalfWidth, qyMax = yMax + maxHalfWidth;
+
+		Rectangle2D.Float rect = new Rectangle2D.Float();
+
+		while(top >= 0) {
+			int level = stackLevel[top];
+			int index = stackIndex[top];
+			top--;
+
+			float[] boxes = levels[level];
+			int b = index * 4;
+			if(boxes[b+XMIN] > qxMax || qxMin > boxes[b+XMAX] || boxes[b+YMIN] > qyMax || qyMin > boxes[b+YMAX])
+				continue;
+
+			int childCount = level == 0 ? segmentCount : levels[level-1].length / 4;
+			int end = Math.min(childCount, (index + 1) * M);
+
+			if(level > 0) {
+				for(int c = index * M; c < end; c++) {
+					top++;
+					stackLevel[top] = level - 1;
+					stackIndex[top] = c;
+				}
+				continue;
+			}
+
+			for(int s = index * M; s < end; s++) {
+				int edge = segmentEdges[s];
+				float w = halfWidths[edge];
+				rect.setRect(xMin - w, yMin - w, (xMax - xMin) + (w * 2), (yMax - yMin) + (w * 2));
+				int p = s * 4;
+				if(rect.intersectsLine(segments[p], segments[p+1], segments[p+2], segments[p+3])) {
+					if(hitCount == hits.length)
+						hits = Arrays.copyOf(hits, hitCount * 2);
+					hits[hitCount++] = edge;
+				}
+			}
+		}
+
+		// Several segments of the same edge may be hit
+		Arrays.sort(hits, 0, hitCount);
+		List<Long> result = new ArrayList<>(hitCount);
+		for(int i = 0; i < hitCount; i++) {
+			if(i == 0 || hits[i] != hits[i-1])
+				result.add(suids[hits[i]]);
+		}
+		return result;
+	}
+
+	int getEdgeCount() {
+		return edgeCount;
+	}
+
+	int getSegmentCount() {
+		return segmentCount;
+	}
+
+
+	private void unionSegments(float[] parents, int parent, int segmentCount) {
+		int start = parent * M;
+		int end = Math.min(segmentCount, start + M);
+		float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY;
+		float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY;
+		for(int s = start; s < end; s++) {
+			int p = s * 4;
+			xMin = Math.min(xMin, Math.min(segments[p], segments[p+2]));
+			yMin = Math.min(yMin, Math.min(segments[p+1], segments[p+3]));
+			xMax = Math.max(xMax, Math.max(segments[p], segments[p+2]));
+			yMax = Math.max(yMax, Math.max(segments[p+1], segments[p+3]));
+		}
+		setBox(parents, parent, xMin, yMin, xMax, yMax);
+	}
+
+	private static void union(float[] parents, int parent, float[] children, int childCount) {
+		int start = parent * M;
+		int end = Math.min(childCount, start + M);
+		float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY;
+		float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY;
+		for(int c = start; c < end; c++) {
+			int b = c * 4;
+			xMin = Math.min(xMin, children[b+XMIN]);
+			yMin = Math.min(yMin, children[b+YMIN]);
+			xMax = Math.max(xMax, children[b+XMAX]);
+			yMax = Math.max(yMax, children[b+YMAX]);
+		}
+		setBox(parents, parent, xMin, yMin, xMax, yMax);
+	}
+
+	private static void setBox(float[] boxes, int index, float xMin, float yMin, float xMax, float yMax) {
+		int b = index * 4;
+		boxes[b+XMIN] = xMin;
+		boxes[b+YMIN] = yMin;
+		boxes[b+XMAX] = xMax;
+		boxes[b+YMAX] = yMax;
+	}
+
+	/**
+	 * Packs a coordinate and an index into a long that sorts by the coordinate.
+	 */
+	private static long sortKey(float coord, int index) {
+		int bits = Float.floatToIntBits(coord);
+		bits ^= (bits >> 31) & 0x7FFFFFFF;
+		return ((long) bits << 32) | (index & 0xFFFFFFFFL);
+	}
+
+
+	/**
+	 * Collects the edges and their segments, edges must be added in the order they are rendered.
+	 */
+	static class Builder {
+
+		private int edgeCount;
+		private long[] suids;
+		private float[] halfWidths;
+
+		private int segmentCount;
+		private float[] segments;
+		private int[] segmentEdges;
+
+		private final float[] coords = new float[6];
+
+		Builder(int expectedEdges) {
+			int capacity = Math.max(16, expectedEdges);
+			suids = new long[capacity];
+			halfWidths = new float[capacity];
+			segments = new float[capacity * 4];
+			segmentEdges = new int[capacity];
+		}
+
+		void addEdge(long suid, float halfWidth) {
+			if(edgeCount == suids.length) {
+				suids = Arrays.copyOf(suids, edgeCount * 2);
+				halfWidths = Arrays.copyOf(halfWidths, edgeCount * 2);
+			}
+			suids[edgeCount] = suid;
+			halfWidths[edgeCount] = halfWidth;
+			edgeCount++;
+		}
+
+		/**
+		 * Adds a segment to the last edge that was added.
+		 */
+		void addSegment(float x1, float y1, float x2, float y2) {
+			if(segmentCount == segmentEdges.length) {
+				segments = Arrays.copyOf(segments, segmentCount * 8);
+				segmentEdges = Arrays.copyOf(segmentEdges, segmentCount * 2);
+			}
+			int p = segmentCount * 4;
+			segments[p]   = x1;
+			segments[p+1] = y1;
+			segments[p+2] = x2;
+			segments[p+3] = y2;
+			segmentEdges[segmentCount] = edgeCount - 1;
+			segmentCount++;
+		}
+
+		/**
+		 * Adds the segments of a flattened path to the last edge that was added.
+		 */
+		void addPath(PathIterator flatPath) {
+			float startX = 0, startY = 0, lastX = 0, lastY = 0;
+			for(; !flatPath.isDone(); flatPath.next()) {
+				switch(flatPath.currentSegment(coords)) {
+					case PathIterator.SEG_MOVETO:
+						startX = lastX = coords[0];
+						startY = lastY = coords[1];
+						break;
+					case PathIterator.SEG_LINETO:
+						addSegment(lastX, lastY, coords[0], coords[1]);
+						lastX = coords[0];
+						lastY = coords[1];
+						break;
+					case PathIterator.SEG_CLOSE:
+						addSegment(lastX, lastY, startX, startY);
+						lastX = startX;
+						lastY = startY;
+						break;
+				}
+			}
+		}
+
+		EdgeSegmentIndex build() {
+			return new EdgeSegmentIndex(this);
+		}
+	}
+}
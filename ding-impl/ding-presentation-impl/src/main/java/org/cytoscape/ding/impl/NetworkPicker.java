@@ -2,7 +2,6 @@ package org.cytoscape.ding.impl;
 
 import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ANCHORS;
 import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ARROWS;
-import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
 import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_NODE_LABELS;
 import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_LABELS;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_POSITION;
@@ -16,7 +15,6 @@ import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
 import java.awt.geom.GeneralPath;
-import java.awt.geom.Line2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
@@ -25,6 +23,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.BooleanSupplier;
 
+import org.cytoscape.ding.impl.canvas.NetworkTransform;
 import org.cytoscape.ding.impl.cyannotator.annotations.DingAnnotation;
 import org.cytoscape.ding.impl.cyannotator.annotations.DingAnnotation.CanvasID;
 import org.cytoscape.graph.render.immed.EdgeAnchors;
@@ -66,6 +65,7 @@ public class NetworkPicker {
 	private final EdgeDetails edgeDetails;
 	
 	private RenderDetailFlags renderDetailFlags;
+	private EdgeSegmentIndex edgeIndex;
 	
 	public NetworkPicker(DRenderingEngine re, RenderDetailFlags renderDetailFlags) {
 		this.re = re;
@@ -459,99 +459,24 @@ public class NetworkPicker {
 		final float xMax = (float) ptBuff[0];
 		final float yMax = (float) ptBuff[1];
 		
-		final float[] srcExtents = new float[4];
-		final float[] trgExtents = new float[4];
-		
+		return getEdgeIndex().query(xMin, yMin, xMax, yMax);
+	}
+	
+	/**
+	 * Returns the index of the edge segments, the edge geometry is only computed again 
+	 * when the snapshot, the visible area or the level of detail changed.
+	 */
+	private EdgeSegmentIndex getEdgeIndex() {
 		CyNetworkViewSnapshot snapshot = re.getViewModelSnapshot();
-		Rectangle2D.Float area = re.getTransform().getNetworkVisibleAreaNodeCoords();
-		EdgeSpacialIndex2DEnumerator edgeHits = snapshot.getSpacialIndex2D().queryOverlapEdges(area.x, area.y, area.x + area.width, area.y + area.height, null);
-		
-		List<Long> resultEdges = new ArrayList<>();
+		NetworkTransform transform = re.getTransform();
+		Rectangle2D.Float area = transform.getNetworkVisibleAreaNodeCoords();
 		
-		if (getFlags().not(LOD_HIGH_DETAIL)) {
-			Line2D.Float line = new Line2D.Float();
-			
-			// We won't need to look up arrows and their sizes.
-			while(edgeHits.hasNext()) {
-				View<CyEdge> edge = edgeHits.nextEdgeWithNodeExtents(srcExtents, trgExtents, null);
-				
-				float sourceNodeX = (srcExtents[0] + srcExtents[2]) / 2;
-				float sourceNodeY = (srcExtents[1] + srcExtents[3]) / 2;
-				float targetNodeX = (trgExtents[0] + trgExtents[2]) / 2;
-				float targetNodeY = (trgExtents[1] + trgExtents[3]) / 2;
-				
-				line.setLine(sourceNodeX, sourceNodeY, targetNodeX, targetNodeY);
-				
-				if(line.intersects(xMin, yMin, xMax - xMin, yMax - yMin)) {
-					resultEdges.add(edge.getSUID());
-				}
-			}
-			
-		} else { // Last render high detail.
-			byte[] haystackDataBuff = new byte[16];
-			final float[] floatBuff1 = new float[4];
-			final float[] floatBuff2 = new float[4];
-			
-			while(edgeHits.hasNext()) {
-				View<CyEdge> edge = edgeHits.nextEdgeWithNodeExtents(srcExtents, trgExtents, null);
-				
-				SnapshotEdgeInfo edgeInfo = snapshot.getEdgeInfo(edge);
-				long edgeSuid = edgeInfo.getSUID();
-				double segThicknessDiv2 = edgeDetails.getWidth(edge) / 2.0d;
-				EdgeStacking stacking = edgeDetails.getStacking(edge);
-				
-				View<CyNode> sourceNode = edgeInfo.getSourceNodeView();
-				View<CyNode> targetNode = edgeInfo.getTargetNodeView();
-				
-				byte srcShape = nodeDetails.getShape(sourceNode);
-				byte trgShape = nodeDetails.getShape(targetNode);
-				
-				final long srcSuid = sourceNode.getSUID();
-				final long trgSuid = targetNode.getSUID();
-			
-				final ArrowShape srcArrow;
-				final ArrowShape trgArrow;
-				final float srcArrowSize;
-				final float trgArrowSize;
-				
-				if (getFlags().not(LOD_EDGE_ARROWS) || stacking == EdgeStackingVisualProperty.HAYSTACK) {
-					srcArrow = trgArrow = ArrowShapeVisualProperty.NONE;
-					srcArrowSize = trgArrowSize = 0.0f;
-				} else {
-					srcArrow = edgeDetails.getSourceArrowShape(edge);
-					trgArrow = edgeDetails.getTargetArrowShape(edge);
-					srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getSourceArrowSize(edge));
-					trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getTargetArrowSize(edge));
-				}
-
-				EdgeAnchors anchors = getFlags().not(LOD_EDGE_ANCHORS) ? null : edgeDetails.getAnchors(snapshot, edge);
-
-				if(stacking == EdgeStackingVisualProperty.HAYSTACK) {
-					float radiusModifier = edgeDetails.getStackingDensity(edge);
-					GraphRenderer.computeEdgeEndpointsHaystack(srcExtents, trgExtents, srcSuid, trgSuid, edgeSuid, radiusModifier, stacking, 
-							floatBuff1, floatBuff2, haystackDataBuff);
-				} else {
-					GraphRenderer.computeEdgeEndpoints(srcExtents, srcShape, srcArrow,
-		                          srcArrowSize, anchors, trgExtents, trgShape,
-		                          trgArrow, trgArrowSize, floatBuff1, floatBuff2);
-				}
-
-				GeneralPath path  = new GeneralPath();
-				GeneralPath path2 = new GeneralPath();
-				
-				GraphGraphics.getEdgePath(srcArrow, srcArrowSize, trgArrow, trgArrowSize,
-				                    floatBuff1[0], floatBuff1[1], anchors,
-				                    floatBuff2[0], floatBuff2[1], path);
-				GraphRenderer.computeClosedPath(path.getPathIterator(null), path2);
-
-				if (path2.intersects(xMin - segThicknessDiv2, yMin - segThicknessDiv2,
-				                       (xMax - xMin) + (segThicknessDiv2 * 2),
-				                       (yMax - yMin) + (segThicknessDiv2 * 2)))
-					resultEdges.add(edge.getSUID());
-			}
+		EdgeSegmentIndex index = edgeIndex;
+		if(index == null || !index.isValid(snapshot, area, getFlags())) {
+			index = EdgeSegmentIndex.create(snapshot, area, transform.getScaleFactor(), getFlags(), nodeDetails, edgeDetails);
+			edgeIndex = index;
 		}
-		
-		return resultEdges;
+		return index;
 	}
 	
 	
@@ -656,16 +581,31 @@ public class NetworkPicker {
 				}
 			}
 		} else {
+			Area lassoArea = new Area(path);
+			GeneralPath nodeShape = new GeneralPath();
+			
 			while(under.hasNext()) {
 				Long suid = under.nextExtents(extents);
+				float x = extents[0];
+				float y = extents[1];
+				float w = extents[2] - x;
+				float h = extents[3] - y;
+				
+				// Only nodes on the border of the path need the exact (and expensive) shape intersection
+				if(!path.intersects(x, y, w, h))
+					continue;
+				if(path.contains(x, y, w, h)) {
+					result.add(suid);
+					continue;
+				}
+				
 				View<CyNode> nodeView = snapshot.getNodeView(suid);
-				GeneralPath nodeShape = new GeneralPath();
+				nodeShape.reset();
 				GraphGraphics.getNodeShape(nodeDetails.getShape(nodeView),
 						extents[0], extents[1],
 						extents[2], extents[3], nodeShape);
-				Area pathArea = new Area(path);
-				Area nodeArea = new Area(nodeShape);
-				pathArea.intersect(nodeArea);
+				Area pathArea = (Area) lassoArea.clone();
+				pathArea.intersect(new Area(nodeShape));
 				if(!pathArea.isEmpty()) {
 					result.add(suid);
 				}
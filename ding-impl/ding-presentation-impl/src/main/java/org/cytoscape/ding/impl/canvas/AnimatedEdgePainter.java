@@ -0,0 +1,276 @@
+package org.cytoscape.ding.impl.canvas;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_LABELS;
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.cytoscape.ding.impl.DRenderingEngine;
+import org.cytoscape.ding.impl.work.ProgressMonitor;
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.graph.render.stateful.EdgeGeometry;
+import org.cytoscape.graph.render.stateful.GraphRenderer;
+import org.cytoscape.graph.render.stateful.LabelInfoProvider;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
+
+/**
+ * Paints the edge layer so that animated edges can be redrawn without redrawing all of the other edges.
+ * <p>
+ * When there are animated edges a full paint renders the edges that are below the lowest animated edge
+ * in Z order first and keeps a copy of that static layer, then renders the rest of the edges on top,
+ * animated or not. An animation step only restores the static layer inside the bounds of each animated
+ * edge, and redraws the edges above the static layer that intersect those bounds, in Z order and clipped
+ * to them. The bounds include the edge labels. The cost of a step depends on the edges around the
+ * animated edges only.
+ */
+class AnimatedEdgePainter {
+
+	// Above this the bounds of the animated edges are merged into one rectangle,
+	// otherwise the edges that intersect several rectangles are drawn too many times.
+	static final int MAX_DIRTY_RECTS = 16;
+
+	// Extra pixels around the bounds of each edge, for antialiasing
+	private static final int DIRTY_RECT_MARGIN = 2;
+
+	private final DRenderingEngine re;
+	private final EdgeCanvas<ImageGraphicsProvider> canvas;
+	private final SlicedCanvasPainter<View<CyEdge>, EdgeCanvas<ImageGraphicsProvider>> slicedPainter;
+	private final NetworkImageBuffer staticBuffer;
+	private final GraphGraphics animatedGraphics;
+
+	private AnimatedLayer animatedLayer;
+
+
+	/**
+	 * What the static layer and the edges above it were painted with.
+	 */
+	private static class AnimatedLayer {
+		final CyNetworkViewSnapshot snapshot;
+		final RenderDetailFlags flags;
+		final AffineTransform transform;
+		final List<View<CyEdge>> edges;
+		final List<Rectangle> edgeBounds;
+		final List<Rectangle> dirtyRects;
+
+		AnimatedLayer(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, AffineTransform transform,
+				List<View<CyEdge>> edges, List<Rectangle> edgeBounds, List<Rectangle> dirtyRects) {
+			this.snapshot = snapshot;
+			this.flags = flags;
+			this.transform = transform;
+			this.edges = edges;
+			this.edgeBounds = edgeBounds;
+			this.dirtyRects = dirtyRects;
+		}
+	}
+
+
+	public AnimatedEdgePainter(DRenderingEngine re, EdgeCanvas<ImageGraphicsProvider> canvas,
+			SlicedCanvasPainter<View<CyEdge>, EdgeCanvas<ImageGraphicsProvider>> slicedPainter) {
+		this.re = re;
+		this.canvas = canvas;
+		this.slicedPainter = slicedPainter;
+		this.staticBuffer = new NetworkImageBuffer(canvas.getGraphicsProvier().getTransform());
+		this.animatedGraphics = new GraphGraphics(canvas.getGraphicsProvier());
+	}
+
+
+	/**
+	 * Paints the whole edge layer.
+	 */
+	public ImageGraphicsProvider paintAndGet(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags) {
+		animatedLayer = null;
+		pm = ProgressMonitor.notNull(pm);
+
+		Set<View<CyEdge>> animatedEdges = re.getEdgeDetails().getAnimatedEdges();
+		if(animatedEdges.isEmpty() || flags.not(LOD_HIGH_DETAIL)) // animated strokes are not drawn at low detail
+			return slicedPainter.paintAndGet(pm, snapshot, flags);
+
+		// The edges in the order they are painted, the ones below the lowest animated edge make the static layer
+		List<View<CyEdge>> allEdges = canvas.getElements(snapshot, flags);
+		int staticEdgeCount = 0;
+		while(staticEdgeCount < allEdges.size() && !animatedEdges.contains(allEdges.get(staticEdgeCount)))
+			staticEdgeCount++;
+		if(staticEdgeCount == allEdges.size()) // none of the animated edges are visible
+			return slicedPainter.paintAndGet(pm, snapshot, flags, allEdges, true);
+
+		var edges = allEdges.subList(staticEdgeCount, allEdges.size());
+		var pms = pm.split(10, 1);
+
+		slicedPainter.paintAndGet(pms[0], snapshot, flags, allEdges.subList(0, staticEdgeCount), true);
+		if(pm.isCancelled())
+			return canvas.getGraphicsProvier();
+
+		copyImage(canvas.getGraphicsProvier(), staticBuffer, null);
+
+		var layer = createAnimatedLayer(snapshot, flags, animatedEdges, edges);
+
+		slicedPainter.paintAndGet(pms[1], snapshot, flags, edges, false);
+
+		if(!pm.isCancelled())
+			animatedLayer = layer;
+		return canvas.getGraphicsProvier();
+	}
+
+
+	/**
+	 * Redraws just the edges around the animated edges, falls back to painting the whole edge layer if the
+	 * static layer is not valid anymore.
+	 */
+	public ImageGraphicsProvider paintAnimatedAndGet(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags) {
+		var layer = animatedLayer;
+		var transform = canvas.getGraphicsProvier().getTransform();
+		if(layer == null || layer.snapshot != snapshot || !layer.flags.equals(flags)
+				|| !layer.transform.equals(transform.getPaintAffineTransform())) {
+			return paintAndGet(pm, snapshot, flags);
+		}
+
+		pm = ProgressMonitor.notNull(pm);
+		pm.start(canvas.getCanvasDebugName());
+
+		double[] parts = new double[Math.max(1, layer.dirtyRects.size())];
+		Arrays.fill(parts, 1.0);
+		var pms = pm.split(parts);
+		for(int i = 0; i < layer.dirtyRects.size(); i++) {
+			if(pm.isCancelled()) {
+				animatedLayer = null; // the buffer is partially updated
+				break;
+			}
+			Rectangle rect = layer.dirtyRects.get(i);
+			copyImage(staticBuffer, canvas.getGraphicsProvier(), rect);
+
+			List<View<CyEdge>> edges = new ArrayList<>();
+			for(int j = 0; j < layer.edges.size(); j++) {
+				if(layer.edgeBounds.get(j).intersects(rect))
+					edges.add(layer.edges.get(j));
+			}
+
+			animatedGraphics.update(flags, false);
+			animatedGraphics.clipImageRect(rect);
+			renderEdges(pms[i], snapshot, flags, edges);
+		}
+
+		pm.done();
+		return canvas.getGraphicsProvier();
+	}
+
+
+	private LabelInfoProvider getLabelProvider(RenderDetailFlags flags) {
+		return flags.has(RenderDetailFlags.OPT_LABEL_CACHE) ? re.getLabelCache() : LabelInfoProvider.NO_CACHE;
+	}
+
+	private void renderEdges(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, List<View<CyEdge>> edges) {
+		GraphRenderer.renderEdges(pm, animatedGraphics, snapshot, flags, re.getNodeDetails(), re.getEdgeDetails(),
+				getLabelProvider(flags), re.getEdgeGeometryCache(), edges);
+	}
+
+
+	/**
+	 * @param edges the edges above the static layer in Z order, starting with the lowest animated edge
+	 */
+	private AnimatedLayer createAnimatedLayer(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags,
+			Set<View<CyEdge>> animatedEdges, List<View<CyEdge>> edges) {
+		var transform = canvas.getGraphicsProvier().getTransform();
+		var paintXform = new AffineTransform(transform.getPaintAffineTransform());
+		var imageBounds = new Rectangle(0, 0, transform.getPixelWidth(), transform.getPixelHeight());
+		var labelProvider = getLabelProvider(flags);
+
+		List<View<CyEdge>> layerEdges = new ArrayList<>();
+		List<Rectangle> edgeBounds = new ArrayList<>();
+		List<Rectangle> animatedBounds = new ArrayList<>();
+		Rectangle union = null;
+		for(var edge : edges) {
+			Rectangle bounds = getImageBounds(snapshot, flags, paintXform, labelProvider, edge);
+			if(bounds == null || !bounds.intersects(imageBounds))
+				continue;
+			bounds = bounds.intersection(imageBounds);
+			layerEdges.add(edge);
+			edgeBounds.add(bounds);
+			if(animatedEdges.contains(edge)) {
+				animatedBounds.add(bounds);
+				union = union == null ? new Rectangle(bounds) : union.union(bounds);
+			}
+		}
+
+		List<Rectangle> dirtyRects = animatedBounds.size() > MAX_DIRTY_RECTS ? List.of(union) : animatedBounds;
+		return new AnimatedLayer(snapshot, flags, paintXform, layerEdges, edgeBounds, dirtyRects);
+	}
+
+
+	/**
+	 * Returns the pixels covered by the line, arrows and label of the edge, or null if the edge is not in the snapshot.
+	 */
+	private Rectangle getImageBounds(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, AffineTransform paintXform,
+			LabelInfoProvider labelProvider, View<CyEdge> edge) {
+		if(snapshot.getEdgeView(edge.getSUID()) == null) // hidden
+			return null;
+
+		var edgeInfo = snapshot.getEdgeInfo(edge);
+		View<CyNode> sourceNode = snapshot.getNodeView(edgeInfo.getSourceViewSUID());
+		View<CyNode> targetNode = snapshot.getNodeView(edgeInfo.getTargetViewSUID());
+		float[] srcExtents = new float[4];
+		float[] trgExtents = new float[4];
+		snapshot.getSpacialIndex2D().get(sourceNode.getSUID(), srcExtents);
+		snapshot.getSpacialIndex2D().get(targetNode.getSUID(), trgExtents);
+
+		EdgeGeometry geometry = re.getEdgeGeometryCache().getGeometry(snapshot, edge, srcExtents, trgExtents,
+				sourceNode, targetNode, flags, re.getNodeDetails(), re.getEdgeDetails());
+
+		// The curves are inside the convex hull of their control points
+		double[] points = geometry.getPathPoints();
+		double xMin = Double.POSITIVE_INFINITY, yMin = Double.POSITIVE_INFINITY;
+		double xMax = Double.NEGATIVE_INFINITY, yMax = Double.NEGATIVE_INFINITY;
+		for(int i = 0; i < points.length; i += 2) {
+			xMin = Math.min(xMin, points[i]);
+			yMin = Math.min(yMin, points[i+1]);
+			xMax = Math.max(xMax, points[i]);
+			yMax = Math.max(yMax, points[i+1]);
+		}
+		if(points.length == 0)
+			return null;
+
+		// The arrows are drawn around the ends of the path
+		double margin = re.getEdgeDetails().getWidth(edge) / 2 + Math.max(geometry.getSourceArrowSize(), geometry.getTargetArrowSize());
+		var nodeBounds = new Rectangle2D.Double(xMin - margin, yMin - margin, xMax - xMin + 2 * margin, yMax - yMin + 2 * margin);
+
+		if(flags.has(LOD_EDGE_LABELS)) {
+			@SuppressWarnings("unchecked")
+			View<CyNode>[] nodes = new View[] { sourceNode, targetNode };
+			var label = re.getPicker().getEdgeLabelShape(edge, labelProvider, srcExtents, trgExtents, nodes);
+			if(label != null)
+				nodeBounds.add(label.getShape().getBounds2D());
+		}
+
+		Rectangle bounds = paintXform.createTransformedShape(nodeBounds).getBounds();
+		bounds.grow(DIRTY_RECT_MARGIN, DIRTY_RECT_MARGIN);
+		return bounds;
+	}
+
+
+	/**
+	 * Replaces the pixels of the target with the pixels of the source, inside the clip if there is one.
+	 */
+	private static void copyImage(ImageGraphicsProvider source, ImageGraphicsProvider target, Rectangle clip) {
+		Graphics2D g = (Graphics2D) target.getImage().getGraphics();
+		try {
+			if(clip != null)
+				g.clip(clip);
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(source.getImage(), 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+	}
+
+}
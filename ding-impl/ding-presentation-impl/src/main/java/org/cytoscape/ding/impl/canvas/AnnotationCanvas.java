@@ -78,6 +78,7 @@ public class AnnotationCanvas<GP extends GraphicsProvider> extends DingCanvas<GP
 		Rectangle2D visibleArea = transform.getNetworkVisibleAreaNodeCoords();
 		
 		var dpm = pm.toDiscrete(annotations.size());
+		int painted = 0;
 		
 		for(DingAnnotation a : annotations) {
 			if(pm.isCancelled()) {
@@ -86,11 +87,13 @@ public class AnnotationCanvas<GP extends GraphicsProvider> extends DingCanvas<GP
 			
 			if(visibleArea.intersects(a.getBounds())) {
 			 	a.paint(g, showSelection);
+			 	painted++;
 			}
 			
 			dpm.increment();
 		}
 		
+		pm.addCount("annotations", painted);
 		g.dispose();
 	}
 	
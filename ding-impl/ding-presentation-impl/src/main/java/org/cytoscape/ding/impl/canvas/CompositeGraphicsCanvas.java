@@ -6,6 +6,7 @@ import static org.cytoscape.graph.render.stateful.RenderDetailFlags.OPT_PDF_FONT
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -24,6 +25,10 @@ import org.cytoscape.view.presentation.annotations.Annotation;
  */
 public class CompositeGraphicsCanvas {
 
+	// When painting a tile, nodes this far (in image units) outside the tile are still painted, 
+	// so that their labels don't get cut off at the edge of the tile.
+	private static final int TILE_MARGIN = 200;
+	
 	public static void paint(
 			Graphics2D graphics, 
 			Color bgPaint, 
@@ -31,6 +36,25 @@ public class CompositeGraphicsCanvas {
 			NetworkTransform transform, 
 			DRenderingEngine re, 
 			boolean pdfFontHack
+	) {
+		paint(graphics, bgPaint, lod, transform, re, pdfFontHack, null);
+	}
+	
+	/**
+	 * Paints just the part of the network inside the tile, the given graphics must be clipped to the tile. 
+	 * The level of detail is the same for every tile, it is based on the whole transform.
+	 * Only the nodes are culled to the tile, edges that cross the tile may have both their nodes outside of it.
+	 * 
+	 * @param tile The area to paint in image coordinates, or null to paint everything.
+	 */
+	public static void paint(
+			Graphics2D graphics, 
+			Color bgPaint, 
+			GraphLOD lod, 
+			NetworkTransform transform, 
+			DRenderingEngine re, 
+			boolean pdfFontHack,
+			Rectangle tile
 	) {
 		var g = new SimpleGraphicsProvider(transform, graphics);
 		var snapshot = re.getViewModelSnapshot();
@@ -41,9 +65,19 @@ public class CompositeGraphicsCanvas {
 			flags = flags.add(OPT_PDF_FONT_HACK);
 		}
 		
+		var nodeGraphics = g;
+		Graphics2D tileGraphics = null;
+		if(tile != null && !tile.contains(0, 0, transform.getWidth(), transform.getHeight())) {
+			var area = new Rectangle(tile);
+			area.grow(TILE_MARGIN, TILE_MARGIN);
+			tileGraphics = (Graphics2D) graphics.create();
+			tileGraphics.translate(area.x, area.y);
+			nodeGraphics = new SimpleGraphicsProvider(transform.createTile(area), tileGraphics);
+		}
+		
 		var canvasList = Arrays.asList(
 			new AnnotationCanvas<>(g, re, FOREGROUND, false),
-			new NodeCanvas<>(g, re),
+			new NodeCanvas<>(nodeGraphics, re),
 			new EdgeCanvas<>(g, re),
 			new AnnotationCanvas<>(g, re, BACKGROUND, false)
 		);
@@ -53,6 +87,9 @@ public class CompositeGraphicsCanvas {
 		
 		for(var canvas : canvasList)
 			canvas.paint(pm, flags);
+		
+		if(tileGraphics != null)
+			tileGraphics.dispose();
 	}
 	
 	
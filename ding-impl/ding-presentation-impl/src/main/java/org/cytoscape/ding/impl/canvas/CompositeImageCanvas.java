@@ -13,12 +13,16 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import org.cytoscape.ding.debug.DebugRootProgressMonitor;
+import org.cytoscape.ding.impl.AdaptiveGraphLOD;
 import org.cytoscape.ding.impl.DRenderingEngine;
 import org.cytoscape.ding.impl.DRenderingEngine.UpdateType;
 import org.cytoscape.ding.impl.cyannotator.annotations.DingAnnotation.CanvasID;
 import org.cytoscape.ding.impl.work.ProgressMonitor;
 import org.cytoscape.graph.render.stateful.GraphLOD;
 import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.View;
 
 /**
  * Manages what used to be ContentChangedListener and ViewportChangedListener
@@ -35,6 +39,11 @@ public class CompositeImageCanvas {
 	private final EdgeCanvas<ImageGraphicsProvider> edgeCanvas;
 	private final AnnotationCanvas<ImageGraphicsProvider> bgAnnotationCanvas;
 	
+	// The edge and node layers are painted in parallel slices when there are a lot of elements
+	private final SlicedCanvasPainter<View<CyNode>, NodeCanvas<ImageGraphicsProvider>> nodePainter;
+	private final SlicedCanvasPainter<View<CyEdge>, EdgeCanvas<ImageGraphicsProvider>> edgePainter;
+	private final AnimatedEdgePainter animatedEdgePainter;
+	
 	private Color bgColor = Color.WHITE;
 	
 	private GraphLOD lod;
@@ -55,8 +64,12 @@ public class CompositeImageCanvas {
 		selectionCanvas = new SelectionCanvas<>(NullGraphicsProvider.INSTANCE, re);
 		fgAnnotationCanvas = new AnnotationCanvas<>(NullGraphicsProvider.INSTANCE, re, FOREGROUND);
 		nodeCanvas = new NodeCanvas<>(newBuffer(transform), re);
-		edgeCanvas = new EdgeCanvas<>(newBuffer(transform), re);
+		edgeCanvas = new EdgeCanvas<>(newBuffer(transform), re, re.getEdgeGeometryCache());
 		bgAnnotationCanvas = new AnnotationCanvas<>(NullGraphicsProvider.INSTANCE, re, BACKGROUND);
+		
+		nodePainter = new SlicedCanvasPainter<>(nodeCanvas);
+		edgePainter = new SlicedCanvasPainter<>(edgeCanvas);
+		animatedEdgePainter = new AnimatedEdgePainter(re, edgeCanvas, edgePainter);
 	
 		// This is the proportion of total progress assigned to each canvas. Edge canvas gets the most.
 		// In reverse order because that's the order they are painted.
@@ -140,6 +153,10 @@ public class CompositeImageCanvas {
 	}
 	
 	protected RenderDetailFlags getRenderDetailFlags(UpdateType updateType) {
+		return getRenderDetailFlags(lod, updateType);
+	}
+	
+	private RenderDetailFlags getRenderDetailFlags(GraphLOD lod, UpdateType updateType) {
 		var snapshot = re.getViewModelSnapshot();
 		return RenderDetailFlags.create(snapshot, transform, lod, updateType);
 	}
@@ -206,14 +223,16 @@ public class CompositeImageCanvas {
 	
 	/**
 	 * Starts painting on a single separate thread. 
-	 * Each layer of the canvas is painted sequentially in order. 
+	 * Each layer of the canvas is painted sequentially in order, large edge and node
+	 * layers are split into slices that are painted on additional threads. 
 	 * Returns an ImageFuture that represents the result of the painting.
 	 * To get the Image buffer from the ImageFuture call future.join().
 	 */
 	public ImageFuture paint(ProgressMonitor pm, PaintParameters params) {
 		var pm2 = ProgressMonitor.notNull(pm);
-		var flags = getRenderDetailFlags(params.update);
-		var future = CompletableFuture.supplyAsync(() -> paintImpl(pm2, flags, params), executor);
+		var lod = this.lod;
+		var flags = getRenderDetailFlags(lod, params.update);
+		var future = CompletableFuture.supplyAsync(() -> paintImpl(pm2, lod, flags, params), executor);
 		return new ImageFuture(future, flags, pm2);
 	}
 	
@@ -237,10 +256,13 @@ public class CompositeImageCanvas {
 	}
 	
 	
-	private Image paintImpl(ProgressMonitor pm, RenderDetailFlags flags, PaintParameters params) {
+	private Image paintImpl(ProgressMonitor pm, GraphLOD lod, RenderDetailFlags flags, PaintParameters params) {
+		long start = System.nanoTime();
 		var pms = pm.split(weights);
 		pm.start("Frame"); // debug message
 		
+		var snapshot = re.getViewModelSnapshot();
+		
 		// Render layers from bottom to top
 		
 		// Background color
@@ -263,8 +285,12 @@ public class CompositeImageCanvas {
 				Image image = params.slowCanvas.getEdgeCanvas().getGraphicsProvier().getImage();
 				overlayImage(composite, image, params.panDx, params.panDy);
 				pms[1].addProgress(1.0);
+			} else if(params.update == JUST_EDGES) {
+				// animation step, only the animated edges change
+				Image image = animatedEdgePainter.paintAnimatedAndGet(pms[1], snapshot, flags).getImage();
+				overlayImage(composite, image);
 			} else {
-				Image image = edgeCanvas.paintAndGet(pms[1], flags).getImage();
+				Image image = animatedEdgePainter.paintAndGet(pms[1], snapshot, flags).getImage();
 				overlayImage(composite, image);
 			}
 		} else {
@@ -274,7 +300,7 @@ public class CompositeImageCanvas {
 		
 		// Node layer
 		if(renderNodeCanvas(params.update)) {
-			Image image = nodeCanvas.paintAndGet(pms[2], flags).getImage();
+			Image image = nodePainter.paintAndGet(pms[2], snapshot, flags).getImage();
 			overlayImage(composite, image);
 		} else {
 			Image image = nodeCanvas.getCurrent(pms[2]).getImage();
@@ -301,6 +327,11 @@ public class CompositeImageCanvas {
 		
 		
 		params.done();
+		
+		// Frames that reuse the edge buffer or only repaint some of the layers don't reflect the cost of the LOD
+		if(lod instanceof AdaptiveGraphLOD && renderAllCanvases(params.update) && !params.isPan && !pm.isCancelled())
+			((AdaptiveGraphLOD)lod).frameRendered(flags, System.nanoTime() - start);
+		
 		if(pm instanceof DebugRootProgressMonitor) // MKTODO hackey
 			((DebugRootProgressMonitor)pm).done(flags, params);
 		else
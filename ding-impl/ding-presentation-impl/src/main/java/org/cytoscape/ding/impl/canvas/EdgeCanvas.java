@@ -1,21 +1,37 @@
 package org.cytoscape.ding.impl.canvas;
 
+import java.util.List;
+
 import org.cytoscape.ding.impl.DRenderingEngine;
 import org.cytoscape.ding.impl.work.ProgressMonitor;
 import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.graph.render.stateful.EdgeGeometryCache;
 import org.cytoscape.graph.render.stateful.GraphRenderer;
 import org.cytoscape.graph.render.stateful.LabelInfoProvider;
 import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
 
-public class EdgeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> {
+public class EdgeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> implements SliceableCanvas<View<CyEdge>> {
 
 	private final DRenderingEngine re;
 	private final GraphGraphics graphGraphics;
+	private final EdgeGeometryCache geometryCache;
 	
 	public EdgeCanvas(GP graphics, DRenderingEngine re) {
+		this(graphics, re, null);
+	}
+	
+	/**
+	 * @param geometryCache keeps the geometry of the edges between frames, may be null.
+	 *                      Only the canvases of the network view itself should share the cache of the rendering engine.
+	 */
+	public EdgeCanvas(GP graphics, DRenderingEngine re, EdgeGeometryCache geometryCache) {
 		super(graphics);
 		this.re = re;
 		this.graphGraphics = new GraphGraphics(graphics);
+		this.geometryCache = geometryCache;
 	}
 	
 	@Override
@@ -25,14 +41,40 @@ public class EdgeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> {
 	
 	@Override
 	public void paint(ProgressMonitor pm, RenderDetailFlags flags) {
-		var netViewSnapshot = re.getViewModelSnapshot();
-		var edgeDetails = re.getEdgeDetails();
-		var nodeDetails = re.getNodeDetails();
-		var labelProvider = flags.has(RenderDetailFlags.OPT_LABEL_CACHE) ? re.getLabelCache() : LabelInfoProvider.NO_CACHE;
-		
+		var snapshot = re.getViewModelSnapshot();
 		graphGraphics.update(flags, true);
 		
-		GraphRenderer.renderEdges(pm, graphGraphics, netViewSnapshot, flags, nodeDetails, edgeDetails, labelProvider);
+		if(geometryCache == null) {
+			GraphRenderer.renderEdges(pm, graphGraphics, snapshot, flags, re.getNodeDetails(), re.getEdgeDetails(), getLabelProvider(flags));
+		} else {
+			var edges = getElements(snapshot, flags);
+			GraphRenderer.renderEdges(pm, graphGraphics, snapshot, flags, re.getNodeDetails(), re.getEdgeDetails(), getLabelProvider(flags), geometryCache, edges);
+		}
+	}
+	
+	/**
+	 * When there is a geometry cache this also computes the geometry of the edges on several threads,
+	 * so that painting them only has to draw them.
+	 */
+	@Override
+	public List<View<CyEdge>> getElements(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags) {
+		var edges = GraphRenderer.getEdgesToRender(graphicsProvider.getTransform(), snapshot, flags);
+		if(geometryCache != null)
+			geometryCache.computeGeometry(snapshot, edges, flags, re.getNodeDetails(), re.getEdgeDetails());
+		return edges;
+	}
+	
+	@Override
+	public void paintSlice(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, 
+			GraphGraphics graphGraphics, List<View<CyEdge>> edges) {
+		if(geometryCache != null)
+			geometryCache.update(snapshot);
+		
+		GraphRenderer.renderEdges(pm, graphGraphics, snapshot, flags, re.getNodeDetails(), re.getEdgeDetails(), getLabelProvider(flags), geometryCache, edges);
+	}
+	
+	private LabelInfoProvider getLabelProvider(RenderDetailFlags flags) {
+		return flags.has(RenderDetailFlags.OPT_LABEL_CACHE) ? re.getLabelCache() : LabelInfoProvider.NO_CACHE;
 	}
 	
 }
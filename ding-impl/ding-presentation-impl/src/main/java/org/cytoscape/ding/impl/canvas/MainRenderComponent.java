@@ -1,13 +1,14 @@
 package org.cytoscape.ding.impl.canvas;
 
+import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 
 import org.cytoscape.ding.debug.DebugFrameType;
 import org.cytoscape.ding.impl.DRenderingEngine;
 import org.cytoscape.ding.impl.DRenderingEngine.UpdateType;
-import org.cytoscape.ding.impl.DingGraphLOD;
 import org.cytoscape.ding.impl.work.ProgressMonitor;
+import org.cytoscape.graph.render.stateful.GraphLOD;
 import org.cytoscape.graph.render.stateful.RenderDetailFlags;
 import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 
@@ -17,7 +18,7 @@ public class MainRenderComponent extends RenderComponent {
 	private FontMetrics fontMetrics;
 	private boolean annotationsLoaded = false;
 	
-	public MainRenderComponent(DRenderingEngine re, DingGraphLOD lod) {
+	public MainRenderComponent(DRenderingEngine re, GraphLOD lod) {
 		super(re, lod);
 	}
 	
@@ -62,6 +63,28 @@ public class MainRenderComponent extends RenderComponent {
 		re.getPicker().setRenderDetailFlags(flags);
 	}
 
+	@Override
+	protected void paintOverlay(Graphics g) {
+		var metrics = re.getRenderMetrics();
+		if(!metrics.isOverlayVisible())
+			return;
+		
+		var lines = metrics.getOverlayLines();
+		var fm = g.getFontMetrics();
+		int lineHeight = fm.getHeight();
+		int width = 0;
+		for(String line : lines)
+			width = Math.max(width, fm.stringWidth(line));
+		
+		int x = 10, y = 10, pad = 5;
+		g.setColor(new Color(0, 0, 0, 160));
+		g.fillRect(x, y, width + 2 * pad, lines.size() * lineHeight + 2 * pad);
+		g.setColor(Color.WHITE);
+		for(int i = 0; i < lines.size(); i++) {
+			g.drawString(lines.get(i), x + pad, y + pad + i * lineHeight + fm.getAscent());
+		}
+	}
+
 	@Override
 	DebugFrameType getDebugFrameType(UpdateType type) {
 		switch(type) {
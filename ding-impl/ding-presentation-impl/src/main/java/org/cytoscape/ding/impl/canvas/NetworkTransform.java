@@ -65,6 +65,18 @@ public class NetworkTransform {
 	public Snapshot snapshot() {
 		return new Snapshot(this);
 	}
+
+	/**
+	 * Returns a transform that shows the part of this one inside the given rectangle (image coordinates),
+	 * the top left corner of the rectangle becomes the origin of the new transform.
+	 */
+	public NetworkTransform createTile(Rectangle tile) {
+		double tileX = x + (tile.x + 0.5d * tile.width  - 0.5d * width)  / scaleFactor;
+		double tileY = y + (tile.y + 0.5d * tile.height - 0.5d * height) / scaleFactor;
+		var t = new NetworkTransform(tile.width, tile.height, tileX, tileY, scaleFactor);
+		t.setDPIScaleFactor(dpiScaleFactor);
+		return t;
+	}
 	
 	public static class Snapshot {
 		public final double x;
@@ -1,5 +1,6 @@
 package org.cytoscape.ding.impl.canvas;
 
+import java.util.List;
 import java.util.Set;
 
 import org.cytoscape.ding.impl.DRenderingEngine;
@@ -8,7 +9,10 @@ import org.cytoscape.graph.render.immed.GraphGraphics;
 import org.cytoscape.graph.render.stateful.GraphRenderer;
 import org.cytoscape.graph.render.stateful.LabelInfoProvider;
 import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
 import org.cytoscape.view.vizmap.VisualMappingManager;
 import org.cytoscape.view.vizmap.VisualPropertyDependency;
 
@@ -39,7 +43,7 @@ import org.cytoscape.view.vizmap.VisualPropertyDependency;
 /**
  * Canvas to be used for drawing actual network visualization
  */
-public class NodeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> {
+public class NodeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> implements SliceableCanvas<View<CyNode>> {
 
 	private final VisualMappingManager vmm;
 	private final DRenderingEngine re;
@@ -64,14 +68,22 @@ public class NodeCanvas<GP extends GraphicsProvider> extends DingCanvas<GP> {
 
 	@Override
 	public void paint(ProgressMonitor pm, RenderDetailFlags flags) {
-		var dependencies = getVPDeps();
-		var snapshot = re.getViewModelSnapshot();
-		
-		var nodeDetails = re.getNodeDetails();
-		var labelProvider = flags.has(RenderDetailFlags.OPT_LABEL_CACHE) ? re.getLabelCache() : LabelInfoProvider.NO_CACHE;
-		
 		graphGraphics.update(flags, true);
-		
-		GraphRenderer.renderNodes(pm, graphGraphics, snapshot, flags, nodeDetails, dependencies, labelProvider);
+		GraphRenderer.renderNodes(pm, graphGraphics, re.getViewModelSnapshot(), flags, re.getNodeDetails(), getVPDeps(), getLabelProvider(flags));
+	}
+	
+	@Override
+	public List<View<CyNode>> getElements(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags) {
+		return GraphRenderer.getNodesToRender(graphicsProvider.getTransform(), snapshot);
+	}
+	
+	@Override
+	public void paintSlice(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, 
+			GraphGraphics graphGraphics, List<View<CyNode>> nodes) {
+		GraphRenderer.renderNodes(pm, graphGraphics, snapshot, flags, re.getNodeDetails(), getVPDeps(), getLabelProvider(flags), nodes);
+	}
+	
+	private LabelInfoProvider getLabelProvider(RenderDetailFlags flags) {
+		return flags.has(RenderDetailFlags.OPT_LABEL_CACHE) ? re.getLabelCache() : LabelInfoProvider.NO_CACHE;
 	}
 }
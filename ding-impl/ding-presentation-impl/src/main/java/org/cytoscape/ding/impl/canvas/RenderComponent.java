@@ -344,12 +344,19 @@ public abstract class RenderComponent extends JComponent {
 		int h = (int)(image.getHeight(null) / dpiScaleFactor);
 
 		g.drawImage(image, 0, 0, w, h, null);
+		paintOverlay(g);
 	}
 	
 	
 	protected void setRenderDetailFlags(RenderDetailFlags flags) {
 	}
 	
+	/**
+	 * Paints on top of the network image, in component coordinates.
+	 */
+	protected void paintOverlay(Graphics g) {
+	}
+	
 	private ProgressMonitor debugPm(UpdateType updateType) {
 		return debugPm(updateType, null);
 	}
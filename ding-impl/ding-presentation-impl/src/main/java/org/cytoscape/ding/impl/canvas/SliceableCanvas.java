@@ -0,0 +1,32 @@
+package org.cytoscape.ding.impl.canvas;
+
+import java.util.List;
+
+import org.cytoscape.ding.impl.work.ProgressMonitor;
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+
+/**
+ * A canvas that renders a Z ordered list of elements, and can render any contiguous 
+ * range of that list into a separate buffer. Overlaying the buffers of consecutive ranges 
+ * in order produces the same image as rendering the whole list at once, so the ranges
+ * can be rendered in parallel.
+ */
+public interface SliceableCanvas<T> {
+
+	/**
+	 * Returns the Z ordered elements that would be rendered. The list is queried once per frame
+	 * and only read afterwards, the slices get sublists of it.
+	 */
+	List<T> getElements(CyNetworkViewSnapshot snapshot, RenderDetailFlags flags);
+	
+	/**
+	 * Renders the given elements, a contiguous range of the list returned by {@link #getElements}, 
+	 * using the given GraphGraphics, which must not be shared with any other thread and 
+	 * has already been updated with the flags.
+	 */
+	void paintSlice(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags, 
+			GraphGraphics graphGraphics, List<T> elements);
+	
+}
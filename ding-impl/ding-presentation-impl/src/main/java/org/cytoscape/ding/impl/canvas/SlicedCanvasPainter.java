@@ -0,0 +1,133 @@
+package org.cytoscape.ding.impl.canvas;
+
+import java.awt.Graphics;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cytoscape.ding.impl.work.CancellationProgressMonitor;
+import org.cytoscape.ding.impl.work.ProgressMonitor;
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+
+/**
+ * Paints a {@link SliceableCanvas} using several threads.
+ * <p>
+ * The Z ordered list of elements is queried once, then cut into contiguous slices. The first slice is painted 
+ * into the canvas buffer on the calling thread, the others are painted into their own buffers
+ * on a shared pool, then overlaid on the canvas buffer in order. Cutting the screen into tiles 
+ * instead would split labels and edges that cross tile borders, slices give the same image as painting
+ * the whole list sequentially, apart from the rounding of translucent pixels where slices overlap.
+ * <p>
+ * Small networks are painted on the calling thread as before, it's not worth the overhead.
+ */
+class SlicedCanvasPainter<T, C extends DingCanvas<ImageGraphicsProvider> & SliceableCanvas<T>> {
+	
+	// Each slice buffer is a full size image, so keep the number of slices small.
+	static final int MAX_SLICES = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	static final int MIN_SLICE_SIZE = 2000;
+	
+	private static final ExecutorService sliceExecutor = Executors.newFixedThreadPool(Math.max(1, MAX_SLICES - 1), r -> {
+		Thread thread = Executors.defaultThreadFactory().newThread(r);
+		thread.setName("ding-slice-" + thread.getName());
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final C canvas;
+	private final GraphGraphics canvasGraphics;
+	private final NetworkImageBuffer[] sliceBuffers = new NetworkImageBuffer[MAX_SLICES];
+	private final GraphGraphics[] sliceGraphics = new GraphGraphics[MAX_SLICES];
+	
+	
+	public SlicedCanvasPainter(C canvas) {
+		this.canvas = canvas;
+		this.canvasGraphics = new GraphGraphics(canvas.getGraphicsProvier());
+	}
+	
+	
+	private GraphGraphics getSliceGraphics(int slice) {
+		if(slice == 0)
+			return canvasGraphics;
+		if(sliceGraphics[slice] == null) {
+			sliceBuffers[slice] = new NetworkImageBuffer(canvas.getGraphicsProvier().getTransform());
+			sliceGraphics[slice] = new GraphGraphics(sliceBuffers[slice]);
+		}
+		return sliceGraphics[slice];
+	}
+	
+	
+	public ImageGraphicsProvider paintAndGet(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags) {
+		pm = ProgressMonitor.notNull(pm);
+		if(pm.isCancelled())
+			return canvas.getGraphicsProvier();
+		
+		return paintAndGet(pm, snapshot, flags, canvas.getElements(snapshot, flags), true);
+	}
+	
+	/**
+	 * Paints the given elements in the order of the list, sliced the same way as a full paint.
+	 * When clear is false they are painted on top of what the canvas already contains.
+	 */
+	public ImageGraphicsProvider paintAndGet(ProgressMonitor pm, CyNetworkViewSnapshot snapshot, RenderDetailFlags flags,
+			List<T> elements, boolean clear) {
+		pm = ProgressMonitor.notNull(pm);
+		if(pm.isCancelled())
+			return canvas.getGraphicsProvier();
+		
+		int count = elements.size();
+		int slices = Math.min(MAX_SLICES, count / MIN_SLICE_SIZE);
+		
+		pm.start(canvas.getCanvasDebugName());
+		
+		if(slices < 2) {
+			canvasGraphics.update(flags, clear);
+			canvas.paintSlice(pm, snapshot, flags, canvasGraphics, elements);
+			pm.done();
+			return canvas.getGraphicsProvier();
+		}
+		
+		double[] parts = new double[slices];
+		Arrays.fill(parts, 1.0);
+		var pms = pm.split(parts);
+		var cancelPm = new CancellationProgressMonitor(pm);
+		int sliceSize = (count + slices - 1) / slices;
+		
+		var futures = new CompletableFuture<?>[slices];
+		for(int i = 1; i < slices; i++) {
+			var slice = elements.subList(Math.min(count, i * sliceSize), Math.min(count, (i + 1) * sliceSize));
+			var graphics = getSliceGraphics(i);
+			futures[i] = CompletableFuture.runAsync(() -> {
+				graphics.update(flags, true);
+				canvas.paintSlice(cancelPm, snapshot, flags, graphics, slice);
+			}, sliceExecutor);
+		}
+		
+		try {
+			canvasGraphics.update(flags, clear);
+			canvas.paintSlice(pms[0], snapshot, flags, canvasGraphics, elements.subList(0, sliceSize));
+		} finally {
+			// The slice buffers are reused by the next frame, never return while a slice is still painting.
+			CompletableFuture.allOf(Arrays.copyOfRange(futures, 1, slices)).exceptionally(e -> null).join();
+		}
+		
+		Graphics g = canvas.getGraphicsProvier().getImage().getGraphics();
+		try {
+			for(int i = 1; i < slices; i++) {
+				futures[i].join(); // rethrows if the slice failed
+				if(!pm.isCancelled())
+					g.drawImage(sliceBuffers[i].getImage(), 0, 0, null);
+				pms[i].addProgress(1.0);
+			}
+		} finally {
+			g.dispose();
+		}
+		
+		pm.done();
+		return canvas.getGraphicsProvier();
+	}
+	
+}
@@ -0,0 +1,43 @@
+package org.cytoscape.ding.impl.work;
+
+/**
+ * Only forwards cancellation checks to its parent, all progress is ignored.
+ * Progress monitors are not thread safe, use this to let a task running on 
+ * another thread check for cancellation. The progress has to be reported on
+ * the parent's thread after the task completes.
+ */
+public class CancellationProgressMonitor implements ProgressMonitor {
+
+	private final ProgressMonitor parent;
+	
+	public CancellationProgressMonitor(ProgressMonitor parent) {
+		this.parent = parent;
+	}
+	
+	@Override
+	public boolean isCancelled() {
+		return parent.isCancelled();
+	}
+	
+	@Override
+	public void cancel() {
+	}
+
+	@Override
+	public void addProgress(double progress) {
+	}
+
+	@Override
+	public void addCount(String name, int count) {
+		parent.addCount(name, count);
+	}
+
+	@Override
+	public void start(String taskName) {
+	}
+
+	@Override
+	public void done() {
+	}
+	
+}
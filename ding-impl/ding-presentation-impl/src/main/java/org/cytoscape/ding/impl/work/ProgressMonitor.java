@@ -14,6 +14,12 @@ public interface ProgressMonitor {
 	
 	void done();
 	
+	/**
+	 * Adds to a named count of rendered elements (eg "edges", "labels"), only recorded by the debug monitors.
+	 * May be called from the threads that paint slices of a canvas.
+	 */
+	default void addCount(String name, int count) {
+	}
 	
 	
 	default void emptyTask(String taskName) {
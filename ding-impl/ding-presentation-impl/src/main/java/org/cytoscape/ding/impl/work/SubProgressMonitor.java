@@ -24,6 +24,11 @@ public class SubProgressMonitor implements ProgressMonitor {
 		parent.addProgress(progress * percentage);
 	}
 
+	@Override
+	public void addCount(String name, int count) {
+		parent.addCount(name, count);
+	}
+
 	@Override
 	public void start(String taskName) {
 	}
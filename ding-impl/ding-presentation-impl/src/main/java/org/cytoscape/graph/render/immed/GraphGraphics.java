@@ -11,7 +11,6 @@ import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.TexturePaint;
 import java.awt.font.FontRenderContext;
-import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
@@ -19,8 +18,10 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.cytoscape.ding.impl.canvas.GraphicsProvider;
+import org.cytoscape.ding.impl.canvas.ImageGraphicsProvider;
 import org.cytoscape.ding.impl.canvas.NetworkTransform;
 import org.cytoscape.graph.render.immed.arrow.Arrow;
 import org.cytoscape.graph.render.immed.arrow.ArrowheadArrow;
@@ -137,20 +138,15 @@ public final class GraphGraphics {
 	};
 		
 	// Mapping from node to its border stroke object.
-	private static final Map<Float,Stroke> borderStrokes = new HashMap<>();
+	private static final Map<Float,Stroke> borderStrokes = new ConcurrentHashMap<>();
 	private static final Map<Byte,NodeShape> nodeShapes;
 	private static final Map<ArrowShape, Arrow> arrows;
+	
+	// The node shapes reuse a single mutable Shape object, so each rendering thread needs its own instances.
+	private static final ThreadLocal<Map<Byte,NodeShape>> threadNodeShapes = ThreadLocal.withInitial(GraphGraphics::createNodeShapes);
+	
 	static {		
-		nodeShapes = new HashMap<>();
-		nodeShapes.put(SHAPE_RECTANGLE, new RectangleNodeShape()); 
-		nodeShapes.put(SHAPE_ELLIPSE, new EllipseNodeShape()); 
-		nodeShapes.put(SHAPE_ROUNDED_RECTANGLE, new RoundedRectangleNodeShape()); 
-		nodeShapes.put(SHAPE_DIAMOND, new DiamondNodeShape()); 
-		nodeShapes.put(SHAPE_HEXAGON, new HexagonNodeShape()); 
-		nodeShapes.put(SHAPE_OCTAGON, new OctagonNodeShape()); 
-		nodeShapes.put(SHAPE_PARALLELOGRAM, new ParallelogramNodeShape()); 
-		nodeShapes.put(SHAPE_TRIANGLE, new TriangleNodeShape()); 
-		nodeShapes.put(SHAPE_VEE, new VeeNodeShape());
+		nodeShapes = createNodeShapes();
 
 		arrows = new HashMap<>();
 		arrows.put(ArrowShapeVisualProperty.NONE, new NoArrow());
@@ -179,6 +175,29 @@ public final class GraphGraphics {
 	}
 
 
+	private static Map<Byte,NodeShape> createNodeShapes() {
+		Map<Byte,NodeShape> nodeShapes = new HashMap<>();
+		nodeShapes.put(SHAPE_RECTANGLE, new RectangleNodeShape()); 
+		nodeShapes.put(SHAPE_ELLIPSE, new EllipseNodeShape()); 
+		nodeShapes.put(SHAPE_ROUNDED_RECTANGLE, new RoundedRectangleNodeShape()); 
+		nodeShapes.put(SHAPE_DIAMOND, new DiamondNodeShape()); 
+		nodeShapes.put(SHAPE_HEXAGON, new HexagonNodeShape()); 
+		nodeShapes.put(SHAPE_OCTAGON, new OctagonNodeShape()); 
+		nodeShapes.put(SHAPE_PARALLELOGRAM, new ParallelogramNodeShape()); 
+		nodeShapes.put(SHAPE_TRIANGLE, new TriangleNodeShape()); 
+		nodeShapes.put(SHAPE_VEE, new VeeNodeShape());
+		return nodeShapes;
+	}
+	
+	/*
+	 * Returns this thread's instance of a built in node shape, custom node shapes are shared.
+	 */
+	private static NodeShape getNodeShape(byte nodeShape) {
+		NodeShape ns = threadNodeShapes.get().get(nodeShape);
+		return ns != null ? ns : nodeShapes.get(nodeShape);
+	}
+
+
 	// Cached data, and objects that can be reused
 	private final AffineTransform m_xformUtil = new AffineTransform();
 	private final GeneralPath m_path2d = new GeneralPath();
@@ -195,6 +214,9 @@ public final class GraphGraphics {
 	private Graphics2D m_g2d;
 	private Graphics2D m_gMinimal; // We use mostly java.awt.Graphics methods.
 	private final AffineTransform m_currNativeXform = new AffineTransform();
+	private static final AffineTransform IDENTITY_XFORM = new AffineTransform();
+	// Only use label images when rendering to the screen, and only when the LabelInfos are cached between frames.
+	private boolean m_labelImages;
 	
 
 	public GraphGraphics(GraphicsProvider graphicsProvider) {
@@ -230,6 +252,19 @@ public final class GraphGraphics {
 
 		m_g2d.transform(getTransform().getPaintAffineTransform());
 		m_currNativeXform.setTransform(m_g2d.getTransform()); // save the current transform
+		
+		m_labelImages = flags != null && flags.has(RenderDetailFlags.OPT_LABEL_CACHE) && graphicsProvider instanceof ImageGraphicsProvider;
+	}
+
+	/**
+	 * Restricts full detail rendering to the given rectangle in image coordinates,
+	 * until update() is called again.
+	 */
+	public final void clipImageRect(Rectangle rect) {
+		final AffineTransform xform = m_g2d.getTransform();
+		m_g2d.setTransform(IDENTITY_XFORM);
+		m_g2d.clip(rect);
+		m_g2d.setTransform(xform);
 	}
 
 	
@@ -661,7 +696,7 @@ public final class GraphGraphics {
 	}
 
 	private static Shape getShape(byte nodeShape, float xMin, float yMin, float xMax, float yMax) {
-		NodeShape ns = nodeShapes.get(nodeShape);
+		NodeShape ns = getNodeShape(nodeShape);
 		return ns == null ? null : ns.getShape(xMin, yMin, xMax, yMax);
 	}
 
@@ -896,16 +931,6 @@ public final class GraphGraphics {
 			final Paint arrow1Paint, final float x0, final float y0,
 			EdgeAnchors anchors, final float x1, final float y1,
 			final float edgeThickness, Stroke edgeStroke, final Paint edgePaint) {
-		final double curveFactor = CURVE_ELLIPTICAL;
-		final boolean simpleSegment = arrow0Type == ArrowShapeVisualProperty.NONE && arrow1Type == ArrowShapeVisualProperty.NONE;
-		
-		// when rendering arrows we need the stroke cap to be CAP_BUTT 
-		if(!simpleSegment && edgeStroke instanceof BasicStroke && ((BasicStroke)edgeStroke).getEndCap() != BasicStroke.CAP_BUTT) {
-			BasicStroke bs = (BasicStroke) edgeStroke;
-			edgeStroke = new BasicStroke(bs.getLineWidth(), BasicStroke.CAP_BUTT, 
-					bs.getLineJoin(), bs.getMiterLimit(), bs.getDashArray(), bs.getDashPhase());
-		}
-
 		if (anchors == null) {
 			anchors = m_noAnchors;
 		}
@@ -917,14 +942,59 @@ public final class GraphGraphics {
 		final int edgePtsCount = computeCubicPolyEdgePath(m_edgePtsBuff, m_floatBuff, arrow0Type,
 				(arrow0Type == ArrowShapeVisualProperty.NONE) ? 0.0f : arrow0Size, arrow1Type,
 				(arrow1Type == ArrowShapeVisualProperty.NONE) ? 0.0f : arrow1Size, x0, y0,
-				anchors, x1, y1, curveFactor);
+				anchors, x1, y1, CURVE_ELLIPTICAL);
+		
+		drawEdgeFull(m_edgePtsBuff, edgePtsCount, arrow0Type, arrow0Size, arrow0Paint, 
+				arrow1Type, arrow1Size, arrow1Paint, edgeThickness, edgeStroke, edgePaint);
+	}
+	
+	/**
+	 * Computes the points of the edge path that is drawn by drawEdgeFull(), see 
+	 * drawEdgeFull() for the meaning of the parameters. The points only depend on
+	 * the node coordinates of the edge so they can be kept between frames.
+	 * 
+	 * @param edgePtsBuff
+	 *            receives the points, must have room for (MAX_EDGE_ANCHORS + 1) * 6 values.
+	 * @return the number of points in the edge path, the length of the part of the
+	 *         buffer that is used is given by getEdgePathLength().
+	 */
+	public static int computeEdgePath(double[] edgePtsBuff, ArrowShape arrow0Type, float arrow0Size, 
+			ArrowShape arrow1Type, float arrow1Size, float x0, float y0, EdgeAnchors anchors, float x1, float y1) {
+		return computeCubicPolyEdgePath(edgePtsBuff, new float[2], arrow0Type,
+				(arrow0Type == ArrowShapeVisualProperty.NONE) ? 0.0f : arrow0Size, arrow1Type,
+				(arrow1Type == ArrowShapeVisualProperty.NONE) ? 0.0f : arrow1Size, x0, y0,
+				anchors == null ? m_noAnchors : anchors, x1, y1, CURVE_ELLIPTICAL);
+	}
+	
+	/**
+	 * Returns the number of values used in the buffer filled by computeEdgePath().
+	 */
+	public static int getEdgePathLength(int edgePtsCount) {
+		return edgePtsCount < 3 ? edgePtsCount * 2 : ((edgePtsCount - 1) * 6);
+	}
+	
+	/**
+	 * Draws an edge using the path that was computed by computeEdgePath().
+	 */
+	public final void drawEdgeFull(final double[] edgePts, final int edgePtsCount,
+			final ArrowShape arrow0Type, final float arrow0Size, final Paint arrow0Paint,
+			final ArrowShape arrow1Type, final float arrow1Size, final Paint arrow1Paint,
+			final float edgeThickness, Stroke edgeStroke, final Paint edgePaint) {
+		final boolean simpleSegment = arrow0Type == ArrowShapeVisualProperty.NONE && arrow1Type == ArrowShapeVisualProperty.NONE;
+		
+		// when rendering arrows we need the stroke cap to be CAP_BUTT 
+		if(!simpleSegment && edgeStroke instanceof BasicStroke && ((BasicStroke)edgeStroke).getEndCap() != BasicStroke.CAP_BUTT) {
+			BasicStroke bs = (BasicStroke) edgeStroke;
+			edgeStroke = new BasicStroke(bs.getLineWidth(), BasicStroke.CAP_BUTT, 
+					bs.getLineJoin(), bs.getMiterLimit(), bs.getDashArray(), bs.getDashPhase());
+		}
 		
 		if (edgePtsCount < 3) {
 			if (edgePtsCount == 2) { // Draw an ordinary edge.
 				drawSimpleEdgeFull(arrow0Type, arrow0Size, arrow0Paint,
 						arrow1Type, arrow1Size, arrow1Paint,
-						(float) m_edgePtsBuff[0], (float) m_edgePtsBuff[1],
-						(float) m_edgePtsBuff[2], (float) m_edgePtsBuff[3],
+						(float) edgePts[0], (float) edgePts[1],
+						(float) edgePts[2], (float) edgePts[3],
 						edgeThickness, edgeStroke, edgePaint );
 			}
 			return;
@@ -935,20 +1005,20 @@ public final class GraphGraphics {
 		m_g2d.setStroke(edgeStroke);
 
 		// Set m_path2d to contain the cubic curves computed in
-		// m_edgePtsBuff.
+		// edgePts.
 		m_path2d.reset();
-		m_path2d.moveTo((float) m_edgePtsBuff[2], (float) m_edgePtsBuff[3]);
+		m_path2d.moveTo((float) edgePts[2], (float) edgePts[3]);
 
 		int inx = 4;
 		final int count = ((edgePtsCount - 1) * 6) - 2;
 
 		while (inx < count) {
-			m_path2d.curveTo((float) m_edgePtsBuff[inx++],
-					(float) m_edgePtsBuff[inx++],
-					(float) m_edgePtsBuff[inx++],
-					(float) m_edgePtsBuff[inx++],
-					(float) m_edgePtsBuff[inx++],
-					(float) m_edgePtsBuff[inx++]);
+			m_path2d.curveTo((float) edgePts[inx++],
+					(float) edgePts[inx++],
+					(float) edgePts[inx++],
+					(float) edgePts[inx++],
+					(float) edgePts[inx++],
+					(float) edgePts[inx++]);
 		}
 
 		m_g2d.setPaint(edgePaint);
@@ -966,14 +1036,14 @@ public final class GraphGraphics {
 		// computation. So what we're going to do is never render the arrow
 		// caps for dashed edges.
 
-		final double dx0 = m_edgePtsBuff[0] - m_edgePtsBuff[4];
-		final double dy0 = m_edgePtsBuff[1] - m_edgePtsBuff[5];
+		final double dx0 = edgePts[0] - edgePts[4];
+		final double dy0 = edgePts[1] - edgePts[5];
 		final double len0 = Math.sqrt((dx0 * dx0) + (dy0 * dy0));
 		final double cosTheta0 = dx0 / len0;
 		final double sinTheta0 = dy0 / len0;
 
-		final double dx1 = m_edgePtsBuff[((edgePtsCount - 1) * 6) - 2] - m_edgePtsBuff[((edgePtsCount - 1) * 6) - 6];
-		final double dy1 = m_edgePtsBuff[((edgePtsCount - 1) * 6) - 1] - m_edgePtsBuff[((edgePtsCount - 1) * 6) - 5];
+		final double dx1 = edgePts[((edgePtsCount - 1) * 6) - 2] - edgePts[((edgePtsCount - 1) * 6) - 6];
+		final double dy1 = edgePts[((edgePtsCount - 1) * 6) - 1] - edgePts[((edgePtsCount - 1) * 6) - 5];
 		final double len1 = Math.sqrt((dx1 * dx1) + (dy1 * dy1));
 		final double cosTheta1 = dx1 / len1;
 		final double sinTheta1 = dy1 / len1;
@@ -985,7 +1055,7 @@ public final class GraphGraphics {
 			// Render arrow cap at origin of poly path.
 			final Shape arrow0Cap = computeUntransformedArrowCap(arrow0Type, ((double) arrow0Size) / edgeThickness);
 			if (arrow0Cap != null) {
-				m_xformUtil.setTransform(cosTheta0, sinTheta0, -sinTheta0, cosTheta0, m_edgePtsBuff[2], m_edgePtsBuff[3]);
+				m_xformUtil.setTransform(cosTheta0, sinTheta0, -sinTheta0, cosTheta0, edgePts[2], edgePts[3]);
 				m_g2d.transform(m_xformUtil);
 				m_g2d.scale(edgeThickness, edgeThickness);
 				// The paint is already set to edge paint.
@@ -998,8 +1068,8 @@ public final class GraphGraphics {
 	
 			if (arrow1Cap != null) {
 				m_xformUtil.setTransform(cosTheta1, sinTheta1, -sinTheta1, cosTheta1,
-						m_edgePtsBuff[((edgePtsCount - 1) * 6) - 4],
-						m_edgePtsBuff[((edgePtsCount - 1) * 6) - 3]);
+						edgePts[((edgePtsCount - 1) * 6) - 4],
+						edgePts[((edgePtsCount - 1) * 6) - 3]);
 				m_g2d.transform(m_xformUtil);
 				m_g2d.scale(edgeThickness, edgeThickness);
 				// The paint is already set to edge paint.
@@ -1012,7 +1082,7 @@ public final class GraphGraphics {
 		final Shape arrow0 = computeUntransformedArrow(arrow0Type);
 
 		if (arrow0 != null) {
-			m_xformUtil.setTransform(cosTheta0, sinTheta0, -sinTheta0, cosTheta0, m_edgePtsBuff[0], m_edgePtsBuff[1]);
+			m_xformUtil.setTransform(cosTheta0, sinTheta0, -sinTheta0, cosTheta0, edgePts[0], edgePts[1]);
 			m_g2d.transform(m_xformUtil);
 			m_g2d.scale(arrow0Size, arrow0Size);
 			m_g2d.setPaint(arrow0Paint);
@@ -1034,8 +1104,8 @@ public final class GraphGraphics {
 		if (arrow1 != null) {
 				
 			m_xformUtil.setTransform(cosTheta1, sinTheta1, -sinTheta1, cosTheta1,
-				m_edgePtsBuff[((edgePtsCount - 1) * 6) - 2],
-				m_edgePtsBuff[((edgePtsCount - 1) * 6) - 1]);
+				edgePts[((edgePtsCount - 1) * 6) - 2],
+				edgePts[((edgePtsCount - 1) * 6) - 1]);
 			m_g2d.transform(m_xformUtil);
 			m_g2d.scale(arrow1Size, arrow1Size);
 			m_g2d.setPaint(arrow1Paint);
@@ -1546,7 +1616,7 @@ public final class GraphGraphics {
 	 */
 	public static final boolean computeEdgeIntersection(byte nodeShape, float xMin, float yMin, float xMax,
 			float yMax, float offset, float ptX, float ptY, float[] returnVal) {
-		NodeShape ns = nodeShapes.get(nodeShape);
+		NodeShape ns = getNodeShape(nodeShape);
 		return ns == null ? false : ns.computeEdgeIntersection(xMin, yMin, xMax, yMax, ptX, ptY, returnVal);
 	}
 
@@ -1638,17 +1708,16 @@ public final class GraphGraphics {
 		// the "drawTextAsShape" path is the default path as it avoids
 		// this problem.
 		if (drawTextAsShape) {
-			GlyphVector glyphV = labelLineInfo.getGlyphVector();
-			Rectangle2D glyphBounds = glyphV.getLogicalBounds();
+			Rectangle2D glyphBounds = labelLineInfo.getLogicalBounds();
 			m_g2d.translate(-glyphBounds.getCenterX(), -glyphBounds.getCenterY());
 			drawLabelBackground(glyphBounds, backgroundPaint, backgroundShape);
-			m_g2d.fill(labelLineInfo.getShape());
+			if (!drawLabelImage(labelLineInfo, paint)) {
+				m_g2d.fill(labelLineInfo.getShape());
+			}
 		} else {
-			// Note: A new Rectangle2D is being constructed by this method call.
-			// As far as I know this performance hit is unavoidable.
 			String text = labelLineInfo.getText();
 			Font font = labelLineInfo.getFont();
-			Rectangle2D textBounds = font.getStringBounds(text, getFontRenderContextFull());
+			Rectangle2D textBounds = labelLineInfo.getStringBounds();
 			m_g2d.translate(-textBounds.getCenterX(), -textBounds.getCenterY());
 			drawLabelBackground(textBounds, backgroundPaint, backgroundShape);
 			m_g2d.setFont(font);
@@ -1658,6 +1727,31 @@ public final class GraphGraphics {
 		m_g2d.setTransform(m_currNativeXform);
 	}
 	
+	/**
+	 * Filling the outline of a label is the most expensive part of rendering it. When rendering to an
+	 * image buffer the filled outline is cached as an image for the current zoom level and copied instead.
+	 * The image is snapped to the pixel grid, so the label may be drawn up to half a pixel away from where
+	 * the shape would be filled, this is not noticeable on the screen but is avoided when exporting.
+	 */
+	private boolean drawLabelImage(LabelLineInfo labelLineInfo, Paint paint) {
+		if (!m_labelImages || !(paint instanceof Color))
+			return false;
+		
+		AffineTransform xform = m_g2d.getTransform();
+		if ((xform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE)) != 0)
+			return false;
+		
+		var image = labelLineInfo.getImage(xform.getScaleX(), (Color) paint);
+		if (image == null)
+			return false;
+		
+		int x = (int) Math.round(xform.getTranslateX()) + image.getX();
+		int y = (int) Math.round(xform.getTranslateY()) + image.getY();
+		m_g2d.setTransform(IDENTITY_XFORM);
+		m_g2d.drawImage(image.getImage(), x, y, null);
+		return true;
+	}
+	
 	private void drawLabelBackground(Rectangle2D bounds, Paint paint, byte shape) {
 		if(shape >= 0) {
 			Graphics2D g_back = (Graphics2D) m_g2d.create();
@@ -1759,12 +1853,7 @@ public final class GraphGraphics {
 	 * @return Actual node border stroke
 	 */
 	private final Stroke getStroke(final float borderWidth) {
-		Stroke s = borderStrokes.get(borderWidth);
-		if ( s == null ) {
-			s = new BasicStroke(borderWidth);
-			borderStrokes.put(borderWidth, s);
-		}
-		return s; 
+		return borderStrokes.computeIfAbsent(borderWidth, BasicStroke::new);
 	}
 
 
@@ -33,9 +33,11 @@ import java.awt.geom.GeneralPath;
 
 public class DiscArrow extends AbstractArrow {
 	
-	private final GeneralPath capGP; 
 	private final Arc2D.Double capA;
 
+	// A new cap is created when the ratio changes, a cap that was returned is never modified
+	// because it may still be used by another rendering thread.
+	private GeneralPath capGP;
 	private double currentRatio;
 
 	public DiscArrow() {
@@ -47,7 +49,6 @@ public class DiscArrow extends AbstractArrow {
 		arrow = arrowE;
 
 		// cap is calculated dynamically below!
-		capGP = new GeneralPath();
 		capA = new Arc2D.Double();
 
 		currentRatio = Double.NaN;
@@ -55,7 +56,7 @@ public class DiscArrow extends AbstractArrow {
 
 	public synchronized Shape getCapShape(final double ratio) {
 		// only recreate the shape if we need to
-		if ( currentRatio != Double.NaN && ratio == currentRatio )
+		if ( capGP != null && ratio == currentRatio )
 			return capGP;
 
 		currentRatio = ratio;
@@ -63,7 +64,7 @@ public class DiscArrow extends AbstractArrow {
 
 		capA.setArc(0.0d, ratio / -2.0d, ratio, ratio, 180.0d - theta, theta * 2, Arc2D.OPEN);
 
-		capGP.reset();
+		capGP = new GeneralPath();
 		capGP.append(capA, false);
 		capGP.lineTo(0.0f, 0.5f);
 		capGP.lineTo(0.0f, -0.5f);
@@ -5,6 +5,7 @@ import java.awt.Font;
 import java.awt.Paint;
 import java.awt.Stroke;
 import java.util.Collection;
+import java.util.Set;
 
 import org.cytoscape.graph.render.immed.EdgeAnchors;
 import org.cytoscape.model.CyEdge;
@@ -369,4 +370,9 @@ public interface EdgeDetails {
 	
 	public void updateAnimatedEdges(Collection<View<CyEdge>> animatedEdges);
 	
+	/**
+	 * Returns the edges that were last passed to updateAnimatedEdges(), the returned set is not modified afterwards.
+	 */
+	public Set<View<CyEdge>> getAnimatedEdges();
+	
 }
@@ -0,0 +1,287 @@
+package org.cytoscape.graph.render.stateful;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ANCHORS;
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_EDGE_ARROWS;
+
+import java.util.Arrays;
+
+import org.cytoscape.graph.render.immed.EdgeAnchors;
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
+import org.cytoscape.view.presentation.property.EdgeStackingVisualProperty;
+import org.cytoscape.view.presentation.property.values.ArrowShape;
+import org.cytoscape.view.presentation.property.values.Bend;
+import org.cytoscape.view.presentation.property.values.EdgeStacking;
+
+/**
+ * The geometry of an edge at high detail, in node coordinates: the arrows, the anchors,
+ * the endpoints adjusted to the node shapes and arrows, and the points of the edge path.
+ * Computing it is the part of rendering an edge that does not depend on zoom or pan,
+ * so it can be kept between frames, see {@link EdgeGeometryCache}.
+ */
+public final class EdgeGeometry {
+
+	private final View<CyEdge> edgeView;
+	private final int lodBits;
+
+	// The values the geometry was computed from, other than the edge and the LOD flags.
+	private final float[] srcExtents;
+	private final float[] trgExtents;
+	private final byte srcShape;
+	private final byte trgShape;
+	private final EdgeStacking stacking;
+	private final float stackingDensity;
+	// Anchors computed from the other edges between the same nodes, rather than from the handles of the edge.
+	private final boolean autoAnchors;
+
+	private final ArrowShape srcArrow;
+	private final ArrowShape trgArrow;
+	private final float srcArrowSize;
+	private final float trgArrowSize;
+	private final EdgeAnchors anchors;
+	private final float srcX;
+	private final float srcY;
+	private final float trgX;
+	private final float trgY;
+	private final double[] pathPoints;
+	private final int pathPointCount;
+
+
+	private EdgeGeometry(View<CyEdge> edgeView, int lodBits,
+			float[] srcExtents, float[] trgExtents, byte srcShape, byte trgShape,
+			EdgeStacking stacking, float stackingDensity, boolean autoAnchors,
+			ArrowShape srcArrow, ArrowShape trgArrow, float srcArrowSize, float trgArrowSize, EdgeAnchors anchors,
+			float srcX, float srcY, float trgX, float trgY, double[] pathPoints, int pathPointCount) {
+		this.edgeView = edgeView;
+		this.lodBits = lodBits;
+		this.srcExtents = srcExtents;
+		this.trgExtents = trgExtents;
+		this.srcShape = srcShape;
+		this.trgShape = trgShape;
+		this.stacking = stacking;
+		this.stackingDensity = stackingDensity;
+		this.autoAnchors = autoAnchors;
+		this.srcArrow = srcArrow;
+		this.trgArrow = trgArrow;
+		this.srcArrowSize = srcArrowSize;
+		this.trgArrowSize = trgArrowSize;
+		this.anchors = anchors;
+		this.srcX = srcX;
+		this.srcY = srcY;
+		this.trgX = trgX;
+		this.trgY = trgY;
+		this.pathPoints = pathPoints;
+		this.pathPointCount = pathPointCount;
+	}
+
+
+	/**
+	 * Computes the geometry of the edge, this is the same computation that GraphRenderer.renderEdges()
+	 * used to do inline for every edge on every frame.
+	 */
+	public static EdgeGeometry compute(CyNetworkViewSnapshot netView, View<CyEdge> edge, float[] srcExtents, float[] trgExtents,
+			View<CyNode> sourceNode, View<CyNode> targetNode, RenderDetailFlags flags,
+			NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+
+		final EdgeStacking stacking = edgeDetails.getStacking(edge);
+
+		final ArrowShape srcArrow;
+		final ArrowShape trgArrow;
+		final float srcArrowSize;
+		final float trgArrowSize;
+
+		if (flags.not(LOD_EDGE_ARROWS) || stacking == EdgeStackingVisualProperty.HAYSTACK) { // Not rendering arrows.
+			trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
+			trgArrowSize = srcArrowSize = 0.0f;
+		} else { // Rendering edge arrows.
+			srcArrow = edgeDetails.getSourceArrowShape(edge);
+			trgArrow = edgeDetails.getTargetArrowShape(edge);
+			srcArrowSize = ((srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getSourceArrowSize(edge));
+			trgArrowSize = ((trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getTargetArrowSize(edge));
+		}
+
+		// The anchors returned by EdgeDetails may compute each point when asked, keep a copy of the points instead.
+		final EdgeAnchors anchors = flags.not(LOD_EDGE_ANCHORS) ? null : copyAnchors(edgeDetails.getAnchors(netView, edge));
+		final boolean autoAnchors = anchors != null && !hasHandles(edge, edgeDetails);
+		final byte srcShape = nodeDetails.getShape(sourceNode);
+		final byte trgShape = nodeDetails.getShape(targetNode);
+		float stackingDensity = 0.0f;
+
+		final float[] srcPoint = new float[2];
+		final float[] trgPoint = new float[2];
+
+		if(stacking == EdgeStackingVisualProperty.HAYSTACK) {
+			stackingDensity = edgeDetails.getStackingDensity(edge);
+			GraphRenderer.computeEdgeEndpointsHaystack(srcExtents, trgExtents, sourceNode.getSUID(), targetNode.getSUID(), edge.getSUID(),
+					stackingDensity, stacking, srcPoint, trgPoint, new byte[16]);
+		} else /* auto bend */ {
+			GraphRenderer.computeEdgeEndpoints(srcExtents, srcShape, srcArrow, srcArrowSize, anchors,
+					trgExtents, trgShape, trgArrow, trgArrowSize, srcPoint, trgPoint);
+		}
+
+		final double[] pathBuff = new double[(GraphGraphics.MAX_EDGE_ANCHORS + 1) * 6];
+		final int pathPointCount = GraphGraphics.computeEdgePath(pathBuff, srcArrow, srcArrowSize, trgArrow, trgArrowSize,
+				srcPoint[0], srcPoint[1], anchors, trgPoint[0], trgPoint[1]);
+		final double[] pathPoints = Arrays.copyOf(pathBuff, GraphGraphics.getEdgePathLength(pathPointCount));
+
+		return new EdgeGeometry(edge, lodBits(flags),
+				Arrays.copyOf(srcExtents, 4), Arrays.copyOf(trgExtents, 4), srcShape, trgShape,
+				stacking, stackingDensity, autoAnchors,
+				srcArrow, trgArrow, srcArrowSize, trgArrowSize, anchors,
+				srcPoint[0], srcPoint[1], trgPoint[0], trgPoint[1], pathPoints, pathPointCount);
+	}
+
+	// The only LOD flags that change the geometry.
+	private static int lodBits(RenderDetailFlags flags) {
+		return (flags.has(LOD_EDGE_ARROWS) ? LOD_EDGE_ARROWS : 0) | (flags.has(LOD_EDGE_ANCHORS) ? LOD_EDGE_ANCHORS : 0);
+	}
+
+	private static EdgeAnchors copyAnchors(EdgeAnchors anchors) {
+		if(anchors == null)
+			return null;
+
+		final int numAnchors = anchors.numAnchors();
+		final float[] points = new float[numAnchors * 2];
+		final float[] point = new float[2];
+		for(int i = 0; i < numAnchors; i++) {
+			anchors.getAnchor(i, point);
+			points[i * 2] = point[0];
+			points[i * 2 + 1] = point[1];
+		}
+
+		return new EdgeAnchors() {
+			@Override
+			public int numAnchors() {
+				return numAnchors;
+			}
+			@Override
+			public void getAnchor(int anchorIndex, float[] anchorArr) {
+				anchorArr[0] = points[anchorIndex * 2];
+				anchorArr[1] = points[anchorIndex * 2 + 1];
+			}
+		};
+	}
+
+
+	private static boolean hasHandles(View<CyEdge> edge, EdgeDetails edgeDetails) {
+		Bend bend = edgeDetails.getBend(edge);
+		return bend != null && bend.getAllHandles() != null && !bend.getAllHandles().isEmpty();
+	}
+
+	private static boolean equalAnchors(EdgeAnchors a, EdgeAnchors b) {
+		if(a == null || b == null)
+			return a == b;
+		if(a.numAnchors() != b.numAnchors())
+			return false;
+		final float[] pointA = new float[2];
+		final float[] pointB = new float[2];
+		for(int i = 0; i < a.numAnchors(); i++) {
+			a.getAnchor(i, pointA);
+			b.getAnchor(i, pointB);
+			if(!Arrays.equals(pointA, pointB))
+				return false;
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns true if this geometry was computed from the given view of the edge, with the same LOD flags.
+	 */
+	boolean isFor(View<CyEdge> edge, RenderDetailFlags flags) {
+		return edgeView == edge && lodBits == lodBits(flags);
+	}
+
+	/**
+	 * Returns true if this geometry, computed for the view of the edge in an earlier snapshot, is still valid for
+	 * the given view. That's the case when the node extents and shapes and the visual properties of the edge it was 
+	 * computed from did not change. Anchors that were computed from the other edges between the same nodes are never 
+	 * reused, because those edges could have changed.
+	 */
+	boolean isValidFor(CyNetworkViewSnapshot netView, View<CyEdge> edge, float[] srcExtents, float[] trgExtents,
+			View<CyNode> sourceNode, View<CyNode> targetNode, RenderDetailFlags flags,
+			NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+
+		if(autoAnchors || lodBits != lodBits(flags))
+			return false;
+		if(!Arrays.equals(this.srcExtents, 0, 4, srcExtents, 0, 4) || !Arrays.equals(this.trgExtents, 0, 4, trgExtents, 0, 4))
+			return false;
+		if(edgeDetails.getStacking(edge) != stacking)
+			return false;
+		if(stacking == EdgeStackingVisualProperty.HAYSTACK) // no arrows, no anchors and the node shapes don't matter
+			return edgeDetails.getStackingDensity(edge) == stackingDensity;
+		if(nodeDetails.getShape(sourceNode) != srcShape || nodeDetails.getShape(targetNode) != trgShape)
+			return false;
+
+		if(flags.has(LOD_EDGE_ARROWS)) {
+			if(edgeDetails.getSourceArrowShape(edge) != srcArrow || edgeDetails.getTargetArrowShape(edge) != trgArrow)
+				return false;
+			if(srcArrow != ArrowShapeVisualProperty.NONE && edgeDetails.getSourceArrowSize(edge) != srcArrowSize)
+				return false;
+			if(trgArrow != ArrowShapeVisualProperty.NONE && edgeDetails.getTargetArrowSize(edge) != trgArrowSize)
+				return false;
+		}
+
+		if(flags.has(LOD_EDGE_ANCHORS)) {
+			// Without handles and without auto anchors there were no anchors, the handles are cheap to check
+			if(!hasHandles(edge, edgeDetails))
+				return anchors == null;
+			return equalAnchors(anchors, edgeDetails.getAnchors(netView, edge));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the same geometry for another view of the edge, see {@link #isValidFor}.
+	 */
+	EdgeGeometry withView(View<CyEdge> edge) {
+		return new EdgeGeometry(edge, lodBits, srcExtents, trgExtents, srcShape, trgShape, stacking, stackingDensity, autoAnchors,
+				srcArrow, trgArrow, srcArrowSize, trgArrowSize, anchors, srcX, srcY, trgX, trgY, pathPoints, pathPointCount);
+	}
+
+	public ArrowShape getSourceArrow() {
+		return srcArrow;
+	}
+
+	public ArrowShape getTargetArrow() {
+		return trgArrow;
+	}
+
+	public float getSourceArrowSize() {
+		return srcArrowSize;
+	}
+
+	public float getTargetArrowSize() {
+		return trgArrowSize;
+	}
+
+	/**
+	 * Returns the anchors of the edge, or null if anchors are not rendered.
+	 */
+	public EdgeAnchors getAnchors() {
+		return anchors;
+	}
+
+	/**
+	 * Copies the endpoints of the edge, adjusted to the node shapes and arrows, into the given arrays.
+	 */
+	public void getEndpoints(float[] srcPoint, float[] trgPoint) {
+		srcPoint[0] = srcX;
+		srcPoint[1] = srcY;
+		trgPoint[0] = trgX;
+		trgPoint[1] = trgY;
+	}
+
+	public double[] getPathPoints() {
+		return pathPoints;
+	}
+
+	public int getPathPointCount() {
+		return pathPointCount;
+	}
+}
@@ -0,0 +1,164 @@
+package org.cytoscape.graph.render.stateful;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cytoscape.ding.impl.DingNetworkViewFactory;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
+
+/**
+ * Keeps the {@link EdgeGeometry} of each edge between frames, so that panning, zooming and
+ * repainting an unchanged network doesn't compute the endpoints and curves of every edge again.
+ * <p>
+ * The entries are keyed by edge SUID and are kept across snapshots. Within a snapshot nothing the geometry
+ * depends on can change, so an entry computed from the same view object is returned as is. An entry computed
+ * for an earlier snapshot is only returned when the values it was computed from are still the same, so moving
+ * a node only recomputes the geometry of its own edges. When nodes or edges are added, removed, hidden or shown
+ * the cache is cleared, because that changes the anchors of parallel edges.
+ * <p>
+ * The edge slices are painted on several threads, so the cache is safe to use concurrently.
+ */
+public class EdgeGeometryCache {
+
+	// Computing the geometry of fewer edges than this on another thread is not worth the overhead.
+	private static final int MIN_CHUNK_SIZE = 1000;
+	private static final int MAX_CHUNKS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ExecutorService geometryExecutor = Executors.newFixedThreadPool(Math.max(1, MAX_CHUNKS - 1), r -> {
+		Thread thread = Executors.defaultThreadFactory().newThread(r);
+		thread.setName("ding-edge-geometry-" + thread.getName());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Map<Long,EdgeGeometry> cache = new ConcurrentHashMap<>();
+
+	private CyNetworkViewSnapshot snapshot;
+	private int nodeCount;
+	private int edgeCount;
+	private int hiddenNodeCount;
+	private int hiddenEdgeCount;
+
+
+	/**
+	 * Must be called before rendering the edges of a snapshot.
+	 */
+	public synchronized void update(CyNetworkViewSnapshot netView) {
+		if(netView == snapshot)
+			return;
+
+		int nodeCount = netView.getNodeCount();
+		int edgeCount = netView.getEdgeCount();
+		int hiddenNodeCount = netView.getTrackedNodeCount(DingNetworkViewFactory.HIDDEN_NODES);
+		int hiddenEdgeCount = netView.getTrackedEdgeCount(DingNetworkViewFactory.HIDDEN_EDGES);
+
+		if(nodeCount != this.nodeCount || edgeCount != this.edgeCount
+				|| hiddenNodeCount != this.hiddenNodeCount || hiddenEdgeCount != this.hiddenEdgeCount) {
+			cache.clear();
+		}
+
+		this.snapshot = netView;
+		this.nodeCount = nodeCount;
+		this.edgeCount = edgeCount;
+		this.hiddenNodeCount = hiddenNodeCount;
+		this.hiddenEdgeCount = hiddenEdgeCount;
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+
+	public EdgeGeometry getGeometry(CyNetworkViewSnapshot netView, View<CyEdge> edge, float[] srcExtents, float[] trgExtents,
+			View<CyNode> sourceNode, View<CyNode> targetNode, RenderDetailFlags flags,
+			NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+
+		final Long suid = edge.getSUID();
+
+		EdgeGeometry geometry = cache.get(suid);
+		if(geometry != null) {
+			if(geometry.isFor(edge, flags))
+				return geometry;
+
+			if(geometry.isValidFor(netView, edge, srcExtents, trgExtents, sourceNode, targetNode, flags, nodeDetails, edgeDetails)) {
+				// So the next frames of this snapshot don't have to check it again
+				geometry = geometry.withView(edge);
+				cache.put(suid, geometry);
+				return geometry;
+			}
+		}
+
+		geometry = EdgeGeometry.compute(netView, edge, srcExtents, trgExtents, sourceNode, targetNode, flags, nodeDetails, edgeDetails);
+		cache.put(suid, geometry);
+		return geometry;
+	}
+
+	/**
+	 * Computes the geometry of the given edges that is not in the cache or out of date, splitting the list over
+	 * several threads, so that rendering the edges afterwards only has to draw them. When there are only a few edges
+	 * this does nothing and their geometry is computed when they are rendered.
+	 */
+	public void computeGeometry(CyNetworkViewSnapshot netView, List<View<CyEdge>> edges, RenderDetailFlags flags,
+			NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+
+		update(netView);
+
+		if(flags.not(LOD_HIGH_DETAIL)) // low detail edges are straight lines between the node centers
+			return;
+
+		int count = edges.size();
+		int chunks = Math.min(MAX_CHUNKS, count / MIN_CHUNK_SIZE);
+		if(chunks < 2)
+			return;
+
+		int chunkSize = (count + chunks - 1) / chunks;
+
+		var futures = new CompletableFuture<?>[chunks];
+		for(int i = 1; i < chunks; i++) {
+			var chunk = edges.subList(Math.min(count, i * chunkSize), Math.min(count, (i + 1) * chunkSize));
+			futures[i] = CompletableFuture.runAsync(() ->
+				computeChunk(netView, chunk, flags, nodeDetails, edgeDetails)
+			, geometryExecutor);
+		}
+
+		try {
+			computeChunk(netView, edges.subList(0, chunkSize), flags, nodeDetails, edgeDetails);
+		} finally {
+			CompletableFuture.allOf(Arrays.copyOfRange(futures, 1, chunks)).exceptionally(e -> null).join();
+		}
+
+		for(int i = 1; i < chunks; i++) {
+			futures[i].join(); // rethrows if the chunk failed
+		}
+	}
+
+	private void computeChunk(CyNetworkViewSnapshot netView, List<View<CyEdge>> edges, RenderDetailFlags flags,
+			NodeDetails nodeDetails, EdgeDetails edgeDetails) {
+
+		final float[] srcExtents = new float[4];
+		final float[] trgExtents = new float[4];
+		@SuppressWarnings("unchecked")
+		View<CyNode>[] nodeBuff = new View[2];
+
+		var edgeHits = new GraphRenderer.EdgeList(netView, edges);
+		while(edgeHits.hasNext()) {
+			View<CyEdge> edge = edgeHits.nextEdgeWithNodeExtents(srcExtents, trgExtents, nodeBuff);
+			getGeometry(netView, edge, srcExtents, trgExtents, nodeBuff[0], nodeBuff[1], flags, nodeDetails, edgeDetails);
+		}
+	}
+
+}
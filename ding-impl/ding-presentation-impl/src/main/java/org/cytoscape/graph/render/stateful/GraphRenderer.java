@@ -42,7 +42,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
+import org.cytoscape.ding.impl.canvas.NetworkTransform;
 import org.cytoscape.ding.impl.work.DiscreteProgressMonitor;
 import org.cytoscape.ding.impl.work.ProgressMonitor;
 import org.cytoscape.ding.internal.util.MurmurHash3;
@@ -53,7 +55,6 @@ import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.view.model.CyNetworkViewSnapshot;
-import org.cytoscape.view.model.SnapshotEdgeInfo;
 import org.cytoscape.view.model.View;
 import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.model.spacial.EdgeSpacialIndex2DEnumerator;
@@ -87,6 +88,80 @@ public final class GraphRenderer {
 			return;
 		}
 		
+		// no labels at low detail, still need labelPm for debug panel, labels usually take longer
+		ProgressMonitor[] subPms = pm.split(0, 1, flags.has(LOD_HIGH_DETAIL) ? 1 : 0);
+		ProgressMonitor queryPm = subPms[0];
+		ProgressMonitor shapePm = subPms[1];
+		ProgressMonitor labelPm = subPms[2];
+		
+		queryPm.start("Query");
+		EdgeSpacialIndex2DEnumerator edgeHits = queryEdges(pm, grafx.getTransform(), netView, flags);
+		queryPm.done();
+		
+		if(edgeHits == null) // cancelled
+			return;
+		
+		renderEdges(pm, shapePm, labelPm, grafx, netView, flags, nodeDetails, edgeDetails, labelInfoProvider, null, edgeHits);
+	}
+	
+	/**
+	 * Returns the Z ordered edges that {@link #renderEdges} would render.
+	 */
+	public static List<View<CyEdge>> getEdgesToRender(NetworkTransform transform, CyNetworkViewSnapshot netView, RenderDetailFlags flags) {
+		EdgeSpacialIndex2DEnumerator edgeHits = queryEdges(transform, netView, flags);
+		if(edgeHits == null)
+			return List.of();
+		
+		List<View<CyEdge>> edges = new ArrayList<>(edgeHits.size());
+		while(edgeHits.hasNext())
+			edges.add(edgeHits.nextEdge());
+		return edges;
+	}
+	
+	/**
+	 * Returns the Z ordered edges that {@link #renderEdges} would render, or null if no edges are rendered.
+	 */
+	public static EdgeSpacialIndex2DEnumerator queryEdges(NetworkTransform transform, CyNetworkViewSnapshot netView, RenderDetailFlags flags) {
+		if(flags.renderEdges() == RenderEdges.NONE)
+			return null;
+		return queryEdges(null, transform, netView, flags);
+	}
+	
+	private static EdgeSpacialIndex2DEnumerator queryEdges(ProgressMonitor pm, NetworkTransform transform, CyNetworkViewSnapshot netView, RenderDetailFlags flags) {
+		BooleanSupplier isCancelled = pm == null ? null : pm::isCancelled;
+		if (flags.renderEdges() == RenderEdges.ALL)
+			return netView.getSpacialIndex2D().queryAllEdges(isCancelled);
+		
+		Rectangle2D.Float area = transform.getNetworkVisibleAreaNodeCoords();
+		return netView.getSpacialIndex2D().queryOverlapEdges(area.x, area.y, area.x + area.width, area.y + area.height, isCancelled);
+	}
+	
+	/**
+	 * Renders the given edges in the order of the list, edges that are hidden or not in the snapshot are skipped.
+	 * Unlike the other renderEdges methods this doesn't query the edges that are in the visible area.
+	 * Rendering consecutive ranges of the list on top of each other gives the same result as rendering 
+	 * all of them at once.
+	 */
+	public static void renderEdges(ProgressMonitor pm, GraphGraphics grafx, CyNetworkViewSnapshot netView,
+			RenderDetailFlags flags, NodeDetails nodeDetails, EdgeDetails edgeDetails,
+			LabelInfoProvider labelInfoProvider, EdgeGeometryCache geometryCache, List<View<CyEdge>> edges) {
+		
+		if(flags.renderEdges() == RenderEdges.NONE) {
+			return;
+		}
+		
+		ProgressMonitor[] subPms = pm.split(0, 1, flags.has(LOD_HIGH_DETAIL) ? 1 : 0);
+		subPms[0].emptyTask("Query");
+		
+		renderEdges(pm, subPms[1], subPms[2], grafx, netView, flags, nodeDetails, edgeDetails, labelInfoProvider, geometryCache, 
+				new EdgeList(netView, edges));
+	}
+	
+	private static void renderEdges(ProgressMonitor pm, ProgressMonitor shapePm, ProgressMonitor labelPm, 
+			GraphGraphics grafx, CyNetworkViewSnapshot netView, RenderDetailFlags flags, NodeDetails nodeDetails, 
+			EdgeDetails edgeDetails, LabelInfoProvider labelInfoProvider, EdgeGeometryCache geometryCache, 
+			EdgeSpacialIndex2DEnumerator edgeHits) {
+		
 		final float[] floatBuff1 = new float[4];
 		final float[] floatBuff2 = new float[4];
 		final float[] floatBuff3 = new float[2];
@@ -97,23 +172,10 @@ public final class GraphRenderer {
 		final double[] offsetBuff = new double[2];
 		final GeneralPath path2d = new GeneralPath();
 		
-		EdgeSpacialIndex2DEnumerator edgeHits;
-		Rectangle2D.Float area = grafx.getTransform().getNetworkVisibleAreaNodeCoords();
-		
-		if (flags.renderEdges() == RenderEdges.ALL)
-			edgeHits = netView.getSpacialIndex2D().queryAllEdges(pm::isCancelled);
-		else
-			edgeHits = netView.getSpacialIndex2D().queryOverlapEdges(area.x, area.y, area.x + area.width, area.y + area.height, pm::isCancelled);
-		
-		if(edgeHits == null) // cancelled
-			return;
+		pm.addCount("edges", edgeHits.size());
 		
 		if (flags.not(LOD_HIGH_DETAIL)) { // Low detail.
 
-			ProgressMonitor[] subPms = pm.split(1,0); // no labels at all, still need labelPm for debug panel
-			ProgressMonitor shapePm = subPms[0];
-			ProgressMonitor labelPm = subPms[1];
-			
 			shapePm.start("Line");
 			DiscreteProgressMonitor shapeDpm = shapePm.toDiscrete(edgeHits.size());
 			
@@ -140,13 +202,10 @@ public final class GraphRenderer {
 			
 		} else { // High detail.
 			
-			ProgressMonitor[] subPms = pm.split(1,1); // labels usually take longer
-			ProgressMonitor shapePm = subPms[0];
-			ProgressMonitor labelPm = subPms[1];
 			DiscreteProgressMonitor shapeDpm = shapePm.toDiscrete(edgeHits.size());
 			DiscreteProgressMonitor labelDpm = labelPm.toDiscrete(edgeHits.size());
+			int labelsRendered = 0;
 			
-			byte[] haystackDataBuff = new byte[16];
 			@SuppressWarnings("unchecked")
 			View<CyNode>[] nodeBuff = new View[2];
 			
@@ -156,14 +215,8 @@ public final class GraphRenderer {
 				
 				// Hidden edges are not included in the results
 				View<CyEdge> edge = edgeHits.nextEdgeWithNodeExtents(floatBuff1, floatBuff2, nodeBuff);
-					
-				SnapshotEdgeInfo edgeInfo = netView.getEdgeInfo(edge);
-				final long srcSuid = edgeInfo.getSourceViewSUID();
-				final long trgSuid = edgeInfo.getTargetViewSUID();
 				final View<CyNode> sourceNode = nodeBuff[0];
 				final View<CyNode> targetNode = nodeBuff[1];
-				final byte srcShape = nodeDetails.getShape(sourceNode);
-				final byte trgShape = nodeDetails.getShape(targetNode);
 				
 				shapePm.start("Line");
 				final EdgeStacking stacking = edgeDetails.getStacking(edge);
@@ -173,47 +226,22 @@ public final class GraphRenderer {
 				final Stroke edgeStroke = edgeDetails.getStroke(edge);
 				final Paint segPaint = edgeDetails.getPaint(edge);
 
-				// Compute arrows.
-				final ArrowShape srcArrow;
-				final ArrowShape trgArrow;
-				final float srcArrowSize;
-				final float trgArrowSize;
-				final Paint srcArrowPaint;
-				final Paint trgArrowPaint;
-
-				if (flags.not(LOD_EDGE_ARROWS) || stacking == EdgeStackingVisualProperty.HAYSTACK) { // Not rendering arrows.
-					trgArrow = srcArrow = ArrowShapeVisualProperty.NONE;
-					trgArrowSize = srcArrowSize = 0.0f;
-					trgArrowPaint = srcArrowPaint = null;
-				} else { // Rendering edge arrows.
-					srcArrow = edgeDetails.getSourceArrowShape(edge);
-					trgArrow = edgeDetails.getTargetArrowShape(edge);
-					srcArrowSize  = ((srcArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getSourceArrowSize(edge));
-					trgArrowSize  = ((trgArrow == ArrowShapeVisualProperty.NONE) ? 0.0f : edgeDetails.getTargetArrowSize(edge));
-					srcArrowPaint = ((srcArrow == ArrowShapeVisualProperty.NONE) ? null : edgeDetails.getSourceArrowPaint(edge));
-					trgArrowPaint = ((trgArrow == ArrowShapeVisualProperty.NONE) ? null : edgeDetails.getTargetArrowPaint(edge));
-				}
-
-				// Compute the anchors to use when rendering edge.
-				final EdgeAnchors anchors = flags.not(LOD_EDGE_ANCHORS) ? null : edgeDetails.getAnchors(netView, edge);
+				// The geometry doesn't depend on the transform, it is kept between frames when there is a cache.
+				final EdgeGeometry geometry = geometryCache == null
+					? EdgeGeometry.compute(netView, edge, floatBuff1, floatBuff2, sourceNode, targetNode, flags, nodeDetails, edgeDetails)
+					: geometryCache.getGeometry(netView, edge, floatBuff1, floatBuff2, sourceNode, targetNode, flags, nodeDetails, edgeDetails);
 
-				if(stacking == EdgeStackingVisualProperty.HAYSTACK) {
-					float radiusModifier = edgeDetails.getStackingDensity(edge);
-					computeEdgeEndpointsHaystack(floatBuff1, floatBuff2, srcSuid, trgSuid, edgeInfo.getSUID(), radiusModifier, stacking, 
-							floatBuff3, floatBuff4, haystackDataBuff);
-				} else /* auto bend */ {
-					computeEdgeEndpoints(floatBuff1, srcShape, srcArrow, srcArrowSize, anchors, floatBuff2, 
-							trgShape,  trgArrow, trgArrowSize, floatBuff3, floatBuff4);
-				}
-				
-				final float srcXAdj = floatBuff3[0];
-				final float srcYAdj = floatBuff3[1];
-				final float trgXAdj = floatBuff4[0];
-				final float trgYAdj = floatBuff4[1];
+				final ArrowShape srcArrow = geometry.getSourceArrow();
+				final ArrowShape trgArrow = geometry.getTargetArrow();
+				final Paint srcArrowPaint = ((srcArrow == ArrowShapeVisualProperty.NONE) ? null : edgeDetails.getSourceArrowPaint(edge));
+				final Paint trgArrowPaint = ((trgArrow == ArrowShapeVisualProperty.NONE) ? null : edgeDetails.getTargetArrowPaint(edge));
+				final EdgeAnchors anchors = geometry.getAnchors();
+				geometry.getEndpoints(floatBuff3, floatBuff4);
 
-				grafx.drawEdgeFull(srcArrow, srcArrowSize, srcArrowPaint, trgArrow,
-				                   trgArrowSize, trgArrowPaint, srcXAdj, srcYAdj,
-				                   anchors, trgXAdj, trgYAdj, thickness, edgeStroke, segPaint);
+				grafx.drawEdgeFull(geometry.getPathPoints(), geometry.getPathPointCount(), 
+				                   srcArrow, geometry.getSourceArrowSize(), srcArrowPaint,
+				                   trgArrow, geometry.getTargetArrowSize(), trgArrowPaint,
+				                   thickness, edgeStroke, segPaint);
 
 				// Take care of edge anchor rendering.
 				if (anchors != null) {
@@ -270,6 +298,7 @@ public final class GraphRenderer {
 
 						renderText(grafx, labelInfo, (float) textXCenter, (float) textYCenter,
 								textXCenter, textYCenter, justify, paint, backgroundPaint, backgroundShape, theta, flags.has(LOD_TEXT_AS_SHAPE));
+						labelsRendered++;
 					}
 				}
 				
@@ -278,6 +307,8 @@ public final class GraphRenderer {
 				shapeDpm.increment();
 				labelDpm.increment();
 			}
+			
+			pm.addCount("edge labels", labelsRendered);
 		}
 	}
 
@@ -529,24 +560,66 @@ public final class GraphRenderer {
 	public static void renderNodes(ProgressMonitor pm, GraphGraphics grafx, CyNetworkViewSnapshot netView,
 			RenderDetailFlags flags, NodeDetails nodeDetails, Set<VisualPropertyDependency<?>> dependencies, 
 			LabelInfoProvider labelInfoProvider) {
+		// no labels at low detail, still need labelPm for debug panel, labels usually take longer
+		boolean highDetail = flags.has(LOD_HIGH_DETAIL);
+		ProgressMonitor[] subPms = pm.split(0, 1, highDetail ? 1 : 0, highDetail ? 2 : 0);
+		
+		subPms[0].start("Query");
+		Rectangle2D.Float area = grafx.getTransform().getNetworkVisibleAreaNodeCoords();
+		NodeSpacialIndex2DEnumerator nodeHits = netView.getSpacialIndex2D().queryOverlapNodes(area.x, area.y, area.x + area.width, area.y + area.height, pm::isCancelled);
+		subPms[0].done();
+		
+		if(nodeHits == null) // cancelled
+			return;
+		
+		renderNodes(pm, subPms[1], subPms[2], subPms[3], grafx, netView, flags, nodeDetails, dependencies, labelInfoProvider, nodeHits);
+	}
+	
+	/**
+	 * Returns the Z ordered nodes that {@link #renderNodes} would render.
+	 */
+	public static List<View<CyNode>> getNodesToRender(NetworkTransform transform, CyNetworkViewSnapshot netView) {
+		Rectangle2D.Float area = transform.getNetworkVisibleAreaNodeCoords();
+		NodeSpacialIndex2DEnumerator nodeHits = netView.getSpacialIndex2D().queryOverlapNodes(area.x, area.y, area.x + area.width, area.y + area.height, null);
+		
+		List<View<CyNode>> nodes = new ArrayList<>(nodeHits.size());
+		while(nodeHits.hasNext())
+			nodes.add(nodeHits.nextNode());
+		return nodes;
+	}
+	
+	/**
+	 * Renders the given nodes in the order of the list, they must be in the snapshot and not hidden.
+	 * Rendering consecutive ranges of the list returned by {@link #getNodesToRender} on top of each other 
+	 * gives the same result as rendering all of them at once.
+	 */
+	public static void renderNodes(ProgressMonitor pm, GraphGraphics grafx, CyNetworkViewSnapshot netView,
+			RenderDetailFlags flags, NodeDetails nodeDetails, Set<VisualPropertyDependency<?>> dependencies, 
+			LabelInfoProvider labelInfoProvider, List<View<CyNode>> nodes) {
+		
+		boolean highDetail = flags.has(LOD_HIGH_DETAIL);
+		ProgressMonitor[] subPms = pm.split(0, 1, highDetail ? 1 : 0, highDetail ? 2 : 0);
+		subPms[0].emptyTask("Query");
+		
+		renderNodes(pm, subPms[1], subPms[2], subPms[3], grafx, netView, flags, nodeDetails, dependencies, labelInfoProvider, 
+				new NodeList(netView, nodes));
+	}
+	
+	private static void renderNodes(ProgressMonitor pm, ProgressMonitor shapePm, ProgressMonitor customGraphicsPm, 
+			ProgressMonitor labelPm, GraphGraphics grafx, CyNetworkViewSnapshot netView, RenderDetailFlags flags, 
+			NodeDetails nodeDetails, Set<VisualPropertyDependency<?>> dependencies, LabelInfoProvider labelInfoProvider, 
+			NodeSpacialIndex2DEnumerator nodeHits) {
 		
 		// Render nodes and labels.  A label is not necessarily on top of every
 		// node; it is only on top of the node it belongs to.
 		final float[] floatBuff1 = new float[4];
 		final double[] doubleBuff1 = new double[4];
 		final double[] doubleBuff2 = new double[2];
+		final boolean highDetail = flags.has(LOD_HIGH_DETAIL);
 		
-		Rectangle2D.Float area = grafx.getTransform().getNetworkVisibleAreaNodeCoords();
-		NodeSpacialIndex2DEnumerator nodeHits = netView.getSpacialIndex2D().queryOverlapNodes(area.x, area.y, area.x + area.width, area.y + area.height, pm::isCancelled);
+		pm.addCount("nodes", nodeHits.size());
 		
-		if(nodeHits == null) // cancelled
-			return;
-		
-		if (flags.not(LOD_HIGH_DETAIL)) { // Low detail.
-			
-			ProgressMonitor[] subPms = pm.split(1,0); // no labels at all, still need labelPm for debug panel
-			ProgressMonitor shapePm = subPms[0];
-			ProgressMonitor labelPm = subPms[1];
+		if (!highDetail) { // Low detail.
 			
 			shapePm.start("Shape");
 			final int nodeHitCount = nodeHits.size();
@@ -568,15 +641,16 @@ public final class GraphRenderer {
 			}
 			
 			shapePm.done();
+			customGraphicsPm.emptyTask("Custom Graphics");
 			labelPm.emptyTask("Label");
 			
 		} else { // High detail.
 			
-			ProgressMonitor[] subPms = pm.split(1,2); // labels usually take longer
-			ProgressMonitor shapePm = subPms[0];
-			ProgressMonitor labelPm = subPms[1];
 			DiscreteProgressMonitor shapeDpm = shapePm.toDiscrete(nodeHits.size());
+			DiscreteProgressMonitor customGraphicsDpm = customGraphicsPm.toDiscrete(nodeHits.size());
 			DiscreteProgressMonitor labelDpm = labelPm.toDiscrete(nodeHits.size());
+			int layersRendered = 0;
+			int labelsRendered = 0;
 			
 			while (nodeHits.hasNext()) {
 				if(pm.isCancelled())
@@ -586,11 +660,20 @@ public final class GraphRenderer {
 				
 				shapePm.start("Shape");
 				
-				renderNodeHigh(netView, grafx, node, floatBuff1, doubleBuff1, doubleBuff2, nodeDetails, flags, dependencies);
+				Shape nodeShape = renderNodeHigh(grafx, node, floatBuff1, nodeDetails, flags);
 
 				shapeDpm.increment();
 				shapePm.done();
 				
+				customGraphicsPm.start("Custom Graphics");
+				
+				if (flags.has(LOD_CUSTOM_GRAPHICS)) {
+					layersRendered += renderNodeCustomGraphics(netView, grafx, node, nodeShape, floatBuff1, doubleBuff1, doubleBuff2, nodeDetails, dependencies);
+				}
+				
+				customGraphicsDpm.increment();
+				customGraphicsPm.done();
+				
 				labelPm.start("Label");
 				
 				// Take care of label rendering.
@@ -632,13 +715,16 @@ public final class GraphRenderer {
 						
 						renderText(grafx, labelInfo, (float) textXCenter,(float) textYCenter, nodeAnchorPointX+offsetVectorX,
                        nodeAnchorPointY+offsetVectorY, justify, paint, backgroundPaint, backgroundShape, theta, flags.has(LOD_TEXT_AS_SHAPE));
-
+						labelsRendered++;
 					}
 				}
 				
 				labelDpm.increment();
 				labelPm.done();
 			}
+			
+			pm.addCount("custom graphics", layersRendered);
+			pm.addCount("node labels", labelsRendered);
 		}
 	}
 	
@@ -1033,18 +1119,14 @@ public final class GraphRenderer {
 	}
 	
 	/**
-	 * Render node view with details, including custom graphics.
+	 * Render node view with details, not including custom graphics.
+	 * Returns the shape of the node, or null if the node is empty.
 	 */
-	@SuppressWarnings("rawtypes")
-	private static final void renderNodeHigh(final CyNetworkViewSnapshot netView,
-											 final GraphGraphics grafx,
+	private static final Shape renderNodeHigh(final GraphGraphics grafx,
 											 final View<CyNode> cyNode,
 											 final float[] floatBuff1,
-											 final double[] doubleBuff1,
-											 final double[] doubleBuff2,
 											 final NodeDetails nodeDetails,
-											 final RenderDetailFlags flags,
-											 final Set<VisualPropertyDependency<?>> dependencies) {
+											 final RenderDetailFlags flags) {
 		Shape nodeShape = null;
 
 		if ((floatBuff1[0] != floatBuff1[2]) && (floatBuff1[1] != floatBuff1[3])) {
@@ -1074,57 +1156,74 @@ public final class GraphRenderer {
 			nodeShape = grafx.drawNodeFull(shape, floatBuff1[0], floatBuff1[1], floatBuff1[2], floatBuff1[3], 
 			                               fillPaint, borderWidth, borderStroke, borderPaint);
 		}
+		
+		return nodeShape;
+	}
+	
+	/**
+	 * Render the nested network and the custom graphics of a node, returns the number of custom graphic layers rendered.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final int renderNodeCustomGraphics(final CyNetworkViewSnapshot netView,
+											 final GraphGraphics grafx,
+											 final View<CyNode> cyNode,
+											 Shape nodeShape,
+											 final float[] floatBuff1,
+											 final double[] doubleBuff1,
+											 final double[] doubleBuff2,
+											 final NodeDetails nodeDetails,
+											 final Set<VisualPropertyDependency<?>> dependencies) {
+		int layerCount = 0;
+		
+		// draw any nested networks first
+		final TexturePaint nestedNetworkPaint = nodeDetails.getNestedNetworkTexturePaint(netView, cyNode);
+		if (nestedNetworkPaint != null) {
+			doubleBuff1[0] = floatBuff1[0];
+			doubleBuff1[1] = floatBuff1[1];
+			doubleBuff1[2] = floatBuff1[2];
+			doubleBuff1[3] = floatBuff1[3];
+			computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
+			grafx.drawCustomGraphicImage(nestedNetworkPaint.getAnchorRect(), (float)doubleBuff2[0],  (float)doubleBuff2[1], nestedNetworkPaint); 
+		}
 
-		// Take care of custom graphic rendering.
-		if (flags.has(LOD_CUSTOM_GRAPHICS)) {
-			// draw any nested networks first
-			final TexturePaint nestedNetworkPaint = nodeDetails.getNestedNetworkTexturePaint(netView, cyNode);
-			if (nestedNetworkPaint != null) {
-				doubleBuff1[0] = floatBuff1[0];
-				doubleBuff1[1] = floatBuff1[1];
-				doubleBuff1[2] = floatBuff1[2];
-				doubleBuff1[3] = floatBuff1[3];
-				computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
-				grafx.drawCustomGraphicImage(nestedNetworkPaint.getAnchorRect(), (float)doubleBuff2[0],  (float)doubleBuff2[1], nestedNetworkPaint); 
-			}
-
-			// draw custom graphics on top of nested networks 
-			// don't allow our custom graphics to mutate while we iterate over them:
-//			synchronized (nodeDetails.customGraphicsLock(cyNode)) {
-			synchronized (nodeDetails) {
-				// This method should return CustomGraphics in rendering order:
-				final Map<VisualProperty<CyCustomGraphics>, CustomGraphicsInfo> cgMap = nodeDetails.getCustomGraphics(cyNode);
-				if(cgMap != null) {
-					final List<CustomGraphicsInfo> infoList = new ArrayList<>(cgMap.values());
-					
-					// MKTODO I guess there's no way around doing this? The charts need access to the underlying table model.
-					CyNetworkView netViewForCharts = netView.getMutableNetworkView();
-					View<CyNode> mutableNode = netView.getMutableNodeView(cyNode.getSUID());
+		// draw custom graphics on top of nested networks
+		// Slices of the node layer are rendered by several threads at once, and so are different views that
+		// share the same custom graphics, so the custom graphics and their layers must be thread safe.
+		
+		// This method should return CustomGraphics in rendering order:
+		final Map<VisualProperty<CyCustomGraphics>, CustomGraphicsInfo> cgMap = nodeDetails.getCustomGraphics(cyNode);
+		if(cgMap != null) {
+			final List<CustomGraphicsInfo> infoList = new ArrayList<>(cgMap.values());
+			
+			// MKTODO I guess there's no way around doing this? The charts need access to the underlying table model.
+			CyNetworkView netViewForCharts = netView.getMutableNetworkView();
+			View<CyNode> mutableNode = netView.getMutableNodeView(cyNode.getSUID());
+			
+			if(mutableNode != null) {
+				for(CustomGraphicsInfo cgInfo : infoList) {
+					List<CustomGraphicLayer> layers = cgInfo.createLayers(netViewForCharts, mutableNode, nodeDetails, dependencies);
 					
-					if(mutableNode != null) {
-						for(CustomGraphicsInfo cgInfo : infoList) {
-							List<CustomGraphicLayer> layers = cgInfo.createLayers(netViewForCharts, mutableNode, nodeDetails, dependencies);
-							
-							for (CustomGraphicLayer layer : layers) {
-								float offsetVectorX = nodeDetails.graphicOffsetVectorX(cyNode);
-								float offsetVectorY = nodeDetails.graphicOffsetVectorY(cyNode);
-								doubleBuff1[0] = floatBuff1[0];
-								doubleBuff1[1] = floatBuff1[1];
-								doubleBuff1[2] = floatBuff1[2];
-								doubleBuff1[3] = floatBuff1[3];
-								computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
-								
-								float xOffset = (float) (doubleBuff2[0] + offsetVectorX);
-								float yOffset = (float) (doubleBuff2[1] + offsetVectorY);
-								nodeShape = createCustomGraphicsShape(nodeShape, layer, -xOffset, -yOffset);
-								
-								grafx.drawCustomGraphicFull(netViewForCharts, mutableNode, nodeShape, layer, xOffset, yOffset);
-							}
-						}
+					for (CustomGraphicLayer layer : layers) {
+						float offsetVectorX = nodeDetails.graphicOffsetVectorX(cyNode);
+						float offsetVectorY = nodeDetails.graphicOffsetVectorY(cyNode);
+						doubleBuff1[0] = floatBuff1[0];
+						doubleBuff1[1] = floatBuff1[1];
+						doubleBuff1[2] = floatBuff1[2];
+						doubleBuff1[3] = floatBuff1[3];
+						computeAnchor(Position.CENTER, doubleBuff1, doubleBuff2);
+						
+						float xOffset = (float) (doubleBuff2[0] + offsetVectorX);
+						float yOffset = (float) (doubleBuff2[1] + offsetVectorY);
+						nodeShape = createCustomGraphicsShape(nodeShape, layer, -xOffset, -yOffset);
+						
+						grafx.drawCustomGraphicFull(netViewForCharts, mutableNode, nodeShape, layer, xOffset, yOffset);
+						layerCount++;
 					}
 				}
 			}
 		}
+		
+		return layerCount;
 	}
 
 	private static Shape createCustomGraphicsShape(final Shape nodeShape, final CustomGraphicLayer layer,
@@ -1138,5 +1237,96 @@ public final class GraphRenderer {
 		
 		return xform.createTransformedShape(nodeShape);
 	}
-
+	
+	
+	/**
+	 * The edges of a list that are visible in the snapshot, in the order of the list.
+	 */
+	static class EdgeList implements EdgeSpacialIndex2DEnumerator {
+		
+		private final CyNetworkViewSnapshot netView;
+		private final List<View<CyEdge>> edges = new ArrayList<>();
+		private int index = 0;
+		
+		EdgeList(CyNetworkViewSnapshot netView, List<View<CyEdge>> edges) {
+			this.netView = netView;
+			for(var edge : edges) {
+				if(netView.getEdgeView(edge.getSUID()) != null) // hidden edges are not returned
+					this.edges.add(edge);
+			}
+		}
+		
+		@Override
+		public int size() {
+			return edges.size();
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return index < edges.size();
+		}
+		
+		@Override
+		public View<CyEdge> nextEdge() {
+			return edges.get(index++);
+		}
+		
+		@Override
+		public View<CyEdge> nextEdgeWithNodeExtents(float[] sourceExtents, float[] targetExtents, View<CyNode>[] nodes) {
+			var edge = nextEdge();
+			var edgeInfo = netView.getEdgeInfo(edge);
+			long sourceSuid = edgeInfo.getSourceViewSUID();
+			long targetSuid = edgeInfo.getTargetViewSUID();
+			netView.getSpacialIndex2D().get(sourceSuid, sourceExtents);
+			netView.getSpacialIndex2D().get(targetSuid, targetExtents);
+			if(nodes != null && nodes.length >= 2) {
+				nodes[0] = netView.getNodeView(sourceSuid);
+				nodes[1] = netView.getNodeView(targetSuid);
+			}
+			return edge;
+		}
+	}
+	
+	
+	/**
+	 * The nodes of a list, in the order of the list.
+	 */
+	private static class NodeList implements NodeSpacialIndex2DEnumerator {
+		
+		private final CyNetworkViewSnapshot netView;
+		private final List<View<CyNode>> nodes;
+		private int index = 0;
+		
+		NodeList(CyNetworkViewSnapshot netView, List<View<CyNode>> nodes) {
+			this.netView = netView;
+			this.nodes = nodes;
+		}
+		
+		@Override
+		public int size() {
+			return nodes.size();
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return index < nodes.size();
+		}
+		
+		@Override
+		public Long nextExtents(float[] extents) {
+			return nextNodeExtents(extents).getSUID();
+		}
+		
+		@Override
+		public View<CyNode> nextNode() {
+			return nodes.get(index++);
+		}
+		
+		@Override
+		public View<CyNode> nextNodeExtents(float[] extents) {
+			var node = nextNode();
+			netView.getSpacialIndex2D().get(node.getSUID(), extents);
+			return node;
+		}
+	}
 }
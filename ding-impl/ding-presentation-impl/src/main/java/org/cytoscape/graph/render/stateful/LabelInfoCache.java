@@ -7,6 +7,7 @@ import java.util.concurrent.ExecutionException;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 public class LabelInfoCache implements LabelInfoProvider {
 	
@@ -68,4 +69,11 @@ public class LabelInfoCache implements LabelInfoProvider {
 	public String getStats() {
 		return String.valueOf(labelCache.stats());
 	}
+	
+	/**
+	 * All zeros unless the cache was created with recordStats.
+	 */
+	public CacheStats getCacheStats() {
+		return labelCache.stats();
+	}
 }
@@ -1,8 +1,14 @@
 package org.cytoscape.graph.render.stateful;
 
+import java.awt.Color;
 import java.awt.Font;
+import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.cytoscape.graph.render.immed.GraphGraphics;
 
 /*
  * #%L
@@ -35,15 +41,56 @@ import java.awt.font.GlyphVector;
  */
 public class LabelLineInfo {
 	
-	private static char[] charBuff = new char[20];
+	// Labels that would need a larger image are drawn as shapes, there are only a few of them when zoomed in that far
+	private static final int MAX_IMAGE_PIXELS = 8192;
 	
 	private final LabelInfo parent;
 	private final String text;
 	private final double width;
 	private final double height;
 
-	private Shape shape;
-	private GlyphVector glyphVector;
+	// These are created lazily and reused by every frame while the LabelInfo stays in the LabelInfoCache.
+	// Several rendering threads may create them at the same time, which is harmless.
+	private volatile Shape shape;
+	private volatile GlyphVector glyphVector;
+	private volatile Rectangle2D logicalBounds;
+	private volatile Rectangle2D stringBounds;
+	private volatile LabelImage image;
+	
+	
+	/**
+	 * The outline of the line rasterized for one zoom level and color.
+	 * The image is in device pixels, (x,y) is the device offset of its top left corner 
+	 * from the origin of the label.
+	 */
+	public static class LabelImage {
+		private final BufferedImage image;
+		private final int x;
+		private final int y;
+		private final double scale;
+		private final Color color;
+		
+		private LabelImage(BufferedImage image, int x, int y, double scale, Color color) {
+			this.image = image;
+			this.x = x;
+			this.y = y;
+			this.scale = scale;
+			this.color = color;
+		}
+		
+		public BufferedImage getImage() {
+			return image;
+		}
+		
+		public int getX() {
+			return x;
+		}
+		
+		public int getY() {
+			return y;
+		}
+	}
+	
 	
 	public LabelLineInfo(LabelInfo parent, String text, double width, double height) {
 		this.parent = parent;
@@ -53,28 +100,81 @@ public class LabelLineInfo {
 	}
 
 	private GlyphVector createGlyphVector() {
-		if (text.length() > charBuff.length) {
-			charBuff = new char[Math.max(charBuff.length * 2, text.length())];
-		}
-		text.getChars(0, text.length(), charBuff, 0);
-		return parent.getFont().layoutGlyphVector(parent.getFontRenderContext(), charBuff, 0, text.length(), Font.LAYOUT_NO_LIMIT_CONTEXT);
+		char[] chars = text.toCharArray();
+		return parent.getFont().layoutGlyphVector(parent.getFontRenderContext(), chars, 0, chars.length, Font.LAYOUT_NO_LIMIT_CONTEXT);
 	}
 	
 	public GlyphVector getGlyphVector() {
+		GlyphVector glyphVector = this.glyphVector;
 		if(glyphVector == null) {
-			glyphVector = createGlyphVector();
+			this.glyphVector = glyphVector = createGlyphVector();
 		}
 		return glyphVector;
 	}
 	
 	public Shape getShape() {
+		Shape shape = this.shape;
 		if(shape == null) {
-			GlyphVector glyphVector = getGlyphVector();
-			shape = glyphVector.getOutline();
+			this.shape = shape = getGlyphVector().getOutline();
 		}
 		return shape;
 	}
 	
+	/**
+	 * Returns the logical bounds of the glyph vector, used when the text is drawn as a shape.
+	 */
+	public Rectangle2D getLogicalBounds() {
+		Rectangle2D bounds = this.logicalBounds;
+		if(bounds == null) {
+			this.logicalBounds = bounds = getGlyphVector().getLogicalBounds();
+		}
+		return bounds;
+	}
+	
+	/**
+	 * Returns the bounds of the text as measured by the font, used when the text is drawn as a string.
+	 */
+	public Rectangle2D getStringBounds() {
+		Rectangle2D bounds = this.stringBounds;
+		if(bounds == null) {
+			this.stringBounds = bounds = parent.getFont().getStringBounds(text, parent.getFontRenderContext());
+		}
+		return bounds;
+	}
+	
+	/**
+	 * Returns the shape of this line filled with the given color into an image, for a device transform 
+	 * that only scales by the given factor. Only the image for the last zoom level and color is kept, 
+	 * which is enough to make panning cheap. Returns null if the image would be too large.
+	 */
+	public LabelImage getImage(double scale, Color color) {
+		LabelImage image = this.image;
+		if(image != null && image.scale == scale && image.color.equals(color)) {
+			return image;
+		}
+		
+		Rectangle2D bounds = getShape().getBounds2D();
+		int x = (int) Math.floor(bounds.getMinX() * scale) - 1;
+		int y = (int) Math.floor(bounds.getMinY() * scale) - 1;
+		int w = (int) Math.ceil(bounds.getMaxX() * scale) - x + 1;
+		int h = (int) Math.ceil(bounds.getMaxY() * scale) - y + 1;
+		if(w <= 0 || h <= 0 || (long) w * h > MAX_IMAGE_PIXELS) {
+			return null;
+		}
+		
+		BufferedImage buffer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D g = buffer.createGraphics();
+		GraphGraphics.setRenderingHints(g);
+		g.translate(-x, -y);
+		g.scale(scale, scale);
+		g.setPaint(color);
+		g.fill(getShape());
+		g.dispose();
+		
+		this.image = image = new LabelImage(buffer, x, y, scale, color);
+		return image;
+	}
+	
 	public Font getFont() {
 		return parent.getFont();
 	}
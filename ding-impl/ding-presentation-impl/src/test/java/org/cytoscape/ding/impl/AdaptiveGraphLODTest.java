@@ -0,0 +1,128 @@
+package org.cytoscape.ding.impl;
+
+import static org.cytoscape.graph.render.stateful.RenderDetailFlags.LOD_HIGH_DETAIL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveGraphLODTest {
+
+	private static final int THRESHOLD = 8000;
+
+	private final AtomicBoolean enabled = new AtomicBoolean(true);
+	private AdaptiveGraphLOD fast;
+	private AdaptiveGraphLOD full;
+
+	/**
+	 * Same detail threshold as the DingGraphLOD default.
+	 */
+	private static class ThresholdLOD extends DingGraphLODAll {
+		@Override
+		public boolean detail(int renderNodeCount, int renderEdgeCount) {
+			return renderNodeCount + renderEdgeCount < THRESHOLD;
+		}
+		@Override
+		public boolean nodeLabels(int renderNodeCount, int renderEdgeCount) {
+			return renderNodeCount < THRESHOLD / 20;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		fast = new AdaptiveGraphLOD(new ThresholdLOD(), enabled::get, () -> THRESHOLD, AdaptiveGraphLOD.FAST_FRAME_BUDGET_MS, null);
+		full = new AdaptiveGraphLOD(new ThresholdLOD(), enabled::get, () -> THRESHOLD, AdaptiveGraphLOD.FULL_FRAME_BUDGET_MS, fast);
+	}
+
+	private static RenderDetailFlags frame(boolean highDetail, int nodes, int edges) {
+		var flags = mock(RenderDetailFlags.class);
+		when(flags.has(LOD_HIGH_DETAIL)).thenReturn(highDetail);
+		when(flags.not(LOD_HIGH_DETAIL)).thenReturn(!highDetail);
+		when(flags.getVisibleNodeCount()).thenReturn(nodes);
+		when(flags.getEstimatedEdgeCount()).thenReturn(edges);
+		return flags;
+	}
+
+	private static long millis(long ms) {
+		return TimeUnit.MILLISECONDS.toNanos(ms);
+	}
+
+	@Test
+	public void testNoFramesUsesSourceThresholds() {
+		assertEquals(1.0, full.getScale(), 0.0);
+		assertTrue(full.detail(4000, 3999));
+		assertFalse(full.detail(4000, 4000));
+		assertSame(fast, full.faster());
+		assertSame(fast, fast.faster());
+	}
+
+	@Test
+	public void testSlowMachine() {
+		// 1000 elements in 100ms, so 2500 elements fit in the 250ms budget
+		for(int i = 0; i < 10; i++) {
+			full.frameRendered(frame(true, 500, 500), millis(100));
+		}
+		assertEquals(2500.0 / THRESHOLD, full.getScale(), 0.001);
+		assertTrue(full.detail(1000, 1000));
+		assertFalse(full.detail(1000, 2000));
+		assertFalse(full.nodeLabels(200, 0));
+		assertTrue(full.nodeLabels(100, 0));
+
+		// fast frames are tracked separately
+		assertEquals(1.0, fast.getScale(), 0.0);
+	}
+
+	@Test
+	public void testFastMachine() {
+		for(int i = 0; i < 10; i++) {
+			full.frameRendered(frame(true, 5000, 2000), millis(10));
+		}
+		assertEquals(AdaptiveGraphLOD.MAX_SCALE, full.getScale(), 0.0);
+		assertTrue(full.detail(30000, 30000));
+		assertFalse(full.detail(40000, 40000));
+	}
+
+	@Test
+	public void testConvergesTowardsNewCost() {
+		full.frameRendered(frame(true, 1000, 0), millis(1000));
+		assertEquals(AdaptiveGraphLOD.MIN_SCALE, full.getScale(), 0.0);
+
+		// 2000 elements in 100ms, the cutoff should move towards 5000 elements
+		for(int i = 0; i < 50; i++) {
+			full.frameRendered(frame(true, 1000, 1000), millis(100));
+		}
+		assertEquals(5000.0 / THRESHOLD, full.getScale(), 0.01);
+	}
+
+	@Test
+	public void testIgnoredFrames() {
+		full.frameRendered(frame(false, 5000, 5000), millis(5000));
+		full.frameRendered(frame(true, AdaptiveGraphLOD.MIN_SAMPLE_ELEMENTS - 1, 0), millis(5000));
+		assertEquals(1.0, full.getScale(), 0.0);
+	}
+
+	@Test
+	public void testDisabled() {
+		full.frameRendered(frame(true, 500, 500), millis(1000));
+		assertTrue(full.getScale() < 1.0);
+
+		enabled.set(false);
+		assertEquals(1.0, full.getScale(), 0.0);
+		full.frameRendered(frame(true, 500, 500), millis(1));
+
+		enabled.set(true);
+		assertEquals(AdaptiveGraphLOD.MIN_SCALE, full.getScale(), 0.0);
+
+		full.reset();
+		assertEquals(1.0, full.getScale(), 0.0);
+	}
+}
@@ -0,0 +1,85 @@
+package org.cytoscape.ding.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EdgeSegmentIndexTest {
+
+	@Test
+	public void testEmpty() {
+		var index = new EdgeSegmentIndex.Builder(0).build();
+		assertEquals(0, index.getSegmentCount());
+		assertEquals(List.of(), index.query(-10, -10, 10, 10));
+	}
+
+	@Test
+	public void testEdgeWidth() {
+		var builder = new EdgeSegmentIndex.Builder(2);
+		builder.addEdge(1, 0.0f);
+		builder.addSegment(0, 0, 100, 0);
+		builder.addEdge(2, 5.0f);
+		builder.addSegment(0, 10, 100, 10);
+		var index = builder.build();
+
+		assertEquals(List.of(1L), index.query(40, -2, 60, 2));
+		assertEquals(List.of(1L, 2L), index.query(40, -1, 60, 6));
+		assertEquals(List.of(2L), index.query(40, 14, 60, 20));
+		assertEquals(List.of(), index.query(40, 16, 60, 20));
+	}
+
+	@Test
+	public void testSameAsBruteForce() {
+		var random = new Random(42);
+		int edgeCount = 2000;
+		float[][] edgeSegments = new float[edgeCount][];
+		float[] halfWidths = new float[edgeCount];
+
+		var builder = new EdgeSegmentIndex.Builder(edgeCount);
+		for(int e = 0; e < edgeCount; e++) {
+			halfWidths[e] = random.nextInt(4) == 0 ? 0.0f : random.nextFloat() * 3;
+			builder.addEdge(e * 10, halfWidths[e]);
+
+			// polyline with a few segments, like a flattened curved edge
+			int n = 1 + random.nextInt(5);
+			float[] points = new float[(n + 1) * 2];
+			points[0] = random.nextFloat() * 1000;
+			points[1] = random.nextFloat() * 1000;
+			for(int i = 1; i <= n; i++) {
+				points[i*2]   = points[i*2-2] + (random.nextFloat() - 0.5f) * 100;
+				points[i*2+1] = points[i*2-1] + (random.nextFloat() - 0.5f) * 100;
+				builder.addSegment(points[i*2-2], points[i*2-1], points[i*2], points[i*2+1]);
+			}
+			edgeSegments[e] = points;
+		}
+		var index = builder.build();
+		assertEquals(edgeCount, index.getEdgeCount());
+
+		for(int q = 0; q < 200; q++) {
+			float x = random.nextFloat() * 1000;
+			float y = random.nextFloat() * 1000;
+			float size = q % 2 == 0 ? 1 : random.nextFloat() * 200;
+
+			List<Long> expected = new ArrayList<>();
+			for(int e = 0; e < edgeCount; e++) {
+				float w = halfWidths[e];
+				var rect = new Rectangle2D.Float(x - w, y - w, size + w * 2, size + w * 2);
+				float[] p = edgeSegments[e];
+				for(int i = 2; i < p.length; i += 2) {
+					if(rect.intersectsLine(p[i-2], p[i-1], p[i], p[i+1])) {
+						expected.add(e * 10L);
+						break;
+					}
+				}
+			}
+
+			assertEquals(Arrays.asList(x, y, size).toString(), expected, index.query(x, y, x + size, y + size));
+		}
+	}
+}
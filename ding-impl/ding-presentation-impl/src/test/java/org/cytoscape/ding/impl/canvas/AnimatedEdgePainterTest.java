@@ -0,0 +1,188 @@
+package org.cytoscape.ding.impl.canvas;
+
+import static org.cytoscape.ding.impl.canvas.ImageAssert.assertSamePixels;
+import static org.cytoscape.ding.impl.canvas.ImageAssert.getPixels;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.cytoscape.ding.DVisualLexicon;
+import org.cytoscape.ding.NetworkViewTestSupport;
+import org.cytoscape.ding.impl.DRenderingEngine;
+import org.cytoscape.ding.impl.DRenderingEngine.UpdateType;
+import org.cytoscape.ding.impl.DingGraphLOD;
+import org.cytoscape.ding.impl.DingGraphLODAll;
+import org.cytoscape.ding.impl.DingRenderer;
+import org.cytoscape.ding.impl.HandleFactoryImpl;
+import org.cytoscape.ding.impl.cyannotator.AnnotationFactoryManager;
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.graph.render.stateful.EdgeGeometryCache;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.util.swing.IconManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.DiscreteRange;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.presentation.property.values.LineType;
+import org.cytoscape.view.vizmap.VisualMappingManager;
+import org.cytoscape.view.vizmap.VisualStyle;
+import org.cytoscape.work.swing.DialogTaskManager;
+import org.cytoscape.work.undo.UndoSupport;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+public class AnimatedEdgePainterTest {
+
+	// Nodes on a circle, every edge connects opposite nodes so all the edges cross in the middle
+	private static final int NODE_COUNT = 40;
+	private static final int EDGE_COUNT = NODE_COUNT / 2;
+
+	private final NetworkViewTestSupport testSupport = new NetworkViewTestSupport();
+
+	@Mock private UndoSupport undoSupport;
+	@Mock private DialogTaskManager dialogTaskManager;
+	@Mock private CyEventHelper eventHelper;
+	@Mock private IconManager iconManager;
+	@Mock private AnnotationFactoryManager annotationFactoryManager;
+	@Mock private DingGraphLOD dingGraphLOD;
+	@Mock private VisualMappingManager visualMappingManager;
+	@Mock private CyNetworkViewManager networkViewManager;
+	@Mock private CyServiceRegistrar serviceRegistrar;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		VisualStyle style = mock(VisualStyle.class);
+		when(style.getAllVisualPropertyDependencies()).thenReturn(Collections.emptySet());
+		when(visualMappingManager.getVisualStyle(any(CyNetworkView.class))).thenReturn(style);
+
+		when(serviceRegistrar.getService(UndoSupport.class)).thenReturn(undoSupport);
+		when(serviceRegistrar.getService(DialogTaskManager.class)).thenReturn(dialogTaskManager);
+		when(serviceRegistrar.getService(CyEventHelper.class)).thenReturn(eventHelper);
+		when(serviceRegistrar.getService(IconManager.class)).thenReturn(iconManager);
+		when(serviceRegistrar.getService(VisualMappingManager.class)).thenReturn(visualMappingManager);
+		when(serviceRegistrar.getService(CyNetworkViewManager.class)).thenReturn(networkViewManager);
+
+		testSupport.getNetworkTableManager();
+	}
+
+	private static NetworkTransform newTransform() {
+		return new NetworkTransform(400, 400, 0, 0, 1.0);
+	}
+
+	@Test
+	public void testAnimatedEdgeUnderStaticEdges() {
+		assertAnimationStepMatchesFullPaint(-1.0);
+	}
+
+	@Test
+	public void testAnimatedEdgeBetweenStaticEdges() {
+		assertAnimationStepMatchesFullPaint(EDGE_COUNT / 2.0);
+	}
+
+	@Test
+	public void testAnimatedEdgeOverStaticEdges() {
+		assertAnimationStepMatchesFullPaint(EDGE_COUNT + 1.0);
+	}
+
+	/**
+	 * The static edge i is at Z order i, the animated edge at the given Z order.
+	 */
+	@SuppressWarnings("unchecked")
+	private void assertAnimationStepMatchesFullPaint(double animatedZ) {
+		CyNetwork network = testSupport.getNetwork();
+		List<CyNode> nodes = new ArrayList<>();
+		for(int i = 0; i < NODE_COUNT; i++)
+			nodes.add(network.addNode());
+		List<CyEdge> edges = new ArrayList<>();
+		for(int i = 0; i < EDGE_COUNT; i++)
+			edges.add(network.addEdge(nodes.get(i), nodes.get(i + EDGE_COUNT), false));
+
+		DVisualLexicon lexicon = new DVisualLexicon();
+		CyNetworkView view = testSupport.getNetworkViewFactoryProvider().createNetworkViewFactory(lexicon, DingRenderer.ID).createNetworkView(network);
+
+		for(int i = 0; i < NODE_COUNT; i++) {
+			View<CyNode> nv = view.getNodeView(nodes.get(i));
+			double angle = 2 * Math.PI * i / NODE_COUNT;
+			nv.setVisualProperty(DVisualLexicon.NODE_X_LOCATION, 150 * Math.cos(angle));
+			nv.setVisualProperty(DVisualLexicon.NODE_Y_LOCATION, 150 * Math.sin(angle));
+		}
+
+		LineType marquee = ((DiscreteRange<LineType>) DVisualLexicon.EDGE_LINE_TYPE.getRange()).values().stream()
+				.filter(lexicon::isAnimated).findFirst().get();
+
+		for(int i = 0; i < EDGE_COUNT; i++) {
+			View<CyEdge> ev = view.getEdgeView(edges.get(i));
+			ev.setVisualProperty(DVisualLexicon.EDGE_WIDTH, 6.0);
+			ev.setVisualProperty(DVisualLexicon.EDGE_TRANSPARENCY, 160);
+			ev.setVisualProperty(DVisualLexicon.EDGE_UNSELECTED_PAINT, Color.getHSBColor(i / (float) EDGE_COUNT, 1.0f, 0.8f));
+			ev.setVisualProperty(DVisualLexicon.EDGE_Z_ORDER, (double) i);
+		}
+		View<CyEdge> animated = view.getEdgeView(edges.get(0));
+		animated.setVisualProperty(DVisualLexicon.EDGE_LINE_TYPE, marquee);
+		animated.setVisualProperty(DVisualLexicon.EDGE_Z_ORDER, animatedZ);
+		animated.setVisualProperty(DVisualLexicon.EDGE_LABEL, "animated");
+
+		DRenderingEngine re = new DRenderingEngine(view, lexicon, annotationFactoryManager, dingGraphLOD, new HandleFactoryImpl(), serviceRegistrar);
+		view.dirty(true); // so the timer of the rendering engine leaves the snapshot and the animated edges alone
+		try {
+			CyNetworkViewSnapshot snapshot = re.getViewModelSnapshot();
+			RenderDetailFlags flags = RenderDetailFlags.create(snapshot, newTransform(), DingGraphLODAll.instance(), UpdateType.ALL_FULL);
+			re.getEdgeDetails().updateAnimatedEdges(List.of(snapshot.getEdgeView(edges.get(0))));
+
+			var canvas = new EdgeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re, new EdgeGeometryCache());
+			var painter = new AnimatedEdgePainter(re, canvas, new SlicedCanvasPainter<>(canvas));
+
+			int[] before = getPixels(painter.paintAndGet(null, snapshot, flags).getImage());
+			re.getEdgeDetails().advanceAnimatedEdges();
+			int[] step = getPixels(painter.paintAnimatedAndGet(null, snapshot, flags).getImage());
+
+			var fullCanvas = new EdgeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re);
+			int[] full = getPixels(fullCanvas.paintAndGet(null, flags).getImage());
+
+			assertFalse("the animated edge did not move", Arrays.equals(before, step));
+			assertSamePixels(full, step);
+		} finally {
+			re.dispose();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package org.cytoscape.ding.impl.canvas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.awt.image.BufferedImage;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Compares images painted in different ways. Compositing translucent layers rounds each
+ * channel, so the pixels may differ by a few units from painting the same elements into
+ * one buffer; the channels are compared premultiplied, so that nearly transparent pixels
+ * don't count more than opaque ones.
+ */
+class ImageAssert {
+
+	private static final int TOLERANCE = 3;
+
+	private ImageAssert() {
+	}
+
+	static int[] getPixels(BufferedImage image) {
+		int w = image.getWidth();
+		int h = image.getHeight();
+		return image.getRGB(0, 0, w, h, null, 0, w);
+	}
+
+	static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+		assertSamePixels(getPixels(expected), getPixels(actual));
+	}
+
+	static void assertSamePixels(int[] expected, int[] actual) {
+		assertEquals(expected.length, actual.length);
+		for(int i = 0; i < expected.length; i++) {
+			if(!isSamePixel(expected[i], actual[i]))
+				fail("pixel " + i + " expected " + Integer.toHexString(expected[i]) + " but was " + Integer.toHexString(actual[i]));
+		}
+	}
+
+	private static boolean isSamePixel(int expected, int actual) {
+		int ea = expected >>> 24;
+		int aa = actual >>> 24;
+		if(Math.abs(ea - aa) > TOLERANCE)
+			return false;
+		for(int shift = 0; shift < 24; shift += 8) {
+			int e = ((expected >>> shift) & 0xFF) * ea / 255;
+			int a = ((actual >>> shift) & 0xFF) * aa / 255;
+			if(Math.abs(e - a) > TOLERANCE)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,171 @@
+package org.cytoscape.ding.impl.canvas;
+
+import static org.cytoscape.ding.impl.canvas.ImageAssert.assertSameImage;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.cytoscape.ding.DVisualLexicon;
+import org.cytoscape.ding.NetworkViewTestSupport;
+import org.cytoscape.ding.impl.DRenderingEngine;
+import org.cytoscape.ding.impl.DRenderingEngine.UpdateType;
+import org.cytoscape.ding.impl.DingGraphLOD;
+import org.cytoscape.ding.impl.DingGraphLODAll;
+import org.cytoscape.ding.impl.DingRenderer;
+import org.cytoscape.ding.impl.HandleFactoryImpl;
+import org.cytoscape.ding.impl.cyannotator.AnnotationFactoryManager;
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.graph.render.stateful.RenderDetailFlags;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.util.swing.IconManager;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.CyNetworkViewManager;
+import org.cytoscape.view.model.CyNetworkViewSnapshot;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.vizmap.VisualMappingManager;
+import org.cytoscape.view.vizmap.VisualStyle;
+import org.cytoscape.work.swing.DialogTaskManager;
+import org.cytoscape.work.undo.UndoSupport;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/*
+ * #%L
+ * Cytoscape Ding View/Presentation Impl (ding-presentation-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+public class SlicedCanvasPainterTest {
+
+	// Enough elements for as many slices as the painter uses
+	private static final int COUNT = SlicedCanvasPainter.MAX_SLICES * SlicedCanvasPainter.MIN_SLICE_SIZE + 123;
+
+	private final NetworkViewTestSupport testSupport = new NetworkViewTestSupport();
+
+	@Mock private UndoSupport undoSupport;
+	@Mock private DialogTaskManager dialogTaskManager;
+	@Mock private CyEventHelper eventHelper;
+	@Mock private IconManager iconManager;
+	@Mock private AnnotationFactoryManager annotationFactoryManager;
+	@Mock private DingGraphLOD dingGraphLOD;
+	@Mock private VisualMappingManager visualMappingManager;
+	@Mock private CyNetworkViewManager networkViewManager;
+	@Mock private CyServiceRegistrar serviceRegistrar;
+
+	private DRenderingEngine re;
+	private CyNetworkViewSnapshot snapshot;
+	private RenderDetailFlags flags;
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		VisualStyle style = mock(VisualStyle.class);
+		when(style.getAllVisualPropertyDependencies()).thenReturn(Collections.emptySet());
+		when(visualMappingManager.getVisualStyle(any(CyNetworkView.class))).thenReturn(style);
+
+		when(serviceRegistrar.getService(UndoSupport.class)).thenReturn(undoSupport);
+		when(serviceRegistrar.getService(DialogTaskManager.class)).thenReturn(dialogTaskManager);
+		when(serviceRegistrar.getService(CyEventHelper.class)).thenReturn(eventHelper);
+		when(serviceRegistrar.getService(IconManager.class)).thenReturn(iconManager);
+		when(serviceRegistrar.getService(VisualMappingManager.class)).thenReturn(visualMappingManager);
+		when(serviceRegistrar.getService(CyNetworkViewManager.class)).thenReturn(networkViewManager);
+
+		testSupport.getNetworkTableManager();
+		CyNetwork network = testSupport.getNetwork();
+		List<CyNode> nodes = new ArrayList<>();
+		for (int i = 0; i < COUNT; i++)
+			nodes.add(network.addNode());
+
+		Random random = new Random(42);
+		for (int i = 0; i < COUNT; i++)
+			network.addEdge(nodes.get(random.nextInt(COUNT)), nodes.get(random.nextInt(COUNT)), false);
+
+		DVisualLexicon lexicon = new DVisualLexicon();
+		CyNetworkView view = testSupport.getNetworkViewFactoryProvider().createNetworkViewFactory(lexicon, DingRenderer.ID).createNetworkView(network);
+
+		// Overlapping translucent elements, so painting them in a different order gives a different image
+		for (View<CyNode> nv : view.getNodeViews()) {
+			nv.setVisualProperty(DVisualLexicon.NODE_X_LOCATION, random.nextDouble() * 360 - 180);
+			nv.setVisualProperty(DVisualLexicon.NODE_Y_LOCATION, random.nextDouble() * 360 - 180);
+			nv.setVisualProperty(DVisualLexicon.NODE_WIDTH, 12.0);
+			nv.setVisualProperty(DVisualLexicon.NODE_HEIGHT, 12.0);
+			nv.setVisualProperty(DVisualLexicon.NODE_FILL_COLOR, new Color(random.nextInt(0xFFFFFF)));
+			nv.setVisualProperty(DVisualLexicon.NODE_TRANSPARENCY, 160);
+		}
+		for (View<CyEdge> ev : view.getEdgeViews()) {
+			ev.setVisualProperty(DVisualLexicon.EDGE_UNSELECTED_PAINT, new Color(random.nextInt(0xFFFFFF)));
+			ev.setVisualProperty(DVisualLexicon.EDGE_TRANSPARENCY, 160);
+			ev.setVisualProperty(DVisualLexicon.EDGE_WIDTH, 3.0);
+		}
+
+		re = new DRenderingEngine(view, lexicon, annotationFactoryManager, dingGraphLOD, new HandleFactoryImpl(), serviceRegistrar);
+		snapshot = re.getViewModelSnapshot();
+		flags = RenderDetailFlags.create(snapshot, newTransform(), DingGraphLODAll.instance(), UpdateType.ALL_FULL);
+	}
+
+	private static NetworkTransform newTransform() {
+		return new NetworkTransform(400, 400, 0, 0, 1.0);
+	}
+
+	@Test
+	public void testSlicedNodesMatchSequential() {
+		var sequential = new NodeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re);
+		var sliced = new NodeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re);
+		assertTrue(sliced.getElements(snapshot, flags).size() >= COUNT / 2);
+
+		BufferedImage expected = sequential.paintAndGet(null, flags).getImage();
+		SlicedCanvasPainter<View<CyNode>, NodeCanvas<ImageGraphicsProvider>> painter = new SlicedCanvasPainter<>(sliced);
+		BufferedImage actual = painter.paintAndGet(null, snapshot, flags).getImage();
+
+		assertSameImage(expected, actual);
+	}
+
+	@Test
+	public void testSlicedEdgesMatchSequential() {
+		var sequential = new EdgeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re);
+		var sliced = new EdgeCanvas<ImageGraphicsProvider>(new NetworkImageBuffer(newTransform()), re);
+		assertTrue(sliced.getElements(snapshot, flags).size() >= COUNT / 2);
+
+		BufferedImage expected = sequential.paintAndGet(null, flags).getImage();
+		SlicedCanvasPainter<View<CyEdge>, EdgeCanvas<ImageGraphicsProvider>> painter = new SlicedCanvasPainter<>(sliced);
+		BufferedImage actual = painter.paintAndGet(null, snapshot, flags).getImage();
+
+		assertSameImage(expected, actual);
+
+		// the painter reuses its slice buffers, the next frame must be the same
+		actual = painter.paintAndGet(null, snapshot, flags).getImage();
+		assertSameImage(expected, actual);
+	}
+}
@@ -100,4 +100,19 @@ public class ProgressMonitorTest {
 		
 		assertEquals(0.5, nopm.getProgress(), 0.0);
 	}
+	
+	@Test
+	public void testDebugProgressMonitorCounts() {
+		DebugRootProgressMonitor pm = new DebugRootProgressMonitor(DebugFrameType.MAIN_FAST, null, null);
+		ProgressMonitor[] split = pm.split(1,1);
+		ProgressMonitor sliced = new CancellationProgressMonitor(split[1]);
+		
+		split[0].addCount("nodes", 10);
+		split[0].split(1,1)[1].addCount("nodes", 5);
+		sliced.addCount("nodes", 7);
+		sliced.addCount("edges", 3);
+		
+		assertEquals(22, (int) pm.getCounts().get("nodes"));
+		assertEquals(3, (int) pm.getCounts().get("edges"));
+	}
 }
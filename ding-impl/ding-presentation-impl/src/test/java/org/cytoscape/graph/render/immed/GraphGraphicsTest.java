@@ -137,6 +137,33 @@ public class GraphGraphicsTest extends TestCase {
 		}
 	}
 
+	public void testDrawEdgeWithComputedPath() {
+		EdgeAnchors anchors = new EdgeAnchors() {
+			public int numAnchors() { return 2; }
+			public void getAnchor(int i, float[] arr) {
+				arr[0] = i == 0 ? 300f : 600f;
+				arr[1] = i == 0 ? 100f : 700f;
+			}
+		};
+		BasicStroke edgeStroke = new BasicStroke(3f);
+		
+		NetworkImageBuffer expected = new NetworkImageBuffer(new NetworkTransform(canvasSize, canvasSize));
+		new GraphGraphics(expected).drawEdgeFull(ArrowShapeVisualProperty.DELTA, 15f, Color.red, 
+				ArrowShapeVisualProperty.CIRCLE, 10f, Color.orange, 50f, 50f, anchors, 900f, 800f, 3f, edgeStroke, Color.green);
+		
+		double[] path = new double[(GraphGraphics.MAX_EDGE_ANCHORS + 1) * 6];
+		int count = GraphGraphics.computeEdgePath(path, ArrowShapeVisualProperty.DELTA, 15f, 
+				ArrowShapeVisualProperty.CIRCLE, 10f, 50f, 50f, anchors, 900f, 800f);
+		assertTrue(count > 2);
+		NetworkImageBuffer actual = new NetworkImageBuffer(new NetworkTransform(canvasSize, canvasSize));
+		new GraphGraphics(actual).drawEdgeFull(path, count, ArrowShapeVisualProperty.DELTA, 15f, Color.red, 
+				ArrowShapeVisualProperty.CIRCLE, 10f, Color.orange, 3f, edgeStroke, Color.green);
+		
+		for (int y = 0; y < canvasSize; y++)
+			for (int x = 0; x < canvasSize; x++)
+				assertEquals(expected.getImage().getRGB(x, y), actual.getImage().getRGB(x, y));
+	}
+
 	private long drawCurrentFull(Random rand) {
 		final float nodeSizeFactor = 50f;
 		float size = (float) canvasSize;
@@ -0,0 +1,86 @@
+package org.cytoscape.graph.render.stateful;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+
+import org.cytoscape.graph.render.immed.GraphGraphics;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LabelLineInfoTest {
+
+	private LabelLineInfo line;
+
+	@Before
+	public void setUp() {
+		var font = new Font("SansSerif", Font.PLAIN, 12);
+		var frc = new FontRenderContext(null, true, true);
+		var labelInfo = new LabelInfo("Hello World", font, frc, false, 1000);
+		line = labelInfo.getMeasuredLines().get(0);
+	}
+
+	@Test
+	public void testBoundsAreCached() {
+		assertSame(line.getLogicalBounds(), line.getLogicalBounds());
+		assertSame(line.getStringBounds(), line.getStringBounds());
+		assertEquals(line.getGlyphVector().getLogicalBounds(), line.getLogicalBounds());
+	}
+
+	@Test
+	public void testImageIsReusedForSameScaleAndColor() {
+		var image = line.getImage(2.0, Color.BLACK);
+		assertNotNull(image);
+		assertSame(image, line.getImage(2.0, new Color(0, 0, 0)));
+		assertNotSame(image, line.getImage(2.0, Color.RED));
+		assertNotSame(image, line.getImage(3.0, Color.RED));
+	}
+
+	@Test
+	public void testLargeImageNotCreated() {
+		assertNull(line.getImage(100.0, Color.BLACK));
+	}
+
+	@Test
+	public void testImageSameAsFilledShape() {
+		double scale = 1.5;
+		int tx = 20, ty = 30;
+
+		var expected = new BufferedImage(200, 60, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = expected.createGraphics();
+		GraphGraphics.setRenderingHints(g);
+		g.translate(tx, ty);
+		g.scale(scale, scale);
+		g.setPaint(Color.BLUE);
+		g.fill(line.getShape());
+		g.dispose();
+
+		var image = line.getImage(scale, Color.BLUE);
+		var actual = new BufferedImage(200, 60, BufferedImage.TYPE_INT_ARGB);
+		g = actual.createGraphics();
+		g.drawImage(image.getImage(), tx + image.getX(), ty + image.getY(), null);
+		g.dispose();
+
+		int painted = 0;
+		for(int y = 0; y < expected.getHeight(); y++) {
+			for(int x = 0; x < expected.getWidth(); x++) {
+				int e = expected.getRGB(x, y);
+				int a = actual.getRGB(x, y);
+				if((e >>> 24) != 0)
+					painted++;
+				// allow for rounding when the premultiplied image is composited
+				assertTrue("pixel " + x + "," + y, Math.abs((e >>> 24) - (a >>> 24)) <= 2);
+			}
+		}
+		assertTrue(painted > 0);
+	}
+}
@@ -0,0 +1,130 @@
+package org.cytoscape.equations.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.IdentDescriptor;
+import org.cytoscape.equations.internal.interpreter.CompiledInterpreterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * Cytoscape Equations Impl Performance (equations-impl-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Evaluates an equation for every row of a column, one row at a time with execute(),
+ * and all of the rows at once with CompiledInterpreterImpl.executeColumn().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnEquationBenchmark {
+
+	@Param({ "100000", "1000000" })
+	public int rowCount;
+	
+	@Param({
+		"=$score * LOG($count)",
+		"=IF($score > 10.0, $score - 10.0, ROUND($score, 1))",
+	})
+	public String equation;
+	
+	private CompiledInterpreterImpl interpreter;
+	private Equation compiledEquation;
+	private Map<String, Object> columns;
+	private double[] scores;
+	private Object[] counts;
+	private Object[] results;
+	private String[] errors;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		interpreter = new CompiledInterpreterImpl();
+		
+		final Map<String, Class<?>> variableTypes = new HashMap<>();
+		variableTypes.put("score", Double.class);
+		variableTypes.put("count", Long.class);
+		
+		final EquationCompilerImpl compiler = new EquationCompilerImpl(new EquationParserImpl(null));
+		if (!compiler.compile(equation, variableTypes))
+			throw new IllegalArgumentException(compiler.getLastErrorMsg());
+		compiledEquation = compiler.getEquation();
+		
+		scores = new double[rowCount];
+		counts = new Object[rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			scores[i] = (i % 1000) * 0.05;
+			counts[i] = (long) (i % 97 + 1);
+		}
+		columns = new HashMap<>();
+		columns.put("score", scores);
+		columns.put("count", counts);
+		results = new Object[rowCount];
+		errors = new String[rowCount];
+	}
+	
+	@Benchmark
+	public Object[] executeRows() {
+		final Map<String, IdentDescriptor> variables = new HashMap<>();
+		for (int i = 0; i < rowCount; i++) {
+			variables.put("score", new IdentDescriptor(scores[i]));
+			variables.put("count", new IdentDescriptor(counts[i]));
+			results[i] = interpreter.execute(compiledEquation, variables);
+		}
+		return results;
+	}
+	
+	@Benchmark
+	public Object[] executeColumn() {
+		interpreter.executeColumn(compiledEquation, columns, results, errors);
+		return results;
+	}
+	
+	
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(ColumnEquationBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
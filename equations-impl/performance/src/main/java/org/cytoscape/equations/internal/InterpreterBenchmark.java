@@ -0,0 +1,118 @@
+package org.cytoscape.equations.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.IdentDescriptor;
+import org.cytoscape.equations.Interpreter;
+import org.cytoscape.equations.internal.interpreter.CompiledInterpreterImpl;
+import org.cytoscape.equations.internal.interpreter.InterpreterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * Cytoscape Equations Impl Performance (equations-impl-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Compares InterpreterImpl, which runs the code of an equation on a stack of boxed values,
+ * with CompiledInterpreterImpl, which evaluates a typed expression tree built from the code,
+ * on arithmetic expressions and some of the built-in functions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpreterBenchmark {
+
+	@Param({ "stack", "compiled" })
+	public String interpreter;
+	
+	@Param({
+		"=$a + $b * 2.0 - ($c / 4.0) ^ 2",
+		"=SUM($a, $b, $c, 1.5)",
+		"=AVERAGE($a, $b, $c)",
+		"=IF($a > $b, LOG($a), LOG($b))",
+		"=ROUND(SQRT($a * $a + $b * $b), 2)",
+		"=IF($name = \"node 1\", ABS(-$a), MAX($a, $b, $c))",
+	})
+	public String equation;
+	
+	private Interpreter interp;
+	private Equation compiledEquation;
+	private Map<String, IdentDescriptor> variables;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		interp = interpreter.equals("stack") ? new InterpreterImpl() : new CompiledInterpreterImpl();
+		
+		final Map<String, Class<?>> variableTypes = new HashMap<>();
+		variableTypes.put("a", Double.class);
+		variableTypes.put("b", Double.class);
+		variableTypes.put("c", Long.class);
+		variableTypes.put("name", String.class);
+		
+		// The service registrar is only needed for functions registered after the built-ins
+		final EquationCompilerImpl compiler = new EquationCompilerImpl(new EquationParserImpl(null));
+		if (!compiler.compile(equation, variableTypes))
+			throw new IllegalArgumentException(compiler.getLastErrorMsg());
+		compiledEquation = compiler.getEquation();
+		
+		variables = new HashMap<>();
+		variables.put("a", new IdentDescriptor(3.25));
+		variables.put("b", new IdentDescriptor(12.5));
+		variables.put("c", new IdentDescriptor(42L));
+		variables.put("name", new IdentDescriptor("node 1"));
+	}
+	
+	@Benchmark
+	public Object execute() {
+		return interp.execute(compiledEquation, variables);
+	}
+	
+	
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(InterpreterBenchmark.class.getSimpleName())
+				.build();
+		new Runner(opt).run();
+	}
+}
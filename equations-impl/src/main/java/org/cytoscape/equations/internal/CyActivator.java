@@ -5,7 +5,7 @@ import org.cytoscape.equations.EquationParser;
 import org.cytoscape.equations.EquationTokeniser;
 import org.cytoscape.equations.Function;
 import org.cytoscape.equations.Interpreter;
-import org.cytoscape.equations.internal.interpreter.InterpreterImpl;
+import org.cytoscape.equations.internal.interpreter.CompiledInterpreterImpl;
 import org.cytoscape.service.util.AbstractCyActivator;
 import org.cytoscape.service.util.CyServiceRegistrar;
 import org.osgi.framework.BundleContext;
@@ -40,7 +40,7 @@ public class CyActivator extends AbstractCyActivator {
 	public void start(BundleContext bc) {
 		final CyServiceRegistrar serviceRegistrar = getService(bc, CyServiceRegistrar.class);
 
-		InterpreterImpl interpreter = new InterpreterImpl();
+		CompiledInterpreterImpl interpreter = new CompiledInterpreterImpl();
 		EquationTokeniserImpl tokeniser = new EquationTokeniserImpl();
 		EquationParserImpl parser = new EquationParserImpl(serviceRegistrar);
 		EquationCompilerImpl compiler = new EquationCompilerImpl(parser);
@@ -1,12 +1,13 @@
 package org.cytoscape.equations.internal.builtins;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Abs extends AbstractFunction {
+public class Abs extends AbstractFunction implements DeterministicFunction {
 	public Abs() {
 		super(new ArgDescriptor[] { new ArgDescriptor(ArgType.INT, "number", "Any numeric value.") });
 		
@@ -25,6 +25,7 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -33,7 +34,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Average extends AbstractFunction {
+public class Average extends AbstractFunction implements DeterministicFunction {
 	public Average() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.FLOATS, "numbers", "One or more numbers and/or lists of numbers.")
@@ -25,6 +25,7 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -33,7 +34,7 @@ import org.cytoscape.equations.internal.BooleanList;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class BList extends AbstractFunction {
+public class BList extends AbstractFunction implements DeterministicFunction {
 	public BList() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.OPT_STRINGS, "truth_values", "Zero or more numbers, strings or booleans."),
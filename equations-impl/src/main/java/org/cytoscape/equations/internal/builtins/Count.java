@@ -27,13 +27,14 @@ package org.cytoscape.equations.internal.builtins;
 
 import java.util.List;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Count extends AbstractFunction {
+public class Count extends AbstractFunction implements DeterministicFunction {
 	public Count() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.ANY_LIST, "list", "One or more lists or individual items.")
@@ -25,12 +25,13 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
 
 
-public class Error extends AbstractFunction {
+public class Error extends AbstractFunction implements DeterministicFunction {
 	public Error() {
 		super(new ArgDescriptor[] { new ArgDescriptor(ArgType.STRICT_STRING, "message", "An explanatory message.") });
 	}
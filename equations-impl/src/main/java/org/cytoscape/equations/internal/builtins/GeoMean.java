@@ -28,6 +28,7 @@ package org.cytoscape.equations.internal.builtins;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -35,7 +36,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class GeoMean extends AbstractFunction {
+public class GeoMean extends AbstractFunction implements DeterministicFunction {
 	public GeoMean() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.FLOATS, "numbers", "Two or more positive numbers."),
@@ -1,5 +1,6 @@
 package org.cytoscape.equations.internal.builtins;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -8,7 +9,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class HarMean extends AbstractFunction {
+public class HarMean extends AbstractFunction implements DeterministicFunction {
 	public HarMean() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.FLOATS, "numbers", "Two or more positive numbers."),
@@ -25,6 +25,7 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -33,7 +34,7 @@ import org.cytoscape.equations.internal.Categories;
 import org.cytoscape.equations.internal.LongList;
 
 
-public class IList extends AbstractFunction {
+public class IList extends AbstractFunction implements DeterministicFunction {
 	public IList() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.OPT_INTS, "integers", "Zero or more numbers, strings or booleans."),
@@ -25,13 +25,14 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class If extends AbstractFunction {
+public class If extends AbstractFunction implements DeterministicFunction {
 	public If() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.BOOL, "condition", "A logical test expression."),
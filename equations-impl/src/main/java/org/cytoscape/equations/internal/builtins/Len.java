@@ -27,6 +27,7 @@ import java.util.List;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -34,7 +35,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Len extends AbstractFunction {
+public class Len extends AbstractFunction implements DeterministicFunction {
 	public Len() {
 		super(new ArgDescriptor[] {
 			new ArgDescriptor(ArgType.ANY, "text or list", "A text string, or a list."),
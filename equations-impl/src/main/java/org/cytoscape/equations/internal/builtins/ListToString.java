@@ -27,6 +27,7 @@ package org.cytoscape.equations.internal.builtins;
 
 import java.util.List;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -34,7 +35,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class ListToString extends AbstractFunction {
+public class ListToString extends AbstractFunction implements DeterministicFunction {
 	public ListToString() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.STRICT_ANY_LIST, "list", "Any list."),
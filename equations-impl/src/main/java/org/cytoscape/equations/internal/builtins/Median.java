@@ -27,6 +27,7 @@ package org.cytoscape.equations.internal.builtins;
 
 import java.util.Arrays;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -34,7 +35,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Median extends AbstractFunction {
+public class Median extends AbstractFunction implements DeterministicFunction {
 	public Median() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.FLOATS, "numbers", "Any combination of lists of numbers or individual numbers.")
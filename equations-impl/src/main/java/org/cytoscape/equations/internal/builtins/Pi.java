@@ -25,12 +25,13 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Pi extends AbstractFunction {
+public class Pi extends AbstractFunction implements DeterministicFunction {
 	public Pi() {
 		super(new ArgDescriptor[] { });
 	}
@@ -25,6 +25,7 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -33,7 +34,7 @@ import org.cytoscape.equations.internal.Categories;
 import org.cytoscape.equations.internal.StringList;
 
 
-public class SList extends AbstractFunction {
+public class SList extends AbstractFunction implements DeterministicFunction {
 	public SList() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.OPT_STRINGS, "strings", "Zero or more numbers, strings or booleans."),
@@ -2,6 +2,7 @@ package org.cytoscape.equations.internal.builtins;
 
 import java.util.regex.Pattern;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -13,7 +14,7 @@ import org.cytoscape.equations.internal.StringList;
 /**
  * @since 3.9
  */
-public class Split extends AbstractFunction {
+public class Split extends AbstractFunction implements DeterministicFunction {
 	
 	public Split() {
 		super(new ArgDescriptor[] {
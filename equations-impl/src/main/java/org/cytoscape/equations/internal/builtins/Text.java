@@ -30,6 +30,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -37,7 +38,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Text extends AbstractFunction {
+public class Text extends AbstractFunction implements DeterministicFunction {
 	public Text() {
 		super(new ArgDescriptor[] {
 				new ArgDescriptor(ArgType.FLOAT, "value", "Any number."),
@@ -25,6 +25,7 @@ package org.cytoscape.equations.internal.builtins;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
@@ -32,7 +33,7 @@ import org.cytoscape.equations.FunctionUtil;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Upper extends AbstractFunction {
+public class Upper extends AbstractFunction implements DeterministicFunction {
 	public Upper() {
 		super(new ArgDescriptor[] { new ArgDescriptor(ArgType.STRICT_STRING, "text", "Any text.") });
 	}
@@ -27,13 +27,14 @@ import java.util.List;
  */
 
 
+import org.cytoscape.eqn.function.DeterministicFunction;
 import org.cytoscape.equations.AbstractFunction;
 import org.cytoscape.equations.ArgDescriptor;
 import org.cytoscape.equations.ArgType;
 import org.cytoscape.equations.internal.Categories;
 
 
-public class Value extends AbstractFunction {
+public class Value extends AbstractFunction implements DeterministicFunction {
 	public Value() {
 		super(new ArgDescriptor[] { new ArgDescriptor(ArgType.ANY, "text_or_number", "A number or a string representing a number.") });
 	}
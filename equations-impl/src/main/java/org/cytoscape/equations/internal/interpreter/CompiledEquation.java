@@ -0,0 +1,648 @@
+package org.cytoscape.equations.internal.interpreter;
+
+/*
+ * #%L
+ * Cytoscape Equations Impl (equations-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2010 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import org.cytoscape.equations.Function;
+import org.cytoscape.equations.FunctionError;
+import org.cytoscape.equations.IdentDescriptor;
+
+
+/**
+ *  The code of an equation turned back into an expression tree, with typed nodes.
+ *  <p>
+ *  The compiled code is in postfix order, so it is translated by running it once on a stack of
+ *  nodes instead of values. Arithmetic and comparison nodes evaluate their operands as primitive
+ *  doubles and booleans, so intermediate results are not boxed and no operand stack is needed.
+ *  Values are only boxed where an Object is needed: function arguments, column values and the
+ *  final result.
+ *  <p>
+ *  Operands are evaluated in the same order as in InterpreterImpl, so functions are called in
+ *  the same order and the same errors are reported. Instances are immutable and can be evaluated
+ *  by several threads at once.
+ */
+final class CompiledEquation {
+	private static final int MAX_ARG_COUNT = 100; // Same limit as InterpreterImpl.
+
+	private final Node root;
+
+	private CompiledEquation(final Node root) {
+		this.root = root;
+	}
+
+	/**
+	 *  Translates the code of an equation.
+	 *  @return the compiled equation, or null if the code is not well formed, in which
+	 *          case InterpreterImpl should run it in order to report the error.
+	 */
+	static CompiledEquation compile(final Object[] code) {
+		final Deque<Node> stack = new ArrayDeque<>();
+
+		for (final Object instrOrArg : code) {
+			if (!(instrOrArg instanceof Instruction)) {
+				stack.push(constant(instrOrArg));
+				continue;
+			}
+
+			final Instruction instruction = (Instruction)instrOrArg;
+			if (stack.size() < getOperandCount(instruction))
+				return null;
+
+			switch (instruction) {
+			case FADD:
+			case FSUB:
+			case FMUL:
+			case FDIV:
+			case FPOW:
+				stack.push(new FloatBinOp(instruction, stack.pop(), stack.pop()));
+				break;
+			case BEQLF:
+			case BNEQLF:
+			case BGTF:
+			case BLTF:
+			case BGTEF:
+			case BLTEF:
+				stack.push(new FloatComparison(instruction, stack.pop(), stack.pop()));
+				break;
+			case BEQLS:
+			case BNEQLS:
+			case BGTS:
+			case BLTS:
+			case BGTES:
+			case BLTES:
+				stack.push(new StringComparison(instruction, stack.pop(), stack.pop()));
+				break;
+			case BGTB:
+			case BLTB:
+			case BGTEB:
+			case BLTEB:
+			case BEQLB:
+			case BNEQLB:
+				stack.push(new BooleanComparison(instruction, stack.pop(), stack.pop()));
+				break;
+			case SCONCAT:
+				stack.push(new StringConcat(stack.pop(), stack.pop()));
+				break;
+			case FUMINUS:
+				stack.push(new FloatNegation(stack.pop()));
+				break;
+			case FUPLUS:
+				stack.push(new FloatIdentity(stack.pop()));
+				break;
+			case FCONVI:
+			case FCONVB:
+			case FCONVS:
+				stack.push(new FloatConversion(instruction, stack.pop()));
+				break;
+			case SCONVF:
+			case SCONVI:
+			case SCONVB:
+				stack.push(new StringConversion(instruction, stack.pop()));
+				break;
+			case AREF: {
+				final Object name = getConstant(stack.pop());
+				if (!(name instanceof String))
+					return null;
+				stack.push(new ColumnReference((String)name, null));
+				break;
+			}
+			case AREF2: {
+				final Object name = getConstant(stack.pop());
+				if (!(name instanceof String))
+					return null;
+				stack.push(new ColumnReference((String)name, stack.pop()));
+				break;
+			}
+			case CALL: {
+				final Object function = getConstant(stack.pop());
+				final Object argCount = getConstant(stack.pop());
+				if (!(function instanceof Function) || !(argCount instanceof Integer))
+					return null;
+				final int n = (Integer)argCount;
+				if (n < 0 || n > MAX_ARG_COUNT || stack.size() < n)
+					return null;
+				final Node[] args = new Node[n];
+				for (int argNo = 0; argNo < n; ++argNo)
+					args[argNo] = stack.pop();
+				stack.push(new FunctionCall((Function)function, args));
+				break;
+			}
+			default:
+				return null;
+			}
+		}
+
+		return stack.size() == 1 ? new CompiledEquation(stack.pop()) : null;
+	}
+
+	private static int getOperandCount(final Instruction instruction) {
+		switch (instruction) {
+		case FUMINUS:
+		case FUPLUS:
+		case FCONVI:
+		case FCONVB:
+		case FCONVS:
+		case SCONVF:
+		case SCONVI:
+		case SCONVB:
+		case AREF:
+			return 1;
+		case CALL: // the function and the argument count, the arguments are checked separately
+		default:
+			return 2;
+		}
+	}
+
+	/**
+	 *  @return the result of the equation, before InterpreterImpl.checkResult()
+	 */
+	Object evaluate(final Map<String, IdentDescriptor> variableNameToDescriptorMap) throws FunctionError {
+		return root.eval(new DescriptorVariables(variableNameToDescriptorMap));
+	}
+
+	/**
+	 *  @return the result of the equation, before InterpreterImpl.checkResult()
+	 */
+	Object evaluate(final Variables variables) throws FunctionError {
+		return root.eval(variables);
+	}
+
+
+	/**
+	 *  The values of the column references of an equation.
+	 */
+	static abstract class Variables {
+		/** @return false if the equation can't reference this variable. */
+		abstract boolean isDefined(String name);
+
+		/** @return the value of the variable, or null if it doesn't have a value. */
+		abstract Object get(String name);
+
+		/** @return true if the variable has a value that getFloat() can return without boxing it. */
+		boolean isFloat(final String name) {
+			return false;
+		}
+
+		/** @return the value of the variable as a number, subclasses that store numbers unboxed override this. */
+		double getFloat(final String name) {
+			return CompiledEquation.getFloat(get(name));
+		}
+	}
+
+	private static final class DescriptorVariables extends Variables {
+		private final Map<String, IdentDescriptor> variableNameToDescriptorMap;
+
+		DescriptorVariables(final Map<String, IdentDescriptor> variableNameToDescriptorMap) {
+			this.variableNameToDescriptorMap = variableNameToDescriptorMap;
+		}
+
+		@Override
+		boolean isDefined(final String name) {
+			return variableNameToDescriptorMap.get(name) != null;
+		}
+
+		@Override
+		Object get(final String name) {
+			final IdentDescriptor identDescriptor = variableNameToDescriptorMap.get(name);
+			return identDescriptor == null ? null : identDescriptor.getValue();
+		}
+	}
+
+
+	private static Node constant(final Object value) {
+		if (value instanceof Double)
+			return new FloatConstant((Double)value);
+		if (value instanceof Boolean)
+			return new BooleanConstant((Boolean)value);
+		return new Constant(value);
+	}
+
+	private static Object getConstant(final Node node) {
+		return node instanceof Constant ? ((Constant)node).value : null;
+	}
+
+	private static double getFloat(final Object o) throws IllegalStateException {
+		if (o instanceof Double)
+			return (Double)o;
+
+		throw new IllegalStateException("can't convert a " + o.getClass() + " (" + o + ") to a floating point number.");
+	}
+
+	private static long getLong(final Object o) throws IllegalStateException {
+		if (o instanceof Long)
+			return (Long)o;
+
+		throw new IllegalStateException("can't convert a " + o.getClass() + " (" + o + ") to an integer number.");
+	}
+
+	private static String getString(final Object o) throws IllegalStateException {
+		if (o instanceof String)
+			return (String)o;
+
+		throw new IllegalStateException("can't convert a " + o.getClass() + " to a string.");
+	}
+
+	private static boolean getBoolean(final Object o) throws IllegalStateException {
+		if (o instanceof Boolean)
+			return (Boolean)o;
+
+		throw new IllegalStateException("can't convert a " + o.getClass() + " to a boolean.");
+	}
+
+
+	/**
+	 *  A node of the expression tree. Nodes that produce numbers or truth values override
+	 *  evalFloat() or evalBoolean(), the other methods convert the result of eval().
+	 */
+	private static abstract class Node {
+		abstract Object eval(Variables variables) throws FunctionError;
+
+		double evalFloat(final Variables variables) throws FunctionError {
+			return getFloat(eval(variables));
+		}
+
+		boolean evalBoolean(final Variables variables) throws FunctionError {
+			return getBoolean(eval(variables));
+		}
+
+		String evalString(final Variables variables) throws FunctionError {
+			return getString(eval(variables));
+		}
+	}
+
+	private static abstract class FloatNode extends Node {
+		@Override
+		final Object eval(final Variables variables) throws FunctionError {
+			return evalFloat(variables);
+		}
+
+		@Override
+		abstract double evalFloat(Variables variables) throws FunctionError;
+	}
+
+	private static abstract class BooleanNode extends Node {
+		@Override
+		final Object eval(final Variables variables) throws FunctionError {
+			return evalBoolean(variables);
+		}
+
+		@Override
+		abstract boolean evalBoolean(Variables variables) throws FunctionError;
+	}
+
+	private static class Constant extends Node {
+		final Object value;
+
+		Constant(final Object value) {
+			this.value = value;
+		}
+
+		@Override
+		Object eval(final Variables variables) {
+			return value;
+		}
+	}
+
+	private static final class FloatConstant extends Constant {
+		private final double d;
+
+		FloatConstant(final Double value) {
+			super(value);
+			this.d = value;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) {
+			return d;
+		}
+	}
+
+	private static final class BooleanConstant extends Constant {
+		private final boolean b;
+
+		BooleanConstant(final Boolean value) {
+			super(value);
+			this.b = value;
+		}
+
+		@Override
+		boolean evalBoolean(final Variables variables) {
+			return b;
+		}
+	}
+
+	private static final class ColumnReference extends Node {
+		private final String attribName;
+		private final Node defaultValue; // null for AREF
+
+		ColumnReference(final String attribName, final Node defaultValue) {
+			this.attribName = attribName;
+			this.defaultValue = defaultValue;
+		}
+
+		@Override
+		Object eval(final Variables variables) throws FunctionError {
+			if (defaultValue == null) {
+				if (!variables.isDefined(attribName))
+					throw new IllegalStateException("unknown column reference: \"" + attribName + "\" (1).");
+				final Object value = variables.get(attribName);
+				if (value == null)
+					throw new IllegalStateException("undefined column reference: \"" + attribName + "\".");
+				return value;
+			}
+
+			final Object defaultVal = defaultValue.eval(variables);
+			if (!variables.isDefined(attribName))
+				throw new IllegalStateException("unknown column reference: \"" + attribName + "\" (2).");
+			final Object value = variables.get(attribName);
+			return value != null ? value : defaultVal;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) throws FunctionError {
+			if (variables.isFloat(attribName)) {
+				if (defaultValue != null)
+					defaultValue.eval(variables);
+				return variables.getFloat(attribName);
+			}
+			return getFloat(eval(variables));
+		}
+	}
+
+	private static final class FunctionCall extends Node {
+		private final Function function;
+		private final Node[] args; // args[0] is the first argument of the function
+
+		FunctionCall(final Function function, final Node[] args) {
+			this.function = function;
+			this.args = args;
+		}
+
+		@Override
+		Object eval(final Variables variables) throws FunctionError {
+			// The last argument is the first one that InterpreterImpl evaluates.
+			final Object[] argValues = new Object[args.length];
+			for (int argNo = args.length - 1; argNo >= 0; --argNo)
+				argValues[argNo] = args[argNo].eval(variables);
+			return function.evaluateFunction(argValues);
+		}
+	}
+
+	/*
+	 *  For the binary operators "first" is the operand on top of the stack, i.e. the left hand side,
+	 *  and "second" is evaluated before it because its code comes first.
+	 */
+
+	private static final class FloatBinOp extends FloatNode {
+		private final Instruction instruction;
+		private final Node first;
+		private final Node second;
+
+		FloatBinOp(final Instruction instruction, final Node first, final Node second) {
+			this.instruction = instruction;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) throws FunctionError {
+			final double float2 = second.evalFloat(variables);
+			final double float1 = first.evalFloat(variables);
+			switch (instruction) {
+			case FADD:
+				return float1 + float2;
+			case FSUB:
+				return float1 - float2;
+			case FMUL:
+				return float1 * float2;
+			case FDIV:
+				if (float2 == 0.0)
+					throw new ArithmeticException("illegal division by zero.");
+				return float1 / float2;
+			case FPOW:
+				return Math.pow(float1, float2);
+			default:
+				throw new IllegalStateException("unknown opcode: " + instruction + ".");
+			}
+		}
+	}
+
+	private static final class FloatComparison extends BooleanNode {
+		private final Instruction instruction;
+		private final Node first;
+		private final Node second;
+
+		FloatComparison(final Instruction instruction, final Node first, final Node second) {
+			this.instruction = instruction;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		boolean evalBoolean(final Variables variables) throws FunctionError {
+			final double float2 = second.evalFloat(variables);
+			final double float1 = first.evalFloat(variables);
+			switch (instruction) {
+			case BEQLF:
+				return float1 == float2;
+			case BNEQLF:
+				return float1 != float2;
+			case BGTF:
+				return float1 > float2;
+			case BLTF:
+				return float1 < float2;
+			case BGTEF:
+				return float1 >= float2;
+			case BLTEF:
+				return float1 <= float2;
+			default:
+				throw new IllegalStateException("unknown opcode: " + instruction + ".");
+			}
+		}
+	}
+
+	private static final class StringComparison extends BooleanNode {
+		private final Instruction instruction;
+		private final Node first;
+		private final Node second;
+
+		StringComparison(final Instruction instruction, final Node first, final Node second) {
+			this.instruction = instruction;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		boolean evalBoolean(final Variables variables) throws FunctionError {
+			final String string2 = second.evalString(variables);
+			final String string1 = first.evalString(variables);
+			switch (instruction) {
+			case BEQLS:
+				return string1.equals(string2);
+			case BNEQLS:
+				return !string1.equals(string2);
+			case BGTS:
+				return string1.compareTo(string2) > 0;
+			case BLTS:
+				return string1.compareTo(string2) < 0;
+			case BGTES:
+				return string1.compareTo(string2) >= 0;
+			case BLTES:
+				return string1.compareTo(string2) <= 0;
+			default:
+				throw new IllegalStateException("unknown opcode: " + instruction + ".");
+			}
+		}
+	}
+
+	private static final class BooleanComparison extends BooleanNode {
+		private final Instruction instruction;
+		private final Node first;
+		private final Node second;
+
+		BooleanComparison(final Instruction instruction, final Node first, final Node second) {
+			this.instruction = instruction;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		boolean evalBoolean(final Variables variables) throws FunctionError {
+			final boolean bool2 = second.evalBoolean(variables);
+			final boolean bool1 = first.evalBoolean(variables);
+			switch (instruction) {
+			case BGTB:
+				return bool1 && !bool2;
+			case BLTB:
+				return !bool1 && bool2;
+			case BGTEB:
+				return (bool1 && !bool2) || (bool1 == bool2);
+			case BLTEB:
+				return (!bool1 && bool2) || (bool1 == bool2);
+			case BEQLB:
+				return bool1 == bool2;
+			case BNEQLB:
+				return bool1 != bool2;
+			default:
+				throw new IllegalStateException("unknown opcode: " + instruction + ".");
+			}
+		}
+	}
+
+	private static final class StringConcat extends Node {
+		private final Node first;
+		private final Node second;
+
+		StringConcat(final Node first, final Node second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		Object eval(final Variables variables) throws FunctionError {
+			final String string2 = second.evalString(variables);
+			final String string1 = first.evalString(variables);
+			return string1 + string2;
+		}
+	}
+
+	private static final class FloatNegation extends FloatNode {
+		private final Node operand;
+
+		FloatNegation(final Node operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) throws FunctionError {
+			return -operand.evalFloat(variables);
+		}
+	}
+
+	private static final class FloatIdentity extends FloatNode {
+		private final Node operand;
+
+		FloatIdentity(final Node operand) {
+			this.operand = operand;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) throws FunctionError {
+			return +operand.evalFloat(variables);
+		}
+	}
+
+	private static final class FloatConversion extends FloatNode {
+		private final Instruction instruction;
+		private final Node operand;
+
+		FloatConversion(final Instruction instruction, final Node operand) {
+			this.instruction = instruction;
+			this.operand = operand;
+		}
+
+		@Override
+		double evalFloat(final Variables variables) throws FunctionError {
+			switch (instruction) {
+			case FCONVI:
+				return (double)getLong(operand.eval(variables));
+			case FCONVB:
+				return operand.evalBoolean(variables) ? 1.0 : 0.0;
+			case FCONVS: {
+				final String s = operand.evalString(variables);
+				try {
+					return Double.parseDouble(s);
+				} catch (final NumberFormatException e) {
+					throw new IllegalStateException("can't convert \"" + s + "\" to a number.");
+				}
+			}
+			default:
+				throw new IllegalStateException("unknown opcode: " + instruction + ".");
+			}
+		}
+	}
+
+	private static final class StringConversion extends Node {
+		private final Instruction instruction;
+		private final Node operand;
+
+		StringConversion(final Instruction instruction, final Node operand) {
+			this.instruction = instruction;
+			this.operand = operand;
+		}
+
+		@Override
+		Object eval(final Variables variables) throws FunctionError {
+			final Object value = operand.eval(variables);
+
+			// See InterpreterImpl.sconvb() for the conversion of truth values.
+			return instruction == Instruction.SCONVB ? "\uFFFF\uFFFF\uFFFF" : value.toString();
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package org.cytoscape.equations.internal.interpreter;
+
+/*
+ * #%L
+ * Cytoscape Equations Impl (equations-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2010 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.cytoscape.eqn.function.DeterministicFunction;
+import org.cytoscape.eqn.interpreter.ColumnInterpreter;
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.Function;
+import org.cytoscape.equations.FunctionError;
+import org.cytoscape.equations.IdentDescriptor;
+
+
+/**
+ *  An Interpreter that translates the code of each equation into a typed expression tree the first
+ *  time the equation is executed, see {@link CompiledEquation}, and evaluates that tree afterwards.
+ *  Returns the same results and throws the same exceptions as {@link InterpreterImpl}, which is still
+ *  used for code that can't be translated.
+ *  <p>
+ *  Unlike InterpreterImpl this class has no state during an execution, so it can be used by several
+ *  threads at once. {@link #executeColumn} uses this to evaluate an equation for all of the rows of a
+ *  column in parallel, on a small pool of daemon threads that is shared by all instances.
+ */
+public class CompiledInterpreterImpl implements ColumnInterpreter {
+	// Arrays are hashed by identity, so the code of an equation is a good key
+	private final Map<Object[], CompiledEquation> compiledEquations = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// Equations that can't be translated, run by InterpreterImpl
+	private static final CompiledEquation NOT_COMPILED = null;
+
+	// Rows evaluated by each task of executeColumn()
+	static final int CHUNK_SIZE = 4096;
+
+	// Threads that evaluate chunks of executeColumn() along with the calling thread, shared by all interpreters
+	private static final int WORKER_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	private static final ExecutorService columnExecutor = Executors.newFixedThreadPool(WORKER_COUNT, r -> {
+		final Thread thread = Executors.defaultThreadFactory().newThread(r);
+		thread.setName("equations-column-" + thread.getName());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile LastEquation last;
+
+	/** Tables usually evaluate the same equation many times in a row, this avoids the synchronized map. */
+	private static final class LastEquation {
+		final Object[] code;
+		final CompiledEquation compiledEquation;
+
+		LastEquation(final Object[] code, final CompiledEquation compiledEquation) {
+			this.code = code;
+			this.compiledEquation = compiledEquation;
+		}
+	}
+
+	public CompiledInterpreterImpl() { }
+
+	/** Executes the code that is passed in and returns the result of an equation's evaluation.
+	 *  @return a Double, Boolean, String etc. object that is the result of a successful execution.
+	 *  @throws ArithmeticException thrown if an arithmetic error was detected like a division by zero etc.
+	 *  @throws IllegalArgumentException thrown if a function invocation resulted in a function detecting an invalid argument
+	 *  @throws IllegalStateException thrown if an invalid interpreter internal state was reached
+	 */
+	@Override
+	public Object execute(final Equation equation, final Map<String, IdentDescriptor> variableNameToDescriptorMap)
+		throws NullPointerException, ArithmeticException, IllegalArgumentException, IllegalStateException
+	{
+		if (equation == null || variableNameToDescriptorMap == null)
+			throw new NullPointerException("null equation or variableNameToDescriptorMap.");
+
+		final CompiledEquation compiledEquation = getCompiledEquation(equation.getCode());
+		if (compiledEquation == NOT_COMPILED)
+			return new InterpreterImpl().execute(equation, variableNameToDescriptorMap);
+
+		final Object retVal;
+		try {
+			retVal = compiledEquation.evaluate(variableNameToDescriptorMap);
+		} catch (final FunctionError e) {
+			throw new IllegalStateException(e.getMessage());
+		}
+
+		return InterpreterImpl.checkResult(retVal);
+	}
+
+	/** Executes an equation for each row of a column.
+	 *  The rows are split into chunks that are evaluated in parallel, unless the equation calls functions
+	 *  that are not {@link DeterministicFunction}s, which may not expect to be called by several threads at once.
+	 *  @param columns  the values of the variables of the equation for each row, either a double[] or an
+	 *                  Object[] with the values that an IdentDescriptor would return, null for a missing value
+	 *  @param results  receives the result of each row, null if its execution failed; its length is the number of rows
+	 *  @param errors   receives the error message of each row whose execution failed, null for the other rows
+	 */
+	@Override
+	public void executeColumn(final Equation equation, final Map<String, Object> columns, final Object[] results,
+	                          final String[] errors)
+	{
+		if (equation == null || columns == null || results == null || errors == null)
+			throw new NullPointerException("null equation, columns, results or errors.");
+		if (errors.length != results.length)
+			throw new IllegalArgumentException("results and errors must have the same length.");
+		for (final Map.Entry<String, Object> column : columns.entrySet()) {
+			final Object values = column.getValue();
+			final int length = values instanceof double[] ? ((double[])values).length
+			                   : values instanceof Object[] ? ((Object[])values).length : -1;
+			if (length != results.length)
+				throw new IllegalArgumentException("bad values for column \"" + column.getKey() + "\".");
+		}
+
+		final CompiledEquation compiledEquation = getCompiledEquation(equation.getCode());
+		final Map<String, Object> columnMap = new HashMap<>(columns);
+		final IntConsumer executeChunk = chunk -> {
+			final int start = chunk * CHUNK_SIZE;
+			final int end = Math.min(start + CHUNK_SIZE, results.length);
+			if (compiledEquation == NOT_COMPILED)
+				interpretRows(equation, columnMap, start, end, results, errors);
+			else
+				evaluateRows(compiledEquation, columnMap, start, end, results, errors);
+		};
+
+		final int chunkCount = (results.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if (chunkCount > 1 && callsOnlyDeterministicFunctions(equation)) {
+			// The calling thread takes chunks too, so the column is done even if the workers are busy with other columns
+			final AtomicInteger nextChunk = new AtomicInteger();
+			final Runnable executeChunks = () -> {
+				for (int chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement())
+					executeChunk.accept(chunk);
+			};
+			final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(WORKER_COUNT, chunkCount - 1)];
+			for (int i = 0; i < workers.length; ++i)
+				workers[i] = CompletableFuture.runAsync(executeChunks, columnExecutor);
+			try {
+				executeChunks.run();
+			} finally {
+				CompletableFuture.allOf(workers).join();
+			}
+		} else {
+			for (int chunk = 0; chunk < chunkCount; ++chunk)
+				executeChunk.accept(chunk);
+		}
+	}
+
+	private static void evaluateRows(final CompiledEquation compiledEquation, final Map<String, Object> columns,
+	                                 final int start, final int end, final Object[] results, final String[] errors)
+	{
+		final RowVariables variables = new RowVariables(columns);
+		for (int row = start; row < end; ++row) {
+			variables.row = row;
+			try {
+				results[row] = InterpreterImpl.checkResult(compiledEquation.evaluate(variables));
+				errors[row] = null;
+			} catch (final FunctionError e) {
+				results[row] = null;
+				errors[row] = e.getMessage();
+			} catch (final RuntimeException e) {
+				results[row] = null;
+				errors[row] = e.getMessage();
+			}
+		}
+	}
+
+	private static void interpretRows(final Equation equation, final Map<String, Object> columns,
+	                                  final int start, final int end, final Object[] results, final String[] errors)
+	{
+		final InterpreterImpl interpreter = new InterpreterImpl();
+		final RowVariables variables = new RowVariables(columns);
+		for (int row = start; row < end; ++row) {
+			variables.row = row;
+			final Map<String, IdentDescriptor> variableNameToDescriptorMap = new TreeMap<>();
+			for (final String name : columns.keySet()) {
+				final Object value = variables.get(name);
+				if (value != null)
+					variableNameToDescriptorMap.put(name, new IdentDescriptor(value));
+			}
+
+			try {
+				results[row] = interpreter.execute(equation, variableNameToDescriptorMap);
+				errors[row] = null;
+			} catch (final RuntimeException e) {
+				results[row] = null;
+				errors[row] = e.getMessage();
+			}
+		}
+	}
+
+	private static boolean callsOnlyDeterministicFunctions(final Equation equation) {
+		for (final Object instrOrArg : equation.getCode()) {
+			if (instrOrArg instanceof Function && !(instrOrArg instanceof DeterministicFunction))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 *  The variables of one row of executeColumn().
+	 */
+	private static final class RowVariables extends CompiledEquation.Variables {
+		private final Map<String, Object> columns;
+		int row;
+
+		RowVariables(final Map<String, Object> columns) {
+			this.columns = columns;
+		}
+
+		@Override
+		boolean isDefined(final String name) {
+			return columns.containsKey(name);
+		}
+
+		@Override
+		Object get(final String name) {
+			final Object values = columns.get(name);
+			if (values instanceof double[])
+				return ((double[])values)[row];
+			return values == null ? null : ((Object[])values)[row];
+		}
+
+		@Override
+		boolean isFloat(final String name) {
+			return columns.get(name) instanceof double[];
+		}
+
+		@Override
+		double getFloat(final String name) {
+			return ((double[])columns.get(name))[row];
+		}
+	}
+
+	private CompiledEquation getCompiledEquation(final Object[] code) {
+		final LastEquation lastEquation = last;
+		if (lastEquation != null && lastEquation.code == code)
+			return lastEquation.compiledEquation;
+
+		final CompiledEquation compiledEquation;
+		synchronized (compiledEquations) {
+			if (compiledEquations.containsKey(code)) {
+				compiledEquation = compiledEquations.get(code);
+			} else {
+				compiledEquation = CompiledEquation.compile(code);
+				compiledEquations.put(code, compiledEquation);
+			}
+		}
+
+		last = new LastEquation(code, compiledEquation);
+		return compiledEquation;
+	}
+}
@@ -192,8 +192,15 @@ public class InterpreterImpl implements Interpreter {
 
 		if (argumentStack.size() != 1)
 			throw new IllegalStateException("invalid argument stack size " + argumentStack.size() + ", must be 1.");
-		final Object retVal = argumentStack.peek();
 
+		return checkResult(argumentStack.peek());
+	}
+
+	/** Checks the type of the result of an equation, shared with {@link CompiledInterpreterImpl}.
+	 *  @return the result, or a copy of it if it is a List that is not one of the internal list types.
+	 *  @throws IllegalStateException thrown if the result is not of a type an equation can return
+	 */
+	static Object checkResult(final Object retVal) throws IllegalStateException {
 		// Special case for null values
 		if (retVal == null)
 			return null;
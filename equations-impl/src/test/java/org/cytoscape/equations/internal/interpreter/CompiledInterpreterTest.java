@@ -0,0 +1,189 @@
+package org.cytoscape.equations.internal.interpreter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.IdentDescriptor;
+import org.cytoscape.equations.Interpreter;
+import org.cytoscape.equations.internal.EquationCompilerImpl;
+import org.cytoscape.equations.internal.EquationParserImpl;
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.event.DummyCyEventHelper;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * #%L
+ * Cytoscape Equations Impl (equations-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+public class CompiledInterpreterTest {
+	
+	private EquationCompilerImpl compiler;
+	private Interpreter stackInterpreter;
+	private Interpreter compiledInterpreter;
+	private Map<String, Class<?>> attribNameToTypeMap;
+	private Map<String, IdentDescriptor> nameToDescriptorMap;
+
+	@Before
+	public void init() {
+		final CyEventHelper eventHelper = new DummyCyEventHelper();
+		final CyServiceRegistrar serviceRegistrar = mock(CyServiceRegistrar.class);
+		when(serviceRegistrar.getService(CyEventHelper.class)).thenReturn(eventHelper);
+		
+		compiler = new EquationCompilerImpl(new EquationParserImpl(serviceRegistrar));
+		stackInterpreter = new InterpreterImpl();
+		compiledInterpreter = new CompiledInterpreterImpl();
+		
+		attribNameToTypeMap = new HashMap<>();
+		attribNameToTypeMap.put("d", Double.class);
+		attribNameToTypeMap.put("i", Long.class);
+		attribNameToTypeMap.put("s", String.class);
+		attribNameToTypeMap.put("b", Boolean.class);
+		attribNameToTypeMap.put("missing", Double.class);
+		
+		nameToDescriptorMap = new HashMap<>();
+		nameToDescriptorMap.put("d", new IdentDescriptor(2.5));
+		nameToDescriptorMap.put("i", new IdentDescriptor(7L));
+		nameToDescriptorMap.put("s", new IdentDescriptor("Fred"));
+		nameToDescriptorMap.put("b", new IdentDescriptor(true));
+		nameToDescriptorMap.put("missing", new IdentDescriptor(null));
+	}
+	
+	@Test
+	public void testSameResultsAsStackInterpreter() {
+		final String[] equations = {
+			"=42 - 12 + 3 * (4 - 2) + ${d:12}",
+			"=-$d + +$i",
+			"=2^3^4 - 0.0002",
+			"=$d / $i",
+			"=$d / 0",
+			"=\"Name: \" & $s & $d",
+			"=$s < \"G\"",
+			"=$d >= $i",
+			"=$d <> 2.5",
+			"=TRUE < FALSE",
+			"=\"a\" > TRUE",
+			"=$b + TRUE",
+			"=${missing:1.5} * 2",
+			"=$missing + 1",
+			"=SUM($d, $i, 3)",
+			"=AVERAGE($d, $i, 3)",
+			"=IF($d > $i, LOG($d), LOG($i))",
+			"=IF($b, \"yes\", \"no\")",
+			"=ROUND(LN($i) * 100, 2)",
+			"=CONCATENATE(UPPER($s), TEXT($d))",
+			"=MAX(FLIST(1, $d, $i))",
+			"=SQRT(-1)",
+			"=ERROR(\"failed\")",
+		};
+		
+		for (final String equation : equations) {
+			assertTrue(equation, compiler.compile(equation, attribNameToTypeMap));
+			final Equation compiledEquation = compiler.getEquation();
+			
+			// Twice, the second time the expression tree is reused
+			for (int i = 0; i < 2; i++)
+				assertEquals(equation, execute(stackInterpreter, compiledEquation), execute(compiledInterpreter, compiledEquation));
+		}
+	}
+	
+	@Test
+	public void testListResult() {
+		assertTrue(compiler.compile("=FLIST($d, $i)", attribNameToTypeMap));
+		final Object result = compiledInterpreter.execute(compiler.getEquation(), nameToDescriptorMap);
+		assertEquals(stackInterpreter.execute(compiler.getEquation(), nameToDescriptorMap), result);
+	}
+	
+	@Test
+	public void testUncompilableCode() {
+		// Not valid code, so it is run by InterpreterImpl, which reports the error
+		final Equation equation = new Equation("=bad", attribNameToTypeMap.keySet(), new HashMap<>(),
+		                                       new Object[] { 1.0, Instruction.FADD }, new int[] { 1, 1 }, Double.class);
+		final String expected = execute(stackInterpreter, equation);
+		assertEquals(expected, execute(compiledInterpreter, equation));
+		assertNull(CompiledEquation.compile(equation.getCode()));
+	}
+	
+	@Test
+	public void testColumnResults() {
+		final String[] equations = {
+			"=$d * LOG($i)",
+			"=IF($d > $i, \"more\", $s)",
+			"=$d / ($i - 3)",
+			"=${missing:1.5} + $d",
+			"=$missing + 1",
+		};
+		
+		// Enough rows for several chunks
+		final int rowCount = 3 * CompiledInterpreterImpl.CHUNK_SIZE + 7;
+		final double[] d = new double[rowCount];
+		final Object[] i = new Object[rowCount];
+		final Object[] s = new Object[rowCount];
+		final Object[] missing = new Object[rowCount];
+		for (int row = 0; row < rowCount; row++) {
+			d[row] = row * 0.25;
+			i[row] = (long) row;
+			s[row] = "row" + row;
+		}
+		final Map<String, Object> columns = new HashMap<>();
+		columns.put("d", d);
+		columns.put("i", i);
+		columns.put("s", s);
+		columns.put("missing", missing);
+		
+		for (final String equation : equations) {
+			assertTrue(equation, compiler.compile(equation, attribNameToTypeMap));
+			final Equation compiledEquation = compiler.getEquation();
+			
+			final Object[] results = new Object[rowCount];
+			final String[] errors = new String[rowCount];
+			((CompiledInterpreterImpl)compiledInterpreter).executeColumn(compiledEquation, columns, results, errors);
+			
+			for (int row = 0; row < rowCount; row++) {
+				nameToDescriptorMap.put("d", new IdentDescriptor(d[row]));
+				nameToDescriptorMap.put("i", new IdentDescriptor(i[row]));
+				nameToDescriptorMap.put("s", new IdentDescriptor(s[row]));
+				final String actual = errors[row] != null ? errors[row]
+				                      : results[row].getClass().getSimpleName() + ": " + results[row];
+				assertTrue(equation + " row " + row, execute(stackInterpreter, compiledEquation).endsWith(actual));
+			}
+		}
+	}
+	
+	private String execute(final Interpreter interpreter, final Equation equation) {
+		try {
+			final Object result = interpreter.execute(equation, nameToDescriptorMap);
+			return result == null ? "null" : result.getClass().getSimpleName() + ": " + result;
+		} catch (final Exception e) {
+			return e.getClass().getSimpleName() + ": " + e.getMessage();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package org.cytoscape.eqn.function;
+
+/*
+ * #%L
+ * Cytoscape Equations Internal (equations-internal)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2010 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import org.cytoscape.equations.Function;
+
+
+/**
+ *  Marks a function whose result only depends on its arguments. Calling it again with the same
+ *  arguments always returns the same result, and it doesn't read anything else, like the network,
+ *  other tables or the current time. Tables can keep the results of equations that only call
+ *  functions like this.
+ */
+public interface DeterministicFunction extends Function {
+}
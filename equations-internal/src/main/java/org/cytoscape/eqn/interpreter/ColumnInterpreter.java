@@ -0,0 +1,46 @@
+package org.cytoscape.eqn.interpreter;
+
+/*
+ * #%L
+ * Cytoscape Equations Internal (equations-internal)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2010 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.Map;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.Interpreter;
+
+
+/**
+ *  An interpreter that can evaluate an equation for many rows of a column in one call,
+ *  which is faster than calling {@link Interpreter#execute} for each row.
+ */
+public interface ColumnInterpreter extends Interpreter {
+	/** Executes an equation for each row of a column.
+	 *  @param columns  the values of the variables of the equation for each row, either a double[] or an
+	 *                  Object[] with the values that an IdentDescriptor would return, null for a missing value
+	 *  @param results  receives the result of each row, null if its execution failed; its length is the number of rows
+	 *  @param errors   receives the error message of each row whose execution failed, null for the other rows
+	 */
+	void executeColumn(Equation equation, Map<String, Object> columns, Object[] results, String[] errors);
+}
@@ -0,0 +1,74 @@
+package org.cytoscape.event.internal;
+
+import org.cytoscape.event.CyEventHelper;
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Decides how long the payload monitor waits before its next flush, based on what
+ * the previous flush saw:
+ * <ul>
+ * <li>If the listeners took more than half the interval to handle the flushed events, the
+ * interval is doubled so more payloads are batched into each (expensive) event.</li>
+ * <li>Otherwise, if a lot of payloads were pending, the interval is halved so the
+ * accumulators don't grow into huge bursts.</li>
+ * <li>Otherwise the interval moves back toward the default one step at a time.</li>
+ * </ul>
+ * The interval always stays between {@link #MIN_INTERVAL_MILLIS} and {@link #MAX_INTERVAL_MILLIS}.
+ * Not thread safe, it is only used by the single payload monitor thread.
+ */
+class AdaptiveFlushPolicy {
+
+	static final long DEFAULT_INTERVAL_MILLIS = CyEventHelper.DEFAULT_PAYLOAD_INTERVAL_MILLIS;
+	static final long MIN_INTERVAL_MILLIS = Math.max(1, DEFAULT_INTERVAL_MILLIS / 4);
+	static final long MAX_INTERVAL_MILLIS = DEFAULT_INTERVAL_MILLIS * 4;
+	static final int HIGH_WATERMARK = 10000;
+
+	private long interval = DEFAULT_INTERVAL_MILLIS;
+
+	/**
+	 * @param pendingPayloads number of payloads that were waiting in the accumulators when the flush ran
+	 * @param listenerNanos time the listeners spent handling the events fired by the flush
+	 * @return the delay before the next flush, in milliseconds
+	 */
+	long nextInterval(long pendingPayloads, long listenerNanos) {
+		long listenerMillis = listenerNanos / 1_000_000L;
+
+		if (listenerMillis * 2 > interval)
+			interval = Math.min(MAX_INTERVAL_MILLIS, interval * 2);
+		else if (pendingPayloads >= HIGH_WATERMARK)
+			interval = Math.max(MIN_INTERVAL_MILLIS, interval / 2);
+		else if (interval > DEFAULT_INTERVAL_MILLIS)
+			interval = Math.max(DEFAULT_INTERVAL_MILLIS, interval / 2);
+		else if (interval < DEFAULT_INTERVAL_MILLIS)
+			interval = Math.min(DEFAULT_INTERVAL_MILLIS, interval * 2);
+
+		return interval;
+	}
+
+	long getInterval() {
+		return interval;
+	}
+}
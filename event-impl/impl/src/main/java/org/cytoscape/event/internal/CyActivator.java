@@ -1,10 +1,16 @@
 package org.cytoscape.event.internal;
 
+import java.lang.management.ManagementFactory;
 import java.util.Properties;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.service.util.AbstractCyActivator;
 import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /*
  * #%L
@@ -32,11 +38,41 @@ import org.osgi.framework.BundleContext;
 
 public class CyActivator extends AbstractCyActivator {
 
+	private static final Logger logger = LoggerFactory.getLogger(CyActivator.class);
+	
+	private ObjectName metricsName;
+
 	@Override
 	public void start(BundleContext bc) {
 		CyListenerAdapter cyListenerAdapter = new CyListenerAdapter(bc);
 		CyEventHelperImpl cyEventHelper = new CyEventHelperImpl(cyListenerAdapter);
 
 		registerService(bc, cyEventHelper, CyEventHelper.class, new Properties());
+		registerMetrics(cyListenerAdapter.getMetrics());
+	}
+	
+	@Override
+	public void shutDown() {
+		if (metricsName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+			} catch (Exception e) {
+				logger.debug("Could not unregister event metrics", e);
+			}
+			metricsName = null;
+		}
+	}
+	
+	private void registerMetrics(EventMetrics metrics) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(EventMetrics.OBJECT_NAME);
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+			server.registerMBean(metrics, name);
+			metricsName = name;
+		} catch (Exception e) {
+			logger.warn("Could not register event metrics with the MBean server", e);
+		}
 	}
 }
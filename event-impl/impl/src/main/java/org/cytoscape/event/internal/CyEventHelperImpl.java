@@ -1,14 +1,19 @@
 package org.cytoscape.event.internal;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.cytoscape.event.CyEvent;
 import org.cytoscape.event.CyEventHelper;
@@ -40,6 +45,23 @@ import org.slf4j.LoggerFactory;
  * #L%
  */
 
+/**
+ * Payloads are accumulated per event source. Each source has its own lock, so threads
+ * adding payloads for different sources (e.g. different tables) don't contend with each
+ * other. There is no lock shared by all sources: every payload is stamped with the current
+ * flush epoch, each flush starts a new epoch and only takes the payloads of the earlier ones.
+ * A payload added while a flush is in progress is left for the next flush, even if the flush
+ * hasn't reached its source yet. Sources are flushed in the order in which the payloads a
+ * flush takes from them were first added, and the event types of a source in the order in
+ * which they were first added, just as when everything was kept in a single LinkedHashMap
+ * under a single lock. So a payload is never delivered by an earlier forced flush than the
+ * payloads the same thread added before it for other sources.
+ * <p>
+ * The delay between two background flushes is not fixed, it is chosen by an
+ * {@link AdaptiveFlushPolicy} from the number of pending payloads and the time the
+ * listeners needed to handle the previous flush. Both, as well as per event type
+ * counters, are recorded in the {@link EventMetrics} of the listener adapter.
+ */
 public class CyEventHelperImpl implements CyEventHelper {
 
 	private static final Logger logger = LoggerFactory.getLogger("org.cytoscape.application.userlog");
@@ -51,25 +73,61 @@ public class CyEventHelperImpl implements CyEventHelper {
 	private static final boolean alwaysForce = false;
 
 	private final CyListenerAdapter normal;
-	private final Map<Object, Map<Class<?>, PayloadAccumulator<?,?,?>>> sourceAccMap;
+	private final EventMetrics metrics;
+	private final AdaptiveFlushPolicy flushPolicy;
+	private final Map<Object, SourceAccumulators> sourceAccMap;
+	private final AtomicLong sourceSequence;
 	private final ScheduledExecutorService payloadEventMonitor;
 	private final Map<Object, Object> silencedSources;
+	
+	// Lets addEventPayload() skip the silencedSources lock when nothing is silenced, which is most of the time.
+	private volatile int silencedCount;
 
-	private final Object lock = new Object();
+	private final Object silenceLock = new Object();
+	
+	// Incremented by every flush before it collects, see SourceAccumulators
+	private final AtomicLong flushEpoch = new AtomicLong();
+	
+	// Only serializes the flushes, addEventPayload() never takes it
+	private final Object flushLock = new Object();
 
 	public CyEventHelperImpl(final CyListenerAdapter normal) {
 		this.normal = normal;
-		sourceAccMap = new LinkedHashMap<>();
+		metrics = normal.getMetrics();
+		flushPolicy = new AdaptiveFlushPolicy();
+		sourceAccMap = new ConcurrentHashMap<>();
+		sourceSequence = new AtomicLong();
 		payloadEventMonitor = Executors.newSingleThreadScheduledExecutor();
 		silencedSources = new WeakHashMap<>();
 		
 		// This thread just flushes any accumulated payload events.
-		// It is scheduled to run repeatedly at a fixed interval.
-		payloadEventMonitor.scheduleAtFixedRate(
-				() -> flushPayloadEvents(null, false),
-				CyEventHelper.DEFAULT_PAYLOAD_INTERVAL_MILLIS,
-				CyEventHelper.DEFAULT_PAYLOAD_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
-		);
+		// Each run schedules the next one, after a delay chosen by the flush policy.
+		scheduleFlush(flushPolicy.getInterval());
+	}
+	
+	private void scheduleFlush(long delay) {
+		try {
+			payloadEventMonitor.schedule(this::runScheduledFlush, delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// the monitor has been shut down
+		}
+	}
+	
+	private void runScheduledFlush() {
+		long next = flushPolicy.getInterval();
+		
+		try {
+			List<CyEvent<?>> flushList = new ArrayList<>();
+			long pending = collectPayloadEvents(null, flushList, false);
+			long listenerNanos = fireEvents(flushList);
+			
+			next = flushPolicy.nextInterval(pending, listenerNanos);
+			metrics.recordScheduledFlush(next);
+		} catch (Exception e) {
+			logger.warn("Unexpected exception while flushing payload events.", e);
+		} finally {
+			scheduleFlush(next);
+		}
 	}
 
 	@Override 
@@ -89,8 +147,9 @@ public class CyEventHelperImpl implements CyEventHelper {
 		logger.debug("Silencing event source: " + eventSource.toString());
 		normal.silenceEventSource(eventSource);
 
-		synchronized (lock) {
+		synchronized (silenceLock) {
 			silencedSources.put(eventSource, DUMMY);
+			silencedCount = silencedSources.size();
 		}
 	}
 
@@ -102,8 +161,18 @@ public class CyEventHelperImpl implements CyEventHelper {
 		logger.debug("Unsilencing event source: " + eventSource.toString());
 		normal.unsilenceEventSource(eventSource);
 		
-		synchronized (lock) {
+		synchronized (silenceLock) {
 			silencedSources.remove(eventSource);
+			silencedCount = silencedSources.size();
+		}
+	}
+	
+	private boolean isSilenced(Object source) {
+		if (silencedCount == 0)
+			return false;
+		
+		synchronized (silenceLock) {
+			return silencedSources.containsKey(source);
 		}
 	}
 
@@ -115,28 +184,35 @@ public class CyEventHelperImpl implements CyEventHelper {
 			return;
 		}
 		
-		synchronized (lock) {
-			if (silencedSources.containsKey(source))
-				return;
-
-			Map<Class<?>, PayloadAccumulator<?, ?, ?>> cmap = sourceAccMap.get(source);
-			if (cmap == null) {
-				cmap = new LinkedHashMap<>();
-				sourceAccMap.put(source, cmap);
-			}
+		if (isSilenced(source))
+			return;
 
-			PayloadAccumulator<S, P, E> acc = (PayloadAccumulator<S, P, E>) cmap.get(eventType);
-			if (acc == null) {
-				try {
-					acc = new PayloadAccumulator<>(source, eventType, PAYLOAD_ACCUMULATOR_LIMIT, PAYLOAD_FLUSH_CHECK_LIMIT);
-					cmap.put(eventType, acc);
-				} catch (NoSuchMethodException nsme) {
-					logger.warn("Unable to add payload to event, because of missing event constructor.", nsme);
-					return;
+		final long epoch = flushEpoch.get();
+		
+		while (true) {
+			final SourceAccumulators sacc = sourceAccMap.computeIfAbsent(source,
+					s -> new SourceAccumulators());
+			
+			synchronized (sacc) {
+				// a flush emptied and dropped it after we looked it up
+				if (sacc.removed)
+					continue;
+				
+				Map<Class<?>, PayloadAccumulator<?,?,?>> accumulators = sacc.getAccumulators(epoch, sourceSequence);
+				PayloadAccumulator<S, P, E> acc = (PayloadAccumulator<S, P, E>) accumulators.get(eventType);
+				if (acc == null) {
+					try {
+						acc = new PayloadAccumulator<>(source, eventType, PAYLOAD_ACCUMULATOR_LIMIT, PAYLOAD_FLUSH_CHECK_LIMIT);
+						accumulators.put(eventType, acc);
+					} catch (NoSuchMethodException nsme) {
+						logger.warn("Unable to add payload to event, because of missing event constructor.", nsme);
+						return;
+					}
 				}
+	
+				acc.addPayload(payload);
+				return;
 			}
-
-			acc.addPayload(payload);
 		}
 	}
 
@@ -153,52 +229,173 @@ public class CyEventHelperImpl implements CyEventHelper {
 	
 	private void flushPayloadEvents(Object oneSource, boolean force) {
 		List<CyEvent<?>> flushList = new ArrayList<>();
+		collectPayloadEvents(oneSource, flushList, force);
+
+		// Actually fire the events outside of the synchronized block.
+		fireEvents(flushList);
+	}
+	
+	/**
+	 * @return the number of payloads that were pending in the visited accumulators
+	 */
+	private long collectPayloadEvents(Object oneSource, List<CyEvent<?>> flushList, boolean force) {
+		long pending = 0;
 		
-		synchronized (lock) {
+		synchronized (flushLock) {
+			// payloads stamped with this epoch or a later one are left for the next flush
+			final long epoch = flushEpoch.incrementAndGet();
+			
 			if(oneSource != null) {
-				createPayloadEvents(oneSource, flushList, force);
+				SourceAccumulators sacc = sourceAccMap.get(oneSource);
+				if(sacc != null)
+					pending += createPayloadEvents(oneSource, sacc, flushList, force, epoch);
 			} else {
-				for(Object source : new ArrayList<>(sourceAccMap.keySet())) {
-					createPayloadEvents(source, flushList, force);
+				List<Map.Entry<Object, SourceAccumulators>> sources = new ArrayList<>(sourceAccMap.entrySet());
+				Map<SourceAccumulators, Long> orders = new HashMap<>();
+				
+				for(Map.Entry<Object, SourceAccumulators> entry : sources) {
+					orders.put(entry.getValue(), entry.getValue().release(epoch));
+				}
+				sources.sort(Comparator.comparingLong(e -> orders.get(e.getValue())));
+				
+				for(Map.Entry<Object, SourceAccumulators> entry : sources) {
+					pending += createPayloadEvents(entry.getKey(), entry.getValue(), flushList, force, epoch);
 				}
 			}
 		}
-
-		// Actually fire the events outside of the synchronized block.
+		
+		return pending;
+	}
+	
+	/**
+	 * @return the time the listeners spent handling the events, in nanoseconds
+	 */
+	private long fireEvents(List<CyEvent<?>> flushList) {
+		if(flushList.isEmpty())
+			return 0;
+		
+		long start = System.nanoTime();
 		for(CyEvent<?> event : flushList) {
 			normal.fireEvent(event);
 		}
+		return System.nanoTime() - start;
 	}
 	
 	
-	private void createPayloadEvents(Object source, List<CyEvent<?>> flushList, boolean force) {
-		Map<Class<?>, PayloadAccumulator<?,?,?>> cmap = sourceAccMap.get(source);
-		if(cmap == null)
-			return;
+	private int createPayloadEvents(Object source, SourceAccumulators sacc, List<CyEvent<?>> flushList, boolean force, long epoch) {
+		int pending = 0;
 		
-		Iterator<PayloadAccumulator<?,?,?>> iter = cmap.values().iterator();
-		while(iter.hasNext()) {
-			PayloadAccumulator<?,?,?> acc = iter.next();
+		synchronized (sacc) {
+			sacc.release(epoch);
 			
-			if(alwaysForce || force || acc.checkReady()) {
-				try {
-					CyEvent<?> event = acc.newEventInstance();
-					if (event != null)
-						flushList.add(event);
-				} catch (Exception ie) {
-					logger.warn("Couldn't instantiate event for source: " + acc.getSource(), ie);
+			Iterator<PayloadAccumulator<?,?,?>> iter = sacc.accumulators.values().iterator();
+			while(iter.hasNext()) {
+				PayloadAccumulator<?,?,?> acc = iter.next();
+				int size = acc.size();
+				pending += size;
+				
+				if(alwaysForce || force || acc.checkReady()) {
+					try {
+						long pendingSince = acc.getPendingSince();
+						CyEvent<?> event = acc.newEventInstance();
+						if (event != null) {
+							metrics.recordFlushedPayloads(event.getClass(), size, System.nanoTime() - pendingSince);
+							flushList.add(event);
+						}
+					} catch (Exception ie) {
+						logger.warn("Couldn't instantiate event for source: " + acc.getSource(), ie);
+					}
+					iter.remove();
 				}
-				iter.remove();
+			}
+			
+			// prevent memory leak, often networks and tables are used as event sources
+			if(sacc.isEmpty()) {
+				sacc.removed = true;
+				sourceAccMap.remove(source, sacc);
 			}
 		}
 		
-		// prevent memory leak, often networks and tables are used as event sources
-		if(cmap.isEmpty()) {
-			sourceAccMap.remove(source);
+		return pending;
+	}
+	
+	
+	/**
+	 * The payload accumulators of a single event source, guarded by its own monitor,
+	 * which the callers hold except for {@link #release(long)}. The payloads of the latest epoch are kept apart from the older ones, which are
+	 * the only ones a flush running in that epoch may take.
+	 */
+	private static final class SourceAccumulators {
+		
+		final Map<Class<?>, PayloadAccumulator<?,?,?>> accumulators = new LinkedHashMap<>();
+		Map<Class<?>, PayloadAccumulator<?,?,?>> latest = new LinkedHashMap<>();
+		long latestEpoch;
+		boolean removed;
+		
+		// when the first payload of each map was added, from the sequence shared by all sources
+		long order;
+		long latestOrder;
+		
+		/**
+		 * @return the accumulators for payloads added in the given epoch
+		 */
+		Map<Class<?>, PayloadAccumulator<?,?,?>> getAccumulators(long epoch, AtomicLong sequence) {
+			if (epoch < latestEpoch) {
+				if (accumulators.isEmpty())
+					order = sequence.getAndIncrement();
+				return accumulators;
+			}
+			
+			if (epoch > latestEpoch) {
+				mergeLatest();
+				latestEpoch = epoch;
+			}
+			
+			if (latest.isEmpty())
+				latestOrder = sequence.getAndIncrement();
+			return latest;
+		}
+		
+		/**
+		 * Makes the payloads added before the given epoch available to its flush.
+		 * @return the position of this source in that flush
+		 */
+		synchronized long release(long epoch) {
+			if (latestEpoch < epoch)
+				mergeLatest();
+			
+			return accumulators.isEmpty() ? Long.MAX_VALUE : order;
+		}
+		
+		boolean isEmpty() {
+			return accumulators.isEmpty() && latest.isEmpty();
+		}
+		
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void mergeLatest() {
+			if (latest.isEmpty())
+				return;
+			
+			if (accumulators.isEmpty())
+				order = latestOrder;
+			
+			for (Map.Entry<Class<?>, PayloadAccumulator<?,?,?>> entry : latest.entrySet()) {
+				PayloadAccumulator older = accumulators.get(entry.getKey());
+				if (older == null)
+					accumulators.put(entry.getKey(), entry.getValue());
+				else
+					older.addPayloads(entry.getValue());
+			}
+			
+			latest = new LinkedHashMap<>();
 		}
 	}
 	
 
+	EventMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/** 
 	 * Used only for unit testing to prevent the confusion of multiple threads running at once.
 	 */
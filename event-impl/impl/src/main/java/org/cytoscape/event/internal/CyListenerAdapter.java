@@ -50,6 +50,7 @@ public class CyListenerAdapter {
 	private final Map<Class<?>,ServiceTracker> serviceTrackers; 
 	private final BundleContext bc;
 	private final Map<Object, Object> silencedSources;
+	private final EventMetrics metrics;
 	private final StringBuilder traceString; 
 	private final boolean printEventTrace;
 	private int fireCount;
@@ -65,6 +66,7 @@ public class CyListenerAdapter {
 		this.bc = bc;
 		serviceTrackers = new ConcurrentHashMap<Class<?>,ServiceTracker>(16, 0.75f, 2);
 		silencedSources = new WeakHashMap<Object, Object>();
+		metrics = new EventMetrics();
 
 		// used only for printing a coherent event trace
 		fireCount = 0;
@@ -103,6 +105,8 @@ public class CyListenerAdapter {
 			printTrace(fireCount,"EVENT START: " + event.getClass().getName());
 		}
 		
+		final long start = System.nanoTime();
+		
 		try {
 			final Method method = listenerClass.getMethod("handleEvent", event.getClass());
 
@@ -131,6 +135,8 @@ public class CyListenerAdapter {
 			logger.error("Listener doesn't implement \"handleEvent\" method: "
 				     + listenerClass.getName(), e);
 		}
+		
+		metrics.recordFiredEvent(event.getClass(), System.nanoTime() - start);
 
 		if ( printEventTrace ) {
 			printTrace(fireCount,"EVENT END  : " + event.getClass().getName());
@@ -138,6 +144,14 @@ public class CyListenerAdapter {
 		}
 	}
 
+	/**
+	 * Returns the counters of the events fired through this adapter and of the payload
+	 * events accumulated by the {@link CyEventHelperImpl} using it.
+	 */
+	EventMetrics getMetrics() {
+		return metrics;
+	}
+
 	private Object[] getListeners(Class<?> listenerClass) {
 		ServiceTracker tracker = serviceTrackers.get(listenerClass);
 		if ( tracker == null ) {
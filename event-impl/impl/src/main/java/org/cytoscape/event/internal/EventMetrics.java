@@ -0,0 +1,125 @@
+package org.cytoscape.event.internal;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+/**
+ * Counters of the event pipeline, kept per event type. Recording only touches
+ * {@link LongAdder}s, so it is cheap enough to be always on.
+ */
+public class EventMetrics implements EventMetricsMXBean {
+
+	static final String OBJECT_NAME = "org.cytoscape:type=EventMetrics";
+
+	private final Map<Class<?>, TypeCounters> counters = new ConcurrentHashMap<>();
+	private final LongAdder scheduledFlushes = new LongAdder();
+	private volatile long payloadInterval = AdaptiveFlushPolicy.DEFAULT_INTERVAL_MILLIS;
+
+	void recordFlushedPayloads(Class<?> eventType, int payloads, long latencyNanos) {
+		TypeCounters c = getCounters(eventType);
+		c.payloads.add(payloads);
+		c.flushes.increment();
+		c.flushLatencyNanos.add(latencyNanos);
+	}
+
+	void recordFiredEvent(Class<?> eventType, long listenerNanos) {
+		TypeCounters c = getCounters(eventType);
+		c.events.increment();
+		c.listenerNanos.add(listenerNanos);
+	}
+
+	void recordScheduledFlush(long nextInterval) {
+		scheduledFlushes.increment();
+		payloadInterval = nextInterval;
+	}
+
+	private TypeCounters getCounters(Class<?> eventType) {
+		TypeCounters c = counters.get(eventType);
+		return c != null ? c : counters.computeIfAbsent(eventType, t -> new TypeCounters());
+	}
+
+	@Override
+	public Map<String, Long> getPayloadsFlushed() {
+		return collect(c -> c.payloads.sum());
+	}
+
+	@Override
+	public Map<String, Long> getEventsFired() {
+		return collect(c -> c.events.sum());
+	}
+
+	@Override
+	public Map<String, Long> getListenerTimeMicros() {
+		return collect(c -> c.listenerNanos.sum() / 1000L);
+	}
+
+	@Override
+	public Map<String, Double> getAverageFlushLatencyMillis() {
+		Map<String, Double> map = new TreeMap<>();
+		counters.forEach((type, c) -> {
+			long flushes = c.flushes.sum();
+			if (flushes > 0)
+				map.put(type.getName(), c.flushLatencyNanos.sum() / 1e6 / flushes);
+		});
+		return map;
+	}
+
+	@Override
+	public long getScheduledFlushCount() {
+		return scheduledFlushes.sum();
+	}
+
+	@Override
+	public long getPayloadIntervalMillis() {
+		return payloadInterval;
+	}
+
+	@Override
+	public void reset() {
+		counters.clear();
+		scheduledFlushes.reset();
+	}
+
+	private Map<String, Long> collect(ToLongFunction<TypeCounters> value) {
+		Map<String, Long> map = new TreeMap<>();
+		counters.forEach((type, c) -> map.put(type.getName(), value.applyAsLong(c)));
+		return map;
+	}
+
+	private static final class TypeCounters {
+		final LongAdder payloads = new LongAdder();
+		final LongAdder flushes = new LongAdder();
+		final LongAdder flushLatencyNanos = new LongAdder();
+		final LongAdder events = new LongAdder();
+		final LongAdder listenerNanos = new LongAdder();
+	}
+}
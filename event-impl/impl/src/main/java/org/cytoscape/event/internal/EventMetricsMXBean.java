@@ -0,0 +1,58 @@
+package org.cytoscape.event.internal;
+
+import java.util.Map;
+
+
+/*
+ * #%L
+ * Cytoscape Event Impl (event-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+/**
+ * Management interface of the event pipeline counters, registered with the platform
+ * MBean server as {@value EventMetrics#OBJECT_NAME}. All maps are keyed by the fully
+ * qualified name of the event class.
+ */
+public interface EventMetricsMXBean {
+
+	/** Number of payloads that were delivered in payload events, per event type. */
+	Map<String, Long> getPayloadsFlushed();
+
+	/** Number of events handed to the listeners, per event type. */
+	Map<String, Long> getEventsFired();
+
+	/** Total time the listeners spent handling events, in microseconds, per event type. */
+	Map<String, Long> getListenerTimeMicros();
+
+	/** Average time from the first payload being queued until its event is created, in milliseconds, per event type. */
+	Map<String, Double> getAverageFlushLatencyMillis();
+
+	/** Number of flushes run by the payload monitor. */
+	long getScheduledFlushCount();
+
+	/** Delay the payload monitor currently waits between flushes, in milliseconds. */
+	long getPayloadIntervalMillis();
+
+	/** Clears all counters. */
+	void reset();
+}
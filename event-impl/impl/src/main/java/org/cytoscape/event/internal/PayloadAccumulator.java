@@ -45,6 +45,7 @@ class PayloadAccumulator<S, P, E extends CyPayloadEvent<S, P>> {
 	
 	private boolean ready = true;
 	private int checkedCount = 0;
+	private long pendingSince;
 
 	private final Object lock = new Object();
 
@@ -76,11 +77,37 @@ class PayloadAccumulator<S, P, E extends CyPayloadEvent<S, P>> {
 		synchronized (lock) {
 			if (t != null) {
 				ready = false;
+				if (payloadList.isEmpty())
+					pendingSince = System.nanoTime();
 				payloadList.add(t);
 			}
 		}
 	}
 
+	/**
+	 * Moves the payloads of the given accumulator behind the ones of this accumulator.
+	 */
+	void addPayloads(PayloadAccumulator<S, P, E> other) {
+		List<P> payloads;
+		long since;
+		
+		synchronized (other.lock) {
+			payloads = other.payloadList;
+			since = other.pendingSince;
+			other.payloadList = new ArrayList<P>();
+		}
+		
+		if (payloads.isEmpty())
+			return;
+		
+		synchronized (lock) {
+			ready = false;
+			if (payloadList.isEmpty())
+				pendingSince = since;
+			payloadList.addAll(payloads);
+		}
+	}
+
 	boolean checkReady() {
 		synchronized (lock) {
 			if(++checkedCount >= maxChecked) {
@@ -100,6 +127,21 @@ class PayloadAccumulator<S, P, E extends CyPayloadEvent<S, P>> {
 		}
 	}
 
+	int size() {
+		synchronized (lock) {
+			return payloadList.size();
+		}
+	}
+
+	/**
+	 * Returns the {@link System#nanoTime()} at which the oldest pending payload was added.
+	 */
+	long getPendingSince() {
+		synchronized (lock) {
+			return pendingSince;
+		}
+	}
+
 	Object getSource() {
 		return source;
 	}
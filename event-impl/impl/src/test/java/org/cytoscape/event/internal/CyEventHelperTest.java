@@ -1,15 +1,32 @@
 package org.cytoscape.event.internal;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.cytoscape.event.CyEvent;
+import org.cytoscape.event.CyPayloadEvent;
+
 import org.cytoscape.event.AbstractCyEventHelperTest;
 import org.cytoscape.event.FakeCyListener;
 import org.cytoscape.event.StubCyListener;
 import org.cytoscape.event.StubCyListenerImpl;
+import org.cytoscape.event.StubCyPayloadEvent;
 import org.cytoscape.event.StubCyPayloadListener;
 import org.cytoscape.event.StubCyPayloadListenerImpl;
 import org.cytoscape.event.internal.CyEventHelperImpl;
 import org.cytoscape.event.internal.CyListenerAdapter;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -103,4 +120,194 @@ public class CyEventHelperTest extends AbstractCyEventHelperTest {
 	public void cleanup() {
 		helperImpl.cleanup();
 	}
+	
+	@Test
+	public void testMetricsCountPayloadsAndEvents() {
+		EventMetrics metrics = helperImpl.getMetrics();
+		metrics.reset();
+		
+		helper.addEventPayload("source", "homer", StubCyPayloadEvent.class);
+		helper.addEventPayload("source", "marge", StubCyPayloadEvent.class);
+		helper.addEventPayload("source", "bart", StubCyPayloadEvent.class);
+		helper.flushPayloadEvents();
+		
+		String type = StubCyPayloadEvent.class.getName();
+		assertEquals(Long.valueOf(3), metrics.getPayloadsFlushed().get(type));
+		assertEquals(Long.valueOf(1), metrics.getEventsFired().get(type));
+		
+		Map<String, Double> latency = metrics.getAverageFlushLatencyMillis();
+		assertTrue(latency.get(type) >= 0.0);
+		
+		metrics.reset();
+		assertTrue(metrics.getPayloadsFlushed().isEmpty());
+	}
+	
+	@Test
+	public void testAdaptiveFlushPolicy() {
+		AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy();
+		final long def = AdaptiveFlushPolicy.DEFAULT_INTERVAL_MILLIS;
+		assertEquals(def, policy.getInterval());
+		
+		// nothing special happening, the interval stays at the default
+		assertEquals(def, policy.nextInterval(10, 0));
+		
+		// deep queue, flush more often, but never below the minimum
+		assertEquals(Math.max(AdaptiveFlushPolicy.MIN_INTERVAL_MILLIS, def / 2), policy.nextInterval(AdaptiveFlushPolicy.HIGH_WATERMARK, 0));
+		for (int i = 0; i < 10; i++)
+			policy.nextInterval(AdaptiveFlushPolicy.HIGH_WATERMARK, 0);
+		assertEquals(AdaptiveFlushPolicy.MIN_INTERVAL_MILLIS, policy.getInterval());
+		
+		// back to normal, the interval recovers to the default
+		for (int i = 0; i < 10; i++)
+			policy.nextInterval(0, 0);
+		assertEquals(def, policy.getInterval());
+		
+		// slow listeners, batch more, but never above the maximum
+		final long slow = AdaptiveFlushPolicy.MAX_INTERVAL_MILLIS * 1_000_000L;
+		assertEquals(def * 2, policy.nextInterval(0, slow));
+		for (int i = 0; i < 10; i++)
+			policy.nextInterval(AdaptiveFlushPolicy.HIGH_WATERMARK, slow);
+		assertEquals(AdaptiveFlushPolicy.MAX_INTERVAL_MILLIS, policy.getInterval());
+		
+		for (int i = 0; i < 10; i++)
+			policy.nextInterval(0, 0);
+		assertEquals(def, policy.getInterval());
+	}
+	
+	@Test
+	public void testFlushOrderOfSources() {
+		RecordingListenerAdapter adapter = new RecordingListenerAdapter(bc);
+		CyEventHelperImpl eh = new CyEventHelperImpl(adapter);
+		
+		try {
+			eh.addEventPayload("first", "homer", StubCyPayloadEvent.class);
+			eh.addEventPayload("second", "marge", StubCyPayloadEvent.class);
+			eh.addEventPayload("first", "bart", StubCyPayloadEvent.class);
+			eh.flushPayloadEvents();
+			
+			assertEquals(2, adapter.events.size());
+			assertEquals("first", adapter.events.get(0).getSource());
+			assertEquals(Arrays.asList("homer", "bart"), new ArrayList<>(((CyPayloadEvent<?,?>) adapter.events.get(0)).getPayloadCollection()));
+			assertEquals("second", adapter.events.get(1).getSource());
+			
+			// a source that was flushed goes to the back of the line
+			eh.addEventPayload("second", "lisa", StubCyPayloadEvent.class);
+			eh.addEventPayload("first", "maggie", StubCyPayloadEvent.class);
+			eh.flushPayloadEvents();
+			
+			assertEquals(4, adapter.events.size());
+			assertEquals("second", adapter.events.get(2).getSource());
+			assertEquals("first", adapter.events.get(3).getSource());
+		} finally {
+			eh.cleanup();
+		}
+	}
+	
+	@Test
+	public void testConcurrentPayloadsFromSeveralSources() throws Exception {
+		final int sourceCount = 4;
+		final int payloadCount = 20000;
+		
+		RecordingListenerAdapter adapter = new RecordingListenerAdapter(bc);
+		CyEventHelperImpl eh = new CyEventHelperImpl(adapter);
+		// only the forced flushes below, the background ones fire concurrently and may leave payloads behind
+		eh.cleanup();
+		
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			AtomicBoolean done = new AtomicBoolean();
+			List<Thread> adders = new ArrayList<>();
+			
+			for (int t = 0; t < sourceCount; t++) {
+				final String source = "source" + t;
+				Thread adder = new Thread(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					// every thread alternates between two sources of its own, a flush must never
+					// deliver a payload of one of them before the ones added earlier for the other
+					for (int i = 0; i < payloadCount; i++) {
+						eh.addEventPayload(source, i, StubCyPayloadEvent.class);
+						eh.addEventPayload(source + "-after", i, StubCyPayloadEvent.class);
+					}
+				});
+				adders.add(adder);
+				adder.start();
+			}
+			
+			// number of events fired at the end of each flush
+			List<Integer> flushEnds = new ArrayList<>();
+			Thread flusher = new Thread(() -> {
+				while (!done.get()) {
+					eh.flushPayloadEvents();
+					flushEnds.add(adapter.events.size());
+				}
+			});
+			flusher.start();
+			
+			start.countDown();
+			for (Thread adder : adders)
+				adder.join();
+			done.set(true);
+			flusher.join();
+			eh.flushPayloadEvents();
+			flushEnds.add(adapter.events.size());
+			
+			// event index at which each payload was delivered, per source
+			Map<Object, List<Integer>> delivered = new HashMap<>();
+			for (int e = 0; e < adapter.events.size(); e++) {
+				CyPayloadEvent<?,?> event = (CyPayloadEvent<?,?>) adapter.events.get(e);
+				List<Integer> indices = delivered.computeIfAbsent(event.getSource(), s -> new ArrayList<>());
+				for (Object payload : event.getPayloadCollection()) {
+					// every payload exactly once and in the order it was added
+					assertEquals(Integer.valueOf(indices.size()), payload);
+					indices.add(e);
+				}
+			}
+			
+			for (int t = 0; t < sourceCount; t++) {
+				List<Integer> first = delivered.get("source" + t);
+				List<Integer> after = delivered.get("source" + t + "-after");
+				assertEquals(payloadCount, first.size());
+				assertEquals(payloadCount, after.size());
+				
+				for (int i = 0; i < payloadCount; i++) {
+					assertTrue(flushOf(first.get(i), flushEnds) <= flushOf(after.get(i), flushEnds));
+					if (i + 1 < payloadCount)
+						assertTrue(flushOf(after.get(i), flushEnds) <= flushOf(first.get(i + 1), flushEnds));
+				}
+			}
+		} finally {
+			eh.cleanup();
+		}
+	}
+	
+	private static int flushOf(int event, List<Integer> flushEnds) {
+		int flush = Collections.binarySearch(flushEnds, event + 1);
+		
+		// several flushes may end at the same event, take the first one
+		if (flush >= 0) {
+			while (flush > 0 && flushEnds.get(flush - 1) == event + 1)
+				flush--;
+			return flush;
+		}
+		
+		return -flush - 1;
+	}
+	
+	private static class RecordingListenerAdapter extends CyListenerAdapter {
+		
+		final List<CyEvent<?>> events = Collections.synchronizedList(new ArrayList<>());
+		
+		RecordingListenerAdapter(BundleContext bc) {
+			super(bc);
+		}
+		
+		@Override
+		public <E extends CyEvent<?>> void fireEvent(E event) {
+			events.add(event);
+		}
+	}
 }
@@ -0,0 +1,129 @@
+package org.cytoscape.event.internal;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cytoscape.event.AbstractCyPayloadEvent;
+import org.cytoscape.event.CyEvent;
+import org.cytoscape.event.CyListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * Cytoscape Event Impl Performance (event-impl-performance)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Measures the throughput of CyEventHelperImpl.addEventPayload() when several threads
+ * add payloads at once, either all to the same source (e.g. one big table) or each
+ * to its own source (e.g. several tables being written in parallel).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Helper {
+		
+		CyEventHelperImpl eventHelper;
+		
+		@Setup(Level.Trial)
+		public void setUp() {
+			// No listeners are registered, we only want to measure the accumulation
+			eventHelper = new CyEventHelperImpl(new CyListenerAdapter(null) {
+				@Override
+				public <E extends CyEvent<?>> void fireEvent(E event) {
+				}
+			});
+		}
+		
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			eventHelper.cleanup();
+		}
+	}
+	
+	@State(Scope.Thread)
+	public static class Source {
+		
+		private static final Object SHARED_SOURCE = new Object();
+		private static final AtomicInteger counter = new AtomicInteger();
+		
+		@Param({ "true", "false" })
+		public boolean sharedSource;
+		
+		Object source;
+		int payload;
+		
+		@Setup(Level.Trial)
+		public void setUp() {
+			source = sharedSource ? SHARED_SOURCE : "source " + counter.incrementAndGet();
+		}
+	}
+	
+	@Benchmark
+	public void addEventPayload(Helper helper, Source source) {
+		helper.eventHelper.addEventPayload(source.source, source.payload++, BenchmarkEvent.class);
+	}
+	
+	
+	public interface BenchmarkListener extends CyListener {
+		void handleEvent(BenchmarkEvent e);
+	}
+	
+	public static class BenchmarkEvent extends AbstractCyPayloadEvent<Object, Integer> {
+		public BenchmarkEvent(Object source, Collection<Integer> payload) {
+			super(source, BenchmarkListener.class, payload);
+		}
+	}
+	
+	
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : new int[] { 1, 2, 4, 8, 16 }) {
+			Options opt = new OptionsBuilder()
+					.include(PayloadBenchmark.class.getSimpleName())
+					.threads(threads)
+					.build();
+			new Runner(opt).run();
+		}
+	}
+}
@@ -62,6 +62,8 @@ public class BitmapWriter extends AbstractTask implements CyWriter {
 	private static final String PIXELS = "pixels";
 	private static final String INCHES = "inches";
 	
+	private static final Set<String> TILED_FORMATS = Set.of("png", "tif", "tiff");
+	
 	protected Map<String,String> renderProps = new HashMap<>();
 	
 	@Tunable(
@@ -85,6 +87,17 @@ public class BitmapWriter extends AbstractTask implements CyWriter {
 	public boolean hideLabels;
 	
 	
+	@Tunable(
+			description = "Render Large Images in Parallel:",
+			longDescription = "If true, very large PNG and TIFF images, which are rendered one tile at a time, "
+					+ "are rendered using several threads. This is faster but uses more memory.",
+			exampleStringValue = "false",
+			groups = { "_Others" },
+			gravity = 2.3
+	)
+	public boolean parallelTiles;
+	
+	
 	@ProvidesTitle
 	public String getTitle() {
 		return "Image Parameters";
@@ -307,6 +320,11 @@ public class BitmapWriter extends AbstractTask implements CyWriter {
 	}
 	
 	private void writeImage(TaskMonitor tm) throws Exception {
+		if (isTiled()) {
+			writeTiledImage(tm);
+			return;
+		}
+		
 		final BufferedImage image = new BufferedImage(widthInPixels, heightInPixels, getImageType());
 		
 		final Graphics2D g = (Graphics2D) image.getGraphics();
@@ -328,6 +346,29 @@ public class BitmapWriter extends AbstractTask implements CyWriter {
 	}
 	
 	
+	/**
+	 * Images that would take too much memory are rendered and written one band of rows at a time.
+	 * Only the PNG and TIFF writers request the pixels in rows, the other formats need the whole image.
+	 */
+	private boolean isTiled() {
+		return (long) widthInPixels * heightInPixels > TiledNetworkImage.BAND_PIXELS
+				&& TILED_FORMATS.contains(extension.toLowerCase());
+	}
+	
+	private void writeTiledImage(TaskMonitor tm) throws Exception {
+		renderProps.put("exportTile", "true");
+		final int threads = parallelTiles ? Math.max(1, Runtime.getRuntime().availableProcessors() - 1) : 1;
+		final double scale = zoom.getValue() / 100.0;
+		
+		try (var image = new TiledNetworkImage(re, renderProps, widthInPixels, heightInPixels, scale, getImageType(),
+				TiledNetworkImage.BAND_PIXELS, threads, tm)) {
+			tm.setStatusMessage("Writing " + extension + " (" + image.getNumYTiles() + " tiles)...");
+			ImageIO.write(image, extension, outStream);
+		} finally {
+			outStream.close();
+		}
+	}
+	
 	protected int getImageType() {
 		return BufferedImage.TYPE_INT_RGB;
 	}
@@ -0,0 +1,291 @@
+package org.cytoscape.io.internal.write.graphics;
+
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cytoscape.view.presentation.RenderingEngine;
+import org.cytoscape.work.TaskMonitor;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * An image of the network that is rendered one horizontal band at a time, when an image writer asks for its pixels.
+ * <p>
+ * The PNG and TIFF writers of ImageIO request the pixels a few rows at a time from top to bottom,
+ * so only the band being written (plus the bands rendered ahead of it) are ever in memory.
+ * Bands above the rows requested last are dropped, asking for them again renders them again.
+ */
+class TiledNetworkImage implements RenderedImage, AutoCloseable {
+
+	// Default max number of pixels of a band, 64MB for an ARGB image
+	static final int BAND_PIXELS = 1 << 24;
+
+	private final RenderingEngine<?> re;
+	private final Map<String,String> renderProps;
+	private final int width;
+	private final int height;
+	private final int bandHeight;
+	private final int bandCount;
+	private final int imageType;
+	private final double scale;
+	private final ColorModel colorModel;
+	private final SampleModel sampleModel;
+	private final TaskMonitor tm;
+
+	// null when the bands are rendered by the thread that writes the image
+	private final ExecutorService executor;
+	private final int renderAhead;
+
+	// Bands that are rendered or being rendered, by index
+	private final Map<Integer,Future<BufferedImage>> bands = new HashMap<>();
+
+
+	/**
+	 * @param renderProps passed to {@link RenderingEngine#printCanvas(java.awt.Graphics, Map)} for each band,
+	 *        must not be modified while the image is written
+	 * @param bandPixels max number of pixels of a band, usually {@link #BAND_PIXELS}
+	 * @param threads number of bands to render in parallel, 1 renders them on the thread that writes the image
+	 */
+	TiledNetworkImage(RenderingEngine<?> re, Map<String,String> renderProps, int width, int height, double scale,
+			int imageType, int bandPixels, int threads, TaskMonitor tm) {
+		this.re = re;
+		this.renderProps = renderProps;
+		this.width = width;
+		this.height = height;
+		this.scale = scale;
+		this.imageType = imageType;
+		this.tm = tm;
+
+		this.bandHeight = Math.max(1, Math.min(height, bandPixels / width));
+		this.bandCount = (height + bandHeight - 1) / bandHeight;
+
+		var prototype = new BufferedImage(1, 1, imageType);
+		this.colorModel = prototype.getColorModel();
+		this.sampleModel = prototype.getSampleModel().createCompatibleSampleModel(width, bandHeight);
+
+		if(threads > 1) {
+			var count = new AtomicInteger();
+			this.executor = Executors.newFixedThreadPool(threads, r -> {
+				var thread = new Thread(r, "image-tile-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.renderAhead = threads;
+		} else {
+			this.executor = null;
+			this.renderAhead = 0;
+		}
+	}
+
+
+	private BufferedImage renderBand(int index) {
+		int y = index * bandHeight;
+		int h = Math.min(bandHeight, height - y);
+
+		var band = new BufferedImage(width, h, imageType);
+		var g = band.createGraphics();
+		g.translate(0, -y);
+		g.clipRect(0, y, width, h);
+		g.scale(scale, scale);
+		re.printCanvas(g, renderProps);
+		g.dispose();
+
+		return band;
+	}
+
+	private BufferedImage getBand(int index, int firstNeeded) {
+		bands.keySet().removeIf(b -> b < firstNeeded);
+
+		for(int b = index; b <= Math.min(bandCount - 1, index + renderAhead); b++) {
+			if(!bands.containsKey(b)) {
+				final int i = b;
+				if(executor == null)
+					bands.put(b, CompletableFuture.completedFuture(renderBand(i)));
+				else
+					bands.put(b, executor.submit(() -> renderBand(i)));
+			}
+		}
+
+		try {
+			var band = bands.get(index).get();
+			tm.setProgress((double) Math.min(height, (index + 1) * bandHeight) / height);
+			return band;
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while rendering the image", e);
+		} catch(ExecutionException e) {
+			throw new IllegalStateException("Could not render the image", e.getCause());
+		}
+	}
+
+	@Override
+	public WritableRaster copyData(WritableRaster raster) {
+		if(raster == null)
+			raster = createRaster(new Rectangle(0, 0, width, height));
+
+		var rect = raster.getBounds().intersection(new Rectangle(0, 0, width, height));
+		if(rect.isEmpty())
+			return raster;
+
+		int first = rect.y / bandHeight;
+		int last  = (rect.y + rect.height - 1) / bandHeight;
+		for(int b = first; b <= last; b++) {
+			var band = getBand(b, first);
+			int bandY = b * bandHeight;
+			var r = rect.intersection(new Rectangle(0, bandY, width, band.getHeight()));
+			var src = band.getRaster().createChild(r.x, r.y - bandY, r.width, r.height, r.x, r.y, null);
+			raster.setDataElements(0, 0, src);
+		}
+		return raster;
+	}
+
+	@Override
+	public Raster getData(Rectangle rect) {
+		return copyData(createRaster(rect));
+	}
+
+	@Override
+	public Raster getData() {
+		return getData(new Rectangle(0, 0, width, height));
+	}
+
+	@Override
+	public Raster getTile(int tileX, int tileY) {
+		return getData(new Rectangle(0, tileY * bandHeight, width, Math.min(bandHeight, height - tileY * bandHeight)));
+	}
+
+	private WritableRaster createRaster(Rectangle rect) {
+		return Raster.createWritableRaster(sampleModel.createCompatibleSampleModel(rect.width, rect.height), new Point(rect.x, rect.y));
+	}
+
+	@Override
+	public void close() {
+		if(executor != null)
+			executor.shutdownNow();
+		bands.clear();
+	}
+
+
+	@Override
+	public Vector<RenderedImage> getSources() {
+		return null;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return Image.UndefinedProperty;
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return null;
+	}
+
+	@Override
+	public ColorModel getColorModel() {
+		return colorModel;
+	}
+
+	@Override
+	public SampleModel getSampleModel() {
+		return sampleModel;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public int getMinX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinY() {
+		return 0;
+	}
+
+	@Override
+	public int getNumXTiles() {
+		return 1;
+	}
+
+	@Override
+	public int getNumYTiles() {
+		return bandCount;
+	}
+
+	@Override
+	public int getMinTileX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinTileY() {
+		return 0;
+	}
+
+	@Override
+	public int getTileWidth() {
+		return width;
+	}
+
+	@Override
+	public int getTileHeight() {
+		return bandHeight;
+	}
+
+	@Override
+	public int getTileGridXOffset() {
+		return 0;
+	}
+
+	@Override
+	public int getTileGridYOffset() {
+		return 0;
+	}
+}
@@ -0,0 +1,108 @@
+package org.cytoscape.io.internal.write.graphics;
+
+/*
+ * #%L
+ * Cytoscape IO Impl (io-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.cytoscape.view.presentation.RenderingEngine;
+import org.cytoscape.work.TaskMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TiledNetworkImageTest {
+
+	private static final int WIDTH = 300;
+	private static final int HEIGHT = 500;
+	private static final double SCALE = 1.5;
+
+	private RenderingEngine<?> re;
+
+	@Before
+	public void init() {
+		re = mock(RenderingEngine.class);
+		doAnswer(invocation -> {
+			Graphics2D g = invocation.getArgument(0);
+			g.setColor(Color.WHITE);
+			g.fillRect(0, 0, WIDTH, HEIGHT);
+			g.setColor(Color.RED);
+			g.fillOval(10, 20, 150, 280);
+			g.setColor(Color.BLUE);
+			g.drawLine(0, 0, 200, 330);
+			return null;
+		}).when(re).printCanvas(any(Graphics.class), any());
+	}
+
+	@Test
+	public void testPNG() throws Exception {
+		assertSameAsFullImage("png", 1);
+	}
+
+	@Test
+	public void testTIFF() throws Exception {
+		assertSameAsFullImage("tif", 1);
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		assertSameAsFullImage("png", 3);
+	}
+
+	private void assertSameAsFullImage(String format, int threads) throws Exception {
+		var expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		var g = expected.createGraphics();
+		g.scale(SCALE, SCALE);
+		re.printCanvas(g, null);
+		g.dispose();
+
+		var out = new ByteArrayOutputStream();
+		// 64 rows per band
+		try(var image = new TiledNetworkImage(re, Map.of(), WIDTH, HEIGHT, SCALE, BufferedImage.TYPE_INT_ARGB, WIDTH * 64, threads, mock(TaskMonitor.class))) {
+			assertEquals(8, image.getNumYTiles());
+			ImageIO.write(image, format, out);
+		}
+
+		var actual = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(WIDTH, actual.getWidth());
+		assertEquals(HEIGHT, actual.getHeight());
+		for(int y = 0; y < HEIGHT; y++) {
+			for(int x = 0; x < WIDTH; x++) {
+				assertEquals("pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package org.cytoscape.model.internal;
+
+/*
+ * #%L
+ * Cytoscape Model Impl (model-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+
+/**
+ * An immutable, primitive, compressed sparse row (CSR) view of the topology
+ * of a {@link SimpleNetwork} at a given point in time.
+ * <p>
+ * Nodes and edges are assigned dense indices (0 to count-1). For every node
+ * <code>i</code> the incident edges and the corresponding neighbors are found in
+ * <code>getAdjacentEdges()</code> and <code>getNeighbors()</code> between
+ * <code>getOffsets()[i]</code> (inclusive) and <code>getOffsets()[i+1]</code>
+ * (exclusive). Every edge is listed once for its source and once for its
+ * target, except self-edges, which are only listed once. The direction of an
+ * edge can be checked with the <code>getEdgeSources()</code>,
+ * <code>getEdgeTargets()</code> and <code>getEdgeDirected()</code> arrays.
+ * <p>
+ * The arrays returned by this class are shared and must not be modified.
+ */
+public final class CompressedTopology {
+
+	private final long version;
+
+	private final long[] nodeSuids;
+	private final long[] edgeSuids;
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+	private final boolean[] edgeDirected;
+
+	private final int[] offsets;
+	private final int[] neighbors;
+	private final int[] adjacentEdges;
+
+	private final Long2IntOpenHashMap nodeIndices;
+	private final Long2IntOpenHashMap edgeIndices;
+
+	private CompressedTopology(
+			final long version,
+			final long[] nodeSuids,
+			final long[] edgeSuids,
+			final int[] edgeSources,
+			final int[] edgeTargets,
+			final boolean[] edgeDirected,
+			final int[] offsets,
+			final int[] neighbors,
+			final int[] adjacentEdges,
+			final Long2IntOpenHashMap nodeIndices,
+			final Long2IntOpenHashMap edgeIndices
+	) {
+		this.version = version;
+		this.nodeSuids = nodeSuids;
+		this.edgeSuids = edgeSuids;
+		this.edgeSources = edgeSources;
+		this.edgeTargets = edgeTargets;
+		this.edgeDirected = edgeDirected;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.adjacentEdges = adjacentEdges;
+		this.nodeIndices = nodeIndices;
+		this.edgeIndices = edgeIndices;
+	}
+
+	/**
+	 * IMPORTANT: the caller must hold the network's lock while this runs.
+	 */
+	static CompressedTopology build(final NodePointer firstNode, final int nodeCount, final int edgeCount,
+			final long version) {
+		final long[] nodeSuids = new long[nodeCount];
+		final Long2IntOpenHashMap nodeIndices = new Long2IntOpenHashMap(nodeCount);
+		nodeIndices.defaultReturnValue(-1);
+
+		NodePointer node = firstNode;
+		for (int i = 0; i < nodeCount; i++) {
+			nodeSuids[i] = node.index;
+			nodeIndices.put(node.index, i);
+			node = node.nextNode;
+		}
+
+		final long[] edgeSuids = new long[edgeCount];
+		final int[] edgeSources = new int[edgeCount];
+		final int[] edgeTargets = new int[edgeCount];
+		final boolean[] edgeDirected = new boolean[edgeCount];
+		final Long2IntOpenHashMap edgeIndices = new Long2IntOpenHashMap(edgeCount);
+		edgeIndices.defaultReturnValue(-1);
+
+		// Every edge is in exactly one outgoing list: the one of its source node
+		final int[] degrees = new int[nodeCount];
+		int e = 0;
+		node = firstNode;
+		for (int i = 0; i < nodeCount; i++) {
+			for (EdgePointer ep = node.firstOutEdge; ep != null; ep = ep.nextOutEdge) {
+				final int s = i;
+				final int t = nodeIndices.get(ep.target.index);
+				edgeSuids[e] = ep.index;
+				edgeSources[e] = s;
+				edgeTargets[e] = t;
+				edgeDirected[e] = ep.directed;
+				edgeIndices.put(ep.index, e);
+				degrees[s]++;
+				if (t != s)
+					degrees[t]++;
+				e++;
+			}
+			node = node.nextNode;
+		}
+
+		final int[] offsets = new int[nodeCount + 1];
+		for (int i = 0; i < nodeCount; i++)
+			offsets[i + 1] = offsets[i] + degrees[i];
+
+		final int[] neighbors = new int[offsets[nodeCount]];
+		final int[] adjacentEdges = new int[offsets[nodeCount]];
+		// Reuse the degree array as the insertion cursor of each row
+		System.arraycopy(offsets, 0, degrees, 0, nodeCount);
+
+		for (int i = 0; i < edgeCount; i++) {
+			final int s = edgeSources[i];
+			final int t = edgeTargets[i];
+			neighbors[degrees[s]] = t;
+			adjacentEdges[degrees[s]++] = i;
+			if (t != s) {
+				neighbors[degrees[t]] = s;
+				adjacentEdges[degrees[t]++] = i;
+			}
+		}
+
+		return new CompressedTopology(version, nodeSuids, edgeSuids, edgeSources, edgeTargets, edgeDirected,
+				offsets, neighbors, adjacentEdges, nodeIndices, edgeIndices);
+	}
+
+	/**
+	 * The topology version of the network this view was built from.
+	 */
+	long getVersion() {
+		return version;
+	}
+
+	public int getNodeCount() {
+		return nodeSuids.length;
+	}
+
+	public int getEdgeCount() {
+		return edgeSuids.length;
+	}
+
+	/**
+	 * Returns the dense index of the node with the given SUID, or -1 if the network does not contain it.
+	 */
+	public int getNodeIndex(final long suid) {
+		return nodeIndices.get(suid);
+	}
+
+	/**
+	 * Returns the dense index of the edge with the given SUID, or -1 if the network does not contain it.
+	 */
+	public int getEdgeIndex(final long suid) {
+		return edgeIndices.get(suid);
+	}
+
+	public long getNodeSUID(final int index) {
+		return nodeSuids[index];
+	}
+
+	public long getEdgeSUID(final int index) {
+		return edgeSuids[index];
+	}
+
+	/**
+	 * Returns the number of incident edges of the node with the given dense index.
+	 */
+	public int getDegree(final int index) {
+		return offsets[index + 1] - offsets[index];
+	}
+
+	/**
+	 * Dense node index to node SUID.
+	 */
+	public long[] getNodeSUIDs() {
+		return nodeSuids;
+	}
+
+	/**
+	 * Dense edge index to edge SUID.
+	 */
+	public long[] getEdgeSUIDs() {
+		return edgeSuids;
+	}
+
+	/**
+	 * Dense edge index to the dense index of its source node.
+	 */
+	public int[] getEdgeSources() {
+		return edgeSources;
+	}
+
+	/**
+	 * Dense edge index to the dense index of its target node.
+	 */
+	public int[] getEdgeTargets() {
+		return edgeTargets;
+	}
+
+	/**
+	 * Dense edge index to whether or not the edge is directed.
+	 */
+	public boolean[] getEdgeDirected() {
+		return edgeDirected;
+	}
+
+	/**
+	 * Row offsets into {@link #getNeighbors()} and {@link #getAdjacentEdges()}, of length node count + 1.
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Dense indices of the neighboring nodes, grouped by node as described by {@link #getOffsets()}.
+	 */
+	public int[] getNeighbors() {
+		return neighbors;
+	}
+
+	/**
+	 * Dense indices of the incident edges, grouped by node as described by {@link #getOffsets()}.
+	 */
+	public int[] getAdjacentEdges() {
+		return adjacentEdges;
+	}
+}
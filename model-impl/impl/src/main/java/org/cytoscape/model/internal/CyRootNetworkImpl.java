@@ -239,6 +239,26 @@ public final class CyRootNetworkImpl extends DefaultTablesNetwork implements CyR
 		return node; 
 	}
 
+	/**
+	 * Creates the given number of nodes at once. This is much cheaper than
+	 * calling {@link #addNode()} repeatedly when creating large networks.
+	 */
+	public List<CyNode> addNodes(final int count) {
+		if (count < 0)
+			throw new IllegalArgumentException("count must not be negative");
+		
+		final List<CyNode> nodes = new ArrayList<>(count);
+
+		synchronized (lock) {
+			for (int i = 0; i < count; i++)
+				nodes.add(new CyNodeImpl(SUIDFactory.getNextSUID(), getNextNodeIndex(), eventHelper));
+			
+			addNodesInternal(nodes);
+		}
+
+		return nodes;
+	}
+
 	@Override
 	public boolean removeNodes(final Collection<CyNode> nodes) {
 		synchronized (lock) {
@@ -391,6 +411,51 @@ public final class CyRootNetworkImpl extends DefaultTablesNetwork implements CyR
 		return edge; 
 	}
 
+	/**
+	 * Creates one edge for each pair of source and target node SUIDs at once.
+	 * This is much cheaper than calling {@link #addEdge(CyNode, CyNode, boolean)}
+	 * repeatedly when creating large networks.
+	 */
+	public List<CyEdge> addEdges(final long[] sources, final long[] targets, final boolean directed) {
+		return addEdges(resolveNodes(this, sources), resolveNodes(this, targets), directed);
+	}
+
+	List<CyEdge> addEdges(final CyNode[] sources, final CyNode[] targets, final boolean directed) {
+		if (sources.length != targets.length)
+			throw new IllegalArgumentException("sources and targets must have the same length");
+		
+		final List<CyEdge> edges = new ArrayList<>(sources.length);
+
+		synchronized (lock) {
+			// Check the nodes before any SUIDs or edge indices are used up
+			for (int i = 0; i < sources.length; i++) {
+				if (sources[i] == null || !containsNode(sources[i]))
+					throw new IllegalArgumentException("source node is not a member of this network");
+				if (targets[i] == null || !containsNode(targets[i]))
+					throw new IllegalArgumentException("target node is not a member of this network");
+			}
+			
+			for (int i = 0; i < sources.length; i++)
+				edges.add(new CyEdgeImpl(SUIDFactory.getNextSUID(), sources[i], targets[i], directed, getNextEdgeIndex()));
+			
+			addEdgesInternal(edges);
+		}
+
+		return edges;
+	}
+
+	static CyNode[] resolveNodes(final CyNetwork net, final long[] suids) {
+		final CyNode[] nodes = new CyNode[suids.length];
+		
+		for (int i = 0; i < suids.length; i++) {
+			nodes[i] = net.getNode(suids[i]);
+			if (nodes[i] == null)
+				throw new IllegalArgumentException("node " + suids[i] + " is not a member of this network");
+		}
+		
+		return nodes;
+	}
+
 	@Override
 	public boolean removeEdges(final Collection<CyEdge> edges) {
 		synchronized (lock) {
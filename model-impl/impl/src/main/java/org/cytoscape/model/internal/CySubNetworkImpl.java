@@ -121,6 +121,30 @@ public final class CySubNetworkImpl extends DefaultTablesNetwork implements CySu
 		return ret;
 	}
 
+	/**
+	 * Creates the given number of nodes in both the root network and this network.
+	 * The topology lock is only taken once and the new nodes are unselected with a
+	 * single table update. Like {@link #addNode()}, each node is queued as a payload
+	 * of the next {@link AddedNodesEvent}.
+	 */
+	public List<CyNode> addNodes(final int count) {
+		final List<CyNode> ret;
+		synchronized (this) {
+			// first add the nodes to the root network
+			ret = parent.addNodes(count);
+			// then add the resulting CyNodes to this network
+			addNodesInternal(ret);
+			setUnselected(CyNode.class, ret);
+		}
+
+		if (fireAddedNodesAndEdgesEvents) {
+			for (CyNode node : ret)
+				eventHelper.addEventPayload((CyNetwork)this, node, AddedNodesEvent.class);
+		}
+
+		return ret;
+	}
+
 	@Override
 	public boolean addNode(final CyNode node) {
 		if (node == null)
@@ -166,6 +190,56 @@ public final class CySubNetworkImpl extends DefaultTablesNetwork implements CySu
 		return ret;
 	}
 
+	/**
+	 * Creates one edge for each pair of source and target node SUIDs, in both the
+	 * root network and this network. The source and target nodes must be members
+	 * of this network. The topology lock is only taken once and the new edges are
+	 * unselected with a single table update. Like {@link #addEdge(CyNode, CyNode, boolean)},
+	 * each edge is queued as a payload of the next {@link AddedEdgesEvent}.
+	 */
+	public List<CyEdge> addEdges(final long[] sources, final long[] targets, final boolean directed) {
+		final CyNode[] sourceNodes = CyRootNetworkImpl.resolveNodes(this, sources);
+		final CyNode[] targetNodes = CyRootNetworkImpl.resolveNodes(this, targets);
+		
+		final List<CyEdge> ret;
+		synchronized (this) {
+			// first add the edges to the root network
+			ret = parent.addEdges(sourceNodes, targetNodes, directed);
+			// then add the resulting CyEdges to this network
+			addEdgesInternal(ret);
+			setUnselected(CyEdge.class, ret);
+		}
+
+		if (fireAddedNodesAndEdgesEvents) {
+			for (CyEdge edge : ret)
+				eventHelper.addEventPayload((CyNetwork)this, edge, AddedEdgesEvent.class);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Sets the SELECTED value of new nodes or edges to false, in one call when the local table is a CyTableImpl.
+	 */
+	private void setUnselected(final Class<? extends CyIdentifiable> type, final List<? extends CyIdentifiable> elements) {
+		final CyTable table = getTable(type, CyNetwork.LOCAL_ATTRS);
+		
+		if (table instanceof CyTableImpl) {
+			final Object[] keys = new Object[elements.size()];
+			final Object[] values = new Object[keys.length];
+			
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = elements.get(i).getSUID();
+				values[i] = Boolean.FALSE;
+			}
+			
+			((CyTableImpl) table).setColumnValues(SELECTED, keys, values);
+		} else {
+			for (CyIdentifiable element : elements)
+				getRow(element).set(SELECTED, false);
+		}
+	}
+
 	@Override
 	public boolean addEdge(final CyEdge edge) {
 		if (edge == null)
@@ -34,6 +34,7 @@ import org.cytoscape.model.events.TablePrivacyChangedEvent;
 import org.cytoscape.model.events.TableTitleChangedEvent;
 import org.cytoscape.model.internal.column.ColumnData;
 import org.cytoscape.model.internal.column.ColumnDataFactory;
+import org.cytoscape.model.internal.column.IndexedColumn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -99,6 +100,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 	String lastInternalError;
 
 	private Map<String, VirtualColumn> virtualColumnMap;
+	private EquationResultCache equationResults;
 
 	private SavePolicy savePolicy;
 	private boolean fireEvents;
@@ -162,6 +164,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		attributes.put(normalizedPKName, columnFactory.create(primaryKeyType, primaryKeyType, null, defaultInitSize));
 
 		virtualColumnMap = new HashMap<>();
+		equationResults = new EquationResultCache();
 	}
 
 	void clearDuplicateStringCache() {
@@ -229,6 +232,10 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 			dependents = other.dependents;
 			other.dependents = tempDependents;
 			
+			// Swapping the columns may change which of them are virtual
+			equationResults.clear();
+			other.equationResults.clear();
+			
 			final SavePolicy tempSavePolicy = savePolicy;
 			savePolicy = other.savePolicy;
 			other.savePolicy = tempSavePolicy;
@@ -243,6 +250,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 
 			String normalizedOldColName = normalizeColumnName(oldColumnName);
 			String normalizedNewColName = normalizeColumnName(newColumnName);
+			equationResults.clear();
 			final ColumnData keyValuePairs = attributes.get(normalizedOldColName);
 			if (keyValuePairs != null) {
 				attributes.remove(normalizedOldColName);
@@ -381,6 +389,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 				
 			final VirtualColumn virtColumn = virtualColumnMap.get(normalizedColName);
 			if (attributes.containsKey(normalizedColName) || virtColumn != null) {
+				equationResults.clear();
 				if (virtColumn != null) {
 					final CyColumn cyColumn = types.get(normalizedColName);
 					virtualColumnMap.remove(normalizedColName);
@@ -504,6 +513,8 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 			suid = column.getSUID();
 			attributes.put(normalizedColName, columnFactory.create(primaryKeyType, List.class, listElementType, defaultInitSize));
 			colList.add(types.get(normalizedColName));
+			// Results of equations that referenced the missing column can't be kept anymore
+			equationResults.clear();
 		}
 
 		eventHelper.fireEvent(new ColumnCreatedEvent(this, columnName, suid));
@@ -525,6 +536,275 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		}
 	}
 
+	/**
+	 * Reads the values of a numeric (Double, Integer or Long) column for the given
+	 * primary keys into <code>out</code>, taking the table lock only once.
+	 * Keys with no value (or an equation that can't be evaluated) are set to
+	 * <code>Double.NaN</code>.
+	 */
+	public void getColumnValues(final String columnName, final long[] keys, final double[] out) {
+		if (columnName == null)
+			throw new NullPointerException("column name is null.");
+		if (keys.length > out.length)
+			throw new IllegalArgumentException("output array is shorter than the key array.");
+		
+		synchronized (lock) {
+			final String normalizedColName = normalizeColumnName(columnName);
+			final CyColumn column = types.get(normalizedColName);
+			if (column == null)
+				throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+			
+			final Class<?> type = column.getType();
+			if (type != Double.class && type != Integer.class && type != Long.class)
+				throw new IllegalArgumentException("column: '" + columnName + "' is not a numeric column.");
+			
+			final VirtualColumn virtColumn = virtualColumnMap.get(normalizedColName);
+			final ColumnData keyToValueMap = attributes.get(normalizedColName);
+			
+			for (int i = 0; i < keys.length; i++) {
+				final Long key = keys[i];
+				Object value = virtColumn != null ? virtColumn.getValue(key) : keyToValueMap.get(key);
+				
+				if (value instanceof Equation) {
+					final StringBuilder errorMsg = new StringBuilder();
+					value = evalEquation((Equation) value, key, columnName, errorMsg);
+					lastInternalError = errorMsg.toString();
+					if (value != null)
+						value = EqnSupport.convertEqnResultToColumnType(type, value);
+				}
+				
+				out[i] = value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+			}
+		}
+	}
+	
+	/**
+	 * Sets the values of a numeric (Double, Integer or Long) column for the given
+	 * primary keys, creating rows as necessary. Values are converted to the column type,
+	 * <code>Double.NaN</code> unsets the value. Values of Integer and Long columns must be
+	 * whole numbers within the range of the column type. The table lock is taken only once and
+	 * a single {@link RowsSetEvent} is fired for all of the changed values.
+	 */
+	public void setColumnValues(final String columnName, final long[] keys, final double[] values) {
+		if (keys.length != values.length)
+			throw new IllegalArgumentException("keys and values must have the same length.");
+		
+		final Class<?> type = getColumnType(columnName);
+		final Object[] boxedKeys = new Object[keys.length];
+		final Object[] boxedValues = new Object[values.length];
+		
+		for (int i = 0; i < keys.length; i++) {
+			boxedKeys[i] = keys[i];
+			
+			final double value = values[i];
+			if (Double.isNaN(value))
+				boxedValues[i] = null;
+			else if (type == Double.class)
+				boxedValues[i] = value;
+			else if (type == Integer.class)
+				boxedValues[i] = (int) checkIntegral(columnName, value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			else if (type == Long.class)
+				boxedValues[i] = (long) checkIntegral(columnName, value, Long.MIN_VALUE, Long.MAX_VALUE);
+			else
+				throw new IllegalArgumentException("column: '" + columnName + "' is not a numeric column.");
+		}
+		
+		setColumnValues(columnName, boxedKeys, boxedValues);
+	}
+	
+	private static double checkIntegral(final String columnName, final double value, final double min, final double max) {
+		// (double) Long.MAX_VALUE rounds up to 2^63, which is out of range
+		if (value != Math.rint(value) || value < min || value > max || value == 0x1p63)
+			throw new IllegalArgumentException("value " + value + " can't be stored in integer column: '"
+			                                   + columnName + "'.");
+		return value;
+	}
+	
+	/**
+	 * Sets the values of a column for the given primary keys, creating rows as necessary.
+	 * A <code>null</code> value unsets the value. For regular columns the table lock is
+	 * taken only once and a single {@link RowsSetEvent} is fired for all of the changed
+	 * values. List and virtual columns are set one value at a time. When every value is the same
+	 * equation, the equation is evaluated for all of the rows at once if the interpreter supports it.
+	 */
+	public void setColumnValues(final String columnName, final Object[] keys, final Object[] values) {
+		if (columnName == null)
+			throw new NullPointerException("columnName must not be null.");
+		if (keys.length != values.length)
+			throw new IllegalArgumentException("keys and values must have the same length.");
+		
+		final List<Object> changedKeys = new ArrayList<>();
+		final List<RowSetRecord> records = new ArrayList<>();
+		final boolean setIndividually;
+		
+		synchronized (lock) {
+			final String normalizedColName = normalizeColumnName(columnName);
+			final CyColumn column = types.get(normalizedColName);
+			if (column == null)
+				throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+			if (column.isPrimaryKey())
+				throw new IllegalArgumentException("cannot set the primary key column: '" + columnName + "'.");
+			
+			// Check the keys first so that a bad key doesn't leave the column half set
+			for (int i = 0; i < keys.length; i++)
+				checkKey(keys[i]);
+			
+			final Class<?> columnType = column.getType();
+			setIndividually = columnType == List.class || virtualColumnMap.containsKey(normalizedColName);
+			
+			if (!setIndividually) {
+				final ColumnData keyToValueMap = attributes.get(normalizedColName);
+				
+				for (int i = 0; i < keys.length; i++) {
+					final Object value = values[i];
+					if (value != null && !(value instanceof Equation))
+						checkType(value);
+					if (value != null && !columnType.isAssignableFrom(value.getClass())
+					    && !EqnSupport.scalarEquationIsCompatible(value, columnType))
+						throw new IllegalArgumentException("value of \"" + columnName + "\" is not of type " + columnType);
+				}
+				
+				// Before evaluating any of the new equations, so none of them reads an old result
+				equationResults.invalidateColumn(normalizedColName);
+				
+				final Equation columnEquation = getColumnEquation(normalizedColName, values);
+				if (columnEquation != null) {
+					setColumnEquation(columnName, keyToValueMap, keys, columnEquation, changedKeys, records);
+				} else {
+					String[] errors = null;
+					for (int i = 0; i < keys.length; i++) {
+						final CyRow row = getRow(keys[i]);
+						final Object value = values[i];
+						final Object newValue;
+						final boolean changed;
+						
+						if (value == null) {
+							newValue = null;
+							changed = keyToValueMap.remove(keys[i]);
+						} else if (value instanceof Equation) {
+							keyToValueMap.put(keys[i], value);
+							final StringBuilder errorMsg = new StringBuilder();
+							newValue = evalEquation((Equation) value, keys[i], columnName, errorMsg);
+							if (errors == null)
+								errors = new String[keys.length];
+							errors[i] = errorMsg.toString();
+							changed = true;
+						} else {
+							newValue = columnType.cast(value);
+							changed = keyToValueMap.put(keys[i], newValue);
+						}
+						
+						if (changed) {
+							changedKeys.add(keys[i]);
+							records.add(new RowSetRecord(row, columnName, newValue, value));
+						}
+					}
+					if (errors != null)
+						lastInternalError = getBulkError(errors);
+				}
+			}
+		}
+		
+		if (setIndividually) {
+			// List and virtual columns have their own checks and events
+			for (int i = 0; i < keys.length; i++)
+				getRow(keys[i]).set(columnName, values[i]);
+			return;
+		}
+		
+		if (fireEvents && !records.isEmpty()) {
+			// this MUST be called outside the synchronized block
+			// The records are queued like those of single values, so that they are fired after the
+			// RowsCreatedEvent payloads of the new rows, in a single RowsSetEvent
+			for (final RowSetRecord record : records)
+				eventHelper.addEventPayload((CyTable) this, record, RowsSetEvent.class);
+			
+			// The virtual columns that show this column are looked up once for all of the rows
+			final Set<CyColumn> columnDependents = getDependents(columnName);
+			if (!columnDependents.isEmpty()) {
+				final Map<CyColumn, Map<Object, List<Object>>> joinIndexes = new HashMap<>();
+				final Set<VirtualColumnInfo> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+				for (int i = 0; i < records.size(); i++) {
+					final RowSetRecord record = records.get(i);
+					fireDependentRowSetEvents(columnDependents, joinIndexes, changedKeys.get(i), record.getValue(),
+					                          record.getRawValue(), seen);
+					seen.clear();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the equation if all of the values are the same equation, and it doesn't reference
+	 * the column it is set in, which would make each row depend on the other ones being set first.
+	 */
+	private Equation getColumnEquation(final String normalizedColName, final Object[] values) {
+		if (values.length < 2 || !(values[0] instanceof Equation))
+			return null;
+		
+		final Equation equation = (Equation) values[0];
+		for (final Object value : values) {
+			if (value != equation)
+				return null;
+		}
+		for (final String reference : equation.getVariableReferences()) {
+			if (normalizeColumnName(reference).equals(normalizedColName))
+				return null;
+		}
+		
+		return equation;
+	}
+	
+	private void setColumnEquation(final String columnName, final ColumnData keyToValueMap, final Object[] keys,
+			final Equation equation, final List<Object> changedKeys, final List<RowSetRecord> records) {
+		final String normalizedColName = normalizeColumnName(columnName);
+		final CyRow[] rows = new CyRow[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			rows[i] = getRow(keys[i]);
+			keyToValueMap.put(keys[i], equation);
+		}
+		
+		final Object[] results = new Object[keys.length];
+		final String[] errors = new String[keys.length];
+		evalEquationColumn(equation, keys, columnName, results, errors);
+		lastInternalError = getBulkError(errors);
+		
+		for (int i = 0; i < keys.length; i++) {
+			changedKeys.add(keys[i]);
+			records.add(new RowSetRecord(rows[i], columnName, results[i], equation));
+		}
+	}
+	
+	/**
+	 * Returns the error of the first row that failed and how many other rows failed, or "" if no row failed.
+	 */
+	private static String getBulkError(final String[] errors) {
+		String firstError = null;
+		int errorCount = 0;
+		for (final String error : errors) {
+			if (error != null && !error.isEmpty()) {
+				if (firstError == null)
+					firstError = error;
+				errorCount++;
+			}
+		}
+		
+		if (firstError == null)
+			return "";
+		return errorCount == 1 ? firstError : firstError + " (and " + (errorCount - 1) + " more rows)";
+	}
+	
+	private Class<?> getColumnType(final String columnName) {
+		if (columnName == null)
+			throw new NullPointerException("columnName must not be null.");
+		
+		final CyColumn column = getColumn(columnName);
+		if (column == null)
+			throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+		
+		return column.getType();
+	}
+
 	// Used in virtual columns so that we don't create new rows in tables
 	// that are only being referenced. We expect it to return null.
 	CyRow getRowNoCreate(final Object key) {
@@ -627,6 +907,53 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		}
 	}
 
+	/**
+	 * Enables or disables a hash index from values to primary keys on the given column.
+	 * While enabled, getMatchingRows(), getMatchingKeys() and countMatchingRows() no
+	 * longer need to scan the column. For virtual columns the index is created on the
+	 * source column. List columns cannot be indexed.
+	 */
+	public void setColumnIndexed(final String columnName, final boolean indexed) {
+		if (columnName == null)
+			throw new NullPointerException("column name is null");
+		
+		// The source table of a virtual column is called outside of the lock, otherwise two tables
+		// that call each other could deadlock.
+		final VirtualColumn virtColumn;
+		synchronized (lock) {
+			final String normalizedColName = normalizeColumnName(columnName);
+			final CyColumn column = types.get(normalizedColName);
+			if (column == null)
+				throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
+			if (column.getType() == List.class)
+				throw new IllegalArgumentException("cannot index list column '" + columnName + "'.");
+			
+			virtColumn = virtualColumnMap.get(normalizedColName);
+			if (virtColumn == null) {
+				final ColumnData keyToValueMap = attributes.get(normalizedColName);
+				if (indexed && !(keyToValueMap instanceof IndexedColumn))
+					attributes.put(normalizedColName, new IndexedColumn(keyToValueMap));
+				else if (!indexed && keyToValueMap instanceof IndexedColumn)
+					attributes.put(normalizedColName, ((IndexedColumn) keyToValueMap).getDelegate());
+			}
+		}
+		
+		if (virtColumn != null)
+			virtColumn.setIndexed(indexed);
+	}
+	
+	public boolean isColumnIndexed(final String columnName) {
+		final VirtualColumn virtColumn;
+		synchronized (lock) {
+			final String normalizedColName = normalizeColumnName(columnName);
+			virtColumn = virtualColumnMap.get(normalizedColName);
+			if (virtColumn == null)
+				return attributes.get(normalizedColName) instanceof IndexedColumn;
+		}
+		
+		return virtColumn.isIndexed();
+	}
+
 	private final void setX(final Object key, final String columnName, final Object value) {
 		if (columnName == null)
 			throw new NullPointerException("columnName must not be null.");
@@ -675,6 +1002,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 				    && !EqnSupport.scalarEquationIsCompatible(value, columnType))
 					throw new IllegalArgumentException("value of \"" + columnName + "\" is not of type " + columnType);
 
+				equationResults.invalidate(normalizedColName, key);
 				if (value instanceof Equation) {
 					newRawValue = value;
 					final Equation equation = (Equation)value;
@@ -700,8 +1028,85 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 	}
 
 	
-	private Object evalEquation(Equation equation, Object key, String columnName, Appendable errorsMessages) {
-		return EqnSupport.evalEquation(equation, key, interpreter, currentlyActiveAttributes, columnName, errorsMessages, this);
+	private Object evalEquation(Equation equation, Object key, String columnName, StringBuilder errorsMessages) {
+		final String normalizedColName = normalizeColumnName(columnName);
+		final Object cachedResult = equationResults.get(normalizedColName, key, equation);
+		if (cachedResult != null)
+			return cachedResult;
+		
+		final List<String> references = new ArrayList<>();
+		for (final String reference : equation.getVariableReferences()) {
+			if (!reference.equals("ID"))
+				references.add(normalizeColumnName(reference));
+		}
+		equationResults.addReferences(normalizedColName, references);
+		
+		final int errorsLength = errorsMessages.length();
+		final Object result = EqnSupport.evalEquation(equation, key, interpreter, currentlyActiveAttributes, columnName, errorsMessages, this);
+		
+		if (!isCacheableEquation(equation, normalizedColName, references))
+			equationResults.setVolatile(normalizedColName);
+		else if (isCacheableResult(result) && errorsMessages.length() == errorsLength)
+			equationResults.put(normalizedColName, key, equation, result);
+		
+		return result;
+	}
+	
+	/**
+	 * Evaluates an equation for the rows with the given keys, all at once if the interpreter supports it,
+	 * otherwise one row at a time.
+	 */
+	private void evalEquationColumn(Equation equation, Object[] keys, String columnName, Object[] results, String[] errors) {
+		final String normalizedColName = normalizeColumnName(columnName);
+		final List<String> references = new ArrayList<>();
+		for (final String reference : equation.getVariableReferences()) {
+			if (!reference.equals("ID"))
+				references.add(normalizeColumnName(reference));
+		}
+		equationResults.addReferences(normalizedColName, references);
+		
+		if (!EqnSupport.evalEquationColumn(equation, keys, interpreter, currentlyActiveAttributes, columnName, results, errors, this)) {
+			for (int i = 0; i < keys.length; i++) {
+				final StringBuilder errorMsg = new StringBuilder();
+				results[i] = evalEquation(equation, keys[i], columnName, errorMsg);
+				errors[i] = errorMsg.length() == 0 ? null : errorMsg.toString();
+			}
+			return;
+		}
+		
+		if (!isCacheableEquation(equation, normalizedColName, references)) {
+			equationResults.setVolatile(normalizedColName);
+			return;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (errors[i] == null && isCacheableResult(results[i]))
+				equationResults.put(normalizedColName, keys[i], equation, results[i]);
+		}
+	}
+	
+	/**
+	 * The result of an equation can be kept until one of the cells it references in the same row changes,
+	 * unless it calls functions that read something else, or it reads values that can change without
+	 * the cells of this table being set: virtual columns, list columns that are modified in place,
+	 * and the results of other equations like that.
+	 */
+	private boolean isCacheableEquation(Equation equation, String normalizedColName, List<String> references) {
+		if (virtualColumnMap.containsKey(normalizedColName) || !EquationResultCache.isDeterministic(equation))
+			return false;
+		
+		for (final String reference : references) {
+			final CyColumn column = types.get(reference);
+			if (virtualColumnMap.containsKey(reference) || equationResults.isVolatile(reference)
+			    || (column != null && column.getType() == List.class))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	// List results are mutable, and would be shared by every caller
+	private static boolean isCacheableResult(Object result) {
+		return result instanceof Number || result instanceof String || result instanceof Boolean;
 	}
 	
 	/**
@@ -722,15 +1127,23 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 		eventHelper.addEventPayload((CyTable) table, new RowSetRecord(row, columnName, newValue, newRawValue), RowsSetEvent.class);
 		
 		// ...then fire events for all dependents
-		Set<CyColumn> columnDependents;
-		synchronized (lock) {
-			String normalizedColumnName = normalizeColumnName(columnName);
-			columnDependents = dependents.get(normalizedColumnName);
-			if (columnDependents == null) {
-				return;
-			}
-		}
-		
+		fireDependentRowSetEvents(key, columnName, newValue, newRawValue, seen);
+	}
+	
+	private void fireDependentRowSetEvents(Object key, String columnName, Object newValue, Object newRawValue, Set<VirtualColumnInfo> seen) {
+		// this MUST be called outside of synchronized blocks
+		final Set<CyColumn> columnDependents = getDependents(columnName);
+		if (!columnDependents.isEmpty())
+			fireDependentRowSetEvents(columnDependents, null, key, newValue, newRawValue, seen);
+	}
+	
+	/**
+	 * @param joinIndexes the keys of the rows of each dependent table by the value of its join key, filled in
+	 *                    as they are needed, or null to scan the join key column of the dependent table
+	 */
+	private void fireDependentRowSetEvents(Set<CyColumn> columnDependents, Map<CyColumn, Map<Object, List<Object>>> joinIndexes,
+			Object key, Object newValue, Object newRawValue, Set<VirtualColumnInfo> seen) {
+		// this MUST be called outside of synchronized blocks
 		for (CyColumn dependent : columnDependents) {
 			VirtualColumnInfo info = dependent.getVirtualColumnInfo();
 			if (seen.contains(info)) {
@@ -744,7 +1157,16 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 			} else {
 				String normalizedTargetJoinKey = table2.normalizeColumnName(targetJoinKey);		
 				ColumnData keyToValueMap = table2.attributes.get(normalizedTargetJoinKey);
-				if(keyToValueMap != null) {
+				if (keyToValueMap == null) {
+					continue;
+				}
+				if (joinIndexes != null) {
+					final List<Object> keys2 = joinIndexes.computeIfAbsent(dependent, d -> getJoinIndex(keyToValueMap))
+					                                      .getOrDefault(key, Collections.emptyList());
+					for (Object key2 : keys2) {
+						fireVirtualColumnRowSetEvent(table2, key2, dependent.getName(), newValue, newRawValue, seen);
+					}
+				} else {
 					for (Object key2: keyToValueMap.keySet()) {
 						if (keyToValueMap.get(key2).equals(key)) {
 							fireVirtualColumnRowSetEvent(table2, key2, dependent.getName(), newValue, newRawValue, seen);
@@ -754,6 +1176,22 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 			}
 		}
 	}
+	
+	private static Map<Object, List<Object>> getJoinIndex(ColumnData keyToValueMap) {
+		final Map<Object, List<Object>> index = new HashMap<>();
+		for (Object key2 : keyToValueMap.keySet()) {
+			index.computeIfAbsent(keyToValueMap.get(key2), k -> new ArrayList<>()).add(key2);
+		}
+		return index;
+	}
+	
+	private Set<CyColumn> getDependents(String columnName) {
+		synchronized (lock) {
+			final Set<CyColumn> columnDependents = dependents.get(normalizeColumnName(columnName));
+			return columnDependents == null || columnDependents.isEmpty()
+				? Collections.emptySet() : new HashSet<>(columnDependents);
+		}
+	}
 
 	private final void setListX(final Object key, final String columnName, final Object value) {
 		Object newValue;
@@ -793,6 +1231,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 
 				// TODO this is an implicit addRow - not sure if we want to refactor this or not
 				changed = keyToValueMap.put(key, rawValue);
+				equationResults.invalidate(normalizedColName, key);
 				if (rawValue instanceof Equation) {
 					final StringBuilder errorMsg = new StringBuilder();
 					newValue = evalEquation((Equation)rawValue, suid, columnName, errorMsg);
@@ -825,6 +1264,7 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 					throw new IllegalArgumentException("column: '" + columnName + "' does not yet exist.");
 
 				changed = keyToValueMap.remove(key);
+				equationResults.invalidate(normalizedColName, key);
 			}
 		}
 
@@ -1059,6 +1499,8 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 			attributes.put(normalizedTargetName, columnFactory.create(primaryKeyType, sourceColumn.getType(), sourceColumn.getListElementType(), defaultInitSize));
 			virtualColumnMap.put(normalizedTargetName, virtualColumn);
 			colList.add(types.get(normalizedTargetName));
+			// Results of equations that referenced the missing column can't be kept anymore
+			equationResults.clear();
 		}
 
 		eventHelper.fireEvent(new ColumnCreatedEvent(this, targetName, suid));
@@ -1186,6 +1628,8 @@ public final class CyTableImpl implements CyTable, TableAddedListener {
 				}
 			}
 			rowList.removeAll(rowsToRemoveFromList);
+			if (changed)
+				equationResults.clear();
 		}
 		if(changed)
 			eventHelper.fireEvent(new RowsDeletedEvent( this,  (Collection<Object>) primaryKeys));
@@ -1,11 +1,13 @@
 package org.cytoscape.model.internal;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import org.cytoscape.eqn.interpreter.ColumnInterpreter;
 import org.cytoscape.equations.Equation;
 import org.cytoscape.equations.IdentDescriptor;
 import org.cytoscape.equations.Interpreter;
@@ -164,4 +166,70 @@ class EqnSupport {
 		}
 	}
 
+	/**
+	 * Evaluates an equation for the rows with the given keys, like {@link #evalEquation} does for one row.
+	 * The values of the referenced columns are read first, then the interpreter evaluates all of the rows at once.
+	 * @return false if the interpreter can't evaluate whole columns, nothing is evaluated then.
+	 */
+	static boolean evalEquationColumn(final Equation equation, final Object[] keys,
+					  final Interpreter interpreter,
+					  final Set<String> currentlyActiveAttributes,
+					  final String columnName, final Object[] results, final String[] errors,
+					  final CyTableImpl tableImpl)
+	{
+		if (!(interpreter instanceof ColumnInterpreter) || currentlyActiveAttributes.contains(columnName))
+			return false;
+
+		final Map<String, Object> defaultValues = equation.getDefaultVariableValues();
+		final String[] referenceErrors = new String[keys.length];
+		final Map<String, Object> columns = new HashMap<>();
+
+		currentlyActiveAttributes.add(columnName);
+		for (final String attribRef : equation.getVariableReferences()) {
+			final Object[] values = new Object[keys.length];
+			boolean allDoubles = true;
+			for (int i = 0; i < keys.length; i++) {
+				Object attribValue = attribRef.equals("ID") ? keys[i] : tableImpl.getValue(keys[i], attribRef);
+				if (attribValue == null)
+					attribValue = defaultValues.get(attribRef);
+
+				if (attribValue == null) {
+					if (referenceErrors[i] == null)
+						referenceErrors[i] = "Missing value for referenced column \"" + attribRef + "\".";
+					continue;
+				}
+
+				try {
+					values[i] = new IdentDescriptor(attribValue).getValue();
+				} catch (final Exception e) {
+					if (referenceErrors[i] == null)
+						referenceErrors[i] = "Bad column reference to \"" + attribRef + "\".";
+					continue;
+				}
+				allDoubles &= values[i] instanceof Double;
+			}
+
+			if (allDoubles) {
+				// The rows with missing values are not evaluated, their results are replaced by the errors below
+				final double[] doubles = new double[keys.length];
+				for (int i = 0; i < keys.length; i++)
+					doubles[i] = values[i] == null ? 0.0 : (Double) values[i];
+				columns.put(attribRef, doubles);
+			} else {
+				columns.put(attribRef, values);
+			}
+		}
+		currentlyActiveAttributes.remove(columnName);
+
+		((ColumnInterpreter) interpreter).executeColumn(equation, columns, results, errors);
+
+		for (int i = 0; i < keys.length; i++) {
+			if (referenceErrors[i] != null) {
+				results[i] = null;
+				errors[i] = referenceErrors[i];
+			}
+		}
+
+		return true;
+	}
 }
@@ -0,0 +1,223 @@
+package org.cytoscape.model.internal;
+
+/*
+ * #%L
+ * Cytoscape Model Impl (model-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2008 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.eqn.function.DeterministicFunction;
+import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.Function;
+import org.cytoscape.model.internal.tsort.TopoGraphNode;
+import org.cytoscape.model.internal.tsort.TopologicalSort;
+
+
+/**
+ * Remembers the results of the equations of a table, per column and primary key, so that reading
+ * an equation cell again doesn't run the interpreter again.
+ * <p>
+ * The columns referenced by the evaluated equations form a dependency graph, from each column to the
+ * columns with equations that reference it. When a cell changes, the results for the same key in the
+ * changed column and in every column that depends on it, directly or through other equations, are removed.
+ * The columns affected by a change are only looked up again when the references change, and a bulk set
+ * removes the results of whole columns at once.
+ * <p>
+ * The table decides which results can be kept, see {@link #isDeterministic(Equation)}. The names of the
+ * columns must be normalized.
+ */
+final class EquationResultCache {
+
+	private final Map<String, Map<Object, Result>> results = new HashMap<>();
+	private final Map<String, ColumnNode> graph = new HashMap<>();
+	private final Set<String> volatileColumns = new HashSet<>();
+	// Each column with the columns that depend on it, or an empty list if the references are circular
+	private final Map<String, List<String>> affectedColumns = new HashMap<>();
+
+	private static final class Result {
+		final Equation equation;
+		final Object value;
+
+		Result(final Equation equation, final Object value) {
+			this.equation = equation;
+			this.value = value;
+		}
+	}
+
+	/**
+	 *  A column of the dependency graph, its dependents are the columns with equations that reference it.
+	 */
+	private static final class ColumnNode implements TopoGraphNode {
+		private final String columnName;
+		private final Set<TopoGraphNode> dependents = new HashSet<>();
+
+		ColumnNode(final String columnName) {
+			this.columnName = columnName;
+		}
+
+		String getColumnName() { return columnName; }
+		@Override public Collection<TopoGraphNode> getDependents() { return dependents; }
+		@Override public String toString() { return columnName; }
+	}
+
+	/**
+	 *  Returns the result of the equation of the given cell, or null if it is not known.
+	 *  A result is only returned if it was computed for the same equation object.
+	 */
+	synchronized Object get(final String columnName, final Object key, final Equation equation) {
+		final Map<Object, Result> columnResults = results.get(columnName);
+		if (columnResults == null)
+			return null;
+
+		final Result result = columnResults.get(key);
+		return result != null && result.equation == equation ? result.value : null;
+	}
+
+	synchronized void put(final String columnName, final Object key, final Equation equation, final Object value) {
+		results.computeIfAbsent(columnName, k -> new HashMap<>()).put(key, new Result(equation, value));
+	}
+
+	/**
+	 *  Records that the equations of the given column reference the given columns.
+	 */
+	synchronized void addReferences(final String columnName, final Collection<String> referencedColumns) {
+		final ColumnNode node = getNode(columnName);
+		for (final String referencedColumn : referencedColumns) {
+			if (getNode(referencedColumn).dependents.add(node))
+				affectedColumns.clear();
+		}
+	}
+
+	/**
+	 *  Removes the results for the given key in the given column and in all of the columns that depend on it.
+	 */
+	synchronized void invalidate(final String columnName, final Object key) {
+		if (results.isEmpty())
+			return;
+
+		final List<String> affected = getAffectedColumns(columnName);
+		if (affected.isEmpty()) {
+			// Circular references, the equations of these columns don't have results anyway.
+			clear();
+			return;
+		}
+
+		for (final String name : affected) {
+			final Map<Object, Result> columnResults = results.get(name);
+			if (columnResults != null)
+				columnResults.remove(key);
+		}
+	}
+
+	/**
+	 *  Removes all of the results in the given column and in all of the columns that depend on it.
+	 *  Bulk sets call this once instead of invalidating each key.
+	 */
+	synchronized void invalidateColumn(final String columnName) {
+		if (results.isEmpty())
+			return;
+
+		final List<String> affected = getAffectedColumns(columnName);
+		if (affected.isEmpty()) {
+			clear();
+			return;
+		}
+
+		for (final String name : affected)
+			results.remove(name);
+	}
+
+	/**
+	 *  Marks a column as having equations whose results can't be kept,
+	 *  so the results of the equations that reference it can't be kept either.
+	 */
+	synchronized void setVolatile(final String columnName) {
+		volatileColumns.add(columnName);
+	}
+
+	synchronized boolean isVolatile(final String columnName) {
+		return volatileColumns.contains(columnName);
+	}
+
+	synchronized void clear() {
+		results.clear();
+		graph.clear();
+		volatileColumns.clear();
+		affectedColumns.clear();
+	}
+
+	synchronized int size() {
+		int size = 0;
+		for (final Map<Object, Result> columnResults : results.values())
+			size += columnResults.size();
+		return size;
+	}
+
+	private List<String> getAffectedColumns(final String columnName) {
+		List<String> affected = affectedColumns.get(columnName);
+		if (affected != null)
+			return affected;
+
+		final ColumnNode node = graph.get(columnName);
+		if (node == null) {
+			affected = Collections.singletonList(columnName);
+		} else {
+			affected = new ArrayList<>();
+			try {
+				for (final TopoGraphNode n : TopologicalSort.sort(Collections.singletonList(node)))
+					affected.add(((ColumnNode)n).getColumnName());
+			} catch (final IllegalStateException e) {
+				affected = Collections.emptyList();
+			}
+		}
+
+		affectedColumns.put(columnName, affected);
+		return affected;
+	}
+
+	private ColumnNode getNode(final String columnName) {
+		return graph.computeIfAbsent(columnName, ColumnNode::new);
+	}
+
+	/**
+	 *  Returns true if the equation only calls functions that are marked as {@link DeterministicFunction}s.
+	 *  Other functions may read the network or other tables (e.g. DEGREE()) or the time (e.g. NOW()),
+	 *  so their results can't be kept.
+	 */
+	static boolean isDeterministic(final Equation equation) {
+		for (final Object instrOrArg : equation.getCode()) {
+			if (instrOrArg instanceof Function && !(instrOrArg instanceof DeterministicFunction))
+				return false;
+		}
+
+		return true;
+	}
+}
@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
@@ -42,6 +43,13 @@ import cern.colt.map.tobject.OpenLongObjectHashMap;
  * operations not fully represented here are addNode and addEdge.
  * Instead we provide addNodeInternal and addEdgeInternal, which
  * add a provided CyNode/CyEdge object to the network topology. 
+ * <p>
+ * Access to the topology is guarded by a {@link StampedLock}. Readers share
+ * the read lock so that filter, layout and render threads can query the same
+ * network concurrently, and the simple counters are read optimistically without
+ * taking any lock at all. Since a StampedLock is not reentrant, every public
+ * method acquires the lock exactly once and then only calls the private
+ * "unlocked" helpers below.
  */
 class SimpleNetwork {
 	
@@ -61,7 +69,11 @@ class SimpleNetwork {
 	
 	private NodePointer firstNode;
 	
-	private Object lock = new Object();
+	// Incremented on every change to the topology, used to invalidate the compressed view
+	private long topologyVersion;
+	private volatile CompressedTopology compressedTopology;
+	
+	private final StampedLock lock = new StampedLock();
 
 	SimpleNetwork(final long suid) {
 		this.suid = suid; 
@@ -77,39 +89,79 @@ class SimpleNetwork {
 	}
 
 	public int getNodeCount() {
-		synchronized (lock) {
-			return nodeCount;
+		long stamp = lock.tryOptimisticRead();
+		int count = nodeCount;
+		
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				count = nodeCount;
+			} finally {
+				lock.unlockRead(stamp);
+			}
 		}
+		
+		return count;
 	}
 
 	public int getEdgeCount() {
-		synchronized (lock) {
-			return edgeCount;
+		long stamp = lock.tryOptimisticRead();
+		int count = edgeCount;
+		
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				count = edgeCount;
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		
+		return count;
+	}
+
+	/**
+	 * Returns a primitive, compressed sparse row view of the current topology.
+	 * The view is cached and only rebuilt (lazily) after the topology has changed.
+	 */
+	public CompressedTopology getCompressedTopology() {
+		final long stamp = lock.readLock();
+		try {
+			CompressedTopology topology = compressedTopology;
+			
+			if (topology == null || topology.getVersion() != topologyVersion) {
+				topology = CompressedTopology.build(firstNode, nodeCount, edgeCount, topologyVersion);
+				// Several readers may race to build it, but they all build the same thing
+				compressedTopology = topology;
+			}
+			
+			return topology;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public CyEdge getEdge(final long e) {
-		synchronized (lock) {
-			final EdgePointer ep = (EdgePointer) edgePointers.get(e);
-			if (ep != null)
-				return ep.cyEdge;
-			else
-				return null;
+		final long stamp = lock.readLock();
+		try {
+			return getEdgeUnlocked(e);
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public CyNode getNode(final long n) {
-		synchronized (lock) {
-			final NodePointer np = (NodePointer) nodePointers.get(n);
-			if (np != null)
-				return np.cyNode;
-			else
-				return null;
+		final long stamp = lock.readLock();
+		try {
+			return getNodeUnlocked(n);
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyNode> getNodeList() {
-		synchronized (lock) {
+		final long stamp = lock.readLock();
+		try {
 			final List<CyNode> ret = new ArrayList<>(nodeCount);
 			int numRemaining = nodeCount;
 			NodePointer node = firstNode;
@@ -124,11 +176,14 @@ class SimpleNetwork {
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyEdge> getEdgeList() {
-		synchronized (lock) {
+		final long stamp = lock.readLock();
+		try {
 			final List<CyEdge> ret = new ArrayList<>(edgeCount);
 			EdgePointer edge = null;
 	
@@ -155,12 +210,15 @@ class SimpleNetwork {
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyNode> getNeighborList(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n)) 
 				return Collections.emptyList(); 
 	
 			final NodePointer np = getNodePointer(n);
@@ -169,37 +227,34 @@ class SimpleNetwork {
 			while (it.hasNext()) {
 				final EdgePointer edge = it.next();
 				final long neighborIndex = np.index ^ edge.source.index ^ edge.target.index;
-				ret.add(getNode(neighborIndex));
+				ret.add(getNodeUnlocked(neighborIndex));
 			}
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public List<CyEdge> getAdjacentEdgeList(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
-				return Collections.emptyList(); 
-	
-			final NodePointer np = getNodePointer(n);
-			final List<CyEdge> ret = new ArrayList<>(countEdges(np, e));
-			final Iterator<EdgePointer> it = edgesAdjacent(np, e);
-	
-			while (it.hasNext()) {
-				ret.add(it.next().cyEdge);
-			}
-	
-			return ret;
+		final long stamp = lock.readLock();
+		try {
+			return getAdjacentEdgeListUnlocked(n, e);
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
 	public Iterable<CyEdge> getAdjacentEdgeIterable(final CyNode n, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(n)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n)) 
 				return Collections.emptyList();
 	
 			final NodePointer np = getNodePointer(n);
 			return new IterableEdgeIterator( edgesAdjacent(np, e) ); 
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
@@ -233,11 +288,12 @@ class SimpleNetwork {
 	}
 
 	public List<CyEdge> getConnectingEdgeList(final CyNode src, final CyNode trg, final CyEdge.Type e) {
-		synchronized (lock) {
-			if (!containsNode(src)) 
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(src)) 
 				return Collections.emptyList(); 
 	
-			if (!containsNode(trg)) 
+			if (!containsNodeUnlocked(trg)) 
 				return Collections.emptyList(); 
 	
 			final NodePointer srcP = getNodePointer(src);
@@ -250,24 +306,53 @@ class SimpleNetwork {
 				ret.add(it.next().cyEdge);
 	
 			return ret;
+		} finally {
+			lock.unlockRead(stamp);
 		}
 	}
 
-	/**
-	 * IMPORTANT: this is not protected by synchronized 
-	 * because caller always uses lock.
-	 */
 	CyNode addNodeInternal(final CyNode node) {
-		// node already exists in this network
-		if (containsNode(node))
+		final long stamp = lock.writeLock();
+		try {
+			// node already exists in this network
+			if (containsNodeUnlocked(node))
+				return node;
+	
+			final NodePointer n = new NodePointer(node);
+			nodePointers.put(node.getSUID(), n);
+			nodeCount++;
+			firstNode = n.insert(firstNode);
+			topologyVersion++;
+	
 			return node;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
 
-		final NodePointer n = new NodePointer(node);
-		nodePointers.put(node.getSUID(), n);
-		nodeCount++;
-		firstNode = n.insert(firstNode);
-
-		return node;
+	/**
+	 * Adds all of the given nodes while holding the lock only once.
+	 * Nodes that are already part of this network are ignored.
+	 */
+	void addNodesInternal(final List<CyNode> nodes) {
+		final long stamp = lock.writeLock();
+		try {
+			nodePointers.ensureCapacity(nodeCount + nodes.size());
+			
+			for (CyNode node : nodes) {
+				if (containsNodeUnlocked(node))
+					continue;
+				
+				final NodePointer n = new NodePointer(node);
+				nodePointers.put(node.getSUID(), n);
+				nodeCount++;
+				firstNode = n.insert(firstNode);
+			}
+			
+			topologyVersion++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
 	}
 
 	protected boolean removeNodesInternal(final Collection<CyNode> nodes) {
@@ -275,21 +360,25 @@ class SimpleNetwork {
 			return false;
 
 		boolean madeChanges = false;
-		synchronized (lock) {
+		final long stamp = lock.writeLock();
+		try {
 			for ( CyNode n : nodes ) {
-				if (!containsNode(n)) 
+				if (!containsNodeUnlocked(n)) 
 					continue;
 
 				// remove adjacent edges from network
-				removeEdgesInternal(getAdjacentEdgeList(n, CyEdge.Type.ANY));
+				removeEdgesUnlocked(getAdjacentEdgeListUnlocked(n, CyEdge.Type.ANY));
 	
 				final NodePointer node = (NodePointer)nodePointers.get(n.getSUID());
 				nodePointers.removeKey(n.getSUID());
 				firstNode = node.remove(firstNode);
 	
 				nodeCount--;
+				topologyVersion++;
 				madeChanges = true;
 			}
+		} finally {
+			lock.unlockWrite(stamp);
 		}
 
 		return madeChanges;
@@ -299,17 +388,18 @@ class SimpleNetwork {
 
 		final EdgePointer e;
 
-		synchronized (lock) {
+		final long stamp = lock.writeLock();
+		try {
 			// here we check with possible sub node, not just root node
-			if (!containsNode(s))
+			if (!containsNodeUnlocked(s))
 				throw new IllegalArgumentException("source node is not a member of this network");
 
 			// here we check with possible sub node, not just root node
-			if (!containsNode(t))
+			if (!containsNodeUnlocked(t))
 				throw new IllegalArgumentException("target node is not a member of this network");
 
 			// edge already exists in this network
-			if ( containsEdge(edge) )
+			if ( containsEdgeUnlocked(edge) )
 				return edge;
 
 			final NodePointer source = getNodePointer(s);
@@ -320,43 +410,124 @@ class SimpleNetwork {
 			edgePointers.put(edge.getSUID(),e);
 
 			edgeCount++;
+			topologyVersion++;
+		} finally {
+			lock.unlockWrite(stamp);
 		}
 
 		return edge; 
 	}
 
+	/**
+	 * Adds all of the given edges while holding the lock only once. The source and
+	 * target of every edge must already be part of this network, otherwise nothing
+	 * is added. Edges that are already part of this network are ignored.
+	 */
+	protected void addEdgesInternal(final List<CyEdge> edges) {
+		final long stamp = lock.writeLock();
+		try {
+			// Check everything first so that a bad edge doesn't leave the network half updated
+			for (CyEdge edge : edges) {
+				if (!containsNodeUnlocked(edge.getSource()))
+					throw new IllegalArgumentException("source node is not a member of this network");
+				if (!containsNodeUnlocked(edge.getTarget()))
+					throw new IllegalArgumentException("target node is not a member of this network");
+			}
+			
+			edgePointers.ensureCapacity(edgeCount + edges.size());
+			
+			for (CyEdge edge : edges) {
+				if (containsEdgeUnlocked(edge))
+					continue;
+				
+				final NodePointer source = getNodePointer(edge.getSource());
+				final NodePointer target = getNodePointer(edge.getTarget());
+				edgePointers.put(edge.getSUID(), new EdgePointer(source, target, edge.isDirected(), edge));
+				edgeCount++;
+			}
+			
+			topologyVersion++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
 	protected boolean removeEdgesInternal(final Collection<CyEdge> edges) {
 		if (edges == null || edges.isEmpty())
 			return false;
 
-		boolean madeChanges = false;
-		synchronized (lock) {
-			for (CyEdge edge : edges) {
-				if (!containsEdge(edge))
-					continue;
+		final long stamp = lock.writeLock();
+		try {
+			return removeEdgesUnlocked(edges);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public boolean containsNode(final CyNode node) {
+		if (node == null)
+			return false;
+
+		final long stamp = lock.readLock();
+		try {
+			return containsNodeUnlocked(node);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public boolean containsEdge(final CyEdge edge) {
+		if (edge == null)
+			return false;
+
+		final long stamp = lock.readLock();
+		try {
+			return containsEdgeUnlocked(edge);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public boolean containsEdge(final CyNode n1, final CyNode n2) {
+		final long stamp = lock.readLock();
+		try {
+			if (!containsNodeUnlocked(n1))
+				return false;
 	
-				final EdgePointer e = (EdgePointer)edgePointers.get(edge.getSUID());
-				edgePointers.removeKey(edge.getSUID());
+			if (!containsNodeUnlocked(n2))
+				return false;
 	
-				e.remove();
+			final Iterator<EdgePointer> it = edgesConnecting(getNodePointer(n1), getNodePointer(n2), CyEdge.Type.ANY);
 	
-				edgeCount--;
-				madeChanges = true;
-			}
+			return it.hasNext();
+		} finally {
+			lock.unlockRead(stamp);
 		}
+	}
 
-		return madeChanges;
+	// The following helpers must only be called while holding the lock (read or write).
+
+	private CyNode getNodeUnlocked(final long n) {
+		final NodePointer np = (NodePointer) nodePointers.get(n);
+		if (np != null)
+			return np.cyNode;
+		else
+			return null;
 	}
 
-	public boolean containsNode(final CyNode node) {
+	private CyEdge getEdgeUnlocked(final long e) {
+		final EdgePointer ep = (EdgePointer) edgePointers.get(e);
+		if (ep != null)
+			return ep.cyEdge;
+		else
+			return null;
+	}
+
+	private boolean containsNodeUnlocked(final CyNode node) {
 		if (node == null)
 			return false;
 
-		final NodePointer thisNode; 
-
-		synchronized (lock) {
-			thisNode = (NodePointer)nodePointers.get(node.getSUID());
-		}
+		final NodePointer thisNode = (NodePointer)nodePointers.get(node.getSUID());
 
 		if (thisNode == null)
 			return false;
@@ -364,15 +535,11 @@ class SimpleNetwork {
 		return thisNode.cyNode.equals(node);
 	}
 
-	public boolean containsEdge(final CyEdge edge) {
+	private boolean containsEdgeUnlocked(final CyEdge edge) {
 		if (edge == null)
 			return false;
 
-		final EdgePointer thisEdge; 
-
-		synchronized (lock) {
-			thisEdge = (EdgePointer)edgePointers.get(edge.getSUID());
-		}
+		final EdgePointer thisEdge = (EdgePointer)edgePointers.get(edge.getSUID());
 
 		if (thisEdge == null)
 			return false;
@@ -380,18 +547,39 @@ class SimpleNetwork {
 		return thisEdge.cyEdge.equals(edge);
 	}
 
-	public boolean containsEdge(final CyNode n1, final CyNode n2) {
-		synchronized (lock) {
-			if (!containsNode(n1))
-				return false;
-	
-			if (!containsNode(n2))
-				return false;
-	
-			final Iterator<EdgePointer> it = edgesConnecting(getNodePointer(n1), getNodePointer(n2), CyEdge.Type.ANY);
-	
-			return it.hasNext();
+	private List<CyEdge> getAdjacentEdgeListUnlocked(final CyNode n, final CyEdge.Type e) {
+		if (!containsNodeUnlocked(n)) 
+			return Collections.emptyList(); 
+
+		final NodePointer np = getNodePointer(n);
+		final List<CyEdge> ret = new ArrayList<>(countEdges(np, e));
+		final Iterator<EdgePointer> it = edgesAdjacent(np, e);
+
+		while (it.hasNext()) {
+			ret.add(it.next().cyEdge);
 		}
+
+		return ret;
+	}
+
+	private boolean removeEdgesUnlocked(final Collection<CyEdge> edges) {
+		boolean madeChanges = false;
+
+		for (CyEdge edge : edges) {
+			if (!containsEdgeUnlocked(edge))
+				continue;
+
+			final EdgePointer e = (EdgePointer)edgePointers.get(edge.getSUID());
+			edgePointers.removeKey(edge.getSUID());
+
+			e.remove();
+
+			edgeCount--;
+			topologyVersion++;
+			madeChanges = true;
+		}
+
+		return madeChanges;
 	}
 
 	private Iterator<EdgePointer> edgesAdjacent(final NodePointer n, final CyEdge.Type edgeType) {
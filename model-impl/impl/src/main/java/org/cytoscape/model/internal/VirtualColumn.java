@@ -122,7 +122,7 @@ final class VirtualColumn implements VirtualColumnInfo {
 	
 	<T> Collection<T> getMatchingKeys(Object value, Class<T> type) {
 		Collection<T> keys = sourceTable.getMatchingKeys(sourceColumn.getName(), value, type);
-		keys.retainAll(targetJoinColumn.getValues(targetJoinColumn.getType()));
+		keys.retainAll(new HashSet<>(targetJoinColumn.getValues(targetJoinColumn.getType())));
 		return keys;
 	}	
 
@@ -130,6 +130,14 @@ final class VirtualColumn implements VirtualColumnInfo {
 		return getMatchingKeys(value, sourceColumn.getType()).size();
 	}
 
+	void setIndexed(final boolean indexed) {
+		sourceTable.setColumnIndexed(sourceColumn.getName(), indexed);
+	}
+	
+	boolean isIndexed() {
+		return sourceTable.isColumnIndexed(sourceColumn.getName());
+	}
+
 	
 	@Override
 	public boolean isImmutable() {
@@ -11,7 +11,6 @@ import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
@@ -37,7 +36,7 @@ public class ColumnDataFactoryFastUtil implements ColumnDataFactory {
 			} else if(Double.class.equals(type)) {
 				return new EquationSupport(new MapColumn((Map)new Long2DoubleOpenHashMap()));
 			} else if(String.class.equals(type)) {
-				return new CanonicalStringPoolFilter(stringPool, new MapColumn((Map)new Long2ObjectOpenHashMap()));
+				return new EquationSupport(new DictionaryStringColumn(stringPool));
 			} else if(Boolean.class.equals(type)) {
 				return new EquationSupport(new LongToBooleanColumn(() -> new LongOpenHashSet()));
 			}
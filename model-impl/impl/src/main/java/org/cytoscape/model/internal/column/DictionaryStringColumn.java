@@ -0,0 +1,274 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.model.CyRow;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+/**
+ * A String column for Long primary keys that stores an int code per row and a
+ * per column dictionary of distinct values. Columns like species or interaction
+ * only have a few distinct values, so every value is only stored once no matter how
+ * many rows there are, and equality lookups only have to compare ints.
+ * <p>
+ * When most values are distinct (e.g. a name column) the dictionary just adds
+ * overhead, so the column stores the strings directly instead. The encoding is chosen
+ * once the column has {@link #SAMPLE_SIZE} rows and checked again each time the
+ * number of rows doubles, so a column can switch back and forth as it is loaded.
+ * Either way the strings are canonicalized with the given {@link CanonicalStringPool}.
+ * <p>
+ * Does not support Equations, wrap it in an {@link EquationSupport}.
+ */
+public class DictionaryStringColumn implements ColumnData {
+
+	// Number of rows at which the encoding is first checked
+	static final int SAMPLE_SIZE = 4096;
+
+	private final CanonicalStringPool stringPool;
+
+	private final Long2IntOpenHashMap codes = new Long2IntOpenHashMap();
+	private final Object2IntOpenHashMap<String> dictionary = new Object2IntOpenHashMap<>();
+	private final List<String> values = new ArrayList<>();
+	private final IntArrayList counts = new IntArrayList();
+	private final IntArrayList freeCodes = new IntArrayList();
+
+	// Used instead of the dictionary when most values are distinct
+	private Long2ObjectOpenHashMap<String> strings;
+
+	private int nextCheck = SAMPLE_SIZE;
+
+	public DictionaryStringColumn(CanonicalStringPool stringPool) {
+		this.stringPool = stringPool;
+		codes.defaultReturnValue(-1);
+		dictionary.defaultReturnValue(-1);
+	}
+
+	boolean isDictionaryEncoded() {
+		return strings == null;
+	}
+
+	int getDictionarySize() {
+		return dictionary.size();
+	}
+
+	private int size() {
+		return strings == null ? codes.size() : strings.size();
+	}
+
+	private int getCode(String value) {
+		int code = dictionary.getInt(value);
+		if(code >= 0)
+			return code;
+
+		value = stringPool.canonicalize(value);
+		if(freeCodes.isEmpty()) {
+			code = values.size();
+			values.add(value);
+			counts.add(0);
+		} else {
+			code = freeCodes.popInt();
+			values.set(code, value);
+		}
+		dictionary.put(value, code);
+		return code;
+	}
+
+	private void release(int code) {
+		int count = counts.getInt(code) - 1;
+		counts.set(code, count);
+		if(count == 0) {
+			dictionary.removeInt(values.get(code));
+			values.set(code, null);
+			freeCodes.add(code);
+		}
+	}
+
+	private boolean putCode(long key, String value) {
+		final int prev = codes.get(key);
+		if(prev >= 0 && values.get(prev).equals(value))
+			return false;
+
+		final int code = getCode(value);
+		codes.put(key, code);
+		counts.set(code, counts.getInt(code) + 1);
+		if(prev >= 0)
+			release(prev);
+		return true;
+	}
+
+	private boolean putString(long key, String value) {
+		if(value.equals(strings.get(key)))
+			return false;
+
+		strings.put(key, stringPool.canonicalize(value));
+		return true;
+	}
+
+	/**
+	 * Stores the strings directly when more than half of the rows have distinct values,
+	 * and goes back to the dictionary when at most a quarter of them do.
+	 */
+	private void chooseEncoding() {
+		final int rows = size();
+		nextCheck = rows > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : rows * 2;
+
+		if(strings == null) {
+			if(dictionary.size() * 2 > rows)
+				decode();
+		} else {
+			if(new ObjectOpenHashSet<>(strings.values()).size() * 4 <= rows)
+				encode();
+		}
+	}
+
+	private void decode() {
+		strings = new Long2ObjectOpenHashMap<>(codes.size());
+		for(Long2IntMap.Entry entry : codes.long2IntEntrySet()) {
+			strings.put(entry.getLongKey(), values.get(entry.getIntValue()));
+		}
+
+		codes.clear();
+		codes.trim();
+		dictionary.clear();
+		dictionary.trim();
+		values.clear();
+		counts.clear();
+		freeCodes.clear();
+	}
+
+	private void encode() {
+		final Long2ObjectOpenHashMap<String> decoded = strings;
+		strings = null;
+
+		for(Long2ObjectMap.Entry<String> entry : decoded.long2ObjectEntrySet()) {
+			putCode(entry.getLongKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Strings cache their hash code, so comparing it first avoids comparing the characters of
+	 * almost every value that doesn't match.
+	 */
+	private static boolean matches(String s, Object value, int hash) {
+		return s.hashCode() == hash && s.equals(value);
+	}
+
+	@Override
+	public boolean put(Object key, Object value) {
+		if(value == null)
+			return remove(key);
+
+		final long k = (Long) key;
+		final boolean changed = strings == null ? putCode(k, (String) value) : putString(k, (String) value);
+
+		if(changed && size() >= nextCheck)
+			chooseEncoding();
+
+		return changed;
+	}
+
+	@Override
+	public Object get(Object key) {
+		final long k = (Long) key;
+		if(strings != null)
+			return strings.get(k);
+
+		final int code = codes.get(k);
+		return code < 0 ? null : values.get(code);
+	}
+
+	@Override
+	public boolean remove(Object key) {
+		final long k = (Long) key;
+		if(strings != null)
+			return strings.remove(k) != null;
+
+		final int code = codes.remove(k);
+		if(code < 0)
+			return false;
+		release(code);
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Set<Object> keySet() {
+		if(strings != null)
+			return (Set) strings.keySet();
+		return (Set) codes.keySet();
+	}
+
+	@Override
+	public int countMatchingRows(Object value) {
+		if(!(value instanceof String))
+			return 0;
+
+		if(strings != null) {
+			final int hash = value.hashCode();
+			int count = 0;
+			for(String s : strings.values()) {
+				if(matches(s, value, hash))
+					count++;
+			}
+			return count;
+		}
+
+		final int code = dictionary.getInt(value);
+		return code < 0 ? 0 : counts.getInt(code);
+	}
+
+	@Override
+	public Collection<CyRow> getMatchingRows(Map<Object, CyRow> rows, Object value) {
+		List<CyRow> matchingRows = new ArrayList<>();
+		for(LongIterator it = getMatchingKeys(value).iterator(); it.hasNext(); ) {
+			matchingRows.add(rows.get(it.nextLong()));
+		}
+		return matchingRows;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Collection<T> getMatchingKeys(Object value, Class<T> type) {
+		List<T> matchingKeys = new ArrayList<>();
+		for(LongIterator it = getMatchingKeys(value).iterator(); it.hasNext(); ) {
+			matchingKeys.add((T) Long.valueOf(it.nextLong()));
+		}
+		return matchingKeys;
+	}
+
+	private LongArrayList getMatchingKeys(Object value) {
+		LongArrayList matchingKeys = new LongArrayList();
+		if(!(value instanceof String))
+			return matchingKeys;
+
+		if(strings != null) {
+			final int hash = value.hashCode();
+			for(Long2ObjectMap.Entry<String> entry : strings.long2ObjectEntrySet()) {
+				if(matches(entry.getValue(), value, hash))
+					matchingKeys.add(entry.getLongKey());
+			}
+		} else {
+			final int code = dictionary.getInt(value);
+			if(code >= 0) {
+				for(Long2IntMap.Entry entry : codes.long2IntEntrySet()) {
+					if(entry.getIntValue() == code)
+						matchingKeys.add(entry.getLongKey());
+				}
+			}
+		}
+		return matchingKeys;
+	}
+}
@@ -0,0 +1,118 @@
+package org.cytoscape.model.internal.column;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.equations.Equation;
+import org.cytoscape.model.CyRow;
+
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+
+/**
+ * Keeps a hash index from values to primary keys on top of another ColumnData,
+ * so that getMatchingRows(), getMatchingKeys() and countMatchingRows() don't have
+ * to scan the whole column. The index is kept up to date by put() and remove().
+ * Equations are not indexed, same as the other column implementations they
+ * never match a value.
+ */
+public class IndexedColumn implements ColumnData {
+
+	private final ColumnData delegate;
+	private final Map<Object,Set<Object>> index;
+	
+	public IndexedColumn(ColumnData delegate) {
+		this.delegate = delegate;
+		this.index = new HashMap<>();
+		
+		for(Object key : delegate.keySet()) {
+			addToIndex(key, delegate.get(key));
+		}
+	}
+	
+	public ColumnData getDelegate() {
+		return delegate;
+	}
+	
+	private void addToIndex(Object key, Object value) {
+		if(value == null || value instanceof Equation)
+			return;
+		// Linked, so that matching rows are returned in the order they were added
+		index.computeIfAbsent(value, v -> new ObjectLinkedOpenHashSet<>()).add(key);
+	}
+	
+	private void removeFromIndex(Object key, Object value) {
+		if(value == null || value instanceof Equation)
+			return;
+		Set<Object> keys = index.get(value);
+		if(keys != null) {
+			keys.remove(key);
+			if(keys.isEmpty())
+				index.remove(value);
+		}
+	}
+	
+	@Override
+	public boolean put(Object key, Object value) {
+		Object prev = delegate.get(key);
+		boolean changed = delegate.put(key, value);
+		if(changed) {
+			removeFromIndex(key, prev);
+			addToIndex(key, value);
+		}
+		return changed;
+	}
+
+	@Override
+	public Object get(Object key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public boolean remove(Object key) {
+		Object prev = delegate.get(key);
+		boolean changed = delegate.remove(key);
+		if(changed) {
+			removeFromIndex(key, prev);
+		}
+		return changed;
+	}
+
+	@Override
+	public Set<Object> keySet() {
+		return delegate.keySet();
+	}
+
+	@Override
+	public int countMatchingRows(Object value) {
+		Set<Object> keys = index.get(value);
+		return keys == null ? 0 : keys.size();
+	}
+
+	@Override
+	public Collection<CyRow> getMatchingRows(Map<Object, CyRow> rows, Object value) {
+		Set<Object> keys = index.get(value);
+		if(keys == null)
+			return Collections.emptyList();
+		
+		List<CyRow> matchingRows = new ArrayList<>(keys.size());
+		for(Object key : keys) {
+			matchingRows.add(rows.get(key));
+		}
+		return matchingRows;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> Collection<T> getMatchingKeys(Object value, Class<T> type) {
+		Set<Object> keys = index.get(value);
+		if(keys == null)
+			return new ArrayList<>();
+		// callers are allowed to modify the returned collection
+		return new ArrayList<>((Set<T>)(Set<?>)keys);
+	}
+}
@@ -25,8 +25,19 @@ package org.cytoscape.model;
  */
 
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 
 
 public class CyNetworkTest extends AbstractCyNetworkTest {
@@ -40,4 +51,40 @@ public class CyNetworkTest extends AbstractCyNetworkTest {
 	public void tearDown() {
 		net = null;
 	}
+	
+	@Test
+	public void testConcurrentReadsDuringModification() throws Exception {
+		final List<CyNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			nodes.add(net.addNode());
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final List<Future<?>> readers = new ArrayList<>();
+		
+		for (int t = 0; t < 4; t++) {
+			readers.add(executor.submit(() -> {
+				for (int i = 0; i < 200; i++) {
+					for (CyNode n : nodes) {
+						net.getNeighborList(n, CyEdge.Type.ANY);
+						net.getAdjacentEdgeList(n, CyEdge.Type.ANY);
+					}
+					assertTrue(net.getNodeCount() >= 100);
+				}
+			}));
+		}
+		
+		for (int i = 0; i < nodes.size(); i++)
+			net.addEdge(nodes.get(i), nodes.get((i + 1) % nodes.size()), true);
+		
+		// Rethrows any exception raised by a reader
+		for (Future<?> f : readers)
+			f.get();
+		
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		
+		assertEquals(100, net.getEdgeCount());
+		for (CyNode n : nodes)
+			assertEquals(2, net.getNeighborList(n, CyEdge.Type.ANY).size());
+	}
 }
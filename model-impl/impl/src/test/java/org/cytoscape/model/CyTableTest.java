@@ -5,6 +5,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -182,6 +183,119 @@ public class CyTableTest extends AbstractCyTableTest {
 		assertTrue(last instanceof RowSetRecord);
 	}
 
+	@Test
+	public void testIndexedColumnMatchingRows() {
+		table.createColumn("species", String.class, false);
+		table.getRow(1L).set("species", "human");
+		table.getRow(2L).set("species", "mouse");
+		
+		CyTableImpl tableImpl = (CyTableImpl) table;
+		tableImpl.setColumnIndexed("species", true);
+		assertTrue(tableImpl.isColumnIndexed("species"));
+		
+		table.getRow(3L).set("species", "human");
+		assertEquals(2, table.countMatchingRows("species", "human"));
+		assertEquals(2, table.getMatchingRows("species", "human").size());
+		
+		table.getRow(1L).set("species", "mouse");
+		assertEquals(1, table.countMatchingRows("species", "human"));
+		assertEquals(2, table.getMatchingKeys("species", "mouse", Long.class).size());
+		
+		table.deleteRows(Collections.singletonList(2L));
+		assertEquals(1, table.countMatchingRows("species", "mouse"));
+		assertTrue(table.getMatchingKeys("species", "mouse", Long.class).contains(1L));
+		
+		tableImpl.setColumnIndexed("species", false);
+		assertFalse(tableImpl.isColumnIndexed("species"));
+		assertEquals(1, table.countMatchingRows("species", "human"));
+	}
+
+	@Test
+	public void testBulkColumnValues() {
+		table.createColumn("score", Double.class, false);
+		table.createColumn("count", Integer.class, false);
+		CyTableImpl tableImpl = (CyTableImpl) table;
+		
+		long[] keys = { 1L, 2L, 3L };
+		tableImpl.setColumnValues("score", keys, new double[] { 0.5, Double.NaN, 2.5 });
+		tableImpl.setColumnValues("count", keys, new double[] { 1, 2, 3 });
+		
+		assertEquals(3, table.getRowCount());
+		assertEquals(0.5, table.getRow(1L).get("score", Double.class), 0.0);
+		assertFalse(table.getRow(2L).isSet("score"));
+		assertEquals(Integer.valueOf(3), table.getRow(3L).get("count", Integer.class));
+		
+		table.getRow(4L).set("score", 7.0);
+		double[] out = new double[4];
+		tableImpl.getColumnValues("score", new long[] { 1L, 2L, 3L, 4L }, out);
+		assertEquals(0.5, out[0], 0.0);
+		assertTrue(Double.isNaN(out[1]));
+		assertEquals(2.5, out[2], 0.0);
+		assertEquals(7.0, out[3], 0.0);
+		
+		tableImpl.getColumnValues("count", keys, out);
+		assertEquals(2.0, out[1], 0.0);
+		
+		tableImpl.setColumnValues("score", new Object[] { 1L, 5L }, new Object[] { null, 9.0 });
+		assertFalse(table.getRow(1L).isSet("score"));
+		assertEquals(9.0, table.getRow(5L).get("score", Double.class), 0.0);
+	}
+
+	@Test
+	public void testBulkColumnValuesOfJoinedColumn() {
+		table.createColumn("real", String.class, false);
+		table2.createColumn("join", Long.class, false);
+		table2.getRow(10L).set("join", 1L);
+		table2.getRow(11L).set("join", 1L);
+		table2.getRow(12L).set("join", 2L);
+		table2.addVirtualColumn("virtual", "real", table, "join", true);
+		
+		((CyTableImpl) table).setColumnValues("real", new Object[] { 1L, 2L }, new Object[] { "a", "b" });
+		
+		Map<Object, Object> virtualValues = new HashMap<>();
+		for (Object payload : eventHelper.getAllPayloads()) {
+			if (payload instanceof RowSetRecord) {
+				RowSetRecord record = (RowSetRecord) payload;
+				if (record.getRow().getTable() == table2) {
+					assertEquals("virtual", record.getColumn());
+					virtualValues.put(record.getRow().get("SUID", Long.class), record.getValue());
+				}
+			}
+		}
+		assertEquals(Map.of(10L, "a", 11L, "a", 12L, "b"), virtualValues);
+		assertEquals("a", table2.getRow(11L).get("virtual", String.class));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBulkColumnValuesWithWrongType() {
+		table.createColumn("score", Double.class, false);
+		((CyTableImpl) table).setColumnValues("score", new Object[] { 1L }, new Object[] { "not a number" });
+	}
+
+	@Test
+	public void testBulkColumnValuesWithBadKey() {
+		table.createColumn("score", Double.class, false);
+		try {
+			((CyTableImpl) table).setColumnValues("score", new Object[] { 1L, "2" }, new Object[] { 1.0, 2.0 });
+			fail("expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertFalse(table.rowExists(1L));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBulkColumnValuesWithFraction() {
+		table.createColumn("count", Integer.class, false);
+		((CyTableImpl) table).setColumnValues("count", new long[] { 1L }, new double[] { 1.5 });
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBulkColumnValuesOutOfRange() {
+		table.createColumn("count", Integer.class, false);
+		((CyTableImpl) table).setColumnValues("count", new long[] { 1L }, new double[] { 1e10 });
+	}
+
 	@Test
 	public void testGetColumnValuesWithEquations() {
 		table.createColumn("someLongs", Long.class, false);
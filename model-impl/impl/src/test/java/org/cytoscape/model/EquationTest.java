@@ -8,6 +8,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,10 +18,16 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.cytoscape.equations.Equation;
+import org.cytoscape.equations.Interpreter;
 import org.cytoscape.equations.internal.EquationCompilerImpl;
 import org.cytoscape.equations.internal.EquationParserImpl;
+import org.cytoscape.equations.internal.interpreter.CompiledInterpreterImpl;
+import org.cytoscape.equations.internal.interpreter.InterpreterImpl;
 import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.event.DummyCyEventHelper;
+import org.cytoscape.model.CyTable.SavePolicy;
+import org.cytoscape.model.internal.CyTableImpl;
+import org.cytoscape.model.internal.column.ColumnDataFactory;
 import org.cytoscape.service.util.CyServiceRegistrar;
 import org.junit.Before;
 import org.junit.Test;
@@ -347,5 +354,143 @@ public class EquationTest {
 		assertEquals(Integer.valueOf(2), row.get("c2", Integer.class));
 		assertEquals(Integer.valueOf(3), row.get("c3", Integer.class));
 	}
+	
+	@Test
+	public void testEquationResultsFollowReferencedColumns() {
+		CyTableFactory factory = support.getTableFactory();
+		CyTable table = factory.createTable("MyTable3", "SUID", Long.class, true, true);
+		table.createColumn("c1", Double.class, false);
+		table.createColumn("e1", Double.class, false);
+		table.createColumn("e2", Double.class, false);
+		
+		Equation e1 = parseEquation("=$c1 * 2.0", table);
+		Equation e2 = parseEquation("=$e1 + 1.0", table);
+		
+		CyRow row1 = table.getRow(1L);
+		CyRow row2 = table.getRow(2L);
+		for (CyRow row : List.of(row1, row2)) {
+			row.set("c1", 1.0);
+			row.set("e1", e1);
+			row.set("e2", e2);
+		}
+		
+		assertEquals(3.0, row1.get("e2", Double.class), 0);
+		assertEquals(3.0, row1.get("e2", Double.class), 0);
+		assertEquals(3.0, row2.get("e2", Double.class), 0);
+		
+		// Changing a referenced cell must update the equations that depend on it, directly or not
+		row1.set("c1", 2.0);
+		assertEquals(4.0, row1.get("e1", Double.class), 0);
+		assertEquals(5.0, row1.get("e2", Double.class), 0);
+		assertEquals(3.0, row2.get("e2", Double.class), 0);
+		
+		// Replacing an equation in the middle of the chain
+		row2.set("e1", parseEquation("=$c1 * 10.0", table));
+		assertEquals(11.0, row2.get("e2", Double.class), 0);
+		
+		row2.set("e1", 7.0);
+		assertEquals(8.0, row2.get("e2", Double.class), 0);
+		
+		row1.set("c1", null);
+		assertNull(row1.get("e2", Double.class));
+	}
+	
+	@Test
+	public void testEquationResultsAfterColumnChanges() {
+		CyTableFactory factory = support.getTableFactory();
+		CyTable table = factory.createTable("MyTable4", "SUID", Long.class, true, true);
+		table.createColumn("c1", Double.class, false);
+		table.createColumn("e1", Double.class, false);
+		
+		CyRow row = table.getRow(1L);
+		row.set("c1", 1.0);
+		row.set("e1", parseEquation("=$c1 + 1.0", table));
+		assertEquals(2.0, row.get("e1", Double.class), 0);
+		
+		table.deleteColumn("c1");
+		assertNull(row.get("e1", Double.class));
+		
+		table.createColumn("c1", Double.class, false);
+		row.set("c1", 5.0);
+		assertEquals(6.0, row.get("e1", Double.class), 0);
+		
+		table.deleteRows(List.of(1L));
+		row = table.getRow(1L);
+		row.set("c1", 1.0);
+		assertNull(row.get("e1", Double.class));
+	}
+	
+	@Test
+	public void testEquationResultsAfterBulkSet() {
+		CyTableImpl table = new CyTableImpl("MyTable6", CyIdentifiable.SUID, Long.class, true, true,
+				SavePolicy.SESSION_FILE, eventHelper, ColumnDataFactory.createDefaultFactory(), new CompiledInterpreterImpl(), 1000);
+		table.createColumn("c1", Double.class, false);
+		table.createColumn("e1", Double.class, false);
+		table.createColumn("e2", Double.class, false);
+		
+		Object[] keys = { 1L, 2L, 3L };
+		table.setColumnValues("c1", keys, new Object[] { 1.0, 2.0, 3.0 });
+		Equation e1 = parseEquation("=$c1 * 2.0", table);
+		table.setColumnValues("e1", keys, new Object[] { e1, e1, e1 });
+		assertEquals(4.0, table.getRow(2L).get("e1", Double.class), 0);
+		
+		// A column that starts to depend on e1 after its dependents were looked up
+		table.getRow(2L).set("c1", 2.5);
+		Equation e2 = parseEquation("=$e1 + 1.0", table);
+		table.setColumnValues("e2", keys, new Object[] { e2, e2, e2 });
+		assertEquals(6.0, table.getRow(2L).get("e2", Double.class), 0);
+		
+		table.setColumnValues("c1", keys, new Object[] { 10.0, null, 30.0 });
+		assertEquals(21.0, table.getRow(1L).get("e2", Double.class), 0);
+		assertNull(table.getRow(2L).get("e2", Double.class));
+		assertEquals(61.0, table.getRow(3L).get("e2", Double.class), 0);
+	}
+	
+	@Test
+	public void testColumnEquation() {
+		// The compiled interpreter evaluates the whole column at once, the other one row by row
+		checkColumnEquation(new CompiledInterpreterImpl());
+		checkColumnEquation(new InterpreterImpl());
+	}
+	
+	private void checkColumnEquation(Interpreter interpreter) {
+		CyTableImpl table = new CyTableImpl("MyTable5", CyIdentifiable.SUID, Long.class, true, true,
+				SavePolicy.SESSION_FILE, eventHelper, ColumnDataFactory.createDefaultFactory(), interpreter, 1000);
+		table.createColumn("score", Double.class, false);
+		table.createColumn("count", Integer.class, false);
+		table.createColumn("label", String.class, false);
+		table.createColumn("derived", Double.class, false);
+		table.createColumn("text", String.class, false);
+		
+		int rowCount = 10000;
+		Object[] keys = new Object[rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			keys[i] = (long) i;
+			CyRow row = table.getRow(keys[i]);
+			row.set("score", i * 0.5);
+			if (i % 10 != 0)
+				row.set("count", i);
+			row.set("label", "row" + i);
+		}
+		
+		Object[] equations = new Object[rowCount];
+		Arrays.fill(equations, parseEquation("=$score * LOG($count)", table));
+		table.setColumnValues("derived", keys, equations);
+		Arrays.fill(equations, parseEquation("=$label & \"!\"", table));
+		table.setColumnValues("text", keys, equations);
+		
+		for (int i = 0; i < rowCount; i++) {
+			CyRow row = table.getRow(keys[i]);
+			if (i % 10 == 0)
+				assertNull(row.get("derived", Double.class));
+			else
+				assertEquals(i * 0.5 * Math.log10(i), row.get("derived", Double.class), 1e-9);
+			assertEquals("row" + i + "!", row.get("text", String.class));
+		}
+		
+		table.getRow(keys[1]).set("score", 10.0);
+		assertEquals(0.0, table.getRow(keys[1]).get("derived", Double.class), 0);
+		table.getRow(keys[2]).set("score", 10.0);
+		assertEquals(10.0 * Math.log10(2), table.getRow(keys[2]).get("derived", Double.class), 1e-9);
+	}
 }
-
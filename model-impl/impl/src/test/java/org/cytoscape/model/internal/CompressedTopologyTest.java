@@ -0,0 +1,82 @@
+package org.cytoscape.model.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.TestCyNetworkFactory;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.junit.Test;
+
+public class CompressedTopologyTest {
+
+	@Test
+	public void testAdjacency() {
+		CySubNetwork net = TestCyNetworkFactory.getPublicRootInstance().addSubNetwork();
+		CyNode n1 = net.addNode();
+		CyNode n2 = net.addNode();
+		CyNode n3 = net.addNode();
+		CyEdge e1 = net.addEdge(n1, n2, true);
+		CyEdge e2 = net.addEdge(n2, n3, false);
+		CyEdge e3 = net.addEdge(n3, n3, true);
+		
+		CompressedTopology topology = ((CySubNetworkImpl) net).getCompressedTopology();
+		
+		assertEquals(3, topology.getNodeCount());
+		assertEquals(3, topology.getEdgeCount());
+		assertEquals(4, topology.getOffsets().length);
+		
+		int i1 = topology.getNodeIndex(n1.getSUID());
+		int i2 = topology.getNodeIndex(n2.getSUID());
+		int i3 = topology.getNodeIndex(n3.getSUID());
+		assertEquals(n1.getSUID().longValue(), topology.getNodeSUID(i1));
+		assertEquals(-1, topology.getNodeIndex(-42L));
+		
+		assertEquals(1, topology.getDegree(i1));
+		assertEquals(2, topology.getDegree(i2));
+		// the self-edge is only listed once
+		assertEquals(2, topology.getDegree(i3));
+		
+		assertArrayEquals(new int[] { i2 }, neighbors(topology, i1));
+		
+		int ie1 = topology.getEdgeIndex(e1.getSUID());
+		assertEquals(i1, topology.getEdgeSources()[ie1]);
+		assertEquals(i2, topology.getEdgeTargets()[ie1]);
+		assertEquals(true, topology.getEdgeDirected()[ie1]);
+		assertEquals(false, topology.getEdgeDirected()[topology.getEdgeIndex(e2.getSUID())]);
+		assertEquals(e3.getSUID().longValue(), topology.getEdgeSUID(topology.getEdgeIndex(e3.getSUID())));
+	}
+	
+	@Test
+	public void testCachedUntilTopologyChanges() {
+		CySubNetwork net = TestCyNetworkFactory.getPublicRootInstance().addSubNetwork();
+		CyNode n1 = net.addNode();
+		CyNode n2 = net.addNode();
+		CyEdge e1 = net.addEdge(n1, n2, true);
+		
+		CySubNetworkImpl impl = (CySubNetworkImpl) net;
+		CompressedTopology topology = impl.getCompressedTopology();
+		assertSame(topology, impl.getCompressedTopology());
+		
+		net.removeEdges(Collections.singleton(e1));
+		CompressedTopology updated = impl.getCompressedTopology();
+		assertNotSame(topology, updated);
+		assertEquals(0, updated.getEdgeCount());
+		assertEquals(0, updated.getDegree(updated.getNodeIndex(n1.getSUID())));
+		
+		CyRootNetworkImpl root = (CyRootNetworkImpl) net.getRootNetwork();
+		assertEquals(2, root.getCompressedTopology().getNodeCount());
+	}
+	
+	private static int[] neighbors(CompressedTopology topology, int index) {
+		int[] offsets = topology.getOffsets();
+		int[] ret = new int[offsets[index + 1] - offsets[index]];
+		System.arraycopy(topology.getNeighbors(), offsets[index], ret, 0, ret.length);
+		return ret;
+	}
+}
@@ -1,6 +1,7 @@
 package org.cytoscape.model.internal.column;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -135,6 +136,117 @@ public class ColumnDataTest {
 	}
 	
 	
+	@Test
+	public void testIndexedColumn() {
+		MapColumn mapColumn = new MapColumn(new HashMap<>());
+		mapColumn.put(1, "apple");
+		mapColumn.put(2, "banana");
+		
+		// existing values are indexed when the index is created
+		IndexedColumn columnData = new IndexedColumn(new EquationSupport(mapColumn));
+		assertEquals(1, columnData.countMatchingRows("apple"));
+		
+		columnData.put(3, "apple");
+		columnData.put(4, "carrot");
+		
+		assertEquals(2, columnData.countMatchingRows("apple"));
+		Collection<Integer> appleKeys = columnData.getMatchingKeys("apple", Integer.class);
+		assertEquals(2, appleKeys.size());
+		assertTrue(appleKeys.contains(1));
+		assertTrue(appleKeys.contains(3));
+		
+		// changing a value moves the key in the index
+		columnData.put(1, "carrot");
+		assertEquals(1, columnData.countMatchingRows("apple"));
+		assertEquals(2, columnData.countMatchingRows("carrot"));
+		
+		columnData.remove(4);
+		assertEquals(1, columnData.countMatchingRows("carrot"));
+		
+		// equations are not indexed
+		columnData.put(3, createEquation("TestEquation"));
+		assertEquals(0, columnData.countMatchingRows("apple"));
+		assertEquals(0, columnData.getMatchingKeys("apple", Integer.class).size());
+		
+		columnData.put(2, null);
+		assertEquals(0, columnData.countMatchingRows("banana"));
+		assertEquals(2, columnData.keySet().size());
+	}
 	
+	@Test
+	public void testIndexedColumnKeepsInsertionOrder() {
+		IndexedColumn columnData = new IndexedColumn(new EquationSupport(new MapColumn(new HashMap<>())));
+		for(int key = 100; key > 0; key--)
+			columnData.put(key, "apple");
+		
+		int expected = 100;
+		for(Integer key : columnData.getMatchingKeys("apple", Integer.class))
+			assertEquals(expected--, key.intValue());
+	}
 	
+	
+	@Test
+	public void testDictionaryStringColumn() {
+		DictionaryStringColumn columnData = new DictionaryStringColumn(new CanonicalStringPool());
+		
+		columnData.put(1l, "human");
+		columnData.put(2l, new String("human"));
+		columnData.put(3l, "mouse");
+		
+		assertEquals(3, columnData.keySet().size());
+		assertEquals(2, columnData.getDictionarySize());
+		assertSame(columnData.get(1l), columnData.get(2l));
+		assertEquals("mouse", columnData.get(3l));
+		
+		assertEquals(2, columnData.countMatchingRows("human"));
+		Collection<Long> keys = columnData.getMatchingKeys("human", Long.class);
+		assertEquals(2, keys.size());
+		assertTrue(keys.contains(1l));
+		assertTrue(keys.contains(2l));
+		
+		assertFalse(columnData.put(3l, "mouse"));
+		assertTrue(columnData.put(3l, "human"));
+		assertEquals(3, columnData.countMatchingRows("human"));
+		assertEquals(0, columnData.countMatchingRows("mouse"));
+		assertEquals(1, columnData.getDictionarySize());
+		
+		assertTrue(columnData.remove(1l));
+		assertNull(columnData.get(1l));
+		assertTrue(columnData.put(2l, null));
+		assertEquals(1, columnData.keySet().size());
+	}
+	
+	
+	@Test
+	public void testDictionaryStringColumnFallback() {
+		DictionaryStringColumn columnData = new DictionaryStringColumn(new CanonicalStringPool());
+		
+		int n = DictionaryStringColumn.SAMPLE_SIZE;
+		for(long i = 0; i < n - 1; i++) {
+			columnData.put(i, "name" + i);
+		}
+		// the encoding is only chosen once there are enough rows
+		assertTrue(columnData.isDictionaryEncoded());
+		columnData.put(n - 1l, "name" + (n - 1));
+		
+		assertFalse(columnData.isDictionaryEncoded());
+		assertEquals(n, columnData.keySet().size());
+		assertEquals("name42", columnData.get(42l));
+		assertEquals(1, columnData.countMatchingRows("name7"));
+		assertEquals(1, columnData.getMatchingKeys("name7", Long.class).size());
+		
+		// strings are still canonicalized
+		columnData.put(0l, new String("human"));
+		columnData.put(1l, new String("human"));
+		assertSame(columnData.get(0l), columnData.get(1l));
+		
+		// goes back to the dictionary once most values repeat
+		for(long i = n; i < n * 8; i++) {
+			columnData.put(i, "human");
+		}
+		assertTrue(columnData.isDictionaryEncoded());
+		assertEquals(n * 8, columnData.keySet().size());
+		assertEquals(n * 7 + 2, columnData.countMatchingRows("human"));
+		assertEquals("name42", columnData.get(42l));
+	}
 }
@@ -25,6 +25,8 @@ package org.cytoscape.model.subnetwork;
  */
 
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -35,11 +37,14 @@ import java.util.List;
 
 import org.cytoscape.event.DummyCyEventHelper;
 import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.model.CyNode;
 import org.cytoscape.model.TestCyNetworkFactory;
 import org.cytoscape.model.events.AboutToRemoveEdgesEvent;
 import org.cytoscape.model.events.AboutToRemoveNodesEvent;
+import org.cytoscape.model.events.AddedEdgesEvent;
+import org.cytoscape.model.events.AddedNodesEvent;
 import org.cytoscape.model.events.NetworkAddedEvent;
 import org.cytoscape.model.events.RemovedEdgesEvent;
 import org.cytoscape.model.events.RemovedNodesEvent;
@@ -232,4 +237,42 @@ public class CySubNetworkTest extends AbstractCySubNetworkTest {
 		Object payload = deh.getLastPayload();
 		assertNotNull(payload);
 	}
+
+	@Test
+	public void testAddNodesAndEdgesInBulk() {
+		CySubNetwork sub = root.addSubNetwork();
+		((CySubNetworkImpl)sub).handleEvent( new NetworkAddedEvent(mock(CyNetworkManager.class),sub) );
+		
+		List<CyNode> nodes = ((CySubNetworkImpl)sub).addNodes(4);
+		assertEquals(4, nodes.size());
+		assertEquals(4, sub.getNodeCount());
+		assertTrue(root.getNodeList().containsAll(nodes));
+		assertEquals(Boolean.FALSE, sub.getRow(nodes.get(0)).get(CyNetwork.SELECTED, Boolean.class));
+		
+		long[] sources = { nodes.get(0).getSUID(), nodes.get(1).getSUID(), nodes.get(2).getSUID() };
+		long[] targets = { nodes.get(1).getSUID(), nodes.get(2).getSUID(), nodes.get(3).getSUID() };
+		List<CyEdge> edges = ((CySubNetworkImpl)sub).addEdges(sources, targets, true);
+		assertEquals(3, edges.size());
+		assertEquals(3, sub.getEdgeCount());
+		assertTrue(root.getEdgeList().containsAll(edges));
+		assertEquals(nodes.get(0), edges.get(0).getSource());
+		assertEquals(nodes.get(1), edges.get(0).getTarget());
+		assertTrue(edges.get(0).isDirected());
+		
+		// Queued as payloads like the ones of addNode() and addEdge(), nothing is fired right away
+		for ( Object event : deh.getAllLastEvents() )
+			assertFalse(event instanceof AddedNodesEvent || event instanceof AddedEdgesEvent);
+		
+		assertTrue(deh.getAllPayloads().containsAll(nodes));
+		assertTrue(deh.getAllPayloads().containsAll(edges));
+		assertEquals(Boolean.FALSE, sub.getRow(edges.get(2)).get(CyNetwork.SELECTED, Boolean.class));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddEdgesInBulkWithNodeNotInNetwork() {
+		CySubNetwork sub = root.addSubNetwork();
+		CyNode nx1 = sub.addNode();
+		CyNode rn1 = root.addNode();
+		((CySubNetworkImpl)sub).addEdges(new long[] { nx1.getSUID() }, new long[] { rn1.getSUID() }, false);
+	}
 }
@@ -128,14 +128,15 @@ public abstract class AbstractLineParser {
 		return list;
 	}
 	
-	private Equation createInvalidNumberEquation(final String value, final AttributeDataType type) {
+	// The equation compiler is not thread-safe, and lines may be parsed by several threads
+	private synchronized Equation createInvalidNumberEquation(final String value, final AttributeDataType type) {
 		final String text = "=\"" + value + "\"";
 		final String msg = "Invalid value: " + value;
 		
 		return getEquationCompiler().getErrorEquation(text, type.getType(), msg);
 	}
 	
-	private Equation createInvalidListEquation(final String list, final String listItem,
+	private synchronized Equation createInvalidListEquation(final String list, final String listItem,
 			final AttributeDataType type) {
 		final String text = "=\"" + list + "\"";
 		final String msg = "Invalid list item: " + listItem;
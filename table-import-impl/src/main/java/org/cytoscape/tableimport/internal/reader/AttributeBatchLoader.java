@@ -0,0 +1,221 @@
+package org.cytoscape.tableimport.internal.reader;
+
+/*
+ * #%L
+ * Cytoscape Table Import Impl (table-import-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.cytoscape.application.CyUserLog;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.tableimport.internal.reader.AttributeLineParser.ColumnBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses the lines of an attribute table on a pool of threads, a chunk of lines at a time, and writes
+ * the parsed chunks to the table in the order of the lines, one column at a time.
+ * The reading thread only has to read the lines, and never more than a few chunks are kept in memory.
+ * The pool is shared by all imports. A table that fits in a single chunk is parsed by the reading thread.
+ */
+class AttributeBatchLoader implements AutoCloseable {
+	
+	private static final Logger logger = LoggerFactory.getLogger(CyUserLog.NAME);
+	
+	/** Number of lines parsed by each task. */
+	static final int CHUNK_SIZE = 8192;
+	
+	private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT, r -> {
+		Thread thread = Executors.defaultThreadFactory().newThread(r);
+		thread.setName("table-import-" + thread.getName());
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	private final CyTable table;
+	private final AttributeLineParser parser;
+	private final int keyIndex;
+	private final String delimiter;
+	private final int maxPendingChunks = 2 * THREAD_COUNT;
+	private final Deque<Future<ParsedChunk>> pendingChunks = new ArrayDeque<>();
+	
+	private List<Object> lines = new ArrayList<>();
+	private List<Integer> lineNumbers = new ArrayList<>();
+	
+	/** Number of lines that have a key. */
+	private int entryCount;
+
+	private static final class ParsedChunk {
+		final ColumnBatch batch;
+		final List<Integer> failedLines = new ArrayList<>();
+		int entryCount;
+		
+		ParsedChunk(ColumnBatch batch) {
+			this.batch = batch;
+		}
+	}
+	
+	/**
+	 * @param delimiter the regular expression that separates the fields of the lines passed to
+	 *                  {@link #add(String, int)}
+	 */
+	AttributeBatchLoader(CyTable table, AttributeLineParser parser, int keyIndex, String delimiter) {
+		this.table = table;
+		this.parser = parser;
+		this.keyIndex = keyIndex;
+		this.delimiter = delimiter;
+	}
+	
+	/**
+	 * Adds a line that still has to be split.
+	 */
+	void add(String line, int lineNumber) throws IOException {
+		addLine(line, lineNumber);
+	}
+	
+	/**
+	 * Adds a line that is already split into fields.
+	 */
+	void add(String[] parts, int lineNumber) throws IOException {
+		addLine(parts, lineNumber);
+	}
+	
+	private void addLine(Object line, int lineNumber) throws IOException {
+		lines.add(line);
+		lineNumbers.add(lineNumber);
+		
+		if (lines.size() >= CHUNK_SIZE)
+			submitChunk();
+	}
+	
+	/**
+	 * Parses and writes the remaining lines.
+	 */
+	void finish() throws IOException {
+		if (!lines.isEmpty()) {
+			if (pendingChunks.isEmpty()) {
+				// Not worth a thread
+				final FutureTask<ParsedChunk> chunk = newChunkTask();
+				chunk.run();
+				pendingChunks.add(chunk);
+			} else {
+				submitChunk();
+			}
+		}
+		
+		while (!pendingChunks.isEmpty())
+			writeNextChunk();
+	}
+	
+	/**
+	 * @return the number of lines with a key written so far
+	 */
+	int getEntryCount() {
+		return entryCount;
+	}
+	
+	/**
+	 * Cancels the chunks that are not written yet, when the import failed or was cancelled.
+	 */
+	@Override
+	public void close() {
+		for (Future<ParsedChunk> chunk : pendingChunks)
+			chunk.cancel(true);
+		
+		pendingChunks.clear();
+	}
+	
+	private FutureTask<ParsedChunk> newChunkTask() {
+		final List<Object> chunkLines = lines;
+		final List<Integer> chunkLineNumbers = lineNumbers;
+		lines = new ArrayList<>();
+		lineNumbers = new ArrayList<>();
+		
+		return new FutureTask<>(() -> parseChunk(chunkLines, chunkLineNumbers));
+	}
+	
+	private void submitChunk() throws IOException {
+		final FutureTask<ParsedChunk> chunk = newChunkTask();
+		executor.execute(chunk);
+		pendingChunks.add(chunk);
+		
+		if (pendingChunks.size() >= maxPendingChunks)
+			writeNextChunk();
+	}
+	
+	private ParsedChunk parseChunk(List<Object> chunkLines, List<Integer> chunkLineNumbers) {
+		final ParsedChunk chunk = new ParsedChunk(parser.createBatch());
+		
+		for (int i = 0; i < chunkLines.size(); i++) {
+			final Object line = chunkLines.get(i);
+			final String[] parts = line instanceof String ? ((String) line).split(delimiter) : (String[]) line;
+			
+			// If key does not exists, ignore the line.
+			if (parts.length >= keyIndex + 1) {
+				if (!parser.parseInto(chunk.batch, table, parts))
+					chunk.failedLines.add(chunkLineNumbers.get(i));
+				
+				chunk.entryCount++;
+			}
+		}
+		
+		return chunk;
+	}
+	
+	private void writeNextChunk() throws IOException {
+		final ParsedChunk chunk;
+		
+		try {
+			chunk = pendingChunks.remove().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Table import was interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			
+			throw new IOException(e.getCause());
+		}
+		
+		for (Integer lineNumber : chunk.failedLines)
+			logger.warn("Couldn't parse row: " + lineNumber);
+		
+		final int failedRows = parser.writeBatch(table, chunk.batch);
+		
+		if (failedRows > 0)
+			logger.warn("Couldn't create " + failedRows + " rows");
+		
+		entryCount += chunk.entryCount;
+	}
+}
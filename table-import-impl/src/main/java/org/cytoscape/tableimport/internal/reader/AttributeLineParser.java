@@ -27,6 +27,7 @@ package org.cytoscape.tableimport.internal.reader;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -55,7 +56,29 @@ public class AttributeLineParser extends AbstractLineParser {
 	 * @param parts entries in a line.
 	 */
 	public void parseAll(final CyTable table, final String[] parts) {
-		// Get key
+		final Object primaryKey = parseKey(table, parts);
+		final int partsLen = parts.length;
+		final int keyIndex = mapping.getKeyIndex();
+
+		if(primaryKey != null) {
+			if (keyIndex >= 0 && partsLen == 1) {
+				table.getRow(parts[0]);
+			} else {
+				final SourceColumnSemantic[] types = mapping.getTypes();
+
+				for (int i = 0; i < partsLen; i++) {
+					if (i != keyIndex && types[i] != SourceColumnSemantic.NONE) {
+						if (parts[i] == null)
+							continue;
+						else
+							mapAttribute(table, primaryKey, parts[i].trim(), i);
+					}
+				}
+			}
+		}
+	}
+
+	private Object parseKey(final CyTable table, final String[] parts) {
 		final Object primaryKey;
 		final int partsLen = parts.length;
 		final int keyIndex = mapping.getKeyIndex();
@@ -90,30 +113,142 @@ public class AttributeLineParser extends AbstractLineParser {
 				primaryKey = null;
 			}
 		} else { // Not importing a key column, so the table must have the default SUID one
-			if (!table.getPrimaryKey().getName().equals(CyTable.SUID))
-				throw new RuntimeException("When not importing a primary key columnm, the primary key must be the default 'SUID'");
-			if (table.getPrimaryKey().getType() != Long.class)
-				throw new RuntimeException("The type of the primary key column 'SUID' must be Long");
-			
+			checkSUIDKey(table);
 			primaryKey = SUIDFactory.getNextSUID();
 		}
+		
+		return primaryKey;
+	}
 
-		if(primaryKey != null) {
-			if (keyIndex >= 0 && partsLen == 1) {
-				table.getRow(parts[0]);
+	private static void checkSUIDKey(final CyTable table) {
+		if (!table.getPrimaryKey().getName().equals(CyTable.SUID))
+			throw new RuntimeException("When not importing a primary key columnm, the primary key must be the default 'SUID'");
+		if (table.getPrimaryKey().getType() != Long.class)
+			throw new RuntimeException("The type of the primary key column 'SUID' must be Long");
+	}
+
+	/**
+	 * Parses a line like {@link #parseAll} does, but adds its values to the batch instead of setting them.
+	 * Several threads may parse lines into different batches at once. When no key column is imported,
+	 * the SUIDs of the lines are only assigned by {@link #writeBatch}, in the order of the lines.
+	 * @return false if the line couldn't be parsed
+	 */
+	public boolean parseInto(final ColumnBatch batch, final CyTable table, final String[] parts) {
+		try {
+			final int partsLen = parts.length;
+			final int keyIndex = mapping.getKeyIndex();
+			final Object primaryKey;
+			
+			if (keyIndex >= 0) {
+				primaryKey = parseKey(table, parts);
 			} else {
-				final SourceColumnSemantic[] types = mapping.getTypes();
+				checkSUIDKey(table);
+				primaryKey = batch.lineCount++; // Replaced by the SUID of the line when the batch is written
+			}
 
-				for (int i = 0; i < partsLen; i++) {
-					if (i != keyIndex && types[i] != SourceColumnSemantic.NONE) {
-						if (parts[i] == null)
-							continue;
-						else
-							mapAttribute(table, primaryKey, parts[i].trim(), i);
+			if(primaryKey != null) {
+				if (keyIndex >= 0 && partsLen == 1) {
+					batch.rowKeys.add(parts[0]);
+				} else {
+					final SourceColumnSemantic[] types = mapping.getTypes();
+
+					for (int i = 0; i < partsLen; i++) {
+						if (i != keyIndex && types[i] != SourceColumnSemantic.NONE && parts[i] != null) {
+							final String entry = parts[i].trim();
+							
+							try {
+								batch.add(i, primaryKey, parseEntry(entry, i), entry);
+							} catch (Exception e) {
+								batch.invalid.put(primaryKey, entry);
+							}
+						}
 					}
 				}
 			}
+		} catch (Exception e) {
+			return false;
+		}
+		
+		return true;
+	}
+
+	/**
+	 * Writes the values of a batch to the table, a column at a time. The batches must be written in the
+	 * order of their lines.
+	 * @return the number of rows from lines with only a key that couldn't be created
+	 */
+	public int writeBatch(final CyTable table, final ColumnBatch batch) {
+		int failedRows = 0;
+		
+		if (mapping.getKeyIndex() < 0)
+			batch.assignSUIDs();
+		
+		for (Object key : batch.rowKeys) {
+			try {
+				table.getRow(key);
+			} catch (Exception e) {
+				failedRows++;
+			}
+		}
+		
+		batch.invalid.forEach((key, entry) -> invalid.put(batch.getKey(key).toString(), entry));
+		
+		for (int i = 0; i < batch.keys.size(); i++) {
+			if (!batch.keys.get(i).isEmpty())
+				writeColumn(table, batch, i);
+		}
+		
+		return failedRows;
+	}
+
+	private void writeColumn(final CyTable table, final ColumnBatch batch, final int index) {
+		final AttributeDataType type = mapping.getDataTypes()[index];
+		final String attrName = mapping.getAttributeNames()[index];
+		final List<Object> keys = batch.keys.get(index);
+		final List<Object> values = batch.values.get(index);
+		final List<String> entries = batch.entries.get(index);
+
+		// One row at a time, so that list values are added to the existing lists and invalid values are reported
+		for (int i = 0; i < keys.size(); i++) {
+			final Object key = batch.getKey(keys.get(i));
+			
+			try {
+				if (type.isList()) {
+					setListAttribute(table, type, key, attrName, values.get(i));
+				} else {
+					if (table.getColumn(attrName) == null)
+						table.createColumn(attrName, type.getType(), false);
+					
+					table.getRow(key).set(attrName, values.get(i));
+				}
+			} catch (Exception e) {
+				invalid.put(key.toString(), entries.get(i));
+			}
+		}
+	}
+
+	private Object parseEntry(final String entry, final int index) {
+		final AttributeDataType type = mapping.getDataTypes()[index];
+		
+		if (type.isList()) {
+			final String[] delimiters = mapping.getListDelimiters();
+			String delimiter = delimiters != null && delimiters.length > index ?
+					delimiters[index] : AbstractMappingParameters.DEF_LIST_DELIMITER;
+					
+			if (delimiter == null || delimiter.isEmpty())
+				delimiter = AbstractMappingParameters.DEF_LIST_DELIMITER;
+			
+			return parse(entry, type, delimiter, mapping.getDecimalSeparator());
 		}
+		
+		return parse(entry, type, null, mapping.getDecimalSeparator());
+	}
+
+	/**
+	 * Creates an empty batch for the columns of this parser's mapping.
+	 */
+	public ColumnBatch createBatch() {
+		return new ColumnBatch(mapping.getAttributeNames().length);
 	}
 
 	/**
@@ -124,17 +259,10 @@ public class AttributeLineParser extends AbstractLineParser {
 
 		try {
 			if (type.isList()) {
-				final String[] delimiters = mapping.getListDelimiters();
-				String delimiter = delimiters != null && delimiters.length > index ?
-						delimiters[index] : AbstractMappingParameters.DEF_LIST_DELIMITER;
-						
-				if (delimiter == null || delimiter.isEmpty())
-					delimiter = AbstractMappingParameters.DEF_LIST_DELIMITER;
-				
-				Object value = parse(entry, type, delimiter, mapping.getDecimalSeparator());
+				Object value = parseEntry(entry, index);
 				setListAttribute(table, type, key, mapping.getAttributeNames()[index], value);
 			} else {
-				setAttribute(table, type, key, mapping.getAttributeNames()[index], entry);
+				setAttribute(table, type, key, mapping.getAttributeNames()[index], entry, index);
 			}
 		} catch (Exception e) {
 			invalid.put(key.toString(), entry);
@@ -142,11 +270,11 @@ public class AttributeLineParser extends AbstractLineParser {
 	}
 
 	private void setAttribute(final CyTable tbl, final AttributeDataType type, final Object key,
-			final String attrName, final String attrValue) {
+			final String attrName, final String attrValue, final int index) {
 		if (tbl.getColumn(attrName) == null)
 			tbl.createColumn(attrName, type.getType(), false);
 
-		final Object value = parse(attrValue, type, null, mapping.getDecimalSeparator());
+		final Object value = parseEntry(attrValue, index);
 		final CyRow row = tbl.getRow(key);
 		row.set(attrName, value);
 	}
@@ -176,4 +304,45 @@ public class AttributeLineParser extends AbstractLineParser {
 	protected Map<String, Object> getInvalidMap() {
 		return invalid;
 	}
+	
+	/**
+	 * The parsed values of some lines, by column index, in the order of the lines.
+	 */
+	public static final class ColumnBatch {
+		
+		private final List<Object> rowKeys = new ArrayList<>();
+		private final List<List<Object>> keys = new ArrayList<>();
+		private final List<List<Object>> values = new ArrayList<>();
+		private final List<List<String>> entries = new ArrayList<>();
+		private final Map<Object, String> invalid = new LinkedHashMap<>();
+		
+		// Lines without an imported key, their SUIDs are assigned when the batch is written
+		private int lineCount;
+		private Long[] suids;
+		
+		private ColumnBatch(final int columnCount) {
+			for (int i = 0; i < columnCount; i++) {
+				keys.add(new ArrayList<>());
+				values.add(new ArrayList<>());
+				entries.add(new ArrayList<>());
+			}
+		}
+		
+		private void add(final int index, final Object key, final Object value, final String entry) {
+			keys.get(index).add(key);
+			values.get(index).add(value);
+			entries.get(index).add(entry);
+		}
+		
+		private void assignSUIDs() {
+			suids = new Long[lineCount];
+			
+			for (int i = 0; i < suids.length; i++)
+				suids[i] = SUIDFactory.getNextSUID();
+		}
+		
+		private Object getKey(final Object key) {
+			return suids == null ? key : suids[(Integer) key];
+		}
+	}
 }
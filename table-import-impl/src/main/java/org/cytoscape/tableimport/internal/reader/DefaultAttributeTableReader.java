@@ -35,12 +35,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-import org.cytoscape.application.CyUserLog;
 import org.cytoscape.model.CyTable;
 import org.cytoscape.service.util.CyServiceRegistrar;
 import org.cytoscape.tableimport.internal.util.URLUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import au.com.bytecode.opencsv.CSVReader;
 
@@ -55,8 +52,6 @@ import au.com.bytecode.opencsv.CSVReader;
  */
 public class DefaultAttributeTableReader implements TextTableReader {
 	
-	private static final Logger logger = LoggerFactory.getLogger(CyUserLog.NAME);
-	
 	private final URL source;
 	private AttributeMappingParameters mapping;
 	private final AttributeLineParser parser;
@@ -113,58 +108,44 @@ public class DefaultAttributeTableReader implements TextTableReader {
 				 * Read & extract one line at a time. The line can be Tab delimited,
 				 */
 				final String delimiter = mapping.getDelimiterRegEx();
-
-				//If the delimiter contains a comma, treat the file as a CSV file.
-				if (delimiter.contains(TextDelimiter.COMMA.getDelimiter()) && mapping.getDelimiters().size() == 1) {
-					//Use OpenCSV.. New method...
-					CSVReader reader = new CSVReader(bufRd);
-					String [] rowData; //Note that rowData is roughly equivalent to "parts" in the old code.
-					
-					while ((rowData = reader.readNext()) != null) {
-						// If key does not exists, ignore the line.
-						if (lineCount >= startLineNumber && rowData.length >= mapping.getKeyIndex() + 1) {
-							try {
-								parser.parseAll(table, rowData);
-							} catch (Exception ex) {
-								logger.warn("Couldn't parse row from OpenCSV: "+ lineCount);
-							}
+				
+				// The lines are parsed and written to the table by the loader, a chunk at a time
+				try (AttributeBatchLoader loader = new AttributeBatchLoader(table, parser, mapping.getKeyIndex(), delimiter)) {
+					//If the delimiter contains a comma, treat the file as a CSV file.
+					if (delimiter.contains(TextDelimiter.COMMA.getDelimiter()) && mapping.getDelimiters().size() == 1) {
+						//Use OpenCSV.. New method...
+						CSVReader reader = new CSVReader(bufRd);
+						String [] rowData; //Note that rowData is roughly equivalent to "parts" in the old code.
+						
+						while ((rowData = reader.readNext()) != null) {
+							if (lineCount >= startLineNumber)
+								loader.add(rowData, lineCount);
 							
-							globalCounter++;
+							lineCount++;
 						}
-						
-						lineCount++;
-					}
 
-					try {
-						reader.close();
-					} catch (Exception e) { }
-				} else { //Use the "old" method for splitting the lines.
-					String line;
-					String[] parts = null;
-					
-					while ((line = bufRd.readLine()) != null) {
-						/*
-						 * Ignore Empty & Commnet lines.
-						 */
-						if ((commentChar != null) && line.startsWith(commentChar)) {
-							// Do nothing
-						} else if ((lineCount >= startLineNumber) && (line.trim().length() > 0)) {
-							parts = line.split(delimiter);
-							
-							// If key does not exists, ignore the line.
-							if (parts.length >= mapping.getKeyIndex() + 1) {
-								try {
-									parser.parseAll(table, parts);
-								} catch (Exception ex) {
-									logger.warn("Couldn't parse row: "+ lineCount);
-								}
-								
-								globalCounter++;
+						try {
+							reader.close();
+						} catch (Exception e) { }
+					} else { //Use the "old" method for splitting the lines.
+						String line;
+						
+						while ((line = bufRd.readLine()) != null) {
+							/*
+							 * Ignore Empty & Commnet lines.
+							 */
+							if ((commentChar != null) && line.startsWith(commentChar)) {
+								// Do nothing
+							} else if ((lineCount >= startLineNumber) && (line.trim().length() > 0)) {
+								loader.add(line, lineCount);
 							}
-						}
 
-						lineCount++;
+							lineCount++;
+						}
 					}
+					
+					loader.finish();
+					globalCounter += loader.getEntryCount();
 				}
 			} catch (MalformedInputException mie) {
 				throw new IOException("Unable to import table: illegal character encoding in input");
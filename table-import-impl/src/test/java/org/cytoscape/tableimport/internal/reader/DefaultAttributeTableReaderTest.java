@@ -0,0 +1,135 @@
+package org.cytoscape.tableimport.internal.reader;
+
+/*
+ * #%L
+ * Cytoscape Table Import Impl (table-import-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2021 The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.TableTestSupport;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.tableimport.internal.util.AttributeDataType;
+import org.cytoscape.tableimport.internal.util.SourceColumnSemantic;
+import org.junit.Test;
+
+public class DefaultAttributeTableReaderTest {
+
+	@Test
+	public void testReadTableInChunks() throws Exception {
+		final int lineCount = 2 * AttributeBatchLoader.CHUNK_SIZE + 5;
+		final StringBuilder text = new StringBuilder();
+		
+		for (int i = 0; i < lineCount; i++)
+			text.append("gene" + i + "\t" + (i * 0.5) + "\t" + i + "\ta|b\n");
+		
+		// A later line overwrites the values and adds to the lists of an earlier one
+		text.append("gene1\t10.5\t\tc\n");
+		// Not an integer
+		text.append("gene2\t1.0\tx\t\n");
+		
+		final AttributeMappingParameters mapping = new AttributeMappingParameters(
+				"test",
+				List.of(TextDelimiter.TAB.getDelimiter()),
+				null,
+				0,
+				new String[] { "name", "score", "count", "tags" },
+				new AttributeDataType[] { AttributeDataType.TYPE_STRING, AttributeDataType.TYPE_FLOATING,
+						AttributeDataType.TYPE_INTEGER, AttributeDataType.TYPE_STRING_LIST },
+				new SourceColumnSemantic[] { SourceColumnSemantic.KEY, SourceColumnSemantic.ATTR,
+						SourceColumnSemantic.ATTR, SourceColumnSemantic.ATTR },
+				null,
+				'.'
+		);
+		
+		final CyTable table = new TableTestSupport().getTableFactory().createTable("test", "name", String.class, true, true);
+		final DefaultAttributeTableReader reader = new DefaultAttributeTableReader(null, mapping,
+				new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), mock(CyServiceRegistrar.class));
+		reader.readTable(table);
+		
+		assertEquals(lineCount, table.getRowCount());
+		assertTrue(reader.getReport().startsWith((lineCount + 2) + " entries"));
+		
+		for (int i = 3; i < lineCount; i++) {
+			final CyRow row = table.getRow("gene" + i);
+			assertEquals(i * 0.5, row.get("score", Double.class), 0.0);
+			assertEquals(Integer.valueOf(i), row.get("count", Integer.class));
+			assertEquals(List.of("a", "b"), row.getList("tags", String.class));
+		}
+		
+		final CyRow row1 = table.getRow("gene1");
+		assertEquals(10.5, row1.get("score", Double.class), 0.0);
+		assertFalse(row1.isSet("count"));
+		assertEquals(List.of("a", "b", "c"), row1.getList("tags", String.class));
+		
+		// The invalid value is reported and doesn't change the row
+		assertEquals(Integer.valueOf(2), table.getRow("gene2").get("count", Integer.class));
+		assertTrue(reader.getReport().contains("gene2 = x"));
+	}
+	
+	@Test
+	public void testGeneratedSUIDsFollowLineOrder() throws Exception {
+		final int lineCount = 3 * AttributeBatchLoader.CHUNK_SIZE + 5;
+		final StringBuilder text = new StringBuilder();
+		
+		for (int i = 0; i < lineCount; i++)
+			text.append("gene" + i + "\t" + i + "\n");
+		
+		final AttributeMappingParameters mapping = new AttributeMappingParameters(
+				"test",
+				List.of(TextDelimiter.TAB.getDelimiter()),
+				null,
+				-1,
+				new String[] { "name", "count" },
+				new AttributeDataType[] { AttributeDataType.TYPE_STRING, AttributeDataType.TYPE_INTEGER },
+				new SourceColumnSemantic[] { SourceColumnSemantic.ATTR, SourceColumnSemantic.ATTR },
+				null,
+				'.'
+		);
+		
+		final CyTable table = new TableTestSupport().getTableFactory().createTable("test", CyTable.SUID, Long.class, true, true);
+		final DefaultAttributeTableReader reader = new DefaultAttributeTableReader(null, mapping,
+				new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), mock(CyServiceRegistrar.class));
+		reader.readTable(table);
+		
+		assertEquals(lineCount, table.getRowCount());
+		
+		final List<CyRow> rows = new ArrayList<>(table.getAllRows());
+		rows.sort(Comparator.comparing(row -> row.get(CyTable.SUID, Long.class)));
+		
+		for (int i = 0; i < lineCount; i++) {
+			assertEquals("gene" + i, rows.get(i).get("name", String.class));
+			assertEquals(Integer.valueOf(i), rows.get(i).get("count", Integer.class));
+		}
+	}
+}
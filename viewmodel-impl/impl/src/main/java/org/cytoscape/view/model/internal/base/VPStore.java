@@ -16,6 +16,9 @@ import io.vavr.collection.Set;
 
 public class VPStore {
 
+	// Once this many elements have changed, snapshots can't reuse much anyway, stop tracking them.
+	private static final int CHANGES_LIMIT = 16384;
+	
 	private final VisualLexicon visualLexicon;
 	
 	// Key is SUID of View object.
@@ -28,6 +31,13 @@ public class VPStore {
 	private final Class<?> type;
 	private Map<Object,Set<Long>> tracked = HashMap.empty();
 	
+	// Tracks which elements had a visual property or lock changed, so that a snapshot can reuse the
+	// views created by an older snapshot for the elements that did not change. Value is the stamp of the last change.
+	// The epoch changes when a default value changes or too many elements changed.
+	private long changeEpoch = 0;
+	private long changeStamp = 0;
+	private Map<Long,Long> changes = HashMap.empty();
+	
 	
 	public VPStore(Class<?> type, VisualLexicon visualLexicon, VPStoreViewConfig config) {
 		this.type = type;
@@ -44,6 +54,9 @@ public class VPStore {
 		this.defaultValues = other.defaultValues;
 		this.tracked = other.tracked;
 		this.config = other.config;
+		this.changeEpoch = other.changeEpoch;
+		this.changeStamp = other.changeStamp;
+		this.changes = other.changes;
 	}
 
 	public VPStore createSnapshot() {
@@ -94,6 +107,7 @@ public class VPStore {
 		allLocks = allLocks.remove(suid);
 		directLocks = directLocks.remove(suid);
 		removeTrackedVPs(suid);
+		elementChanged(suid);
 	}
 	
 	
@@ -102,8 +116,10 @@ public class VPStore {
 	}
 	 
 	protected <T, V extends T> boolean setVisualProperty(Long suid, VisualProperty<? extends T> vp, V value) {
-		if(setSpecialVisualProperty(suid, vp, value))
+		if(setSpecialVisualProperty(suid, vp, value)) {
+			elementChanged(suid);
 			return true;
+		}
 		
 		if ("CELL_CUSTOMGRAPHICS".equals(vp.getIdString()) && value != null
 				&& value.getClass().getName().contains(".NullCellCustomGraphics"))
@@ -113,6 +129,7 @@ public class VPStore {
 		if(!Objects.equals(prevValue, value)) {
 			visualProperties = put(visualProperties, suid, vp, value);
 			updateTrackedVP(suid, vp);
+			elementChanged(suid);
 			return true;
 		}
 		return false;
@@ -177,6 +194,8 @@ public class VPStore {
 			}
 		});
 		
+		if(changed[0])
+			elementChanged(suid);
 		return changed[0];
 	}
 	
@@ -233,10 +252,43 @@ public class VPStore {
 	
 	public <T, V extends T> void setViewDefault(VisualProperty<? extends T> vp, V value) {
 		defaultValues = defaultValues.put(vp, value);
+		invalidateChanges();
 	}
 	
 	public <T> T getViewDefault(VisualProperty<T> vp) {
 		return (T) defaultValues.getOrElse(vp, vp.getDefault());
 	}
 	
+	/**
+	 * Call after a visual property or lock of the element changed.
+	 */
+	protected void elementChanged(Long suid) {
+		if(changes.size() >= CHANGES_LIMIT) {
+			invalidateChanges();
+		} else {
+			changes = changes.put(suid, ++changeStamp);
+		}
+	}
+	
+	/**
+	 * Call when a change may affect all the elements.
+	 */
+	public void invalidateChanges() {
+		changeEpoch++;
+		changeStamp = 0;
+		changes = HashMap.empty();
+	}
+	
+	/**
+	 * Returns true if the visual properties of the element may have changed since the given
+	 * store was created, the given store must be an earlier snapshot of this store.
+	 */
+	public boolean isChangedSince(Long suid, VPStore earlier) {
+		return earlier.changeEpoch != changeEpoch || changes.getOrElse(suid, 0L) > earlier.changeStamp;
+	}
+	
+	public long getChangeEpoch() {
+		return changeEpoch;
+	}
+	
 }
@@ -28,6 +28,7 @@ import org.cytoscape.view.model.internal.base.CyViewBase;
 import org.cytoscape.view.model.internal.base.VPStore;
 import org.cytoscape.view.model.internal.base.ViewLock;
 import org.cytoscape.view.model.internal.network.snapshot.CyNetworkViewSnapshotImpl;
+import org.cytoscape.view.model.internal.network.spacial.NodeRTree;
 import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 
 import io.vavr.Tuple2;
@@ -72,6 +73,12 @@ public class CyNetworkViewImpl extends CyViewBase<CyNetwork> implements CyNetwor
 	
 	// minor optimization, true if no node or edge in this network has ever been hidden
 	private boolean isNeverHidden = true;
+	
+	// The most recent spacial index built by a snapshot, the next snapshot can derive its index from it.
+	private volatile NodeRTree lastNodeTree;
+	
+	// The next snapshot reuses the views of unchanged elements from this one (or from its base).
+	private volatile CyNetworkViewSnapshotImpl lastSnapshot;
 
 	
 	public CyNetworkViewImpl(CyServiceRegistrar registrar, CyNetwork network, VisualLexicon visualLexicon, String rendererId, CyNetworkViewFactoryConfigImpl config) {
@@ -106,7 +113,7 @@ public class CyNetworkViewImpl extends CyViewBase<CyNetwork> implements CyNetwor
 				if(!edgeLock.readLock().tryLock()) {
 					return null;
 				} try {
-					return new CyNetworkViewSnapshotImpl(
+					var snapshot = new CyNetworkViewSnapshotImpl(
 						this, 
 						rendererId, 
 						dataSuidToNode,
@@ -117,8 +124,11 @@ public class CyNetworkViewImpl extends CyViewBase<CyNetwork> implements CyNetwor
 						nodeVPs.createSnapshot(),
 						edgeVPs.createSnapshot(),
 						netVPs.createSnapshot(),
-						visualLexicon
+						visualLexicon,
+						lastSnapshot
 					);
+					lastSnapshot = snapshot;
+					return snapshot;
 				} finally {
 					edgeLock.readLock().unlock();
 				}
@@ -173,6 +183,20 @@ public class CyNetworkViewImpl extends CyViewBase<CyNetwork> implements CyNetwor
 		isNeverHidden = false;
 	}
 	
+	public NodeRTree getLastNodeTree() {
+		return lastNodeTree;
+	}
+	
+	/**
+	 * Called by snapshots after building their spacial index, keeps the tree if it's newer than the current one.
+	 */
+	public synchronized void offerNodeTree(NodeRTree tree) {
+		NodeRTree last = lastNodeTree;
+		if(last == null || tree.getEpoch() > last.getEpoch() || (tree.getEpoch() == last.getEpoch() && tree.getStamp() > last.getStamp())) {
+			lastNodeTree = tree;
+		}
+	}
+	
 	
 	public CyNodeViewImpl addNode(CyNode model) {
 		CyNodeViewImpl view;
@@ -186,6 +210,7 @@ public class CyNetworkViewImpl extends CyViewBase<CyNetwork> implements CyNetwor
 			
 			dataSuidToNode = dataSuidToNode.put(model.getSUID(), view);
 			viewSuidToNode = viewSuidToNode.put(view.getSUID(), view);
+			nodeVPs.invalidateGeometry();
 			setDirty();
 		} finally {
 			nodeLock.writeLock().unlock();
@@ -0,0 +1,212 @@
+package org.cytoscape.view.model.internal.network;
+
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.view.model.VisualProperty;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+/**
+ * Stores the node visual properties that are set on every node of large networks (location, size,
+ * Z and visibility) in primitive arrays instead of a map of boxed values per node.
+ * <p>
+ * Each node gets a dense index, the index of a removed node is reused. The arrays are cut into chunks,
+ * a snapshot only copies the arrays of chunk references. After taking a snapshot all the chunks are
+ * shared, the mutable store copies a chunk the first time it writes to it again (copy-on-write).
+ * <p>
+ * Not thread safe, VPNodeStore is guarded by the node lock of the network view. Snapshots are never modified.
+ */
+final class NodeVPColumns {
+
+	private static final int X = 0, Y = 1, W = 2, H = 3, Z = 4, VISIBLE = 5;
+	private static final int DOUBLE_COLUMNS = 5;
+
+	// Bit of a set column is (1 << column), the value of NODE_VISIBLE is stored in VISIBLE_VALUE.
+	private static final int VISIBLE_VALUE = 1 << 6;
+
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private Map<Long,Integer> indexBySuid = HashMap.empty();
+	private int nextIndex = 0;
+	private int[] freeIndices = new int[0];
+	private int freeCount = 0;
+
+	private double[][][] values = new double[DOUBLE_COLUMNS][0][];  // [column][chunk][offset]
+	private byte[][] flags = new byte[0][];  // [chunk][offset]
+	private boolean[] owned = new boolean[0]; // false if the chunk may be shared with a snapshot
+
+
+	NodeVPColumns() {
+	}
+
+	private NodeVPColumns(NodeVPColumns other) {
+		this.indexBySuid = other.indexBySuid;
+		this.nextIndex = other.nextIndex;
+		for(int col = 0; col < DOUBLE_COLUMNS; col++)
+			this.values[col] = other.values[col].clone();
+		this.flags = other.flags.clone();
+		this.owned = new boolean[flags.length];
+	}
+
+	/**
+	 * Returns a read-only copy, from now on this store copies a chunk before modifying it.
+	 */
+	NodeVPColumns snapshot() {
+		Arrays.fill(owned, false);
+		return new NodeVPColumns(this);
+	}
+
+
+	/**
+	 * Returns the column of the visual property, or -1 if it's not stored in a column.
+	 */
+	static int column(VisualProperty<?> vp) {
+		if(vp == NODE_X_LOCATION) return X;
+		if(vp == NODE_Y_LOCATION) return Y;
+		if(vp == NODE_WIDTH)      return W;
+		if(vp == NODE_HEIGHT)     return H;
+		if(vp == NODE_Z_LOCATION) return Z;
+		if(vp == NODE_VISIBLE)    return VISIBLE;
+		return -1;
+	}
+
+	/**
+	 * Returns true if the value can be stored in the column, null means the value is cleared.
+	 */
+	static boolean accepts(int col, Object value) {
+		if(value == null)
+			return true;
+		return col == VISIBLE ? value instanceof Boolean : value instanceof Number;
+	}
+
+
+	Object get(Long suid, int col) {
+		Integer index = indexBySuid.getOrElse(suid, null);
+		if(index == null)
+			return null;
+		int chunk = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+		int f = flags[chunk][offset];
+		if((f & (1 << col)) == 0)
+			return null;
+		if(col == VISIBLE)
+			return (f & VISIBLE_VALUE) != 0;
+		return values[col][chunk][offset];
+	}
+
+	/**
+	 * Sets or clears (if the value is null) the value of a column, returns true if the value changed.
+	 */
+	boolean set(Long suid, int col, Object value) {
+		Integer index = indexBySuid.getOrElse(suid, null);
+		if(index == null) {
+			if(value == null)
+				return false;
+			index = allocate(suid);
+		}
+		int chunk = index >>> CHUNK_BITS;
+		int offset = index & CHUNK_MASK;
+		int f = flags[chunk][offset];
+		int bit = 1 << col;
+		boolean isSet = (f & bit) != 0;
+
+		if(value == null) {
+			if(!isSet)
+				return false;
+			writable(chunk);
+			flags[chunk][offset] = (byte) (f & ~bit & (col == VISIBLE ? ~VISIBLE_VALUE : ~0));
+			return true;
+		}
+
+		if(col == VISIBLE) {
+			boolean visible = (Boolean) value;
+			if(isSet && ((f & VISIBLE_VALUE) != 0) == visible)
+				return false;
+			writable(chunk);
+			flags[chunk][offset] = (byte) (visible ? (f | bit | VISIBLE_VALUE) : ((f | bit) & ~VISIBLE_VALUE));
+			return true;
+		}
+
+		double d = ((Number) value).doubleValue();
+		if(isSet && Double.doubleToLongBits(values[col][chunk][offset]) == Double.doubleToLongBits(d))
+			return false;
+		writable(chunk);
+		values[col][chunk][offset] = d;
+		flags[chunk][offset] = (byte) (f | bit);
+		return true;
+	}
+
+	/**
+	 * Returns the visual properties that have a value for the node.
+	 */
+	List<VisualProperty<?>> getSetVisualProperties(Long suid) {
+		List<VisualProperty<?>> vps = new ArrayList<>(VISIBLE + 1);
+		Integer index = indexBySuid.getOrElse(suid, null);
+		if(index != null) {
+			int f = flags[index >>> CHUNK_BITS][index & CHUNK_MASK];
+			if((f & (1 << X)) != 0) vps.add(NODE_X_LOCATION);
+			if((f & (1 << Y)) != 0) vps.add(NODE_Y_LOCATION);
+			if((f & (1 << W)) != 0) vps.add(NODE_WIDTH);
+			if((f & (1 << H)) != 0) vps.add(NODE_HEIGHT);
+			if((f & (1 << Z)) != 0) vps.add(NODE_Z_LOCATION);
+			if((f & (1 << VISIBLE)) != 0) vps.add(NODE_VISIBLE);
+		}
+		return vps;
+	}
+
+	void remove(Long suid) {
+		Integer index = indexBySuid.getOrElse(suid, null);
+		if(index == null)
+			return;
+		int chunk = index >>> CHUNK_BITS;
+		writable(chunk);
+		flags[chunk][index & CHUNK_MASK] = 0;
+		indexBySuid = indexBySuid.remove(suid);
+		if(freeCount == freeIndices.length)
+			freeIndices = Arrays.copyOf(freeIndices, Math.max(16, freeCount * 2));
+		freeIndices[freeCount++] = index;
+	}
+
+
+	private int allocate(Long suid) {
+		int index;
+		if(freeCount > 0) {
+			index = freeIndices[--freeCount];
+		} else {
+			index = nextIndex++;
+			int chunk = index >>> CHUNK_BITS;
+			if(chunk == flags.length) {
+				int capacity = Math.max(4, chunk * 2);
+				for(int col = 0; col < DOUBLE_COLUMNS; col++)
+					values[col] = Arrays.copyOf(values[col], capacity);
+				flags = Arrays.copyOf(flags, capacity);
+				owned = Arrays.copyOf(owned, capacity);
+			}
+			if(flags[chunk] == null) {
+				for(int col = 0; col < DOUBLE_COLUMNS; col++)
+					values[col][chunk] = new double[CHUNK_SIZE];
+				flags[chunk] = new byte[CHUNK_SIZE];
+				owned[chunk] = true;
+			}
+		}
+		indexBySuid = indexBySuid.put(suid, index);
+		return index;
+	}
+
+	private void writable(int chunk) {
+		if(!owned[chunk]) {
+			for(int col = 0; col < DOUBLE_COLUMNS; col++)
+				values[col][chunk] = values[col][chunk].clone();
+			flags[chunk] = flags[chunk].clone();
+			owned[chunk] = true;
+		}
+	}
+
+}
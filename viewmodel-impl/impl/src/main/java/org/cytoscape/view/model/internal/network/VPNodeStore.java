@@ -1,23 +1,141 @@
 package org.cytoscape.view.model.internal.network;
 
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_SIZE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_Z_LOCATION;
+
+import java.util.List;
+
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.VisualLexicon;
+import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.model.internal.base.VPStore;
 import org.cytoscape.view.model.internal.base.VPStoreViewConfig;
 
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+
 public class VPNodeStore extends VPStore {
+	
+	// Once this many nodes have changed, the spacial index is rebuilt anyway, stop tracking them.
+	private static final int GEOMETRY_CHANGES_LIMIT = 16384;
+	
+	// Tracks which nodes changed geometry, so the spacial index of a snapshot can be 
+	// derived from the index of a previous snapshot. Value is the stamp of the last change.
+	// The epoch changes when nodes are added or removed, or too many changes were made.
+	private long geometryEpoch = 0;
+	private long geometryStamp = 0;
+	private Map<Long,Long> geometryChanges = HashMap.empty();
+	
+	// Location, size, Z and visibility are stored in primitive arrays, all other VPs use the maps in VPStore.
+	private final NodeVPColumns columns;
 
 	public VPNodeStore(VisualLexicon visualLexicon, VPStoreViewConfig config) {
 		super(CyNode.class, visualLexicon, config);
+		this.columns = new NodeVPColumns();
 	}
 	
 	private VPNodeStore(VPNodeStore other) {
 		super(other);
+		this.geometryEpoch = other.geometryEpoch;
+		this.geometryStamp = other.geometryStamp;
+		this.geometryChanges = other.geometryChanges;
+		this.columns = other.columns.snapshot();
 	}
 	
 	@Override
 	public VPNodeStore createSnapshot() {
 		return new VPNodeStore(this);
 	}
+	
+	@Override
+	protected <T, V extends T> boolean setVisualProperty(Long suid, VisualProperty<? extends T> vp, V value) {
+		boolean changed;
+		int col = NodeVPColumns.column(vp);
+		if(col >= 0 && NodeVPColumns.accepts(col, value)) {
+			changed = columns.set(suid, col, value);
+			if(getVisualPropertiesMap(suid).containsKey(vp)) // value of an unexpected type was stored in the map before
+				changed |= super.setVisualProperty(suid, vp, null);
+			if(changed) {
+				updateTrackedVP(suid, vp);
+				elementChanged(suid);
+			}
+		} else {
+			if(col >= 0)
+				columns.set(suid, col, null);
+			changed = super.setVisualProperty(suid, vp, value);
+		}
+		if(changed && isGeometric(vp))
+			geometryChanged(suid);
+		return changed;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T getSpecialVisualProperty(Long suid, VisualProperty<T> vp) {
+		int col = NodeVPColumns.column(vp);
+		return col < 0 ? null : (T) columns.get(suid, col);
+	}
+	
+	@Override
+	public Set<VisualProperty<?>> getClearableVisualProperties(Long suid) {
+		List<VisualProperty<?>> columnVPs = columns.getSetVisualProperties(suid);
+		return super.getClearableVisualProperties(suid).addAll(columnVPs).removeAll(getConfig().getNoClearVPs());
+	}
+	
+	@Override
+	public <T, V extends T> boolean setLockedValue(Long suid, VisualProperty<? extends T> parentVP, V value) {
+		boolean changed = super.setLockedValue(suid, parentVP, value);
+		if(changed && (isGeometric(parentVP) || parentVP == NODE_SIZE))
+			geometryChanged(suid);
+		return changed;
+	}
+	
+	@Override
+	public <T, V extends T> void setViewDefault(VisualProperty<? extends T> vp, V value) {
+		super.setViewDefault(vp, value);
+		if(isGeometric(vp) || vp == NODE_SIZE)
+			invalidateGeometry();
+	}
+	
+	@Override
+	public void remove(Long suid) {
+		super.remove(suid);
+		columns.remove(suid);
+		invalidateGeometry();
+	}
+	
+	private static boolean isGeometric(VisualProperty<?> vp) {
+		return vp == NODE_Z_LOCATION || CyNetworkViewImpl.NODE_GEOMETRIC_PROPS.contains(vp);
+	}
+	
+	private void geometryChanged(Long suid) {
+		if(geometryChanges.size() >= GEOMETRY_CHANGES_LIMIT) {
+			invalidateGeometry();
+		} else {
+			geometryChanges = geometryChanges.put(suid, ++geometryStamp);
+		}
+	}
+	
+	/**
+	 * Call when the set of nodes changes, forces the spacial index to be rebuilt.
+	 */
+	public void invalidateGeometry() {
+		geometryEpoch++;
+		geometryStamp = 0;
+		geometryChanges = HashMap.empty();
+	}
+	
+	public long getGeometryEpoch() {
+		return geometryEpoch;
+	}
+	
+	public long getGeometryStamp() {
+		return geometryStamp;
+	}
+	
+	public Map<Long,Long> getGeometryChanges() {
+		return geometryChanges;
+	}
 
 }
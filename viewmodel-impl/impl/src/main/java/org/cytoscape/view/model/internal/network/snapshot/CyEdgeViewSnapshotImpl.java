@@ -19,6 +19,15 @@ public class CyEdgeViewSnapshotImpl extends CyViewSnapshotBase<CyEdge> implement
 		this.view = view;
 	}
 	
+	/**
+	 * Creates a view for another snapshot of an edge that did not change since the given view was created.
+	 */
+	public CyEdgeViewSnapshotImpl(CyNetworkViewSnapshotImpl parent, CyEdgeViewSnapshotImpl other) {
+		super(other);
+		this.parent = parent;
+		this.view = other.view;
+	}
+	
 	@Override
 	public CyNetworkViewSnapshotImpl getNetworkSnapshot() {
 		return parent;
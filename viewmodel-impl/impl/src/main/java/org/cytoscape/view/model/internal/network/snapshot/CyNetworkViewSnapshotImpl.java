@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
@@ -32,6 +33,10 @@ import io.vavr.collection.Set;
 
 public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> implements CyNetworkViewSnapshot {
 	
+	// When a snapshot had to create this many views that it could not take from its base, 
+	// the next snapshot becomes a new base.
+	private static final int REBASE_CREATED_VIEWS = 4096;
+	
 	private final String rendererId;
 	private final CyNetworkViewImpl networkView;
 
@@ -52,11 +57,16 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 	private final boolean isBVL;
 	
 	// Store of immutable node/edge objects
-	// MKTODO these objects probably won't change much between snapshots, they don't actually store the VPs,
-	// come up with a strategy to reuse them between snapshots.
 	private final java.util.Map<Long,CyNodeViewSnapshotImpl> snapshotNodeViews = new ConcurrentHashMap<>();
 	private final java.util.Map<Long,CyEdgeViewSnapshotImpl> snapshotEdgeViews = new ConcurrentHashMap<>();
 	
+	// The views of elements that did not change since the base was created are copied from the base
+	// instead of looking up their visual properties again, so the cost of a frame depends on how much changed. 
+	// The copies belong to this snapshot, so they return this snapshot as their network snapshot.
+	// A base never has a base itself, so at most one older snapshot is kept alive.
+	private final CyNetworkViewSnapshotImpl base;
+	private final AtomicInteger createdViews = new AtomicInteger();
+	
 	private final boolean isNeverHidden;
 	
 	public CyNetworkViewSnapshotImpl(
@@ -70,7 +80,8 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 			VPNodeStore nodeVPs,
 			VPEdgeStore edgeVPs,
 			VPNetworkStore netVPs,
-			VisualLexicon lexicon
+			VisualLexicon lexicon,
+			CyNetworkViewSnapshotImpl previous
 	) {
 		super(networkView.getSUID());
 		this.networkView = networkView;
@@ -85,10 +96,25 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 		this.netVPs = netVPs;
 		this.isBVL = lexicon instanceof BasicVisualLexicon;
 		this.isNeverHidden = networkView.isNeverHidden();
+		this.base = chooseBase(previous);
 		
 		this.spacialIndex = new SimpleSpacialIndex2DSnapshotImpl(this);
 	}
 	
+	private CyNetworkViewSnapshotImpl chooseBase(CyNetworkViewSnapshotImpl previous) {
+		if(previous == null)
+			return null;
+		if(previous.base == null)
+			return previous;
+		if(previous.createdViews.get() > REBASE_CREATED_VIEWS)
+			return null;
+		var candidate = previous.base;
+		// The views of the base can't be reused anymore once either store changed its epoch
+		if(candidate.nodeVPs.getChangeEpoch() != nodeVPs.getChangeEpoch() || candidate.edgeVPs.getChangeEpoch() != edgeVPs.getChangeEpoch())
+			return null;
+		return candidate;
+	}
+	
 	@Override
 	public VPStore getVPStore() {
 		return netVPs;
@@ -98,6 +124,10 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 		return isBVL;
 	}
 	
+	public VPNodeStore getNodeVPStore() {
+		return nodeVPs;
+	}
+	
 	// Tried to optimize visibility checking as much as possible without adding much overhead.
 	
 	private boolean isNodeVisible(Long nodeSuid) {
@@ -146,7 +176,14 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 		Long suid = mutableNodeView.getSUID();
 		var view = snapshotNodeViews.get(suid);
 		if(view == null && isNodeVisible(mutableNodeView)) {
-			view = new CyNodeViewSnapshotImpl(this, mutableNodeView);
+			var baseView = getBaseNodeView(suid);
+			if(baseView != null) {
+				view = new CyNodeViewSnapshotImpl(this, baseView);
+			} else {
+				view = new CyNodeViewSnapshotImpl(this, mutableNodeView);
+				if(base != null)
+					createdViews.incrementAndGet();
+			}
 			snapshotNodeViews.put(suid, view);
 		}
 		return view;
@@ -156,12 +193,38 @@ public class CyNetworkViewSnapshotImpl extends CyViewSnapshotBase<CyNetwork> imp
 		Long suid = mutableEdgeView.getSUID();
 		var view = snapshotEdgeViews.get(suid);
 		if(view == null && isEdgeVisible(mutableEdgeView)) {
-			view = new CyEdgeViewSnapshotImpl(this, mutableEdgeView);
+			var baseView = getBaseEdgeView(suid);
+			if(baseView != null) {
+				view = new CyEdgeViewSnapshotImpl(this, baseView);
+			} else {
+				view = new CyEdgeViewSnapshotImpl(this, mutableEdgeView);
+				if(base != null)
+					createdViews.incrementAndGet();
+			}
 			snapshotEdgeViews.put(suid, view);
 		}
 		return view;
 	}
 	
+	/**
+	 * Returns the view of the node in the base snapshot if it's still valid for this snapshot.
+	 */
+	private CyNodeViewSnapshotImpl getBaseNodeView(Long suid) {
+		if(base == null || nodeVPs.isChangedSince(suid, base.nodeVPs))
+			return null;
+		return base.snapshotNodeViews.get(suid);
+	}
+	
+	/**
+	 * Returns the view of the edge in the base snapshot if it's still valid for this snapshot.
+	 * The copy looks its source and target views up in this snapshot, so they may have changed.
+	 */
+	private CyEdgeViewSnapshotImpl getBaseEdgeView(Long suid) {
+		if(base == null || edgeVPs.isChangedSince(suid, base.edgeVPs))
+			return null;
+		return base.snapshotEdgeViews.get(suid);
+	}
+	
 	
 	@Override
 	public CyNetworkViewSnapshotImpl getNetworkSnapshot() {
@@ -5,6 +5,7 @@ import org.cytoscape.view.model.SnapshotNodeInfo;
 import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.model.internal.base.VPStore;
 import org.cytoscape.view.model.internal.network.CyNodeViewImpl;
+import org.cytoscape.view.model.internal.network.VPNodeStore;
 import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 
 public class CyNodeViewSnapshotImpl extends CyViewSnapshotBase<CyNode> implements SnapshotNodeInfo {
@@ -24,17 +25,32 @@ public class CyNodeViewSnapshotImpl extends CyViewSnapshotBase<CyNode> implement
 		
 		// cache these values, they get looked up a lot
 		if(parent.isBVL()) {
-			x = getDoubleVP(view, BasicVisualLexicon.NODE_X_LOCATION);
-			y = getDoubleVP(view, BasicVisualLexicon.NODE_Y_LOCATION);
-			w = getDoubleVP(view, BasicVisualLexicon.NODE_WIDTH);
-			h = getDoubleVP(view, BasicVisualLexicon.NODE_HEIGHT);
+			VPNodeStore nodeVPs = parent.getNodeVPStore();
+			Long suid = view.getSUID();
+			x = getDoubleVP(nodeVPs, suid, BasicVisualLexicon.NODE_X_LOCATION);
+			y = getDoubleVP(nodeVPs, suid, BasicVisualLexicon.NODE_Y_LOCATION);
+			w = getDoubleVP(nodeVPs, suid, BasicVisualLexicon.NODE_WIDTH);
+			h = getDoubleVP(nodeVPs, suid, BasicVisualLexicon.NODE_HEIGHT);
 		} else {
 			x = y = w = h = 0;
 		}
 	}
 	
-	private static double getDoubleVP(CyNodeViewImpl view, VisualProperty<Double> vp) {
-		Object val = view.getVisualProperty(vp);
+	/**
+	 * Creates a view for another snapshot of a node that did not change since the given view was created.
+	 */
+	public CyNodeViewSnapshotImpl(CyNetworkViewSnapshotImpl parent, CyNodeViewSnapshotImpl other) {
+		super(other);
+		this.parent = parent;
+		this.view = other.view;
+		this.x = other.x;
+		this.y = other.y;
+		this.w = other.w;
+		this.h = other.h;
+	}
+	
+	private static double getDoubleVP(VPNodeStore nodeVPs, Long suid, VisualProperty<Double> vp) {
+		Object val = nodeVPs.getVisualProperty(suid, vp);
 		if(val instanceof Number) {
 			return ((Number)val).doubleValue();
 		}
@@ -42,6 +58,11 @@ public class CyNodeViewSnapshotImpl extends CyViewSnapshotBase<CyNode> implement
 	}
 	
 	
+	@Override
+	protected <T> T getSpecialVisualProperty(Long suid, VisualProperty<T> vp) {
+		return parent.getNodeVPStore().getSpecialVisualProperty(suid, vp);
+	}
+	
 	@Override
 	public CyNetworkViewSnapshotImpl getNetworkSnapshot() {
 		return parent;
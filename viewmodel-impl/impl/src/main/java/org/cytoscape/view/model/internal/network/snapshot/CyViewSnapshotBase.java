@@ -22,6 +22,17 @@ public abstract class CyViewSnapshotBase<M> implements View<M> {
 		this.suid = suid;
 	}
 	
+	/**
+	 * Creates a view of the same element with the visual properties already looked up by the given view, 
+	 * which must still be valid.
+	 */
+	protected CyViewSnapshotBase(CyViewSnapshotBase<M> other) {
+		this.suid = other.suid;
+		this.visualProperties = other.visualProperties;
+		this.allLocks = other.allLocks;
+		this.directLocks = other.directLocks;
+	}
+	
 	@Override
 	public Long getSUID() {
 		return suid;
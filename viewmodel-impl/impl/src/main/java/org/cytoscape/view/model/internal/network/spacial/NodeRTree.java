@@ -0,0 +1,342 @@
+package org.cytoscape.view.model.internal.network.spacial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.cytoscape.view.model.internal.network.VPNodeStore;
+import org.cytoscape.view.model.internal.network.snapshot.CyNetworkViewSnapshotImpl;
+import org.cytoscape.view.model.internal.network.snapshot.CyNodeViewSnapshotImpl;
+
+/**
+ * An immutable packed R-tree of node bounding boxes, bulk loaded with the
+ * Sort-Tile-Recursive (STR) algorithm.
+ * <p>
+ * Entries (leaves) are identified by their slot, which is their position in the STR order.
+ * Each entry also has a rank, which is its position when all the nodes are sorted by Z.
+ * Queries return the slots of the matching entries ordered by rank, that's the order
+ * the renderer needs, so there is no need to sort the results by looking up Z values.
+ * <p>
+ * The tree does not reference the snapshot it was built from, so it can be handed to
+ * the next snapshot. If only the positions of a few nodes changed since then,
+ * {@link #update(CyNetworkViewSnapshotImpl)} creates a copy with just those
+ * entries moved, instead of building a new tree.
+ */
+public final class NodeRTree {
+
+	// Max number of children of each tree node
+	private static final int M = 16;
+
+	// Don't bother with incremental updates when this many nodes moved since the last full build.
+	private static final int MIN_UPDATE_LIMIT = 256;
+
+	private static final int XMIN = 0, YMIN = 1, XMAX = 2, YMAX = 3;
+
+	private final int size;
+	private final long[] suids;    // by slot
+	private final double[] z;      // by slot
+	private final int[] ranks;     // by slot
+	private final int[] slotByRank;
+
+	// for looking up the slot of a SUID with a binary search
+	private final long[] sortedSuids;
+	private final int[] sortedSlots;
+
+	// levels[0] are the entries, the last level has just the root, 4 floats per box
+	private final float[][] levels;
+
+	// The geometry version of the node VPs this tree reflects
+	private final long epoch;
+	private final long stamp;
+	private final int moved;
+
+
+	private NodeRTree(int size, long[] suids, double[] z, int[] ranks, int[] slotByRank, long[] sortedSuids,
+			int[] sortedSlots, float[][] levels, long epoch, long stamp, int moved) {
+		this.size = size;
+		this.suids = suids;
+		this.z = z;
+		this.ranks = ranks;
+		this.slotByRank = slotByRank;
+		this.sortedSuids = sortedSuids;
+		this.sortedSlots = sortedSlots;
+		this.levels = levels;
+		this.epoch = epoch;
+		this.stamp = stamp;
+		this.moved = moved;
+	}
+
+
+	public static NodeRTree build(CyNetworkViewSnapshotImpl snapshot) {
+		VPNodeStore nodeVPs = snapshot.getNodeVPStore();
+		List<CyNodeViewSnapshotImpl> nodes = snapshot.getSnapshotNodeViews();
+		final int n = nodes.size();
+
+		// Z order, ties are broken by the iteration order of the snapshot
+		double[] inputZ = new double[n];
+		boolean sameZ = true;
+		for(int i = 0; i < n; i++) {
+			inputZ[i] = getZ(snapshot, nodes.get(i).getSUID());
+			sameZ &= inputZ[i] == inputZ[0];
+		}
+		int[] inputRanks = new int[n];
+		if(sameZ) {
+			for(int i = 0; i < n; i++)
+				inputRanks[i] = i;
+		} else {
+			Integer[] byZ = new Integer[n];
+			for(int i = 0; i < n; i++)
+				byZ[i] = i;
+			Arrays.sort(byZ, (a, b) -> Double.compare(inputZ[a], inputZ[b])); // stable
+			for(int r = 0; r < n; r++)
+				inputRanks[byZ[r]] = r;
+		}
+
+		// STR: sort by center x, cut into vertical slices, sort each slice by center y
+		int leafCount = (n + M - 1) / M;
+		int sliceSize = Math.max(1, (int) Math.ceil(Math.sqrt(leafCount))) * M;
+
+		long[] keys = new long[n];
+		for(int i = 0; i < n; i++) {
+			keys[i] = sortKey(nodes.get(i).x, i);
+		}
+		Arrays.sort(keys);
+
+		int[] order = new int[n];
+		long[] sliceKeys = new long[Math.min(n, sliceSize)];
+		for(int start = 0; start < n; start += sliceSize) {
+			int end = Math.min(n, start + sliceSize);
+			for(int k = start; k < end; k++) {
+				int i = (int) keys[k];
+				sliceKeys[k - start] = sortKey(nodes.get(i).y, i);
+			}
+			Arrays.sort(sliceKeys, 0, end - start);
+			for(int k = start; k < end; k++) {
+				order[k] = (int) sliceKeys[k - start];
+			}
+		}
+
+		long[] suids = new long[n];
+		double[] z = new double[n];
+		int[] ranks = new int[n];
+		int[] slotByRank = new int[n];
+		float[] leaves = new float[n * 4];
+		for(int slot = 0; slot < n; slot++) {
+			int i = order[slot];
+			CyNodeViewSnapshotImpl node = nodes.get(i);
+			suids[slot] = node.getSUID();
+			z[slot] = inputZ[i];
+			ranks[slot] = inputRanks[i];
+			slotByRank[inputRanks[i]] = slot;
+			setBox(leaves, slot, node);
+		}
+
+		long[] sortedSuids = suids.clone();
+		Arrays.sort(sortedSuids);
+		int[] sortedSlots = new int[n];
+		for(int slot = 0; slot < n; slot++) {
+			sortedSlots[Arrays.binarySearch(sortedSuids, suids[slot])] = slot;
+		}
+
+		List<float[]> levels = new ArrayList<>();
+		levels.add(leaves);
+		float[] level = leaves;
+		int count = n;
+		while(count > 1) {
+			int parentCount = (count + M - 1) / M;
+			float[] parents = new float[parentCount * 4];
+			for(int p = 0; p < parentCount; p++) {
+				union(parents, p, level, count);
+			}
+			levels.add(parents);
+			level = parents;
+			count = parentCount;
+		}
+
+		return new NodeRTree(n, suids, z, ranks, slotByRank, sortedSuids, sortedSlots,
+				levels.toArray(new float[0][]), nodeVPs.getGeometryEpoch(), nodeVPs.getGeometryStamp(), 0);
+	}
+
+
+	/**
+	 * Returns a tree for the given snapshot that is derived from this one, or null if a new tree
+	 * has to be built. That is the case when nodes were added, removed, hidden or shown, a Z value changed,
+	 * or so many nodes moved that the boxes of the tree would become too loose.
+	 */
+	public NodeRTree update(CyNetworkViewSnapshotImpl snapshot) {
+		VPNodeStore nodeVPs = snapshot.getNodeVPStore();
+		if(nodeVPs.getGeometryEpoch() != epoch || nodeVPs.getGeometryStamp() < stamp)
+			return null;
+		if(nodeVPs.getGeometryStamp() == stamp)
+			return this;
+
+		int limit = Math.max(MIN_UPDATE_LIMIT, size / 16) - moved;
+		int count = 0;
+		float[][] newLevels = null;
+
+		for(var change : nodeVPs.getGeometryChanges()) {
+			if(change._2 <= stamp)
+				continue;
+			if(++count > limit)
+				return null;
+
+			Long suid = change._1;
+			int slot = getSlot(suid);
+			if(slot < 0)
+				return null;
+			CyNodeViewSnapshotImpl node = snapshot.getNodeView(suid);
+			if(node == null || getZ(snapshot, suid) != z[slot])
+				return null;
+
+			if(newLevels == null) {
+				newLevels = new float[levels.length][];
+				for(int l = 0; l < levels.length; l++)
+					newLevels[l] = levels[l].clone();
+			}
+
+			setBox(newLevels[0], slot, node);
+			int child = slot;
+			int childCount = size;
+			for(int l = 1; l < newLevels.length; l++) {
+				int parent = child / M;
+				union(newLevels[l], parent, newLevels[l-1], childCount);
+				child = parent;
+				childCount = (childCount + M - 1) / M;
+			}
+		}
+
+		return new NodeRTree(size, suids, z, ranks, slotByRank, sortedSuids, sortedSlots,
+				newLevels == null ? levels : newLevels, epoch, nodeVPs.getGeometryStamp(), moved + count);
+	}
+
+
+	/**
+	 * Returns the slots of all the entries that overlap the given rectangle, sorted by Z,
+	 * or null if the query was cancelled.
+	 */
+	public int[] query(float xMin, float yMin, float xMax, float yMax, BooleanSupplier isCancelled) {
+		if(size == 0)
+			return new int[0];
+
+		int[] result = new int[16];
+		int resultSize = 0;
+
+		int[] stackLevel = new int[levels.length * M + 1];
+		int[] stackIndex = new int[levels.length * M + 1];
+		int top = 0;
+		stackLevel[0] = levels.length - 1;
+		stackIndex[0] = 0;
+		int visited = 0;
+
+		while(top >= 0) {
+			if((++visited & 0x3FF) == 0 && isCancelled != null && isCancelled.getAsBoolean())
+				return null;
+
+			int level = stackLevel[top];
+			int index = stackIndex[top];
+			top--;
+
+			float[] boxes = levels[level];
+			int b = index * 4;
+			if(boxes[b+XMIN] > xMax || xMin > boxes[b+XMAX] || boxes[b+YMIN] > yMax || yMin > boxes[b+YMAX])
+				continue;
+
+			if(level == 0) {
+				if(resultSize == result.length)
+					result = Arrays.copyOf(result, resultSize * 2);
+				result[resultSize++] = ranks[index];
+			} else {
+				int childCount = levels[level-1].length / 4;
+				int end = Math.min(childCount, (index + 1) * M);
+				for(int c = index * M; c < end; c++) {
+					top++;
+					stackLevel[top] = level - 1;
+					stackIndex[top] = c;
+				}
+			}
+		}
+
+		Arrays.sort(result, 0, resultSize);
+		for(int i = 0; i < resultSize; i++) {
+			result[i] = slotByRank[result[i]];
+		}
+		return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+	}
+
+
+	public int size() {
+		return size;
+	}
+
+	public long getSUID(int slot) {
+		return suids[slot];
+	}
+
+	/**
+	 * Returns the slot of the node, or -1 if the node is not in the tree.
+	 */
+	public int getSlot(long suid) {
+		int i = Arrays.binarySearch(sortedSuids, suid);
+		return i < 0 ? -1 : sortedSlots[i];
+	}
+
+	/**
+	 * Returns the minimum bounding rectangle of all the entries as { xMin, yMin, xMax, yMax }.
+	 */
+	public float[] getMBR() {
+		if(size == 0)
+			return new float[4];
+		return Arrays.copyOf(levels[levels.length - 1], 4);
+	}
+
+	public long getEpoch() {
+		return epoch;
+	}
+
+	public long getStamp() {
+		return stamp;
+	}
+
+
+	private static double getZ(CyNetworkViewSnapshotImpl snapshot, Long suid) {
+		Double z = snapshot.getNodeZ(suid);
+		return z == null ? 0.0 : z;
+	}
+
+	private static void setBox(float[] boxes, int slot, CyNodeViewSnapshotImpl node) {
+		int b = slot * 4;
+		boxes[b+XMIN] = (float) (node.x - (node.w/2));
+		boxes[b+YMIN] = (float) (node.y - (node.h/2));
+		boxes[b+XMAX] = (float) (node.x + (node.w/2));
+		boxes[b+YMAX] = (float) (node.y + (node.h/2));
+	}
+
+	private static void union(float[] parents, int parent, float[] children, int childCount) {
+		int start = parent * M;
+		int end = Math.min(childCount, start + M);
+		float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY;
+		float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY;
+		for(int c = start; c < end; c++) {
+			int b = c * 4;
+			xMin = Math.min(xMin, children[b+XMIN]);
+			yMin = Math.min(yMin, children[b+YMIN]);
+			xMax = Math.max(xMax, children[b+XMAX]);
+			yMax = Math.max(yMax, children[b+YMAX]);
+		}
+		int p = parent * 4;
+		parents[p+XMIN] = xMin;
+		parents[p+YMIN] = yMin;
+		parents[p+XMAX] = xMax;
+		parents[p+YMAX] = yMax;
+	}
+
+	/**
+	 * Packs a coordinate and an index into a long that sorts by the coordinate.
+	 */
+	private static long sortKey(double coord, int index) {
+		int bits = Float.floatToIntBits((float) coord);
+		bits ^= (bits >> 31) & 0x7FFFFFFF;
+		return ((long) bits << 32) | (index & 0xFFFFFFFFL);
+	}
+}
@@ -1,7 +1,6 @@
 package org.cytoscape.view.model.internal.network.spacial;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -13,6 +12,7 @@ import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.SnapshotEdgeInfo;
 import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.internal.network.CyNetworkViewImpl;
 import org.cytoscape.view.model.internal.network.snapshot.CyNetworkViewSnapshotImpl;
 import org.cytoscape.view.model.internal.network.snapshot.CyNodeViewSnapshotImpl;
 import org.cytoscape.view.model.spacial.EdgeSpacialIndex2DEnumerator;
@@ -20,15 +20,26 @@ import org.cytoscape.view.model.spacial.NetworkSpacialIndex2D;
 import org.cytoscape.view.model.spacial.NodeSpacialIndex2DEnumerator;
 import org.cytoscape.view.model.spacial.SpacialIndex2DEnumerator;
 
+/**
+ * Node queries are answered by a {@link NodeRTree} that is built the first time the index is used.
+ * When possible the tree is derived from the one built for a previous snapshot of the same 
+ * network view, which is a lot cheaper than building it from scratch when only a few nodes moved.
+ */
 public class SimpleSpacialIndex2DSnapshotImpl implements NetworkSpacialIndex2D {
 
+	// Small results (e.g. from picking a node under the mouse) are cheap to compute again, 
+	// don't let them replace the cached results of the query for the visible area.
+	private static final int MIN_CACHED_RESULTS = 64;
+	
 	private final CyNetworkViewSnapshotImpl snapshot;
 	
 	// The snapshot is immutable so we can cache whatever we want
 	private double[] mbrd = null;
 	private float[]  mbrf = null;
 	
-	private Comparator<View<CyNode>> nodeZComparator;
+	private volatile NodeRTree tree;
+	private volatile CyNodeViewSnapshotImpl[] nodesBySlot;
+	
 	private Comparator<View<CyEdge>> edgeZComparator;
 	
 	private QueryResults cachedQueryResults;
@@ -36,10 +47,43 @@ public class SimpleSpacialIndex2DSnapshotImpl implements NetworkSpacialIndex2D {
 	
 	public SimpleSpacialIndex2DSnapshotImpl(CyNetworkViewSnapshotImpl snapshot) {
 		this.snapshot = snapshot;
-		this.nodeZComparator = Comparator.comparing(node -> snapshot.getNodeZ(node.getSUID()));
 		this.edgeZComparator = Comparator.comparing(edge -> snapshot.getEdgeZ(edge.getSUID()));
 	}
 	
+	
+	private NodeRTree getTree() {
+		NodeRTree t = tree;
+		if(t == null) {
+			synchronized(this) {
+				t = tree;
+				if(t == null) {
+					CyNetworkViewImpl networkView = snapshot.getMutableNetworkView();
+					NodeRTree last = networkView.getLastNodeTree();
+					if(last != null)
+						t = last.update(snapshot);
+					if(t == null)
+						t = NodeRTree.build(snapshot);
+					
+					networkView.offerNodeTree(t);
+					nodesBySlot = new CyNodeViewSnapshotImpl[t.size()];
+					tree = t;
+				}
+			}
+		}
+		return t;
+	}
+	
+	private CyNodeViewSnapshotImpl getNode(NodeRTree t, int slot) {
+		// Racy but harmless, at worst the node is looked up twice.
+		CyNodeViewSnapshotImpl[] nodes = nodesBySlot;
+		CyNodeViewSnapshotImpl node = nodes[slot];
+		if(node == null) {
+			node = snapshot.getNodeView(t.getSUID(slot));
+			nodes[slot] = node;
+		}
+		return node;
+	}
+	
 
 	@Override
 	public void getMBR(float[] extents) {
@@ -66,47 +110,23 @@ public class SimpleSpacialIndex2DSnapshotImpl implements NetworkSpacialIndex2D {
 
 	private void initMBR() {
 		if(mbrd == null || mbrf == null) {
-			Iterator<CyNodeViewSnapshotImpl> iter = snapshot.getSnapshotNodeViews().iterator();
-			if(!iter.hasNext()) {
-				mbrd = new double[4];
-				mbrf = new float[4];
-			} else {
-				CyNodeViewSnapshotImpl node = iter.next();
-				double x = node.x;
-				double y = node.y;
-				double h = node.h;
-				double w = node.w;
-				
-				double xMin = x - (w/2);
-				double xMax = x + (w/2);
-				double yMin = y - (h/2);
-				double yMax = y + (h/2);
-				
-				while(iter.hasNext()) {
-					node = iter.next();
-					x = node.x;
-					y = node.y;
-					h = node.h;
-					w = node.w;
-					
-					xMin = Math.min(xMin, x - (w/2));
-					xMax = Math.max(xMax, x + (w/2));
-					yMin = Math.min(yMin, y - (h/2));
-					yMax = Math.max(yMax, y + (h/2));
-				}
-				
-				mbrd = new double[4];
-				mbrd[X_MIN] = xMin;
-				mbrd[X_MAX] = xMax;
-				mbrd[Y_MIN] = yMin;
-				mbrd[Y_MAX] = yMax;
-				
-				mbrf = new float[4];
-				mbrf[X_MIN] = (float) xMin;
-				mbrf[X_MAX] = (float) xMax;
-				mbrf[Y_MIN] = (float) yMin;
-				mbrf[Y_MAX] = (float) yMax;
-			}
+			// the root of the tree is the MBR, it's in the order xMin, yMin, xMax, yMax
+			float[] root = getTree().getMBR();
+			
+			double[] d = new double[4];
+			d[X_MIN] = root[0];
+			d[Y_MIN] = root[1];
+			d[X_MAX] = root[2];
+			d[Y_MAX] = root[3];
+			
+			float[] f = new float[4];
+			f[X_MIN] = root[0];
+			f[Y_MIN] = root[1];
+			f[X_MAX] = root[2];
+			f[Y_MAX] = root[3];
+			
+			mbrd = d;
+			mbrf = f;
 		}
 	}
 	
@@ -179,29 +199,23 @@ public class SimpleSpacialIndex2DSnapshotImpl implements NetworkSpacialIndex2D {
 			return cache;
 		}
 		
-		List<CyNodeViewSnapshotImpl> overlapNodes = new ArrayList<>();
-		for(var node : snapshot.getSnapshotNodeViews()) {
-			if(isCancelled != null && isCancelled.getAsBoolean()) {
-				return null;
-			}
-			
-			double x = node.x;
-			double y = node.y;
-			double h = node.h;
-			double w = node.w;
-			double aMin = x - (w/2);
-			double aMax = x + (w/2);
-			double bMin = y - (h/2);
-			double bMax = y + (h/2);
-			
-			if(intersects(xMin,yMin,xMax,yMax,  aMin,bMin,aMax,bMax)) {
-				overlapNodes.add(node);
-			}
+		NodeRTree t = getTree();
+		int[] slots = t.query(xMin, yMin, xMax, yMax, isCancelled);
+		if(slots == null) {
+			return null;
+		}
+		
+		// The tree returns the nodes already sorted by Z
+		List<CyNodeViewSnapshotImpl> overlapNodes = new ArrayList<>(slots.length);
+		for(int slot : slots) {
+			overlapNodes.add(getNode(t, slot));
 		}
 		
-		Collections.sort(overlapNodes, nodeZComparator);
-		cachedQueryResults = new QueryResults(xMin, yMin, xMax, yMax, overlapNodes);
-		return cachedQueryResults;
+		var results = new QueryResults(xMin, yMin, xMax, yMax, overlapNodes);
+		if(overlapNodes.size() >= MIN_CACHED_RESULTS) {
+			cachedQueryResults = results;
+		}
+		return results;
 	}
 	
 	@Override
@@ -247,12 +261,6 @@ public class SimpleSpacialIndex2DSnapshotImpl implements NetworkSpacialIndex2D {
 	}
 	
 
-	private static boolean intersects(float x1, float y1, float x2, float y2, 
-			double a1, double b1, double a2, double b2) {
-		return x1 <= a2 && a1 <= x2 && y1 <= b2 && b1 <= y2;
-	}
-	
-	
 	private class QueryResults {
 		
 		private final float xMin;
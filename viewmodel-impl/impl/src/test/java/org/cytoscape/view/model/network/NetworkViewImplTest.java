@@ -30,6 +30,8 @@ import org.cytoscape.view.model.events.ViewChangedEvent;
 import org.cytoscape.view.model.internal.base.VPStore;
 import org.cytoscape.view.model.internal.network.CyNetworkViewImpl;
 import org.cytoscape.view.model.internal.network.CyNodeViewImpl;
+import org.cytoscape.view.model.internal.network.snapshot.CyEdgeViewSnapshotImpl;
+import org.cytoscape.view.model.internal.network.snapshot.CyNodeViewSnapshotImpl;
 import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 import org.junit.Test;
 
@@ -128,6 +130,47 @@ public class NetworkViewImplTest {
 	}
 	
 	
+	@Test
+	public void testSnapshotReusesUnchangedViews() {
+		CyNetworkViewImpl networkView = createSquareTestNetworkView();
+		CyNetwork network = networkView.getModel();
+		List<CyNode> nodes = network.getNodeList();
+		CyNode n0 = nodes.get(0);
+		CyNode n1 = nodes.get(1);
+		List<CyEdge> n0Edges = network.getAdjacentEdgeList(n0, CyEdge.Type.ANY);
+		CyEdge e = network.getEdgeList().stream().filter(edge -> !n0Edges.contains(edge)).findFirst().get();
+		
+		CyNetworkViewSnapshot snapshot1 = networkView.createSnapshot();
+		View<CyNode> n1View1 = snapshot1.getNodeView(n1);
+		View<CyEdge> eView1 = snapshot1.getEdgeView(e);
+		snapshot1.getEdgeView(n0Edges.get(0));
+		
+		networkView.getNodeView(n0).setVisualProperty(NODE_X_LOCATION, 100.0);
+		
+		// views of unchanged elements are copied from the previous snapshot, but belong to the new one
+		CyNetworkViewSnapshot snapshot2 = networkView.createSnapshot();
+		View<CyNode> n1View2 = snapshot2.getNodeView(n1);
+		View<CyEdge> eView2 = snapshot2.getEdgeView(e);
+		assertNotSame(n1View1, n1View2);
+		assertSame(snapshot2, ((CyNodeViewSnapshotImpl) n1View2).getNetworkSnapshot());
+		assertSame(snapshot2, ((CyEdgeViewSnapshotImpl) eView2).getNetworkSnapshot());
+		assertEquals(n1View1.getVisualProperty(NODE_X_LOCATION), n1View2.getVisualProperty(NODE_X_LOCATION));
+		assertEquals(eView1.getVisualProperty(EDGE_WIDTH), eView2.getVisualProperty(EDGE_WIDTH));
+		assertEquals(100.0, snapshot2.getNodeView(n0).getVisualProperty(NODE_X_LOCATION), 0.0);
+		
+		// the edges of the changed node find its new view
+		View<CyNode> n0View2 = snapshot2.getNodeView(n0);
+		SnapshotEdgeInfo n0EdgeView2 = (SnapshotEdgeInfo) snapshot2.getEdgeView(n0Edges.get(0));
+		assertTrue(n0EdgeView2.getSourceNodeView() == n0View2 || n0EdgeView2.getTargetNodeView() == n0View2);
+		assertEquals(NODE_X_LOCATION.getDefault(), snapshot1.getNodeView(n0).getVisualProperty(NODE_X_LOCATION));
+		
+		// changing a default invalidates all the views
+		networkView.setViewDefault(NODE_PAINT, Color.RED);
+		CyNetworkViewSnapshot snapshot3 = networkView.createSnapshot();
+		assertEquals(Color.RED, snapshot3.getNodeView(n1).getVisualProperty(NODE_PAINT));
+	}
+	
+	
 	@Test
 	public void testRemoveNode() {
 		CyNetworkViewImpl netView = createSquareTestNetworkView();
@@ -250,7 +293,76 @@ public class NetworkViewImplTest {
 		assertEquals(0.0, netView.getVisualProperty(NETWORK_CENTER_X_LOCATION), 0.0);
 		assertFalse(netView.isSet(NETWORK_CENTER_X_LOCATION));
 	}
-	
+
+
+	@Test
+	public void testNodeColumnVisualProperties() {
+		CyNetworkViewImpl netView = createSquareTestNetworkView();
+		CyNetwork network = netView.getModel();
+
+		// enough nodes to span several chunks
+		List<CyNode> nodes = new ArrayList<>(network.getNodeList());
+		for(int i = 0; i < 2500; i++) {
+			CyNode n = network.addNode();
+			netView.addNode(n);
+			nodes.add(n);
+		}
+
+		View<CyNode> n0 = netView.getNodeView(nodes.get(0));
+		assertEquals(NODE_X_LOCATION.getDefault(), n0.getVisualProperty(NODE_X_LOCATION));
+		assertFalse(n0.isSet(NODE_X_LOCATION));
+
+		for(int i = 0; i < nodes.size(); i++) {
+			View<CyNode> nv = netView.getNodeView(nodes.get(i));
+			nv.setVisualProperty(NODE_X_LOCATION, (double) i);
+			nv.setVisualProperty(NODE_Y_LOCATION, i * 2); // Integer is converted to Double
+		}
+		n0.setVisualProperty(NODE_VISIBLE, false);
+
+		assertEquals(0.0, n0.getVisualProperty(NODE_X_LOCATION), 0.0);
+		assertTrue(n0.isSet(NODE_X_LOCATION));
+		assertFalse(n0.isSet(NODE_WIDTH));
+		assertEquals(Boolean.FALSE, n0.getVisualProperty(NODE_VISIBLE));
+		assertEquals(Double.valueOf(4000.0), netView.getNodeView(nodes.get(2000)).getVisualProperty(NODE_Y_LOCATION));
+
+		CyNetworkViewSnapshot snapshot = netView.createSnapshot();
+
+		for(int i = 0; i < nodes.size(); i++) {
+			netView.getNodeView(nodes.get(i)).setVisualProperty(NODE_X_LOCATION, -1.0);
+		}
+
+		// snapshot should not be affected
+		assertNull(snapshot.getNodeView(nodes.get(0)));
+		for(int i = 1; i < nodes.size(); i++) {
+			View<CyNode> nv = snapshot.getNodeView(nodes.get(i));
+			assertEquals(i, nv.getVisualProperty(NODE_X_LOCATION), 0.0);
+			assertEquals(i * 2, nv.getVisualProperty(NODE_Y_LOCATION), 0.0);
+			assertTrue(nv.isSet(NODE_X_LOCATION));
+		}
+		assertEquals(-1.0, netView.getNodeView(nodes.get(2000)).getVisualProperty(NODE_X_LOCATION), 0.0);
+
+		// clearing and setting to null removes the values
+		n0.setVisualProperty(NODE_VISIBLE, null);
+		assertFalse(n0.isSet(NODE_VISIBLE));
+		assertEquals(Boolean.TRUE, n0.getVisualProperty(NODE_VISIBLE));
+
+		View<CyNode> n1 = netView.getNodeView(nodes.get(1));
+		n1.setVisualProperty(NODE_WIDTH, 50.0);
+		n1.clearVisualProperties();
+		assertFalse(n1.isSet(NODE_WIDTH));
+		assertTrue(n1.isSet(NODE_X_LOCATION)); // not clearable
+		n1.setVisualProperty(NODE_Y_LOCATION, null);
+		assertFalse(n1.isSet(NODE_Y_LOCATION));
+		assertEquals(NODE_Y_LOCATION.getDefault(), n1.getVisualProperty(NODE_Y_LOCATION));
+
+		// the values of a removed node are not inherited by a new node
+		netView.removeNode(nodes.get(2));
+		CyNode n = network.addNode();
+		View<CyNode> nv = netView.addNode(n);
+		assertFalse(nv.isSet(NODE_X_LOCATION));
+		assertEquals(NODE_X_LOCATION.getDefault(), nv.getVisualProperty(NODE_X_LOCATION));
+	}
+
 	
 	@Test
 	public void testVisualPropertyEvents() {
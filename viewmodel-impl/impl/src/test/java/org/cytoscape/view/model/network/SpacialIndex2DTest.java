@@ -4,9 +4,13 @@ import static org.cytoscape.view.model.network.NetworkViewTestUtils.*;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.*;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
@@ -14,6 +18,7 @@ import org.cytoscape.model.CyNode;
 import org.cytoscape.model.NetworkTestSupport;
 import org.cytoscape.view.model.CyNetworkViewSnapshot;
 import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.model.internal.network.CyNetworkViewImpl;
 import org.cytoscape.view.model.spacial.EdgeSpacialIndex2DEnumerator;
 import org.cytoscape.view.model.spacial.NetworkSpacialIndex2D;
@@ -392,4 +397,113 @@ public class SpacialIndex2DTest {
 		nodes2 = spacialIndex.queryOverlapNodes(-1000, -1000, 1000, 1000, () -> false);
 		assertNotNull(nodes2);
 	}
-}
\ No newline at end of file
+	
+	
+	@Test
+	public void testQueryLargeNetwork() {
+		CyNetwork network = networkSupport.getNetwork();
+		CyNetworkViewImpl networkView = createNetworkView(network);
+		
+		Random random = new Random(42);
+		List<View<CyNode>> nodeViews = new ArrayList<>();
+		for(int i = 0; i < 2000; i++) {
+			View<CyNode> nv = networkView.addNode(network.addNode());
+			setGeometry(nv, random.nextInt(1000), random.nextInt(1000), 10, 10, random.nextInt(20));
+			nodeViews.add(nv);
+		}
+		
+		CyNetworkViewSnapshot snapshot = networkView.createSnapshot();
+		NetworkSpacialIndex2D spacialIndex = snapshot.getSpacialIndex2D();
+		
+		float[][] queries = {
+			{ 0, 0, 100, 100 }, { 250, 400, 600, 420 }, { 500, 500, 500, 500 }, { -50, -50, 2000, 2000 }, { 2000, 2000, 3000, 3000 }
+		};
+		for(float[] q : queries) {
+			List<Long> actual = enumToList(spacialIndex.queryOverlapNodes(q[0], q[1], q[2], q[3], null));
+			assertOverlap(snapshot, nodeViews, q, actual);
+		}
+	}
+	
+	
+	@Test
+	public void testIndexUpdatedWhenNodesMove() {
+		CyNetwork network = networkSupport.getNetwork();
+		CyNetworkViewImpl networkView = createNetworkView(network);
+		
+		List<View<CyNode>> nodeViews = new ArrayList<>();
+		for(int i = 0; i < 500; i++) {
+			View<CyNode> nv = networkView.addNode(network.addNode());
+			setGeometry(nv, (i % 25) * 10, (i / 25) * 10, 4, 4, i % 3);
+			nodeViews.add(nv);
+		}
+		
+		CyNetworkViewSnapshot snapshot1 = networkView.createSnapshot();
+		float[] q = { -5, -5, 15, 15 };
+		List<Long> before = enumToList(snapshot1.getSpacialIndex2D().queryOverlapNodes(q[0], q[1], q[2], q[3], null));
+		assertEquals(4, before.size());
+		
+		// move a few nodes into the query area and one out of it
+		View<CyNode> moved1 = nodeViews.get(300);
+		View<CyNode> moved2 = nodeViews.get(499);
+		moved1.setVisualProperty(NODE_X_LOCATION, 5.0);
+		moved1.setVisualProperty(NODE_Y_LOCATION, 5.0);
+		moved2.setVisualProperty(NODE_X_LOCATION, 1.0);
+		moved2.setVisualProperty(NODE_Y_LOCATION, 1.0);
+		nodeViews.get(0).setVisualProperty(NODE_X_LOCATION, 500.0);
+		
+		CyNetworkViewSnapshot snapshot2 = networkView.createSnapshot();
+		List<Long> after = enumToList(snapshot2.getSpacialIndex2D().queryOverlapNodes(q[0], q[1], q[2], q[3], null));
+		assertOverlap(snapshot2, nodeViews, q, after);
+		assertEquals(5, after.size());
+		assertTrue(after.contains(moved1.getSUID()));
+		assertTrue(after.contains(moved2.getSUID()));
+		assertFalse(after.contains(nodeViews.get(0).getSUID()));
+		assertMBR(snapshot2, -2, -2, 502, 192);
+		
+		// the old snapshot is not affected
+		assertEquals(before, enumToList(snapshot1.getSpacialIndex2D().queryOverlapNodes(q[0], q[1], q[2], q[3], null)));
+		
+		// changing Z and adding a node still give correct results
+		moved1.setVisualProperty(NODE_Z_LOCATION, 100.0);
+		View<CyNode> added = networkView.addNode(network.addNode());
+		setGeometry(added, 2, 2, 4, 4, -1);
+		nodeViews.add(added);
+		
+		CyNetworkViewSnapshot snapshot3 = networkView.createSnapshot();
+		List<Long> after3 = enumToList(snapshot3.getSpacialIndex2D().queryOverlapNodes(q[0], q[1], q[2], q[3], null));
+		assertOverlap(snapshot3, nodeViews, q, after3);
+		assertEquals(added.getSUID(), after3.get(0));
+		assertEquals(moved1.getSUID(), after3.get(after3.size() - 1));
+	}
+	
+	
+	private static void assertOverlap(CyNetworkViewSnapshot snapshot, List<View<CyNode>> nodeViews, float[] q, List<Long> actual) {
+		Set<Long> expected = new HashSet<>();
+		for(View<CyNode> nv : nodeViews) {
+			View<CyNode> snv = snapshot.getNodeView(nv.getModel());
+			if(snv == null)
+				continue;
+			double x = getDouble(snv, NODE_X_LOCATION);
+			double y = getDouble(snv, NODE_Y_LOCATION);
+			double w = getDouble(snv, NODE_WIDTH);
+			double h = getDouble(snv, NODE_HEIGHT);
+			if(x - w/2 <= q[2] && q[0] <= x + w/2 && y - h/2 <= q[3] && q[1] <= y + h/2)
+				expected.add(snv.getSUID());
+		}
+		assertEquals(expected.size(), actual.size());
+		assertEquals(expected, new HashSet<>(actual));
+		
+		// results must be sorted by Z
+		double prevZ = Double.NEGATIVE_INFINITY;
+		for(Long suid : actual) {
+			double z = getDouble(snapshot.getNodeView(suid), NODE_Z_LOCATION);
+			assertTrue(prevZ <= z);
+			prevZ = z;
+		}
+	}
+	
+	private static double getDouble(View<CyNode> nv, VisualProperty<Double> vp) {
+		Object value = nv.getVisualProperty(vp);
+		return ((Number) value).doubleValue();
+	}
+}